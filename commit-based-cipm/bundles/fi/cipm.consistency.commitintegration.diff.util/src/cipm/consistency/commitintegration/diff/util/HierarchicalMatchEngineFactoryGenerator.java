@@ -5,7 +5,7 @@ import java.util.List;
 import org.eclipse.emf.compare.match.IMatchEngine;
 import org.eclipse.emf.compare.match.eobject.EqualityHelperExtensionProvider;
 import org.eclipse.emf.compare.match.eobject.EqualityHelperExtensionProviderDescriptorRegistryImpl;
-import org.eclipse.emf.compare.rcp.EMFCompareRCPPlugin;
+import org.eclipse.emf.compare.match.impl.MatchEngineFactoryRegistryImpl;
 import org.eclipse.emf.compare.utils.EqualityHelper;
 import org.splevo.diffing.match.HierarchicalMatchEngineFactory;
 import org.splevo.diffing.match.HierarchicalStrategyResourceMatcher;
@@ -33,26 +33,40 @@ public final class HierarchicalMatchEngineFactoryGenerator {
 	 * @return the generated factory.
 	 */
 	public static HierarchicalMatchEngineFactory generateMatchEngineFactory(SimilarityChecker simChecker, String key) {
+		return createMatchEngineFactoryBuilder(simChecker, key).build();
+	}
+	
+	/**
+	 * Creates a builder for a HierarchicalMatchEngineFactory with the required dependencies already set. The optional
+	 * strategies, e.g., to pre-select the match candidates, can be added before the factory is built.
+	 * 
+	 * @param simChecker the SimilarityChecker which is internally used to compare model elements.
+	 * @param key a key to identify the compared models.
+	 * @return the preconfigured builder.
+	 */
+	public static HierarchicalMatchEngineFactory.Builder createMatchEngineFactoryBuilder(SimilarityChecker simChecker,
+			String key) {
 		EqualityHelperExtensionProvider.Descriptor.Registry descRegistryImpl =
 				EqualityHelperExtensionProviderDescriptorRegistryImpl.createStandaloneInstance();
 		descRegistryImpl.put(key, new SimilarityCheckerBasedEqualityHelperExtensionProviderDescriptor(simChecker));
-		return new HierarchicalMatchEngineFactory(
-				new EqualityHelper(EqualityHelper.createDefaultCache(
-						CacheBuilder.newBuilder()), descRegistryImpl),
-				new JaMoPPEqualityStrategy(simChecker),
-				new JaMoPPIgnoreStrategy(new PackageIgnoreChecker(List.of())),
-				new HierarchicalStrategyResourceMatcher());
+		return HierarchicalMatchEngineFactory.builder()
+				.equalityHelper(() -> new EqualityHelper(EqualityHelper.createDefaultCache(
+						CacheBuilder.newBuilder()), descRegistryImpl))
+				.equalityStrategy(new JaMoPPEqualityStrategy(simChecker))
+				.ignoreStrategy(new JaMoPPIgnoreStrategy(new PackageIgnoreChecker(List.of())))
+				.resourceMatcher(HierarchicalStrategyResourceMatcher::new);
 	}
 	
 	/**
-	 * Generates a registry with a specific match engine.
+	 * Generates a standalone registry with a specific match engine. The global registry of EMF Compare is not modified,
+	 * so generating registries repeatedly does not accumulate factories.
 	 * 
 	 * @param engineFactory the MatchEngineFactory which is registered in the generated registry.
 	 * @return the generated registry.
 	 */
 	public static IMatchEngine.Factory.Registry generateMatchEngineRegistry(HierarchicalMatchEngineFactory engineFactory) {
 		engineFactory.setRanking(20);
-		var engineRegistry = EMFCompareRCPPlugin.getDefault().getMatchEngineFactoryRegistry();
+		var engineRegistry = new MatchEngineFactoryRegistryImpl();
 		engineRegistry.add(engineFactory);
 		return engineRegistry;
 	}
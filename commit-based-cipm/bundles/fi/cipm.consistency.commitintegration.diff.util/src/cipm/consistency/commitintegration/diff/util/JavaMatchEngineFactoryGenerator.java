@@ -1,6 +1,8 @@
 package cipm.consistency.commitintegration.diff.util;
 
 import org.splevo.diffing.match.HierarchicalMatchEngineFactory;
+import org.splevo.jamopp.diffing.match.JaMoPPCandidateKeyStrategy;
+import org.splevo.jamopp.diffing.match.JaMoPPSubtreeHashStrategy;
 import org.splevo.jamopp.diffing.similarity.SimilarityChecker;
 
 /**
@@ -18,6 +20,19 @@ public final class JavaMatchEngineFactoryGenerator {
 	 * @return the generated factory.
 	 */
 	public static HierarchicalMatchEngineFactory generateMatchEngineFactory() {
-		return HierarchicalMatchEngineFactoryGenerator.generateMatchEngineFactory(new SimilarityChecker(), "javaxmi");
+		return createMatchEngineFactoryBuilder().build();
+	}
+
+	/**
+	 * Creates a builder for the HierarchicalMatchEngineFactory which is preset with all strategies for Java
+	 * models. Further strategies can be added before the factory is built.
+	 * 
+	 * @return the preset builder.
+	 */
+	public static HierarchicalMatchEngineFactory.Builder createMatchEngineFactoryBuilder() {
+		SimilarityChecker simChecker = new SimilarityChecker();
+		return HierarchicalMatchEngineFactoryGenerator.createMatchEngineFactoryBuilder(simChecker, "javaxmi")
+				.candidateKeyStrategy(new JaMoPPCandidateKeyStrategy(simChecker))
+				.subtreeHashStrategy(new JaMoPPSubtreeHashStrategy(simChecker));
 	}
 }
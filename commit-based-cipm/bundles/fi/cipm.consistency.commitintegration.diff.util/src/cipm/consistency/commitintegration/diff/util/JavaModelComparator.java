@@ -2,18 +2,21 @@ package cipm.consistency.commitintegration.diff.util;
 
 import org.eclipse.emf.common.notify.Notifier;
 import org.eclipse.emf.compare.Comparison;
-import org.eclipse.emf.compare.EMFCompare;
+import org.eclipse.emf.compare.Match;
+import org.eclipse.emf.common.util.Monitor;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.compare.diff.DiffBuilder;
 import org.eclipse.emf.compare.diff.DefaultDiffEngine;
 import org.eclipse.emf.compare.diff.FeatureFilter;
-import org.eclipse.emf.compare.postprocessor.BasicPostProcessorDescriptorImpl;
-import org.eclipse.emf.compare.postprocessor.PostProcessorDescriptorRegistryImpl;
-import java.util.regex.Pattern;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.eclipse.emf.ecore.EObject;
 import org.emftext.language.java.JavaPackage;
+import org.splevo.diffing.match.HierarchicalMatchEngine;
 import org.splevo.jamopp.diffing.scope.PackageIgnoreChecker;
 import org.splevo.jamopp.diffing.diff.JaMoPPFeatureFilter;
+import org.splevo.jamopp.diffing.match.JaMoPPRenameSeedStrategy;
 import org.eclipse.emf.compare.postprocessor.IPostProcessor;
 
 /**
@@ -24,9 +27,38 @@ import org.eclipse.emf.compare.postprocessor.IPostProcessor;
  * @author Martin Armbruster
  */
 public final class JavaModelComparator {
+	private static ModelComparator comparator;
+	
 	private JavaModelComparator() {
 	}
 	
+	/**
+	 * Returns the comparator for Java models. It is created once and reused for all comparisons.
+	 * 
+	 * @return the comparator.
+	 */
+	public static synchronized ModelComparator getComparator() {
+		if (comparator == null) {
+			var jamoppFeatureFilter = new JaMoPPFeatureFilter(new PackageIgnoreChecker(List.of()));
+			var diffEngine = new DefaultDiffEngine(new DiffBuilder()) {
+				@Override
+				protected FeatureFilter createFeatureFilter() {
+					return jamoppFeatureFilter;
+				}
+				
+				@Override
+				protected void checkForDifferences(Match match, Monitor monitor) {
+					if (!HierarchicalMatchEngine.isIdenticalSubtreeMatch(match)) {
+						super.checkForDifferences(match, monitor);
+					}
+				}
+			};
+			comparator = new ModelComparator(JavaMatchEngineFactoryGenerator.createMatchEngineFactoryBuilder(),
+					diffEngine, JavaPackage.eNS_URI);
+		}
+		return comparator;
+	}
+	
 	/**
 	 * Compares Java models using EMF Compare.
 	 * 
@@ -43,34 +75,68 @@ public final class JavaModelComparator {
 	public static Comparison compareJavaModels(Notifier newState, Notifier currentState,
 			List<Resource> newResources, List<Resource> currentResources,
 			IPostProcessor postProcessor) {
-		
-		var scope = new ResourceListFilteringComparisonScope(newState, currentState, newResources, currentResources);
-		scope.getNsURIs().add(JavaPackage.eNS_URI);
-		
-		var jamoppFeatureFilter = new JaMoPPFeatureFilter(new PackageIgnoreChecker(List.of()));
-		var diffProcessor = new DiffBuilder();
-		var diffEngine = new DefaultDiffEngine(diffProcessor) {
-			@Override
-			protected FeatureFilter createFeatureFilter() {
-				return jamoppFeatureFilter;
-			}
-		};
-		
-		var engineRegistry = HierarchicalMatchEngineFactoryGenerator
-				.generateMatchEngineRegistry(JavaMatchEngineFactoryGenerator
-						.generateMatchEngineFactory());
-		
-		var builder = EMFCompare.builder()
-			.setMatchEngineFactoryRegistry(engineRegistry)
-			.setDiffEngine(diffEngine);
-		
-		if (postProcessor != null) {
-			var processorDescriptor = new BasicPostProcessorDescriptorImpl(postProcessor, Pattern.compile(".*"), null);
-			var processorRegistry = new PostProcessorDescriptorRegistryImpl<String>();
-			processorRegistry.put("java", processorDescriptor);
-			builder.setPostProcessorRegistry(processorRegistry);
+		return compareJavaModels(newState, currentState, newResources, currentResources, null, postProcessor);
+	}
+	
+	/**
+	 * Compares Java models using EMF Compare in which the compilation units of renamed files are matched with the
+	 * compilation units of their original files.
+	 * 
+	 * @param newState contains the new state.
+	 * @param currentState contains the current or old state compared to the new state.
+	 * @param newResources a list of Resources which represent the new state of Java models.
+	 *                     If the newState is a ResourceSet, this list is used to filter the Resources in the newState.
+	 * @param currentResources a list of Resources which represent the current or old state of Java models.
+	 *                         If the currentState is a ResourceSet, this list is used to filter the Resources in the
+	 *                         currentState.
+	 * @param renamedFiles the new paths of the renamed Java files by their original paths. Can be null.
+	 * @param postProcessor an optional post processor for the comparison process.
+	 * @return the comparison result.
+	 */
+	public static Comparison compareJavaModels(Notifier newState, Notifier currentState,
+			List<Resource> newResources, List<Resource> currentResources, Map<String, String> renamedFiles,
+			IPostProcessor postProcessor) {
+		return getComparator().compare(newState, currentState, newResources, currentResources, null,
+				createRenameSeedStrategy(renamedFiles), postProcessor);
+	}
+	
+	/**
+	 * Compares Java models using EMF Compare in which only some root elements are considered.
+	 * 
+	 * @param newState contains the new state.
+	 * @param currentState contains the current or old state compared to the new state.
+	 * @param rootFilter decides which root elements are compared. The other root elements are neither
+	 *                   matched nor compared.
+	 * @param postProcessor an optional post processor for the comparison process.
+	 * @return the comparison result.
+	 */
+	public static Comparison compareJavaModels(Notifier newState, Notifier currentState,
+			Predicate<EObject> rootFilter, IPostProcessor postProcessor) {
+		return compareJavaModels(newState, currentState, rootFilter, null, postProcessor);
+	}
+	
+	/**
+	 * Compares Java models using EMF Compare in which only some root elements are considered and the compilation
+	 * units of renamed files are matched with the compilation units of their original files.
+	 * 
+	 * @param newState contains the new state.
+	 * @param currentState contains the current or old state compared to the new state.
+	 * @param rootFilter decides which root elements are compared. The other root elements are neither
+	 *                   matched nor compared.
+	 * @param renamedFiles the new paths of the renamed Java files by their original paths. Can be null.
+	 * @param postProcessor an optional post processor for the comparison process.
+	 * @return the comparison result.
+	 */
+	public static Comparison compareJavaModels(Notifier newState, Notifier currentState,
+			Predicate<EObject> rootFilter, Map<String, String> renamedFiles, IPostProcessor postProcessor) {
+		return getComparator().compare(newState, currentState, null, null, rootFilter,
+				createRenameSeedStrategy(renamedFiles), postProcessor);
+	}
+	
+	private static JaMoPPRenameSeedStrategy createRenameSeedStrategy(Map<String, String> renamedFiles) {
+		if (renamedFiles == null || renamedFiles.isEmpty()) {
+			return null;
 		}
-		
-		return builder.build().compare(scope);
+		return new JaMoPPRenameSeedStrategy(renamedFiles);
 	}
 }
@@ -0,0 +1,242 @@
+package cipm.consistency.commitintegration.diff.util;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.Monitor;
+import org.eclipse.emf.compare.Comparison;
+import org.eclipse.emf.compare.EMFCompare;
+import org.eclipse.emf.compare.diff.IDiffEngine;
+import org.eclipse.emf.compare.postprocessor.BasicPostProcessorDescriptorImpl;
+import org.eclipse.emf.compare.postprocessor.IPostProcessor;
+import org.eclipse.emf.compare.postprocessor.PostProcessorDescriptorRegistryImpl;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.splevo.diffing.match.HierarchicalMatchEngine.MatchSeedStrategy;
+import org.splevo.diffing.match.HierarchicalMatchEngineFactory;
+
+/**
+ * A reusable comparator for models using EMF Compare. The match engine registry, diff engine and
+ * post processor registry are built once and reused for all comparisons. No global registry of
+ * EMF Compare is modified. Strategies which depend on a single comparison, such as the post processor and
+ * the match seed strategy, are passed to each comparison.
+ */
+public class ModelComparator {
+	private final String nsURI;
+	private final EMFCompare comparator;
+	private final EMFCompare comparatorWithPostProcessor;
+	private final DelegatingPostProcessor postProcessor = new DelegatingPostProcessor();
+	private final DelegatingMatchSeedStrategy matchSeedStrategy;
+
+	/**
+	 * Creates a new instance which does not support match seed strategies.
+	 *
+	 * @param engineFactory the factory for the match engines.
+	 * @param diffEngine the diff engine. If null, the default diff engine of EMF Compare is used.
+	 * @param nsURI the namespace URI of the compared models.
+	 */
+	public ModelComparator(HierarchicalMatchEngineFactory engineFactory, IDiffEngine diffEngine, String nsURI) {
+		this(engineFactory, null, diffEngine, nsURI);
+	}
+
+	/**
+	 * Creates a new instance which supports a match seed strategy for each comparison.
+	 *
+	 * @param engineFactoryBuilder the builder for the factory of the match engines. Its match seed strategy
+	 *                             is replaced.
+	 * @param diffEngine the diff engine. If null, the default diff engine of EMF Compare is used.
+	 * @param nsURI the namespace URI of the compared models.
+	 */
+	public ModelComparator(HierarchicalMatchEngineFactory.Builder engineFactoryBuilder, IDiffEngine diffEngine,
+			String nsURI) {
+		this(engineFactoryBuilder, new DelegatingMatchSeedStrategy(), diffEngine, nsURI);
+	}
+
+	private ModelComparator(HierarchicalMatchEngineFactory.Builder engineFactoryBuilder,
+			DelegatingMatchSeedStrategy matchSeedStrategy, IDiffEngine diffEngine, String nsURI) {
+		this(engineFactoryBuilder.matchSeedStrategy(matchSeedStrategy).build(), matchSeedStrategy, diffEngine,
+				nsURI);
+	}
+
+	private ModelComparator(HierarchicalMatchEngineFactory engineFactory,
+			DelegatingMatchSeedStrategy matchSeedStrategy, IDiffEngine diffEngine, String nsURI) {
+		this.nsURI = nsURI;
+		this.matchSeedStrategy = matchSeedStrategy;
+		var engineRegistry = HierarchicalMatchEngineFactoryGenerator.generateMatchEngineRegistry(engineFactory);
+		var processorDescriptor = new BasicPostProcessorDescriptorImpl(postProcessor, Pattern.compile(".*"), null);
+		var processorRegistry = new PostProcessorDescriptorRegistryImpl<String>();
+		processorRegistry.put(nsURI, processorDescriptor);
+
+		var builder = EMFCompare.builder().setMatchEngineFactoryRegistry(engineRegistry);
+		if (diffEngine != null) {
+			builder.setDiffEngine(diffEngine);
+		}
+		this.comparator = builder.build();
+		this.comparatorWithPostProcessor = builder.setPostProcessorRegistry(processorRegistry).build();
+	}
+
+	/**
+	 * Compares models.
+	 *
+	 * @param newState contains the new state.
+	 * @param currentState contains the current or old state compared to the new state.
+	 * @param newResources a list of Resources which represent the new state.
+	 *                     If the newState is a ResourceSet, this list is used to filter the Resources in the newState.
+	 *                     Can be null to consider all Resources.
+	 * @param currentResources a list of Resources which represent the current or old state.
+	 *                         If the currentState is a ResourceSet, this list is used to filter the Resources in the
+	 *                         currentState. Can be null to consider all Resources.
+	 * @param comparisonPostProcessor an optional post processor for this comparison.
+	 * @return the comparison result.
+	 */
+	public Comparison compare(Notifier newState, Notifier currentState,
+			List<Resource> newResources, List<Resource> currentResources, IPostProcessor comparisonPostProcessor) {
+		return compare(newState, currentState, newResources, currentResources, null, comparisonPostProcessor);
+	}
+
+	/**
+	 * Compares models of which only some root elements are considered.
+	 *
+	 * @param newState contains the new state.
+	 * @param currentState contains the current or old state compared to the new state.
+	 * @param newResources a list of Resources which represent the new state. Can be null to consider all Resources.
+	 * @param currentResources a list of Resources which represent the current or old state.
+	 *                         Can be null to consider all Resources.
+	 * @param rootFilter decides which root elements of the Resources are compared. Root elements which are
+	 *                   filtered out are neither matched nor compared. Can be null to compare all root elements.
+	 * @param comparisonPostProcessor an optional post processor for this comparison.
+	 * @return the comparison result.
+	 */
+	public Comparison compare(Notifier newState, Notifier currentState,
+			List<Resource> newResources, List<Resource> currentResources, Predicate<EObject> rootFilter,
+			IPostProcessor comparisonPostProcessor) {
+		return compare(newState, currentState, newResources, currentResources, rootFilter, null,
+				comparisonPostProcessor);
+	}
+
+	/**
+	 * Compares models of which only some root elements are considered and some elements are matched in advance.
+	 *
+	 * @param newState contains the new state.
+	 * @param currentState contains the current or old state compared to the new state.
+	 * @param newResources a list of Resources which represent the new state. Can be null to consider all Resources.
+	 * @param currentResources a list of Resources which represent the current or old state.
+	 *                         Can be null to consider all Resources.
+	 * @param rootFilter decides which root elements of the Resources are compared. Root elements which are
+	 *                   filtered out are neither matched nor compared. Can be null to compare all root elements.
+	 * @param comparisonSeedStrategy an optional strategy for the pre-established matches of this comparison.
+	 * @param comparisonPostProcessor an optional post processor for this comparison.
+	 * @return the comparison result.
+	 */
+	public Comparison compare(Notifier newState, Notifier currentState,
+			List<Resource> newResources, List<Resource> currentResources, Predicate<EObject> rootFilter,
+			MatchSeedStrategy comparisonSeedStrategy, IPostProcessor comparisonPostProcessor) {
+		var scope = new ResourceListFilteringComparisonScope(newState, currentState, newResources, currentResources);
+		if (rootFilter != null) {
+			scope.setEObjectContentFilter(root -> rootFilter.test(root));
+		}
+		return compare(scope, comparisonSeedStrategy, comparisonPostProcessor);
+	}
+
+	/**
+	 * Compares the models of a scope. It allows callers to filter the compared Resources, for example, by
+	 * their URI prefixes.
+	 *
+	 * @param scope the scope of the comparison. The namespace URI of the comparator is added to the scope.
+	 * @param comparisonPostProcessor an optional post processor for this comparison.
+	 * @return the comparison result.
+	 */
+	public Comparison compare(ResourceListFilteringComparisonScope scope, IPostProcessor comparisonPostProcessor) {
+		return compare(scope, null, comparisonPostProcessor);
+	}
+
+	/**
+	 * Compares the models of a scope in which some elements are matched in advance.
+	 *
+	 * @param scope the scope of the comparison. The namespace URI of the comparator is added to the scope.
+	 * @param comparisonSeedStrategy an optional strategy for the pre-established matches of this comparison.
+	 * @param comparisonPostProcessor an optional post processor for this comparison.
+	 * @return the comparison result.
+	 * @throws IllegalStateException if a match seed strategy is given but not supported by this comparator.
+	 */
+	public synchronized Comparison compare(ResourceListFilteringComparisonScope scope,
+			MatchSeedStrategy comparisonSeedStrategy, IPostProcessor comparisonPostProcessor) {
+		if (comparisonSeedStrategy != null && matchSeedStrategy == null) {
+			throw new IllegalStateException("The comparator does not support match seed strategies.");
+		}
+		scope.getNsURIs().add(nsURI);
+
+		if (matchSeedStrategy != null) {
+			matchSeedStrategy.delegate = comparisonSeedStrategy;
+		}
+		postProcessor.delegate = comparisonPostProcessor;
+		try {
+			if (comparisonPostProcessor == null) {
+				return comparator.compare(scope);
+			}
+			return comparatorWithPostProcessor.compare(scope);
+		} finally {
+			postProcessor.delegate = null;
+			if (matchSeedStrategy != null) {
+				matchSeedStrategy.delegate = null;
+			}
+		}
+	}
+
+	/**
+	 * A match seed strategy registered once which forwards to the match seed strategy of the current comparison.
+	 * Without such a strategy, no element is matched in advance.
+	 */
+	private static class DelegatingMatchSeedStrategy implements MatchSeedStrategy {
+		private MatchSeedStrategy delegate;
+
+		@Override
+		public Object getLeftSeedKey(EObject element) {
+			return delegate == null ? null : delegate.getLeftSeedKey(element);
+		}
+
+		@Override
+		public Object getRightSeedKey(EObject element) {
+			return delegate == null ? null : delegate.getRightSeedKey(element);
+		}
+	}
+
+	/**
+	 * A post processor registered once which forwards to the post processor of the current comparison.
+	 */
+	private static class DelegatingPostProcessor implements IPostProcessor {
+		private IPostProcessor delegate;
+
+		@Override
+		public void postMatch(Comparison comparison, Monitor monitor) {
+			delegate.postMatch(comparison, monitor);
+		}
+
+		@Override
+		public void postDiff(Comparison comparison, Monitor monitor) {
+			delegate.postDiff(comparison, monitor);
+		}
+
+		@Override
+		public void postRequirements(Comparison comparison, Monitor monitor) {
+			delegate.postRequirements(comparison, monitor);
+		}
+
+		@Override
+		public void postEquivalences(Comparison comparison, Monitor monitor) {
+			delegate.postEquivalences(comparison, monitor);
+		}
+
+		@Override
+		public void postConflicts(Comparison comparison, Monitor monitor) {
+			delegate.postConflicts(comparison, monitor);
+		}
+
+		@Override
+		public void postComparison(Comparison comparison, Monitor monitor) {
+			delegate.postComparison(comparison, monitor);
+		}
+	}
+}
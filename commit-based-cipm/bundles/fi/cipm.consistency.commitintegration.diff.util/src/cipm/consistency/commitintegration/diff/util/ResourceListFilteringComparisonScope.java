@@ -1,38 +1,120 @@
 package cipm.consistency.commitintegration.diff.util;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.compare.scope.DefaultComparisonScope;
 import org.eclipse.emf.ecore.resource.Resource;
 
 /**
  * The scope for an EMF Compare comparison which filters resources.
- * 
+ *
+ * Resources can be filtered by collections of Resources and by URI prefixes. The membership in the
+ * collections is checked by identity. A URI prefix includes or excludes all Resources whose URI equals
+ * the prefix or whose URI is located below the prefix. If multiple prefixes apply to a Resource, the
+ * longest prefix decides. If there are included prefixes, Resources to which no prefix applies are
+ * excluded.
+ *
  * @author Martin Armbruster
  */
 public class ResourceListFilteringComparisonScope extends DefaultComparisonScope {
+	private final Set<Resource> newResources;
+	private final Set<Resource> currentResources;
+	private final Map<URI, Boolean> prefixes = new HashMap<>();
+	private boolean hasIncludedPrefixes;
+
 	/**
 	 * Creates a new instance.
-	 * 
+	 *
 	 * @param left             the left or new model.
 	 * @param right            the right or old model.
-	 * @param newResources     a list of new model Resources. Can be null. If the
-	 *                         list is not null, only Resources within the list are
-	 *                         compared.
-	 * @param currentResources a list of old model Resources. Can be null. If the
-	 *                         list is not null, only Resources within the list are
-	 *                         compared.
+	 * @param newResources     a collection of new model Resources. Can be null. If
+	 *                         the collection is not null, only Resources within the
+	 *                         collection are compared.
+	 * @param currentResources a collection of old model Resources. Can be null. If
+	 *                         the collection is not null, only Resources within the
+	 *                         collection are compared.
 	 */
-	public ResourceListFilteringComparisonScope(Notifier left, Notifier right, List<Resource> newResources,
-			List<Resource> currentResources) {
+	public ResourceListFilteringComparisonScope(Notifier left, Notifier right, Collection<Resource> newResources,
+			Collection<Resource> currentResources) {
 		super(left, right, null);
-		this.setResourceSetContentFilter(r -> {
-			if (newResources != null && currentResources != null) {
-				return r.getResourceSet() == left && newResources.contains(r)
-						|| r.getResourceSet() == right && currentResources.contains(r);
+		if (newResources != null && currentResources != null) {
+			this.newResources = createIdentitySet(newResources);
+			this.currentResources = createIdentitySet(currentResources);
+		} else {
+			this.newResources = null;
+			this.currentResources = null;
+		}
+		this.setResourceSetContentFilter(this::isInScope);
+	}
+
+	private static Set<Resource> createIdentitySet(Collection<Resource> resources) {
+		Set<Resource> set = Collections.newSetFromMap(new IdentityHashMap<>(resources.size() * 2));
+		set.addAll(resources);
+		return set;
+	}
+
+	/**
+	 * Includes all Resources whose URI starts with a prefix.
+	 *
+	 * @param prefix the URI prefix, for example, the URI of a directory.
+	 * @return this scope.
+	 */
+	public ResourceListFilteringComparisonScope includeURIPrefix(URI prefix) {
+		prefixes.put(normalize(prefix), Boolean.TRUE);
+		hasIncludedPrefixes = true;
+		return this;
+	}
+
+	/**
+	 * Excludes all Resources whose URI starts with a prefix.
+	 *
+	 * @param prefix the URI prefix, for example, the URI of a directory.
+	 * @return this scope.
+	 */
+	public ResourceListFilteringComparisonScope excludeURIPrefix(URI prefix) {
+		prefixes.put(normalize(prefix), Boolean.FALSE);
+		return this;
+	}
+
+	private static URI normalize(URI uri) {
+		return uri.hasTrailingPathSeparator() ? uri.trimSegments(1) : uri;
+	}
+
+	/**
+	 * Checks if a Resource is compared.
+	 *
+	 * @param resource the Resource.
+	 * @return true if the Resource is compared.
+	 */
+	public boolean isInScope(Resource resource) {
+		if (newResources != null) {
+			boolean listed = resource.getResourceSet() == getLeft() && newResources.contains(resource)
+					|| resource.getResourceSet() == getRight() && currentResources.contains(resource);
+			if (!listed) {
+				return false;
+			}
+		}
+		if (prefixes.isEmpty() || resource.getURI() == null) {
+			return !hasIncludedPrefixes;
+		}
+		// Walk up from the URI of the Resource so that the longest prefix is found first.
+		URI current = resource.getURI();
+		while (true) {
+			Boolean included = prefixes.get(current);
+			if (included != null) {
+				return included;
+			}
+			if (current.segmentCount() == 0) {
+				return !hasIncludedPrefixes;
 			}
-			return true;
-		});
+			current = current.trimSegments(1);
+		}
 	}
 }
@@ -2,12 +2,9 @@ package cipm.consistency.commitintegration.diff.util.pcm;
 
 import org.eclipse.emf.common.notify.Notifier;
 import org.eclipse.emf.compare.Comparison;
-import org.eclipse.emf.compare.EMFCompare;
 import org.palladiosimulator.pcm.repository.RepositoryPackage;
-import org.splevo.diffing.match.HierarchicalMatchEngineFactory;
 
-import cipm.consistency.commitintegration.diff.util.HierarchicalMatchEngineFactoryGenerator;
-import cipm.consistency.commitintegration.diff.util.ResourceListFilteringComparisonScope;
+import cipm.consistency.commitintegration.diff.util.ModelComparator;
 
 /**
  * This class enables the comparison of PCM repository models.
@@ -15,6 +12,9 @@ import cipm.consistency.commitintegration.diff.util.ResourceListFilteringCompari
  * @author Martin Armbruster
  */
 public final class PCMModelComparator {
+	private static ModelComparator comparator;
+	private static ModelComparator idBasedComparator;
+
 	private PCMModelComparator() {
 	}
 
@@ -28,8 +28,7 @@ public final class PCMModelComparator {
 	 * @return the result of the comparison.
 	 */
 	public static Comparison compareRepositoryModels(Notifier newState, Notifier currentState) {
-		return internalCompareRepositoryModels(newState, currentState,
-				PCMRepositoryMatchEngineFactoryGenerator.generateMatchEngineFactory());
+		return getComparator().compare(newState, currentState, null, null, null);
 	}
 
 	/**
@@ -43,19 +42,23 @@ public final class PCMModelComparator {
 	 * @return the result of the comparison.
 	 */
 	public static Comparison compareRepositoryModelsIDBased(Notifier newState, Notifier currentState) {
-		return internalCompareRepositoryModels(newState, currentState,
-				PCMRepositoryMatchEngineFactoryGenerator.generateIDBasedMatchEngineFactory());
+		return getIDBasedComparator().compare(newState, currentState, null, null, null);
 	}
 
-	private static Comparison internalCompareRepositoryModels(Notifier newState, Notifier currentState,
-			HierarchicalMatchEngineFactory engineFactory) {
-		var scope = new ResourceListFilteringComparisonScope(newState, currentState, null, null);
-		scope.getNsURIs().add(RepositoryPackage.eNS_URI);
+	private static synchronized ModelComparator getComparator() {
+		if (comparator == null) {
+			comparator = new ModelComparator(PCMRepositoryMatchEngineFactoryGenerator.generateMatchEngineFactory(),
+					null, RepositoryPackage.eNS_URI);
+		}
+		return comparator;
+	}
 
-		return EMFCompare.builder()
-				.setMatchEngineFactoryRegistry(
-						HierarchicalMatchEngineFactoryGenerator
-						.generateMatchEngineRegistry(engineFactory))
-				.build().compare(scope);
+	private static synchronized ModelComparator getIDBasedComparator() {
+		if (idBasedComparator == null) {
+			idBasedComparator = new ModelComparator(
+					PCMRepositoryMatchEngineFactoryGenerator.generateIDBasedMatchEngineFactory(), null,
+					RepositoryPackage.eNS_URI);
+		}
+		return idBasedComparator;
 	}
 }
@@ -4,7 +4,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 /**
  * A container for the settings of the commit-based integration.
@@ -42,4 +45,20 @@ public final class CommitIntegrationSettingsContainer {
 	public boolean getPropertyAsBoolean(String key) {
 		return Boolean.parseBoolean(getProperty(key));
 	}
+	
+	/**
+	 * Reads a setting with a list of values separated by semicolons. The values are trimmed, and
+	 * empty values are ignored.
+	 * 
+	 * @param key the key of the setting.
+	 * @return the values. If the setting does not exist, the list is empty.
+	 */
+	public List<String> getPropertyAsList(String key) {
+		String values = getProperty(key);
+		if (values == null) {
+			return List.of();
+		}
+		return Arrays.stream(values.split(";")).map(String::trim).filter(v -> !v.isEmpty())
+				.collect(Collectors.toList());
+	}
 }
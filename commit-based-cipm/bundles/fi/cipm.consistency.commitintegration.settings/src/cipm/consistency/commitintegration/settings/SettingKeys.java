@@ -14,6 +14,18 @@ public final class SettingKeys {
 	 * A setting which controls if an adaptive or full instrumentation is performed.
 	 */
 	public static final String PERFORM_FULL_INSTRUMENTATION = KEY_BASE + "instrumentation.full";
+	/**
+	 * A setting which controls if the instrumentation is applied to the Java model
+	 * in the V-SUM and reverted afterwards instead of instrumenting a copy of the
+	 * Java model. It is only used if the instrumented model is not kept.
+	 */
+	public static final String PERFORM_IN_PLACE_INSTRUMENTATION = KEY_BASE + "instrumentation.inplace";
+	/**
+	 * A setting which controls if only the instrumented Java files are written
+	 * into the instrumentation directory while all other files are hard links to
+	 * the original files.
+	 */
+	public static final String WRITE_ONLY_INSTRUMENTED_FILES = KEY_BASE + "instrumentation.onlychanged";
 	/**
 	 * A setting which controls if the incremental fine-grained SEFF reconstruction
 	 * is performed.
@@ -29,6 +41,66 @@ public final class SettingKeys {
 	 * parsing.
 	 */
 	public static final String JAVA_PARSER_EXCLUSION_PATTERNS = KEY_BASE + "parser.excludes";
+	/**
+	 * A setting which controls if only the Java files changed by a commit are
+	 * parsed and merged into the Java model of the previous commit.
+	 */
+	public static final String PERFORM_INCREMENTAL_PARSING = KEY_BASE + "parser.incremental";
+	/**
+	 * A setting which controls if only the Java models of the files changed by a
+	 * commit and the Java models related to them are compared to resolve the
+	 * changes of the Java model. It is only used if the Java code is parsed
+	 * incrementally.
+	 */
+	public static final String PERFORM_SCOPED_CHANGE_RESOLUTION = KEY_BASE + "propagation.scoped";
+	/**
+	 * A setting which controls if the fingerprints of the compilation units are
+	 * stored with the Java model. If they are available, only the Java models of
+	 * the compilation units whose fingerprints changed and the Java models related
+	 * to them are compared to resolve the changes of the Java model.
+	 */
+	public static final String USE_COMPILATION_UNIT_FINGERPRINTS = KEY_BASE + "propagation.fingerprints";
+	/**
+	 * A setting which controls if the Java files renamed between two commits, as
+	 * detected by Git, are passed to the change resolution. The Java models of a
+	 * renamed file are matched with the Java models of the original file, so that
+	 * they are changed instead of being deleted and added.
+	 */
+	public static final String USE_GIT_RENAMES = KEY_BASE + "propagation.renames";
+	/**
+	 * The number of threads for the parsing of all Java files. The Java files
+	 * are only parsed in parallel if the number is greater than one and the
+	 * dependencies are not resolved during the parsing, i.e., the configuration
+	 * of the JavaParserAndPropagatorUtils is created with resolveAll set to
+	 * false. The default configuration resolves all dependencies, so that the
+	 * Java files are parsed sequentially regardless of this setting.
+	 */
+	public static final String JAVA_PARSER_THREADS = KEY_BASE + "parser.threads";
+	/**
+	 * A setting which controls if the directories inspected for build files
+	 * during the component detection are kept for the detection in later
+	 * commits. A kept directory is only inspected again if its modification time
+	 * changed.
+	 */
+	public static final String REUSE_BUILD_FILE_INDEX = KEY_BASE + "detection.reusebuildfiles";
+	/**
+	 * A setting which controls if a commit is checked out by updating only the
+	 * files changed since the last checkout instead of cleaning the complete
+	 * working tree of the local repository.
+	 */
+	public static final String PERFORM_INCREMENTAL_CHECKOUT = KEY_BASE + "repository.incrementalcheckout";
+	/**
+	 * The number of commits which are prepared (exported, preprocessed and
+	 * parsed) in the background while a previous commit is propagated. If the
+	 * number is not greater than zero, the commits are processed sequentially.
+	 * The commits are exported into separate directories, so that the incremental
+	 * checkout only applies to the local repository after the last commit. The
+	 * Java code is only parsed in the background if the dependencies are not
+	 * resolved during the parsing and the incremental parsing is disabled.
+	 * Otherwise, it is parsed during the propagation, and with the incremental
+	 * parsing, only the changed files are parsed.
+	 */
+	public static final String COMMIT_LOOKAHEAD = KEY_BASE + "propagation.lookahead";
 	/**
 	 * Path to a script for the preprocessing of a commit.
 	 */
@@ -37,11 +109,63 @@ public final class SettingKeys {
 	 * Path to a script for the compilation of the instrumented code.
 	 */
 	public static final String PATH_TO_COMPILATION_SCRIPT = KEY_BASE + "path.compile";
+	/**
+	 * Files and directories, separated by semicolons and relative to the
+	 * repository, which are the inputs of the preprocessing script. If they are
+	 * set, the results of the script are cached.
+	 */
+	public static final String PREPROCESSING_SCRIPT_INPUTS = KEY_BASE + "preprocess.inputs";
+	/**
+	 * Files and directories, separated by semicolons and relative to the
+	 * repository, which are produced by the preprocessing script and restored
+	 * from the cache.
+	 */
+	public static final String PREPROCESSING_SCRIPT_OUTPUTS = KEY_BASE + "preprocess.outputs";
+	/**
+	 * Files and directories, separated by semicolons and relative to the
+	 * instrumented code, which are the inputs of the compilation script. If they
+	 * are set, the results of the script are cached.
+	 */
+	public static final String COMPILATION_SCRIPT_INPUTS = KEY_BASE + "compile.inputs";
+	/**
+	 * Files and directories, separated by semicolons and relative to the
+	 * instrumented code, which are produced by the compilation script and
+	 * restored from the cache.
+	 */
+	public static final String COMPILATION_SCRIPT_OUTPUTS = KEY_BASE + "compile.outputs";
+	/**
+	 * The maximum number of seconds for which an external script runs before it
+	 * is destroyed. Without a positive number, the scripts run without a limit.
+	 */
+	public static final String SCRIPT_TIMEOUT = KEY_BASE + "script.timeout";
+	/**
+	 * Path to a directory in which the results of external scripts are cached.
+	 */
+	public static final String PATH_TO_SCRIPT_RESULT_CACHE = KEY_BASE + "path.scriptcache";
 	/**
 	 * Path to a directory in which the prepared artifacts with the instrumented
 	 * code are deployed.
 	 */
 	public static final String DEPLOYMENT_PATH = KEY_BASE + "path.deployment";
+	/**
+	 * Regular expressions, separated by semicolons, for the entries which are
+	 * removed from the deployed archives and the archives nested in them. The
+	 * name of an entry is its path within the archive which directly contains it,
+	 * i.e., without the path of a nested archive. If the setting is not set, the
+	 * monitoring classes are removed.
+	 */
+	public static final String DEPLOYMENT_REMOVED_ENTRIES = KEY_BASE + "deployment.removedentries";
+	/**
+	 * Path to a JSON file with rules which determine the targets of external
+	 * calls without a target.
+	 */
+	public static final String PATH_TO_EXTERNAL_CALL_TARGET_RULES = KEY_BASE + "path.externalcallrules";
+	/**
+	 * A setting which controls if the developer is asked for the targets of
+	 * external calls which are neither stored nor determined by a rule. In the
+	 * batch mode, these external calls are kept without a target.
+	 */
+	public static final String PERFORM_EXTERNAL_CALL_RESOLUTION_IN_BATCH_MODE = KEY_BASE + "externalcalls.batch";
 	/**
 	 * A list of packages which realize a REST Client to identify REST calls.
 	 */
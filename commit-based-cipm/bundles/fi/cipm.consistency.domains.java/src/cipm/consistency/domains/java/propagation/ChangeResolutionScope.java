@@ -0,0 +1,209 @@
+package cipm.consistency.domains.java.propagation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.compare.Diff;
+import org.eclipse.emf.compare.ReferenceChange;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.InternalEList;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.Origin;
+import org.splevo.jamopp.util.JaMoPPLogicalPathUtil;
+
+/**
+ * The part of two states of a Java model which is compared in a scoped change resolution.
+ *
+ * The scope consists of the compilation units of the changed Java files, the compilation units of other
+ * files which reference them or which are referenced by them in one of the states, and all root elements
+ * which do not represent a Java file (modules, packages, and compilation units without a file). All other
+ * compilation units are assumed to be unchanged.
+ *
+ * The copy of the old state keeps the positions of all root elements so that the recorded changes are
+ * valid for the original old state. Root elements outside of the scope are replaced with empty elements.
+ */
+final class ChangeResolutionScope {
+	private final Resource newState;
+	private final Resource oldState;
+	private final Set<String> changedPaths = new HashSet<>();
+	private final Map<EObject, String> fileRootKeys = new IdentityHashMap<>();
+	private final Map<String, List<EObject>> newFileRoots = new HashMap<>();
+	private final Map<String, List<EObject>> oldFileRoots = new HashMap<>();
+	private final Set<EObject> changedRoots = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<EObject> comparedRoots = Collections.newSetFromMap(new IdentityHashMap<>());
+	private Resource oldStateCopy;
+
+	/**
+	 * Determines the scope.
+	 *
+	 * @param newState     the new state.
+	 * @param oldState     the old state.
+	 * @param changedFiles paths of the Java files which changed between the states.
+	 */
+	ChangeResolutionScope(Resource newState, Resource oldState, Collection<String> changedFiles) {
+		this.newState = newState;
+		this.oldState = oldState;
+		for (String file : changedFiles) {
+			changedPaths.addAll(JaMoPPLogicalPathUtil.getSuffixes(JaMoPPLogicalPathUtil.normalizePath(file)));
+		}
+		classifyRoots(newState, newFileRoots);
+		classifyRoots(oldState, oldFileRoots);
+		addTouchedRoots(newState, oldFileRoots);
+		addTouchedRoots(oldState, newFileRoots);
+	}
+
+	private void classifyRoots(Resource state, Map<String, List<EObject>> fileRoots) {
+		for (EObject root : state.getContents()) {
+			if (root instanceof CompilationUnit && ((CompilationUnit) root).getOrigin() == Origin.FILE) {
+				String key = JaMoPPLogicalPathUtil.createLogicalPath((CompilationUnit) root);
+				fileRootKeys.put(root, key);
+				fileRoots.computeIfAbsent(key, k -> new ArrayList<>()).add(root);
+				if (changedPaths.contains(key)) {
+					changedRoots.add(root);
+					comparedRoots.add(root);
+				}
+			} else {
+				comparedRoots.add(root);
+			}
+		}
+	}
+
+	/**
+	 * Adds the compilation units of unchanged files which are referenced by the changed compilation
+	 * units or which reference them. Their counterparts in the other state are added as well.
+	 */
+	private void addTouchedRoots(Resource state, Map<String, List<EObject>> otherFileRoots) {
+		Set<EObject> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (EObject root : state.getContents()) {
+			if (!fileRootKeys.containsKey(root)) {
+				continue;
+			}
+			boolean changed = changedRoots.contains(root);
+			if (!changed && touched.contains(root)) {
+				continue;
+			}
+			for (EObject target : getReferencedRoots(root)) {
+				if (changed && fileRootKeys.containsKey(target) && !changedRoots.contains(target)) {
+					touched.add(target);
+				} else if (!changed && changedRoots.contains(target)) {
+					touched.add(root);
+					break;
+				}
+			}
+		}
+		for (EObject root : touched) {
+			comparedRoots.add(root);
+			comparedRoots.addAll(otherFileRoots.getOrDefault(fileRootKeys.get(root), List.of()));
+		}
+	}
+
+	/**
+	 * Collects the root elements referenced by a root element or its contents without resolving proxies.
+	 */
+	private static Set<EObject> getReferencedRoots(EObject root) {
+		Set<EObject> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+		Resource resource = root.eResource();
+		addReferencedRoots(root, resource, targets);
+		for (TreeIterator<EObject> iter = root.eAllContents(); iter.hasNext();) {
+			addReferencedRoots(iter.next(), resource, targets);
+		}
+		targets.remove(root);
+		return targets;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void addReferencedRoots(EObject element, Resource resource, Set<EObject> targets) {
+		Iterator<EObject> refs = ((InternalEList<EObject>) element.eCrossReferences()).basicIterator();
+		while (refs.hasNext()) {
+			EObject target = refs.next();
+			if (!target.eIsProxy() && target.eResource() == resource) {
+				targets.add(EcoreUtil.getRootContainer(target));
+			}
+		}
+	}
+
+	/**
+	 * Returns the root elements of both states within the scope.
+	 *
+	 * @return the root elements in the scope.
+	 */
+	List<EObject> getComparedRoots() {
+		List<EObject> roots = new ArrayList<>();
+		newState.getContents().stream().filter(comparedRoots::contains).forEach(roots::add);
+		oldState.getContents().stream().filter(comparedRoots::contains).forEach(roots::add);
+		return roots;
+	}
+
+	/**
+	 * Copies the old state. Only the root elements within the scope are copied. The other root elements
+	 * are replaced with empty elements of the same type so that all copied root elements keep their
+	 * position. References to elements outside of the scope are not changed by the copy.
+	 *
+	 * @param resourceSet the ResourceSet for the copy.
+	 * @return the copy.
+	 */
+	Resource copyOldState(ResourceSet resourceSet) {
+		URI uri = oldState.getURI();
+		oldStateCopy = resourceSet.getResourceFactoryRegistry().getFactory(uri).createResource(uri);
+		EcoreUtil.Copier copier = new EcoreUtil.Copier();
+		List<EObject> contents = new ArrayList<>();
+		for (EObject root : oldState.getContents()) {
+			if (comparedRoots.contains(root)) {
+				EObject copy = copier.copy(root);
+				comparedRoots.add(copy);
+				contents.add(copy);
+			} else {
+				contents.add(EcoreUtil.create(root.eClass()));
+			}
+		}
+		copier.copyReferences();
+		oldStateCopy.getContents().addAll(contents);
+		resourceSet.getResources().add(oldStateCopy);
+		return oldStateCopy;
+	}
+
+	/**
+	 * Checks if a root element of the new state or the copied old state is compared.
+	 *
+	 * @param root the root element.
+	 * @return true if the root element is within the scope.
+	 */
+	boolean isCompared(EObject root) {
+		return comparedRoots.contains(root);
+	}
+
+	/**
+	 * Checks if a difference refers to an element of the compared states outside of the scope. As these
+	 * elements are not matched, such differences are only based on the URIs of the elements which are not
+	 * stable between the states. Since the elements outside of the scope are unchanged, the differences
+	 * can be ignored.
+	 *
+	 * @param diff the difference.
+	 * @return true if the difference refers to an element outside of the scope.
+	 */
+	boolean isOutOfScope(Diff diff) {
+		if (!(diff instanceof ReferenceChange)) {
+			return false;
+		}
+		EObject value = ((ReferenceChange) diff).getValue();
+		if (value == null || value.eIsProxy()) {
+			return false;
+		}
+		Resource resource = value.eResource();
+		return (resource == newState || resource == oldState || resource == oldStateCopy)
+				&& !comparedRoots.contains(EcoreUtil.getRootContainer(value));
+	}
+}
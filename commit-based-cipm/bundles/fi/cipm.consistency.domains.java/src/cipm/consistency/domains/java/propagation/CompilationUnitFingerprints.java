@@ -0,0 +1,215 @@
+package cipm.consistency.domains.java.propagation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.Origin;
+import org.splevo.jamopp.diffing.match.JaMoPPSubtreeHashStrategy;
+import org.splevo.jamopp.util.JaMoPPLogicalPathUtil;
+
+/**
+ * Persisted fingerprints of the compilation units of a Java model.
+ *
+ * A fingerprint is the structural hash of the model subtree of a compilation unit without its layout
+ * information. The fingerprints are stored together with the commit of the Java model they belong to.
+ * By comparing the stored fingerprints with the fingerprints of a new state, the compilation units which
+ * changed can be determined without comparing the models. The compilation units are identified by their
+ * logical path (namespaces and name) like in the {@link ChangeResolutionScope}, see
+ * {@link JaMoPPLogicalPathUtil}.
+ */
+public final class CompilationUnitFingerprints {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + CompilationUnitFingerprints.class.getSimpleName());
+	private static final String SEPARATOR = "\t";
+	private final Path file;
+	private final Map<String, String> fingerprints = new HashMap<>();
+	private String commit;
+	private Resource pendingState;
+	private Map<String, String> pendingFingerprints;
+
+	/**
+	 * Creates a new instance and loads the stored fingerprints. If the file cannot
+	 * be read, no fingerprints are known.
+	 *
+	 * @param file the file in which the fingerprints are stored.
+	 */
+	public CompilationUnitFingerprints(Path file) {
+		this.file = file;
+		if (Files.exists(file)) {
+			try {
+				load();
+			} catch (IOException | RuntimeException e) {
+				LOGGER.warn("Could not read the fingerprints from " + file + ": " + e.getMessage());
+				clear();
+			}
+		}
+	}
+
+	private void load() throws IOException {
+		List<String> lines = Files.readAllLines(file);
+		if (lines.isEmpty()) {
+			return;
+		}
+		commit = lines.get(0).trim();
+		for (String line : lines.subList(1, lines.size())) {
+			int idx = line.indexOf(SEPARATOR);
+			if (idx > 0) {
+				fingerprints.put(line.substring(idx + 1), line.substring(0, idx));
+			}
+		}
+	}
+
+	/**
+	 * Returns the commit of the Java model to which the stored fingerprints belong.
+	 *
+	 * @return the commit or null if no fingerprints are stored.
+	 */
+	public String getCommit() {
+		return commit;
+	}
+
+	/**
+	 * Forgets the stored fingerprints, for example, because they do not belong to
+	 * the current Java model.
+	 */
+	public void clear() {
+		commit = null;
+		fingerprints.clear();
+	}
+
+	/**
+	 * Determines the compilation units which changed between the state to which
+	 * the stored fingerprints belong and a new state. The fingerprints of the new
+	 * state are kept until they are saved.
+	 *
+	 * @param newState       the new state.
+	 * @param oldState       the old state to which the stored fingerprints must
+	 *                       belong.
+	 * @param oldStateCommit the commit of the old state.
+	 * @return the logical paths of the added, removed, and changed compilation
+	 *         units, or null if the stored fingerprints do not belong to the
+	 *         commit of the old state or do not cover the old state.
+	 */
+	Collection<String> getChangedFiles(Resource newState, Resource oldState, String oldStateCommit) {
+		record(newState);
+		if (commit == null || !commit.equals(oldStateCommit)) {
+			LOGGER.debug("The fingerprints of " + commit + " do not belong to the old state of " + oldStateCommit);
+			return null;
+		}
+		if (!fingerprints.keySet().equals(collectKeys(oldState))) {
+			LOGGER.debug("The fingerprints do not cover the old state.");
+			return null;
+		}
+		Set<String> changed = new HashSet<>();
+		for (Map.Entry<String, String> entry : pendingFingerprints.entrySet()) {
+			if (!Objects.equals(entry.getValue(), fingerprints.get(entry.getKey()))) {
+				changed.add(entry.getKey());
+			}
+		}
+		for (String key : fingerprints.keySet()) {
+			if (!pendingFingerprints.containsKey(key)) {
+				changed.add(key);
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Computes the fingerprints of a new state and keeps them until they are
+	 * saved.
+	 *
+	 * @param newState the new state.
+	 */
+	void record(Resource newState) {
+		if (pendingState == newState && pendingFingerprints != null) {
+			return;
+		}
+		pendingState = newState;
+		pendingFingerprints = computeFingerprints(newState);
+	}
+
+	/**
+	 * Stores the fingerprints of the last recorded state as the fingerprints of a
+	 * commit. If no state was recorded, the stored fingerprints are removed
+	 * because they do not belong to the Java model of the commit anymore.
+	 *
+	 * @param commitId the commit of the recorded state.
+	 * @throws IOException if the fingerprints cannot be written.
+	 */
+	public void save(String commitId) throws IOException {
+		if (pendingFingerprints == null) {
+			clear();
+			Files.deleteIfExists(file);
+			return;
+		}
+		fingerprints.clear();
+		fingerprints.putAll(pendingFingerprints);
+		commit = commitId;
+		pendingState = null;
+		pendingFingerprints = null;
+
+		Files.createDirectories(file.toAbsolutePath().getParent());
+		List<String> keys = new ArrayList<>(fingerprints.keySet());
+		keys.sort(null);
+		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+			writer.write(commit);
+			writer.newLine();
+			for (String key : keys) {
+				writer.write(fingerprints.get(key));
+				writer.write(SEPARATOR);
+				writer.write(key);
+				writer.newLine();
+			}
+		}
+	}
+
+	private static Set<String> collectKeys(Resource state) {
+		Set<String> keys = new HashSet<>();
+		for (EObject root : state.getContents()) {
+			if (isFileRoot(root)) {
+				keys.add(JaMoPPLogicalPathUtil.createLogicalPath((CompilationUnit) root));
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Computes the fingerprints of the compilation units in a state. If there are
+	 * multiple compilation units with the same logical path, their fingerprints
+	 * are combined in their order.
+	 */
+	private static Map<String, String> computeFingerprints(Resource state) {
+		Map<String, String> result = new HashMap<>();
+		JaMoPPSubtreeHashStrategy hashStrategy = new JaMoPPSubtreeHashStrategy();
+		hashStrategy.startMatching();
+		try {
+			for (EObject root : state.getContents()) {
+				if (isFileRoot(root)) {
+					String hash = String.valueOf(hashStrategy.getSubtreeHash(root));
+					result.merge(JaMoPPLogicalPathUtil.createLogicalPath((CompilationUnit) root), hash,
+							(first, second) -> first + "+" + second);
+				}
+			}
+		} finally {
+			hashStrategy.finishMatching();
+		}
+		return result;
+	}
+
+	private static boolean isFileRoot(EObject root) {
+		return root instanceof CompilationUnit && ((CompilationUnit) root).getOrigin() == Origin.FILE;
+	}
+}
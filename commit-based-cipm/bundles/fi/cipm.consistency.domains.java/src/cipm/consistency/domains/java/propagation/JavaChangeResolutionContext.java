@@ -0,0 +1,98 @@
+package cipm.consistency.domains.java.propagation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Inputs of the change resolution which are known by the caller of a propagation, but not by the
+ * {@link JavaStateBasedChangeResolutionStrategy}. A context belongs to a single propagation and is passed
+ * to {@link JavaStateBasedChangeResolutionStrategy#runWithContext(JavaChangeResolutionContext, Runnable)}.
+ * Without a context, the complete states are compared.
+ */
+public class JavaChangeResolutionContext {
+	private Collection<String> changedFiles;
+	private CompilationUnitFingerprints fingerprints;
+	private String oldStateCommit;
+	private Map<String, String> renamedFiles;
+
+	/**
+	 * Returns the Java files which changed between the old and new state.
+	 *
+	 * @return paths of the changed Java files or null if they are unknown.
+	 */
+	public Collection<String> getChangedFiles() {
+		return changedFiles;
+	}
+
+	/**
+	 * Sets the Java files which changed between the old and new state. Only the compilation units of the
+	 * changed files and the compilation units related to them by references are copied and compared.
+	 *
+	 * @param changedFiles paths of the changed Java files. null to compare the complete states.
+	 */
+	public void setChangedFiles(Collection<String> changedFiles) {
+		this.changedFiles = changedFiles == null ? null : new ArrayList<>(changedFiles);
+	}
+
+	/**
+	 * Returns the fingerprints of the compilation units of the old state.
+	 *
+	 * @return the fingerprints or null if they are disabled.
+	 */
+	public CompilationUnitFingerprints getFingerprints() {
+		return fingerprints;
+	}
+
+	/**
+	 * Sets the fingerprints of the compilation units of the old state. If the fingerprints belong to the
+	 * commit of the old state and cover it, only the compilation units whose fingerprints changed and the
+	 * compilation units related to them are copied and compared. The fingerprints of the new state are
+	 * recorded in the fingerprints.
+	 *
+	 * @param fingerprints the fingerprints. null to disable the fingerprints.
+	 */
+	public void setFingerprints(CompilationUnitFingerprints fingerprints) {
+		this.fingerprints = fingerprints;
+	}
+
+	/**
+	 * Returns the commit of the old state.
+	 *
+	 * @return the commit or null if it is unknown.
+	 */
+	public String getOldStateCommit() {
+		return oldStateCommit;
+	}
+
+	/**
+	 * Sets the commit of the old state, i.e., of the Java model in the VSUM. The fingerprints are only used
+	 * if they were stored for this commit.
+	 *
+	 * @param oldStateCommit the commit. null if it is unknown so that the fingerprints are not used.
+	 */
+	public void setOldStateCommit(String oldStateCommit) {
+		this.oldStateCommit = oldStateCommit;
+	}
+
+	/**
+	 * Returns the Java files which were renamed between the old and new state.
+	 *
+	 * @return the new paths of the renamed Java files by their original paths or null if no files were renamed.
+	 */
+	public Map<String, String> getRenamedFiles() {
+		return renamedFiles;
+	}
+
+	/**
+	 * Sets the Java files which were renamed between the old and new state. The compilation units of the
+	 * renamed files are matched with the compilation units of their original files without comparing them
+	 * first, so that they are changed instead of being deleted and added.
+	 *
+	 * @param renamedFiles the new paths of the renamed Java files by their original paths. null if no files
+	 *                     were renamed.
+	 */
+	public void setRenamedFiles(Map<String, String> renamedFiles) {
+		this.renamedFiles = renamedFiles;
+	}
+}
@@ -2,6 +2,7 @@ package cipm.consistency.domains.java.propagation
 
 import org.eclipse.emf.common.notify.Notifier
 import org.eclipse.emf.common.util.BasicMonitor
+import org.eclipse.emf.compare.Diff
 import org.eclipse.emf.compare.merge.BatchMerger
 import org.eclipse.emf.compare.merge.IMerger
 import org.eclipse.emf.ecore.resource.Resource
@@ -14,12 +15,14 @@ import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resou
 import tools.vitruv.framework.domains.StateBasedChangeResolutionStrategy
 import org.emftext.language.java.commons.Commentable
 import java.util.List
+import java.util.Map
 import java.util.ArrayList
 import org.eclipse.emf.ecore.EObject
 import java.util.Collection
 import org.apache.log4j.Logger
 import cipm.consistency.commitintegration.diff.util.JavaModelComparator
 import cipm.consistency.tools.evaluation.data.EvaluationDataContainer
+import cipm.consistency.tools.evaluation.data.PhaseProfiler
 import cipm.consistency.commitintegration.diff.util.JavaChangedMethodDetectorDiffPostProcessor
 
 /**
@@ -32,6 +35,8 @@ import cipm.consistency.commitintegration.diff.util.JavaChangedMethodDetectorDif
  */
 class JavaStateBasedChangeResolutionStrategy implements StateBasedChangeResolutionStrategy {
 	static final Logger logger = Logger.getLogger("ci." + JavaStateBasedChangeResolutionStrategy.simpleName)
+	static final JavaChangeResolutionContext EMPTY_CONTEXT = new JavaChangeResolutionContext
+	var JavaChangeResolutionContext context = EMPTY_CONTEXT
 	
 	private def checkNoProxies(Resource resource, String stateNotice) {
 		val proxies = resource.referencedProxies
@@ -39,8 +44,43 @@ class JavaStateBasedChangeResolutionStrategy implements StateBasedChangeResoluti
 			resource.URI, String.join(", ", proxies.map[toString]))
 	}
 
+	private def checkNoProxies(ChangeResolutionScope scope) {
+		val proxies = EcoreUtil.ProxyCrossReferencer.find(scope.comparedRoots).keySet
+		checkArgument(proxies.empty, "The compared states should not contain proxies, but contain the following: %s",
+			String.join(", ", proxies.map[toString]))
+	}
+	
+	/**
+	 * Runs an action, e.g., the propagation of a changed state, in which the calls to getChangeSequenceBetween
+	 * and getChangeSequenceForCreated use the given context. Afterwards, the previous context is restored.
+	 * 
+	 * @param changeResolutionContext the context. null to compare the complete states.
+	 * @param action the action to run.
+	 */
+	def synchronized void runWithContext(JavaChangeResolutionContext changeResolutionContext, Runnable action) {
+		val previousContext = context
+		context = changeResolutionContext ?: EMPTY_CONTEXT
+		try {
+			action.run
+		} finally {
+			context = previousContext
+		}
+	}
+
 	override getChangeSequenceBetween(Resource newState, Resource oldState) {
 		checkArgument(oldState !== null && newState !== null, "old state or new state must not be null!")
+		var files = context.changedFiles
+		val fingerprints = context.fingerprints
+		if (fingerprints !== null) {
+			val changedFiles = fingerprints.getChangedFiles(newState, oldState, context.oldStateCommit)
+			if (changedFiles !== null) {
+				logger.debug("The fingerprints of " + changedFiles.size + " compilation units changed.")
+				files = changedFiles
+			}
+		}
+		if (files !== null) {
+			return getChangeSequenceInScope(newState, oldState, files)
+		}
 		newState.checkNoProxies("new state")
 		oldState.checkNoProxies("old state")
 		val monitoredResourceSet = new ResourceSetImpl()
@@ -49,13 +89,33 @@ class JavaStateBasedChangeResolutionStrategy implements StateBasedChangeResoluti
 			if (oldState.URI != newState.URI) {
 				currentStateCopy.URI = newState.URI
 			}
-			compareStatesAndReplayChanges(newState, currentStateCopy, null, null)
+			compareStatesAndReplayChanges(newState, currentStateCopy, null, null, null, context.renamedFiles)
+		])
+	}
+
+	/**
+	 * Creates the change sequence between two states in which only the compilation units of the changed
+	 * files and the models related to them are copied and compared.
+	 */
+	private def getChangeSequenceInScope(Resource newState, Resource oldState, Collection<String> files) {
+		val scope = new ChangeResolutionScope(newState, oldState, files)
+		scope.checkNoProxies
+		val monitoredResourceSet = new ResourceSetImpl()
+		val currentStateCopy = scope.copyOldState(monitoredResourceSet)
+		logger.debug("Comparing " + scope.comparedRoots.size + " of " + (newState.contents.size
+			+ oldState.contents.size) + " root elements.")
+		return currentStateCopy.record(monitoredResourceSet, [
+			if (oldState.URI != newState.URI) {
+				currentStateCopy.URI = newState.URI
+			}
+			compareStatesAndReplayChanges(newState, currentStateCopy, null, null, scope, context.renamedFiles)
 		])
 	}
 
 	override getChangeSequenceForCreated(Resource newState) {
 		checkArgument(newState !== null, "new state must not be null!")
 		newState.checkNoProxies("new state")
+		context.fingerprints?.record(newState)
 		// It is possible that root elements are automatically generated during resource creation (e.g., Java packages).
 		// Thus, we create the resource and then monitor the re-insertion of the elements
 		val monitoredResourceSet = new ResourceSetImpl()
@@ -154,18 +214,39 @@ class JavaStateBasedChangeResolutionStrategy implements StateBasedChangeResoluti
 	 */
 	private def compareStatesAndReplayChanges(Notifier newState, Notifier currentState,
 			List<Resource> newResources, List<Resource> currentResources) {
+		compareStatesAndReplayChanges(newState, currentState, newResources, currentResources, null, null)
+	}
+	
+	/**
+	 * Compares states using EMFCompare and replays the changes to the current state.
+	 * If a scope is given, only the root elements within the scope are compared.
+	 * If renamed files are given, their compilation units are matched with the ones of the original files.
+	 */
+	private def compareStatesAndReplayChanges(Notifier newState, Notifier currentState,
+			List<Resource> newResources, List<Resource> currentResources, ChangeResolutionScope scope,
+			Map<String, String> renames) {
 		val postProcessor = new JavaChangedMethodDetectorDiffPostProcessor()
-		val changes = JavaModelComparator.compareJavaModels(newState, currentState,
-				newResources, currentResources, postProcessor).differences
+		var List<Diff> changes
+		try (val phase = PhaseProfiler.start(PhaseProfiler.STATE_DIFF)) {
+			if (scope === null) {
+				changes = JavaModelComparator.compareJavaModels(newState, currentState,
+						newResources, currentResources, renames, postProcessor).differences
+			} else {
+				changes = JavaModelComparator.compareJavaModels(newState, currentState, [scope.isCompared(it)],
+						renames, postProcessor).differences.filter[!scope.isOutOfScope(it)].toList
+			}
+		}
 		// Replay the EMF compare differences.
-		val mergerRegistry = IMerger.RegistryImpl.createStandaloneInstance()
-		val merger = new BatchMerger(mergerRegistry)
-		merger.copyAllLeftToRight(changes, new BasicMonitor)
-		postProcessor.getChangedMethods.forEach[
-			val oldName = it.name
-			it.name = ""
-			it.name = oldName
-		]
+		try (val phase = PhaseProfiler.start(PhaseProfiler.REPLAY)) {
+			val mergerRegistry = IMerger.RegistryImpl.createStandaloneInstance()
+			val merger = new BatchMerger(mergerRegistry)
+			merger.copyAllLeftToRight(changes, new BasicMonitor)
+			postProcessor.getChangedMethods.forEach[
+				val oldName = it.name
+				it.name = ""
+				it.name = oldName
+			]
+		}
 	}
 
 	/**
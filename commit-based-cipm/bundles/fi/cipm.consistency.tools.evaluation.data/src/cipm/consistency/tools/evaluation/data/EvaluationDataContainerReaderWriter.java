@@ -5,6 +5,7 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import com.google.gson.Gson;
 
@@ -44,4 +45,34 @@ public final class EvaluationDataContainerReaderWriter {
 		} catch (IOException e) {
 		}
 	}
+
+	/**
+	 * Writes the phases of the execution times as CSV file. Every line contains the
+	 * path of a phase (the names of the phase and its parent phases separated by a
+	 * slash), the number of executions, the duration and the duration without the
+	 * sub-phases in nanoseconds, the allocated bytes, and the heap high-water mark
+	 * in bytes.
+	 * 
+	 * @param result the data with the phases to write.
+	 * @param file   the file in which the phases are written.
+	 */
+	public static void writePhases(EvaluationDataContainer result, Path file) {
+		try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+			writer.write("phase;count;duration;selfDuration;allocatedBytes;heapHighWaterMark");
+			writer.newLine();
+			writePhases(writer, "", result.getExecutionTimes().getPhases());
+		} catch (IOException e) {
+		}
+	}
+
+	private static void writePhases(BufferedWriter writer, String parentPath, List<PhaseTimeData> phases)
+			throws IOException {
+		for (PhaseTimeData phase : phases) {
+			String path = parentPath + phase.getName();
+			writer.write(path + ";" + phase.getCount() + ";" + phase.getDuration() + ";" + phase.getSelfDuration()
+					+ ";" + phase.getAllocatedBytes() + ";" + phase.getHeapHighWaterMark());
+			writer.newLine();
+			writePhases(writer, path + "/", phase.getChildren());
+		}
+	}
 }
@@ -1,14 +1,21 @@
 package cipm.consistency.tools.evaluation.data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A data structure for execution times.
  * 
+ * In addition to the coarse times in milliseconds, the phases recorded by the
+ * {@link PhaseProfiler} are stored hierarchically with nanosecond resolution.
+ * 
  * @author Martin Armbruster
  */
 public class ExecutionTimeData {
 	private long changePropagationTime;
 	private long instrumentationTime;
 	private long overallTime;
+	private List<PhaseTimeData> phases = new ArrayList<>();
 	
 	public long getChangePropagationTime() {
 		return changePropagationTime;
@@ -33,4 +40,18 @@ public class ExecutionTimeData {
 	public void setOverallTime(long overallTime) {
 		this.overallTime = overallTime;
 	}
+	
+	public synchronized List<PhaseTimeData> getPhases() {
+		return new ArrayList<>(phases);
+	}
+	
+	/**
+	 * Returns the data of a top-level phase. If there is no data for the phase, it is created.
+	 * 
+	 * @param name name of the phase.
+	 * @return the data of the phase.
+	 */
+	public synchronized PhaseTimeData getOrCreatePhase(String name) {
+		return PhaseTimeData.getOrCreate(phases, name);
+	}
 }
@@ -0,0 +1,245 @@
+package cipm.consistency.tools.evaluation.data;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Records nested phases of the commit integration in the {@link ExecutionTimeData} of the global
+ * {@link EvaluationDataContainer}. A phase is started with {@link #start(String)} and ended by closing
+ * the returned {@link Phase}, preferably with a try-with-resources statement. Phases which are started
+ * while another phase of the same thread is running become its sub-phases.
+ *
+ * For every phase, the duration in nanoseconds, the bytes allocated by the executing thread (if the
+ * JVM supports the measurement), and the heap high-water mark are recorded. The high-water mark is
+ * obtained by resetting the peak usages of the heap memory pools at the start of a phase. As the
+ * peak usages are shared by the whole JVM, they are only reset if no phase of another thread is
+ * running. Otherwise, the high-water mark is only approximate.
+ *
+ * Phases of a background thread which prepares work for a later commit are recorded separately with
+ * {@link #recordInto(ExecutionTimeData)} and attached with {@link #attach(ExecutionTimeData)} when the
+ * commit is processed.
+ */
+public final class PhaseProfiler {
+	public static final String COMMIT = "commit";
+	public static final String DIFF = "diff";
+	public static final String CLEAN = "clean";
+	public static final String CHECKOUT = "checkout";
+	public static final String PREPROCESS = "preprocess";
+	public static final String PARSE = "parse";
+	public static final String COMPONENT_DETECTION = "component detection";
+	public static final String PROPAGATION = "propagation";
+	public static final String STATE_DIFF = "state diff";
+	public static final String REPLAY = "replay";
+	public static final String SEFF_RECONSTRUCTION = "seff reconstruction";
+	public static final String IM_UPDATE = "im update";
+	public static final String INSTRUMENTATION = "instrumentation";
+	public static final String SAVING = "saving";
+
+	private static final ThreadLocal<Deque<Phase>> RUNNING_PHASES = ThreadLocal.withInitial(ArrayDeque::new);
+	private static final ThreadLocal<ExecutionTimeData> RECORDING_TARGET = new ThreadLocal<>();
+	private static final AtomicInteger RUNNING_PHASE_COUNT = new AtomicInteger();
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final Method ALLOCATED_BYTES = findAllocatedBytesMethod();
+	private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+			.filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid()).collect(Collectors.toList());
+
+	private PhaseProfiler() {
+	}
+
+	/**
+	 * Starts a phase.
+	 *
+	 * @param name name of the phase.
+	 * @return the started phase which needs to be closed at its end.
+	 */
+	public static Phase start(String name) {
+		Deque<Phase> running = RUNNING_PHASES.get();
+		ExecutionTimeData times = getTarget();
+		Phase parent = running.peek();
+		PhaseTimeData data;
+		if (parent != null && parent.times == times) {
+			parent.updateHighWaterMark(getHeapPeakUsage());
+			data = parent.data.getOrCreateChild(name);
+		} else {
+			parent = null;
+			data = times.getOrCreatePhase(name);
+		}
+		// The running phases of this thread are not counted yet.
+		boolean exclusive = RUNNING_PHASE_COUNT.get() == running.size();
+		Phase phase = new Phase(times, data, parent, exclusive);
+		RUNNING_PHASE_COUNT.incrementAndGet();
+		running.push(phase);
+		return phase;
+	}
+
+	/**
+	 * Records the phases of the current thread into specific execution times instead of the execution
+	 * times of the global {@link EvaluationDataContainer} until the returned recording is closed.
+	 *
+	 * @param times the execution times in which the phases are recorded.
+	 * @return the recording which needs to be closed at its end.
+	 */
+	public static Recording recordInto(ExecutionTimeData times) {
+		ExecutionTimeData previous = RECORDING_TARGET.get();
+		RECORDING_TARGET.set(times);
+		return () -> {
+			if (previous == null) {
+				RECORDING_TARGET.remove();
+			} else {
+				RECORDING_TARGET.set(previous);
+			}
+		};
+	}
+
+	/**
+	 * Attaches phases which were recorded separately, e.g., with {@link #recordInto(ExecutionTimeData)} in
+	 * a background thread. The phases become sub-phases of the running phase of the current thread. If no
+	 * phase is running, they become top-level phases.
+	 *
+	 * @param recorded the execution times with the recorded phases.
+	 */
+	public static void attach(ExecutionTimeData recorded) {
+		ExecutionTimeData times = getTarget();
+		Phase parent = RUNNING_PHASES.get().peek();
+		for (PhaseTimeData phase : recorded.getPhases()) {
+			if (parent != null && parent.times == times) {
+				parent.data.getOrCreateChild(phase.getName()).merge(phase);
+			} else {
+				times.getOrCreatePhase(phase.getName()).merge(phase);
+			}
+		}
+	}
+
+	private static ExecutionTimeData getTarget() {
+		ExecutionTimeData target = RECORDING_TARGET.get();
+		return target != null ? target : EvaluationDataContainer.getGlobalContainer().getExecutionTimes();
+	}
+
+	private static Method findAllocatedBytesMethod() {
+		// The com.sun.management extension is not available on all JVMs.
+		try {
+			Class<?> extension = Class.forName("com.sun.management.ThreadMXBean", true,
+					ClassLoader.getPlatformClassLoader());
+			if (!extension.isInstance(THREADS)) {
+				return null;
+			}
+			Method method = extension.getMethod("getThreadAllocatedBytes", long.class);
+			Method supported = extension.getMethod("isThreadAllocatedMemorySupported");
+			if (!((Boolean) supported.invoke(THREADS))) {
+				return null;
+			}
+			extension.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(THREADS, true);
+			return method;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		if (ALLOCATED_BYTES == null) {
+			return -1;
+		}
+		try {
+			return (Long) ALLOCATED_BYTES.invoke(THREADS, Thread.currentThread().getId());
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return -1;
+		}
+	}
+
+	private static long getHeapPeakUsage() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : HEAP_POOLS) {
+			peak += pool.getPeakUsage().getUsed();
+		}
+		return peak;
+	}
+
+	private static long resetHeapPeakUsage() {
+		long used = 0;
+		for (MemoryPoolMXBean pool : HEAP_POOLS) {
+			pool.resetPeakUsage();
+			used += pool.getPeakUsage().getUsed();
+		}
+		return used;
+	}
+
+	private static long getHeapUsage() {
+		long used = 0;
+		for (MemoryPoolMXBean pool : HEAP_POOLS) {
+			used += pool.getUsage().getUsed();
+		}
+		return used;
+	}
+
+	/**
+	 * A recording of phases into specific execution times.
+	 */
+	public interface Recording extends AutoCloseable {
+		/**
+		 * Ends the recording. Afterwards, the phases are recorded into the previous execution times.
+		 */
+		@Override
+		void close();
+	}
+
+	/**
+	 * A running phase.
+	 */
+	public static final class Phase implements AutoCloseable {
+		private final ExecutionTimeData times;
+		private final PhaseTimeData data;
+		private final Phase parent;
+		private final long startAllocatedBytes;
+		private long highWaterMark;
+		private boolean closed;
+		private final long startTime;
+
+		private Phase(ExecutionTimeData times, PhaseTimeData data, Phase parent, boolean exclusive) {
+			this.times = times;
+			this.data = data;
+			this.parent = parent;
+			this.highWaterMark = exclusive ? resetHeapPeakUsage() : getHeapUsage();
+			this.startAllocatedBytes = getAllocatedBytes();
+			this.startTime = System.nanoTime();
+		}
+
+		private void updateHighWaterMark(long heapUsage) {
+			highWaterMark = Math.max(highWaterMark, heapUsage);
+		}
+
+		/**
+		 * Ends the phase and records its measurements. Sub-phases which are still
+		 * running are ended as well.
+		 */
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			long duration = System.nanoTime() - startTime;
+			long endAllocatedBytes = getAllocatedBytes();
+			Deque<Phase> running = RUNNING_PHASES.get();
+			while (!running.isEmpty() && running.peek() != this && running.contains(this)) {
+				running.peek().close();
+			}
+			running.remove(this);
+			closed = true;
+			RUNNING_PHASE_COUNT.decrementAndGet();
+			updateHighWaterMark(getHeapPeakUsage());
+			long allocated = startAllocatedBytes < 0 || endAllocatedBytes < 0 ? -1
+					: endAllocatedBytes - startAllocatedBytes;
+			data.addExecution(duration, allocated, highWaterMark);
+			if (parent != null) {
+				parent.updateHighWaterMark(highWaterMark);
+			}
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package cipm.consistency.tools.evaluation.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A data structure for the measurements of a phase. All executions of a phase
+ * with the same name and the same parent phase are aggregated.
+ */
+public class PhaseTimeData {
+	private String name;
+	private int count;
+	private long duration;
+	private long allocatedBytes;
+	private long heapHighWaterMark;
+	private List<PhaseTimeData> children = new ArrayList<>();
+
+	public PhaseTimeData() {
+	}
+
+	public PhaseTimeData(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns how often the phase was executed.
+	 *
+	 * @return the number of executions.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the summed duration of all executions.
+	 *
+	 * @return the duration in nanoseconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Returns the duration of all executions without the duration of the sub-phases.
+	 *
+	 * @return the duration in nanoseconds.
+	 */
+	public synchronized long getSelfDuration() {
+		long self = duration;
+		for (PhaseTimeData child : children) {
+			self -= child.getDuration();
+		}
+		return self;
+	}
+
+	/**
+	 * Returns the summed number of bytes allocated by the thread executing the phase.
+	 *
+	 * @return the allocated bytes or -1 if they cannot be measured.
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * Returns the maximum heap usage during all executions. It is the sum of the
+	 * peak usages of the heap memory pools so that it can overestimate the actual
+	 * maximum.
+	 *
+	 * @return the heap high-water mark in bytes.
+	 */
+	public long getHeapHighWaterMark() {
+		return heapHighWaterMark;
+	}
+
+	public synchronized List<PhaseTimeData> getChildren() {
+		return new ArrayList<>(children);
+	}
+
+	/**
+	 * Returns the data of a sub-phase. If there is no data for the sub-phase, it is created.
+	 *
+	 * @param childName name of the sub-phase.
+	 * @return the data of the sub-phase.
+	 */
+	public synchronized PhaseTimeData getOrCreateChild(String childName) {
+		return getOrCreate(children, childName);
+	}
+
+	/**
+	 * Adds the measurements of an execution.
+	 *
+	 * @param executionDuration       the duration in nanoseconds.
+	 * @param executionAllocatedBytes the allocated bytes or -1 if they cannot be measured.
+	 * @param executionHighWaterMark  the heap high-water mark in bytes.
+	 */
+	public synchronized void addExecution(long executionDuration, long executionAllocatedBytes,
+			long executionHighWaterMark) {
+		if (count == 0 || allocatedBytes >= 0) {
+			allocatedBytes = executionAllocatedBytes < 0 ? -1 : allocatedBytes + executionAllocatedBytes;
+		}
+		count++;
+		duration += executionDuration;
+		heapHighWaterMark = Math.max(heapHighWaterMark, executionHighWaterMark);
+	}
+
+	/**
+	 * Adds the measurements of another phase including its sub-phases.
+	 *
+	 * @param other the other phase.
+	 */
+	public void merge(PhaseTimeData other) {
+		synchronized (this) {
+			if (other.getCount() > 0) {
+				if (count == 0 || allocatedBytes >= 0) {
+					allocatedBytes = other.getAllocatedBytes() < 0 ? -1 : allocatedBytes + other.getAllocatedBytes();
+				}
+				count += other.getCount();
+				duration += other.getDuration();
+				heapHighWaterMark = Math.max(heapHighWaterMark, other.getHeapHighWaterMark());
+			}
+		}
+		for (PhaseTimeData otherChild : other.getChildren()) {
+			getOrCreateChild(otherChild.getName()).merge(otherChild);
+		}
+	}
+
+	static PhaseTimeData getOrCreate(List<PhaseTimeData> phases, String phaseName) {
+		for (PhaseTimeData phase : phases) {
+			if (phase.getName().equals(phaseName)) {
+				return phase;
+			}
+		}
+		PhaseTimeData phase = new PhaseTimeData(phaseName);
+		phases.add(phase);
+		return phase;
+	}
+}
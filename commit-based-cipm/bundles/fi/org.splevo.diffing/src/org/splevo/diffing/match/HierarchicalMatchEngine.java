@@ -13,11 +13,18 @@
 package org.splevo.diffing.match;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.common.util.Monitor;
 import org.eclipse.emf.compare.CompareFactory;
@@ -26,12 +33,17 @@ import org.eclipse.emf.compare.Match;
 import org.eclipse.emf.compare.MatchResource;
 import org.eclipse.emf.compare.match.IMatchEngine;
 import org.eclipse.emf.compare.match.resource.IResourceMatcher;
+import org.eclipse.emf.compare.scope.FilterComparisonScope;
 import org.eclipse.emf.compare.scope.IComparisonScope;
 import org.eclipse.emf.compare.utils.IEqualityHelper;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
@@ -44,6 +56,24 @@ import com.google.common.collect.Lists;
  * This match engine does not support three-way matches. So the origin part of the scop is ignored
  * at all.
  * </p>
+ * <p>
+ * <b>Filtered Root Elements</b><br>
+ * If the scope is a {@link FilterComparisonScope}, its EObject content filter is applied to the
+ * root elements of the resources. Root elements which are filtered out are not matched at all.
+ * </p>
+ * <p>
+ * <b>Identical Subtrees</b><br>
+ * If a {@link SubtreeHashStrategy} is provided and two equal elements have the same subtree hash,
+ * their contents are matched by their positions without asking the equality strategy. The matches
+ * created this way are marked, so a diff engine can skip them (see
+ * {@link #isIdenticalSubtreeMatch(Match)}).
+ * </p>
+ * <p>
+ * <b>Seeded Matches</b><br>
+ * If a {@link MatchSeedStrategy} is provided, a left and a right element of the same level with the
+ * same seed key are matched without asking the equality strategy, for example, because they are
+ * known to be renamed. Their contents are matched as usual.
+ * </p>
  */
 public class HierarchicalMatchEngine implements IMatchEngine {
 
@@ -62,6 +92,18 @@ public class HierarchicalMatchEngine implements IMatchEngine {
     /** The resource matcher to find resources belonging together. */
     private IResourceMatcher resourceMatcher = null;
 
+    /** The strategy to pre-select match candidates. Null if all candidates must be checked. */
+    private CandidateKeyStrategy candidateKeyStrategy = null;
+
+    /** The strategy to detect identical subtrees. Null if all subtrees must be matched. */
+    private SubtreeHashStrategy subtreeHashStrategy = null;
+
+    /** The strategy to provide pre-established matches. Null if there are none. */
+    private MatchSeedStrategy matchSeedStrategy = null;
+
+    /** The filter for the root elements of the resources to match. */
+    private Predicate<? super EObject> rootFilter = Predicates.alwaysTrue();
+
     /**
      * Constructor to set the required dependencies.
      *
@@ -82,6 +124,40 @@ public class HierarchicalMatchEngine implements IMatchEngine {
         this.resourceMatcher = resourceMatcher;
     }
 
+    /**
+     * Constructor to set the dependencies configured in a builder.
+     *
+     * @param builder
+     *            The builder with the dependencies.
+     */
+    private HierarchicalMatchEngine(Builder builder) {
+        this(builder.equalityHelper, builder.equalityStrategy, builder.ignoreStrategy, builder.resourceMatcher);
+        this.candidateKeyStrategy = builder.candidateKeyStrategy;
+        this.subtreeHashStrategy = builder.subtreeHashStrategy;
+        this.matchSeedStrategy = builder.matchSeedStrategy;
+    }
+
+    /**
+     * Create a builder for a match engine with optional strategies.
+     *
+     * @return The builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Check if a match was created for an element of an identical subtree. Such a match and all
+     * its sub matches have no differences.
+     *
+     * @param match
+     *            The match to check.
+     * @return True if the match belongs to an identical subtree, false if not.
+     */
+    public static boolean isIdenticalSubtreeMatch(Match match) {
+        return EcoreUtil.getExistingAdapter(match, IdenticalSubtreeMarker.class) != null;
+    }
+
     @Override
     public Comparison match(IComparisonScope scope, Monitor monitor) {
 
@@ -91,7 +167,22 @@ public class HierarchicalMatchEngine implements IMatchEngine {
         Comparison comparison = createComparison();
         comparison.setThreeWay(false);
 
-        match(comparison, scope, left, right, monitor);
+        if (scope instanceof FilterComparisonScope) {
+            rootFilter = ((FilterComparisonScope) scope).getEObjectContentFilter();
+        }
+
+        equalityStrategy.startMatching();
+        if (subtreeHashStrategy != null) {
+            subtreeHashStrategy.startMatching();
+        }
+        try {
+            match(comparison, scope, left, right, monitor);
+        } finally {
+            equalityStrategy.finishMatching();
+            if (subtreeHashStrategy != null) {
+                subtreeHashStrategy.finishMatching();
+            }
+        }
 
         return comparison;
     }
@@ -193,10 +284,10 @@ public class HierarchicalMatchEngine implements IMatchEngine {
         List<EObject> rightElements = new ArrayList<EObject>();
 
         if (leftRes != null) {
-            leftElements = leftRes.getContents();
+            leftElements = filterRootElements(leftRes.getContents());
         }
         if (rightRes != null) {
-            rightElements = rightRes.getContents();
+            rightElements = filterRootElements(rightRes.getContents());
         }
 
         List<Match> matches = match(comparison, leftElements, rightElements, monitor);
@@ -246,27 +337,32 @@ public class HierarchicalMatchEngine implements IMatchEngine {
 
         List<EObject> leftElementsInScope = filterIgnoredElements(leftElements);
         List<EObject> rightElementsInScope = filterIgnoredElements(rightElements);
+        CandidateIndex rightCandidates = new CandidateIndex(rightElementsInScope);
+        Map<EObject, Integer> seededPositions = getSeededPositions(leftElementsInScope, rightElementsInScope,
+                rightCandidates);
 
         for (EObject leftElement : leftElementsInScope) {
             Match match = CompareFactory.eINSTANCE.createMatch();
             match.setLeft(leftElement);
 
-            var rightElementsIterator = rightElementsInScope.iterator();
-            while (rightElementsIterator.hasNext()) {
-            	var rightElement = rightElementsIterator.next();
-            	
-                if (equalityStrategy.areEqual(leftElement, rightElement)) {
-                	rightElementsIterator.remove();
-                    match.setRight(rightElement);
-                    
-                    List<Match> subMatches = match(comparison, leftElement.eContents(), rightElement.eContents(),
-                            monitor);
-                    match.getSubmatches().addAll(subMatches);
-                    
-                    break;
+            Integer seededPosition = seededPositions.get(leftElement);
+            if (seededPosition != null) {
+                EObject rightElement = rightElementsInScope.get(seededPosition);
+                match.setRight(rightElement);
+                match.getSubmatches().addAll(matchContents(comparison, leftElement, rightElement, monitor));
+            } else {
+                for (int position : rightCandidates.getCandidatePositions(leftElement)) {
+                    EObject rightElement = rightElementsInScope.get(position);
+
+                    if (equalityStrategy.areEqual(leftElement, rightElement)) {
+                        rightCandidates.markMatched(position);
+                        match.setRight(rightElement);
+                        match.getSubmatches().addAll(matchContents(comparison, leftElement, rightElement, monitor));
+                        break;
+                    }
                 }
             }
-            
+
             if (match.getRight() == null) {
             	match.getSubmatches().addAll(match(comparison, leftElement.eContents(), new BasicEList<>(), monitor));
             }
@@ -274,12 +370,138 @@ public class HierarchicalMatchEngine implements IMatchEngine {
             matches.add(match);
         }
 
-        List<Match> rightOnlyMatches = createMatchesForRightElements(rightElementsInScope);
+        List<Match> rightOnlyMatches = createMatchesForRightElements(rightCandidates.getUnmatchedElements());
         matches.addAll(rightOnlyMatches);
 
         return matches;
     }
 
+    /**
+     * Create the matches for the contents of two matched elements.
+     *
+     * @param comparison
+     *            The comparison to fill up.
+     * @param leftElement
+     *            The matched left element.
+     * @param rightElement
+     *            The matched right element.
+     * @param monitor
+     *            The monitor to track the progress.
+     * @return The list of created matches.
+     */
+    private List<Match> matchContents(Comparison comparison, EObject leftElement, EObject rightElement,
+            Monitor monitor) {
+        if (haveIdenticalSubtrees(leftElement, rightElement)) {
+            return createIdenticalMatches(comparison, leftElement.eContents(), rightElement.eContents(), monitor);
+        }
+        return match(comparison, leftElement.eContents(), rightElement.eContents(), monitor);
+    }
+
+    /**
+     * Pair the left and right elements of a level which have the same seed key. A seed key shared
+     * by several elements of one side is ambiguous and ignored. The paired right elements are marked
+     * as matched in the candidate index.
+     *
+     * @param leftElements
+     *            The left elements of the level.
+     * @param rightElements
+     *            The right elements of the level.
+     * @param rightCandidates
+     *            The candidate index of the right elements.
+     * @return The positions of the paired right elements by their left elements.
+     */
+    private Map<EObject, Integer> getSeededPositions(List<EObject> leftElements, List<EObject> rightElements,
+            CandidateIndex rightCandidates) {
+        if (matchSeedStrategy == null) {
+            return Collections.emptyMap();
+        }
+
+        Set<Object> ambiguousKeys = new HashSet<Object>();
+        Map<Object, EObject> leftSeeds = new HashMap<Object, EObject>();
+        for (EObject leftElement : leftElements) {
+            Object key = matchSeedStrategy.getLeftSeedKey(leftElement);
+            if (key != null && leftSeeds.putIfAbsent(key, leftElement) != null) {
+                ambiguousKeys.add(key);
+            }
+        }
+        if (leftSeeds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Object, Integer> rightSeeds = new HashMap<Object, Integer>();
+        for (int i = 0; i < rightElements.size(); i++) {
+            Object key = matchSeedStrategy.getRightSeedKey(rightElements.get(i));
+            if (key != null && leftSeeds.containsKey(key) && rightSeeds.putIfAbsent(key, i) != null) {
+                ambiguousKeys.add(key);
+            }
+        }
+
+        Map<EObject, Integer> seededPositions = new IdentityHashMap<EObject, Integer>();
+        for (Map.Entry<Object, Integer> rightSeed : rightSeeds.entrySet()) {
+            if (!ambiguousKeys.contains(rightSeed.getKey())) {
+                seededPositions.put(leftSeeds.get(rightSeed.getKey()), rightSeed.getValue());
+                rightCandidates.markMatched(rightSeed.getValue());
+            }
+        }
+        return seededPositions;
+    }
+
+    /**
+     * Check if two equal elements have identical subtrees.
+     *
+     * @param left
+     *            The left element.
+     * @param right
+     *            The right element.
+     * @return True if both subtrees have the same known hash, false if not.
+     */
+    private boolean haveIdenticalSubtrees(EObject left, EObject right) {
+        if (subtreeHashStrategy == null) {
+            return false;
+        }
+        Object leftHash = subtreeHashStrategy.getSubtreeHash(left);
+        return leftHash != null && leftHash.equals(subtreeHashStrategy.getSubtreeHash(right));
+    }
+
+    /**
+     * Create the matches for the contents of two identical subtrees. The elements are matched by
+     * their positions, so the equality strategy is not asked at all.
+     *
+     * @param comparison
+     *            The comparison to fill up.
+     * @param leftElements
+     *            The left elements of the identical subtree.
+     * @param rightElements
+     *            The right elements of the identical subtree.
+     * @param monitor
+     *            The monitor to track the progress.
+     * @return The list of created matches.
+     */
+    private List<Match> createIdenticalMatches(Comparison comparison, List<EObject> leftElements,
+            List<EObject> rightElements, Monitor monitor) {
+
+        List<EObject> leftElementsInScope = filterIgnoredElements(leftElements);
+        List<EObject> rightElementsInScope = filterIgnoredElements(rightElements);
+        if (leftElementsInScope.size() != rightElementsInScope.size()) {
+            return match(comparison, leftElements, rightElements, monitor);
+        }
+
+        List<Match> matches = new ArrayList<Match>(leftElementsInScope.size());
+        for (int i = 0; i < leftElementsInScope.size(); i++) {
+            EObject leftElement = leftElementsInScope.get(i);
+            EObject rightElement = rightElementsInScope.get(i);
+
+            Match match = CompareFactory.eINSTANCE.createMatch();
+            match.setLeft(leftElement);
+            match.setRight(rightElement);
+            match.eAdapters().add(new IdenticalSubtreeMarker());
+            match.getSubmatches().addAll(
+                    createIdenticalMatches(comparison, leftElement.eContents(), rightElement.eContents(), monitor));
+            matches.add(match);
+        }
+        return matches;
+    }
+
     /**
      * Create match objects with only right references set for a list of new elements.
      *
@@ -298,6 +520,23 @@ public class HierarchicalMatchEngine implements IMatchEngine {
         return rightMatches;
     }
 
+    /**
+     * Get the root elements of a resource which pass the root filter of the scope.
+     *
+     * @param roots
+     *            The root elements of a resource.
+     * @return The filtered root elements.
+     */
+    private List<EObject> filterRootElements(List<EObject> roots) {
+        List<EObject> filteredRoots = new ArrayList<EObject>(roots.size());
+        for (EObject root : roots) {
+            if (rootFilter.apply(root)) {
+                filteredRoots.add(root);
+            }
+        }
+        return filteredRoots;
+    }
+
     /**
      * Get a filtered list of elements without any elements that are not in scope.
      *
@@ -326,6 +565,141 @@ public class HierarchicalMatchEngine implements IMatchEngine {
         return elementsInScope;
     }
 
+    /**
+     * Index of the right elements of a single hierarchy level. Elements are grouped by their
+     * candidate key so a left element is only compared to the right elements sharing its key and
+     * to those without a key. Candidates are always returned in their original order to keep the
+     * first-match semantics of a plain linear scan.
+     */
+    private final class CandidateIndex {
+
+        /** The indexed elements. */
+        private final List<EObject> elements;
+
+        /** Flags for the elements already matched with a left element. */
+        private final boolean[] matched;
+
+        /** The ascending positions of all keyed elements grouped by their key. */
+        private final Map<Object, List<Integer>> keyedPositions = new HashMap<Object, List<Integer>>();
+
+        /** The ascending positions of all elements without a key. */
+        private final List<Integer> unkeyedPositions = new ArrayList<Integer>();
+
+        /**
+         * Build the index for a list of elements.
+         *
+         * @param elements
+         *            The elements to index.
+         */
+        private CandidateIndex(List<EObject> elements) {
+            this.elements = elements;
+            this.matched = new boolean[elements.size()];
+            for (int i = 0; i < elements.size(); i++) {
+                Object key = getCandidateKey(elements.get(i));
+                if (key == null) {
+                    unkeyedPositions.add(i);
+                } else {
+                    keyedPositions.computeIfAbsent(key, k -> new ArrayList<Integer>()).add(i);
+                }
+            }
+        }
+
+        /**
+         * Get the positions of all unmatched elements that might be equal to the provided one.
+         *
+         * @param element
+         *            The element to get the candidates for.
+         * @return The ascending candidate positions.
+         */
+        private List<Integer> getCandidatePositions(EObject element) {
+            Object key = getCandidateKey(element);
+            if (key == null) {
+                return getUnmatchedPositions();
+            }
+
+            List<Integer> keyed = keyedPositions.getOrDefault(key, List.of());
+            List<Integer> candidates = new ArrayList<Integer>(keyed.size() + unkeyedPositions.size());
+            int keyedIndex = 0;
+            int unkeyedIndex = 0;
+            while (keyedIndex < keyed.size() || unkeyedIndex < unkeyedPositions.size()) {
+                int position;
+                if (unkeyedIndex >= unkeyedPositions.size()
+                        || (keyedIndex < keyed.size() && keyed.get(keyedIndex) < unkeyedPositions.get(unkeyedIndex))) {
+                    position = keyed.get(keyedIndex++);
+                } else {
+                    position = unkeyedPositions.get(unkeyedIndex++);
+                }
+                if (!matched[position]) {
+                    candidates.add(position);
+                }
+            }
+            return candidates;
+        }
+
+        /**
+         * Mark an element as matched so it is not offered as a candidate anymore.
+         *
+         * @param position
+         *            The position of the matched element.
+         */
+        private void markMatched(int position) {
+            matched[position] = true;
+        }
+
+        /**
+         * Get the elements not matched so far in their original order.
+         *
+         * @return The unmatched elements.
+         */
+        private List<EObject> getUnmatchedElements() {
+            List<EObject> unmatched = new ArrayList<EObject>();
+            for (int position : getUnmatchedPositions()) {
+                unmatched.add(elements.get(position));
+            }
+            return unmatched;
+        }
+
+        /**
+         * Get the positions of the elements not matched so far.
+         *
+         * @return The ascending positions.
+         */
+        private List<Integer> getUnmatchedPositions() {
+            List<Integer> positions = new ArrayList<Integer>();
+            for (int i = 0; i < matched.length; i++) {
+                if (!matched[i]) {
+                    positions.add(i);
+                }
+            }
+            return positions;
+        }
+    }
+
+    /**
+     * Get the candidate key of an element.
+     *
+     * @param element
+     *            The element to get the key for.
+     * @return The key or null if the element can be equal to any other element.
+     */
+    private Object getCandidateKey(EObject element) {
+        if (candidateKeyStrategy == null) {
+            return null;
+        }
+        return candidateKeyStrategy.getCandidateKey(element);
+    }
+
+    /**
+     * Marker for the matches of identical subtrees.
+     */
+    private static final class IdenticalSubtreeMarker extends AdapterImpl {
+
+        @Override
+        public boolean isAdapterForType(Object type) {
+            return type == IdenticalSubtreeMarker.class;
+        }
+    }
+
     /**
      * This will be used to create the resource matcher that will be used by this match engine.
      *
@@ -360,6 +734,142 @@ public class HierarchicalMatchEngine implements IMatchEngine {
         return comparison;
     }
 
+    /**
+     * Builder for match engines. The equality helper, the equality and ignore strategies, and the
+     * resource matcher are required. All other strategies are optional.
+     */
+    public static final class Builder {
+
+        /** The equality helper for the model. */
+        private IEqualityHelper equalityHelper;
+
+        /** The strategy to be used to check for equality. */
+        private EqualityStrategy equalityStrategy;
+
+        /** The strategy to decide which elements to ignore. */
+        private IgnoreStrategy ignoreStrategy;
+
+        /** The resource matcher to find resources belonging together. */
+        private IResourceMatcher resourceMatcher;
+
+        /** The strategy to pre-select match candidates. */
+        private CandidateKeyStrategy candidateKeyStrategy;
+
+        /** The strategy to detect identical subtrees. */
+        private SubtreeHashStrategy subtreeHashStrategy;
+
+        /** The strategy to provide pre-established matches. */
+        private MatchSeedStrategy matchSeedStrategy;
+
+        /**
+         * Constructor for an empty builder. Use {@link HierarchicalMatchEngine#builder()}.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Set the equality helper.
+         *
+         * @param equalityHelper
+         *            The equality helper to check equality and to be wired with the comparison
+         *            model.
+         * @return This builder.
+         */
+        public Builder equalityHelper(IEqualityHelper equalityHelper) {
+            this.equalityHelper = equalityHelper;
+            return this;
+        }
+
+        /**
+         * Set the equality strategy.
+         *
+         * @param equalityStrategy
+         *            The equality strategy to use.
+         * @return This builder.
+         */
+        public Builder equalityStrategy(EqualityStrategy equalityStrategy) {
+            this.equalityStrategy = equalityStrategy;
+            return this;
+        }
+
+        /**
+         * Set the ignore strategy.
+         *
+         * @param ignoreStrategy
+         *            The strategy which elements must not be matched and can be ignored.
+         * @return This builder.
+         */
+        public Builder ignoreStrategy(IgnoreStrategy ignoreStrategy) {
+            this.ignoreStrategy = ignoreStrategy;
+            return this;
+        }
+
+        /**
+         * Set the resource matcher.
+         *
+         * @param resourceMatcher
+         *            The matcher to decide if two resources belong to each other.
+         * @return This builder.
+         */
+        public Builder resourceMatcher(IResourceMatcher resourceMatcher) {
+            this.resourceMatcher = resourceMatcher;
+            return this;
+        }
+
+        /**
+         * Set the strategy to pre-select the candidates checked by the equality strategy.
+         *
+         * @param candidateKeyStrategy
+         *            The strategy to compute candidate keys. Null to check all candidates.
+         * @return This builder.
+         */
+        public Builder candidateKeyStrategy(CandidateKeyStrategy candidateKeyStrategy) {
+            this.candidateKeyStrategy = candidateKeyStrategy;
+            return this;
+        }
+
+        /**
+         * Set the strategy to detect identical subtrees.
+         *
+         * @param subtreeHashStrategy
+         *            The strategy to compute subtree hashes. Null to match all subtrees element by
+         *            element.
+         * @return This builder.
+         */
+        public Builder subtreeHashStrategy(SubtreeHashStrategy subtreeHashStrategy) {
+            this.subtreeHashStrategy = subtreeHashStrategy;
+            return this;
+        }
+
+        /**
+         * Set the strategy to provide pre-established matches.
+         *
+         * @param matchSeedStrategy
+         *            The strategy to compute seed keys. Null if there are no pre-established
+         *            matches.
+         * @return This builder.
+         */
+        public Builder matchSeedStrategy(MatchSeedStrategy matchSeedStrategy) {
+            this.matchSeedStrategy = matchSeedStrategy;
+            return this;
+        }
+
+        /**
+         * Build the match engine.
+         *
+         * @return The match engine.
+         * @throws NullPointerException
+         *             If a required dependency is not set.
+         */
+        public HierarchicalMatchEngine build() {
+            Preconditions.checkNotNull(equalityHelper, "The equality helper is required.");
+            Preconditions.checkNotNull(equalityStrategy, "The equality strategy is required.");
+            Preconditions.checkNotNull(ignoreStrategy, "The ignore strategy is required.");
+            Preconditions.checkNotNull(resourceMatcher, "The resource matcher is required.");
+            return new HierarchicalMatchEngine(this);
+        }
+    }
+
     /**
      * A strategy function to check if two elements are equal.<br>
      * The strategy can assume that the compared elements are in the same model hierarchy.
@@ -377,6 +887,19 @@ public class HierarchicalMatchEngine implements IMatchEngine {
          * @return True if they can be assumed as equal, false if not.
          */
         public boolean areEqual(EObject left, EObject right);
+
+        /**
+         * Notifies the strategy that a match run starts. The matched models do not change until
+         * {@link #finishMatching()} is called, so decisions can be cached in between.
+         */
+        public default void startMatching() {
+        }
+
+        /**
+         * Notifies the strategy that a match run is finished.
+         */
+        public default void finishMatching() {
+        }
     }
 
     /**
@@ -395,4 +918,80 @@ public class HierarchicalMatchEngine implements IMatchEngine {
 
     }
 
+    /**
+     * A strategy function to pre-select the elements the equality strategy is asked for.<br>
+     * Elements with different keys are never checked for equality. So the keys of two elements
+     * must be equal whenever the equality strategy might consider them as equal.
+     */
+    public interface CandidateKeyStrategy {
+
+        /**
+         * Compute the candidate key of an element.
+         *
+         * @param element
+         *            The element to compute the key for.
+         * @return The key, or null if the element must be checked against all candidates.
+         */
+        public Object getCandidateKey(EObject element);
+
+    }
+
+    /**
+     * A strategy function to provide pre-established matches.<br>
+     * A left and a right element of the same level are matched without checking their equality if
+     * they have the same seed key. The seed keys of elements which must be matched by the equality
+     * strategy must be null.
+     */
+    public interface MatchSeedStrategy {
+
+        /**
+         * Compute the seed key of an element of the left model.
+         *
+         * @param element
+         *            The left element to compute the key for.
+         * @return The key, or null if the element has no pre-established match.
+         */
+        public Object getLeftSeedKey(EObject element);
+
+        /**
+         * Compute the seed key of an element of the right model.
+         *
+         * @param element
+         *            The right element to compute the key for.
+         * @return The key, or null if the element has no pre-established match.
+         */
+        public Object getRightSeedKey(EObject element);
+
+    }
+
+    /**
+     * A strategy function to compute structural hashes of subtrees.<br>
+     * Two equal elements with the same subtree hash must have contents which are equal position
+     * by position and have no differences.
+     */
+    public interface SubtreeHashStrategy {
+
+        /**
+         * Compute the hash of an element and all its contents.
+         *
+         * @param element
+         *            The root element of the subtree.
+         * @return The hash, or null if the subtree must be matched element by element.
+         */
+        public Object getSubtreeHash(EObject element);
+
+        /**
+         * Notifies the strategy that a match run starts. The matched models do not change until
+         * {@link #finishMatching()} is called, so hashes can be cached in between.
+         */
+        public default void startMatching() {
+        }
+
+        /**
+         * Notifies the strategy that a match run is finished.
+         */
+        public default void finishMatching() {
+        }
+    }
+
 }
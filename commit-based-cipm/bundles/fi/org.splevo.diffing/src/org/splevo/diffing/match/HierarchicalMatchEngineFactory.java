@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2013
- * 
+ *
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,32 +11,48 @@
  *******************************************************************************/
 package org.splevo.diffing.match;
 
+import java.util.function.Supplier;
+
 import org.eclipse.emf.compare.match.IMatchEngine;
 import org.eclipse.emf.compare.match.impl.MatchEngineFactoryImpl;
 import org.eclipse.emf.compare.match.resource.IResourceMatcher;
 import org.eclipse.emf.compare.scope.IComparisonScope;
 import org.eclipse.emf.compare.utils.IEqualityHelper;
+import org.splevo.diffing.match.HierarchicalMatchEngine.CandidateKeyStrategy;
 import org.splevo.diffing.match.HierarchicalMatchEngine.EqualityStrategy;
 import org.splevo.diffing.match.HierarchicalMatchEngine.IgnoreStrategy;
+import org.splevo.diffing.match.HierarchicalMatchEngine.MatchSeedStrategy;
+import org.splevo.diffing.match.HierarchicalMatchEngine.SubtreeHashStrategy;
+
+import com.google.common.base.Preconditions;
 
 /**
  * Factory specific for hierarchical match engines.
  */
 public class HierarchicalMatchEngineFactory extends MatchEngineFactoryImpl {
 
-	/** The equality helper to wire with the comparison model. */
-	private IEqualityHelper equalityHelper;
+	/** The supplier of the equality helper to wire with the comparison model. */
+	private Supplier<IEqualityHelper> equalityHelperSupplier;
 	/** The equality strategy to use for element matching. */
 	private EqualityStrategy equalityStrategy;
 	/** The strategy to use to ignore elements. */
 	private IgnoreStrategy ignoreStrategy;
 
-	/** The mode which resource matcher to use. */
-	private IResourceMatcher resourceMatcher;
+	/** The supplier of the resource matcher for each match engine. */
+	private Supplier<IResourceMatcher> resourceMatcherSupplier;
+
+	/** The strategy to pre-select match candidates. */
+	private CandidateKeyStrategy candidateKeyStrategy;
+
+	/** The strategy to detect identical subtrees. */
+	private SubtreeHashStrategy subtreeHashStrategy;
+
+	/** The strategy to provide pre-established matches. */
+	private MatchSeedStrategy matchSeedStrategy;
 
 	/**
 	 * Constructor to set the required match engine dependencies.
-	 * 
+	 *
 	 * @param equalityHelper
 	 *            The equality helper to wire with the comparison model.
 	 * @param equalityStrategy
@@ -49,10 +65,35 @@ public class HierarchicalMatchEngineFactory extends MatchEngineFactoryImpl {
 	public HierarchicalMatchEngineFactory(IEqualityHelper equalityHelper,
 			EqualityStrategy equalityStrategy, IgnoreStrategy ignoreStrategy,
 			IResourceMatcher resourceMatcher) {
-		this.equalityHelper = equalityHelper;
+		this.equalityHelperSupplier = () -> equalityHelper;
 		this.equalityStrategy = equalityStrategy;
 		this.ignoreStrategy = ignoreStrategy;
-		this.resourceMatcher = resourceMatcher;
+		this.resourceMatcherSupplier = () -> resourceMatcher;
+	}
+
+	/**
+	 * Constructor to set the match engine dependencies configured in a builder.
+	 *
+	 * @param builder
+	 *            The builder with the dependencies.
+	 */
+	private HierarchicalMatchEngineFactory(Builder builder) {
+		this.equalityHelperSupplier = builder.equalityHelperSupplier;
+		this.equalityStrategy = builder.equalityStrategy;
+		this.ignoreStrategy = builder.ignoreStrategy;
+		this.resourceMatcherSupplier = builder.resourceMatcherSupplier;
+		this.candidateKeyStrategy = builder.candidateKeyStrategy;
+		this.subtreeHashStrategy = builder.subtreeHashStrategy;
+		this.matchSeedStrategy = builder.matchSeedStrategy;
+	}
+
+	/**
+	 * Create a builder for a factory with optional strategies.
+	 *
+	 * @return The builder.
+	 */
+	public static Builder builder() {
+		return new Builder();
 	}
 
 	@Override
@@ -62,8 +103,150 @@ public class HierarchicalMatchEngineFactory extends MatchEngineFactoryImpl {
 
 	@Override
 	public IMatchEngine getMatchEngine() {
-		return new HierarchicalMatchEngine(equalityHelper, equalityStrategy,
-				ignoreStrategy, resourceMatcher);
+		return HierarchicalMatchEngine.builder()
+				.equalityHelper(equalityHelperSupplier.get())
+				.equalityStrategy(equalityStrategy)
+				.ignoreStrategy(ignoreStrategy)
+				.resourceMatcher(resourceMatcherSupplier.get())
+				.candidateKeyStrategy(candidateKeyStrategy)
+				.subtreeHashStrategy(subtreeHashStrategy)
+				.matchSeedStrategy(matchSeedStrategy)
+				.build();
+	}
+
+	/**
+	 * Builder for factories. The equality helper, the equality and ignore
+	 * strategies, and the resource matcher are required. All other strategies are
+	 * optional.
+	 *
+	 * A factory is usually reused for several comparisons. So the equality helper
+	 * and the resource matcher are given as suppliers and each created match
+	 * engine gets its own instances. No cached state of them survives a
+	 * comparison.
+	 */
+	public static final class Builder {
+
+		/** The supplier of the equality helper for each match engine. */
+		private Supplier<IEqualityHelper> equalityHelperSupplier;
+		/** The equality strategy to use for element matching. */
+		private EqualityStrategy equalityStrategy;
+		/** The strategy to use to ignore elements. */
+		private IgnoreStrategy ignoreStrategy;
+		/** The supplier of the resource matcher for each match engine. */
+		private Supplier<IResourceMatcher> resourceMatcherSupplier;
+		/** The strategy to pre-select match candidates. */
+		private CandidateKeyStrategy candidateKeyStrategy;
+		/** The strategy to detect identical subtrees. */
+		private SubtreeHashStrategy subtreeHashStrategy;
+		/** The strategy to provide pre-established matches. */
+		private MatchSeedStrategy matchSeedStrategy;
+
+		/**
+		 * Constructor for an empty builder. Use
+		 * {@link HierarchicalMatchEngineFactory#builder()}.
+		 */
+		private Builder() {
+		}
+
+		/**
+		 * Set the supplier of the equality helper.
+		 *
+		 * @param equalityHelperSupplier
+		 *            The supplier creating the equality helper for each match engine.
+		 * @return This builder.
+		 */
+		public Builder equalityHelper(Supplier<IEqualityHelper> equalityHelperSupplier) {
+			this.equalityHelperSupplier = equalityHelperSupplier;
+			return this;
+		}
+
+		/**
+		 * Set the equality strategy.
+		 *
+		 * @param equalityStrategy
+		 *            The equality strategy to use for element matching.
+		 * @return This builder.
+		 */
+		public Builder equalityStrategy(EqualityStrategy equalityStrategy) {
+			this.equalityStrategy = equalityStrategy;
+			return this;
+		}
+
+		/**
+		 * Set the ignore strategy.
+		 *
+		 * @param ignoreStrategy
+		 *            The strategy to use to ignore elements.
+		 * @return This builder.
+		 */
+		public Builder ignoreStrategy(IgnoreStrategy ignoreStrategy) {
+			this.ignoreStrategy = ignoreStrategy;
+			return this;
+		}
+
+		/**
+		 * Set the supplier of the resource matcher.
+		 *
+		 * @param resourceMatcherSupplier
+		 *            The supplier creating the resource matcher for each match engine.
+		 * @return This builder.
+		 */
+		public Builder resourceMatcher(Supplier<IResourceMatcher> resourceMatcherSupplier) {
+			this.resourceMatcherSupplier = resourceMatcherSupplier;
+			return this;
+		}
+
+		/**
+		 * Set the strategy to pre-select match candidates.
+		 *
+		 * @param candidateKeyStrategy
+		 *            The strategy to compute candidate keys. Null to check all candidates.
+		 * @return This builder.
+		 */
+		public Builder candidateKeyStrategy(CandidateKeyStrategy candidateKeyStrategy) {
+			this.candidateKeyStrategy = candidateKeyStrategy;
+			return this;
+		}
+
+		/**
+		 * Set the strategy to detect identical subtrees.
+		 *
+		 * @param subtreeHashStrategy
+		 *            The strategy to compute subtree hashes. Null to match all subtrees.
+		 * @return This builder.
+		 */
+		public Builder subtreeHashStrategy(SubtreeHashStrategy subtreeHashStrategy) {
+			this.subtreeHashStrategy = subtreeHashStrategy;
+			return this;
+		}
+
+		/**
+		 * Set the strategy to provide pre-established matches.
+		 *
+		 * @param matchSeedStrategy
+		 *            The strategy to compute seed keys. Null if there are no
+		 *            pre-established matches.
+		 * @return This builder.
+		 */
+		public Builder matchSeedStrategy(MatchSeedStrategy matchSeedStrategy) {
+			this.matchSeedStrategy = matchSeedStrategy;
+			return this;
+		}
+
+		/**
+		 * Build the factory.
+		 *
+		 * @return The factory.
+		 * @throws NullPointerException
+		 *             If a required dependency is not set.
+		 */
+		public HierarchicalMatchEngineFactory build() {
+			Preconditions.checkNotNull(equalityHelperSupplier, "The equality helper is required.");
+			Preconditions.checkNotNull(equalityStrategy, "The equality strategy is required.");
+			Preconditions.checkNotNull(ignoreStrategy, "The ignore strategy is required.");
+			Preconditions.checkNotNull(resourceMatcherSupplier, "The resource matcher is required.");
+			return new HierarchicalMatchEngineFactory(this);
+		}
 	}
 
 }
@@ -12,7 +12,6 @@
 package org.splevo.diffing.match;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -26,15 +25,13 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.compare.MatchResource;
 import org.eclipse.emf.compare.match.resource.StrategyResourceMatcher;
 import org.eclipse.emf.ecore.resource.Resource;
-import org.splevo.diffing.util.NormalizationUtil;
+import org.splevo.diffing.util.Normalizer;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.LinkedListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
@@ -46,14 +43,14 @@ import com.google.common.collect.Sets;
  */
 public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher {
 
-    /** Index to assign the left resources to their file name. */
-    private ListMultimap<String, Resource> filenameResourcesIndexLeft = ArrayListMultimap.create();
+    /** Index to assign the left resources to their file name and normalized directory path. */
+    private ResourcePathIndex filenameResourcesIndexLeft = new ResourcePathIndex();
 
-    /** Index to assign the right resources to their file name. */
-    private ListMultimap<String, Resource> filenameResourcesIndexRight = ArrayListMultimap.create();
+    /** Index to assign the right resources to their file name and directory path. */
+    private ResourcePathIndex filenameResourcesIndexRight = new ResourcePathIndex();
 
-    /** Patterns to replace with the defined target string in the URIs string representations. */
-    private LinkedHashMap<Pattern, String> uriNormalizationPatterns = Maps.newLinkedHashMap();
+    /** Normalizer to replace patterns with the defined target string in the URIs string representations. */
+    private Normalizer uriNormalizer = new Normalizer(Maps.<Pattern, String> newLinkedHashMap());
 
     /** Patterns to replace with the defined target string in the URIs string representations. */
     private LinkedHashMap<Pattern, String> filenameNormalizationPatterns = Maps.newLinkedHashMap();
@@ -77,7 +74,7 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
      */
     public HierarchicalStrategyResourceMatcher(LinkedHashMap<Pattern, String> uriNormalizationPatterns,
             LinkedHashMap<Pattern, String> fileNameNormalizationPatterns) {
-        this.uriNormalizationPatterns = uriNormalizationPatterns;
+        this.uriNormalizer = new Normalizer(uriNormalizationPatterns);
         this.filenameNormalizationPatterns = fileNameNormalizationPatterns;
     }
 
@@ -92,34 +89,36 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
 
         final List<MatchResource> mappings = new ArrayList<MatchResource>();
 
-        indexResources(leftResources, filenameResourcesIndexLeft, filenameNormalizationPatterns);
-        indexResources(rightResources, filenameResourcesIndexRight, null);
+        filenameResourcesIndexLeft.clear();
+        filenameResourcesIndexRight.clear();
+        indexResources(leftResources, filenameResourcesIndexLeft, filenameNormalizationPatterns, true);
+        indexResources(rightResources, filenameResourcesIndexRight, null, false);
 
-        Set<String> allSegments = Sets.union(filenameResourcesIndexLeft.keySet(), filenameResourcesIndexRight.keySet());
-        List<String> allSegmentsCopy = Lists.newArrayList(allSegments);
+        Set<String> allSegments = Sets.newLinkedHashSet(filenameResourcesIndexLeft.getKeys());
+        allSegments.addAll(filenameResourcesIndexRight.getKeys());
 
-        for (String segment : allSegmentsCopy) {
+        for (String segment : allSegments) {
 
-            List<Resource> leftCandidates = Lists.newArrayList(filenameResourcesIndexLeft.get(segment));
-            List<Resource> rightCandidates = Lists.newArrayList(filenameResourcesIndexRight.get(segment));
+            List<Resource> leftCandidates = filenameResourcesIndexLeft.get(segment);
+            List<Resource> rightCandidates = filenameResourcesIndexRight.get(segment);
 
             if (leftCandidates.size() == 1 && rightCandidates.size() == 1) {
                 Resource left = leftCandidates.get(0);
                 Resource right = rightCandidates.get(0);
                 mappings.add(createMatchResource(left, right, null));
-                removeFromIndex(filenameResourcesIndexLeft, left);
-                removeFromIndex(filenameResourcesIndexRight, right);
+                filenameResourcesIndexLeft.remove(left);
+                filenameResourcesIndexRight.remove(right);
 
             } else if (leftCandidates.size() != 0 && rightCandidates.size() != 0) {
-                matchBestMatches(leftCandidates, rightCandidates, mappings);
+                matchBestMatches(segment, leftCandidates, rightCandidates, mappings);
             }
         }
 
-        Collection<Resource> remainingLeftResources = Sets.newLinkedHashSet(filenameResourcesIndexLeft.values());
+        Collection<Resource> remainingLeftResources = filenameResourcesIndexLeft.getAll();
         for (Resource left : remainingLeftResources) {
             mappings.add(createMatchResource(left, null, null));
         }
-        Collection<Resource> remainingRightResources = Sets.newLinkedHashSet(filenameResourcesIndexRight.values());
+        Collection<Resource> remainingRightResources = filenameResourcesIndexRight.getAll();
         for (Resource right : remainingRightResources) {
             mappings.add(createMatchResource(null, right, null));
         }
@@ -131,9 +130,13 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
      * Create matches for the left and right candidates. A match is only created if a pair is the
      * best match for both sides.
      *
-     * Internally, indexes are build to identify the total number of matches and the best matches
-     * for both candidate lists.
+     * The match score of a pair is the number of matching directory segments, counted from the
+     * end of the resources' URIs (see {@link #indexResources(Iterator, ResourcePathIndex, Map, boolean)}).
+     * The best matches and their score are looked up in the path indexes, which contain exactly
+     * the candidates registered for the file name.
      *
+     * @param filename
+     *            The file name of the candidates.
      * @param leftCandidates
      *            The left candidates to search matches for.
      * @param rightCandidates
@@ -141,7 +144,7 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
      * @param mappings
      *            The list of mappings to fill.
      */
-    private void matchBestMatches(List<Resource> leftCandidates, List<Resource> rightCandidates,
+    private void matchBestMatches(String filename, List<Resource> leftCandidates, List<Resource> rightCandidates,
             List<MatchResource> mappings) {
 
         // index for a fast lookup of the highest match score for a resource.
@@ -153,30 +156,15 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
         // To the still existing same class as well as the modified, derived copy
         // see SPLEVO-181 for details {@link https://sdqbuild.ipd.kit.edu/jira/browse/SPLEVO-181}
         LinkedListMultimap<Resource, Resource> bestMatchIndexLeft = LinkedListMultimap.create();
-        LinkedListMultimap<Resource, Resource> bestMatchIndexRight = LinkedListMultimap.create();
 
         for (Resource leftRes : leftCandidates) {
-            for (Resource rightRes : rightCandidates) {
-                int matchCount = getMatchingSegmentsPathOnly(leftRes, rightRes);
-
-                if (!bestMatchCountIndex.containsKey(leftRes) || bestMatchCountIndex.get(leftRes) < matchCount) {
-                    bestMatchCountIndex.put(leftRes, matchCount);
-                    bestMatchIndexLeft.removeAll(leftRes);
-                    bestMatchIndexLeft.put(leftRes, rightRes);
-                } else if (bestMatchCountIndex.get(leftRes) == matchCount) {
-                    bestMatchCountIndex.put(leftRes, matchCount);
-                    bestMatchIndexLeft.put(leftRes, rightRes);
-                }
-
-                if (!bestMatchCountIndex.containsKey(rightRes) || bestMatchCountIndex.get(rightRes) < matchCount) {
-                    bestMatchCountIndex.put(rightRes, matchCount);
-                    bestMatchIndexRight.removeAll(rightRes);
-                    bestMatchIndexRight.put(rightRes, leftRes);
-                } else if (bestMatchCountIndex.get(rightRes) == matchCount) {
-                    bestMatchCountIndex.put(rightRes, matchCount);
-                    bestMatchIndexRight.put(rightRes, leftRes);
-                }
-            }
+            String[] leftPath = filenameResourcesIndexLeft.getReversedPath(leftRes);
+            bestMatchCountIndex.put(leftRes, filenameResourcesIndexRight.getLongestSuffixLength(filename, leftPath));
+            bestMatchIndexLeft.putAll(leftRes, filenameResourcesIndexRight.getLongestSuffixMatches(filename, leftPath));
+        }
+        for (Resource rightRes : rightCandidates) {
+            String[] rightPath = filenameResourcesIndexRight.getReversedPath(rightRes);
+            bestMatchCountIndex.put(rightRes, filenameResourcesIndexLeft.getLongestSuffixLength(filename, rightPath));
         }
 
         List<MatchResource> bestMatches = createMatchElementsForBestMatches(bestMatchCountIndex, bestMatchIndexLeft);
@@ -217,10 +205,10 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
             List<Resource> rightRessources = bestMatchIndexLeft.get(leftRes);
 
             for (Resource rightRes : rightRessources) {
-                if (bestMatchCountIndex.get(leftRes) == bestMatchCountIndex.get(rightRes)) {
+                if (bestMatchCountIndex.get(leftRes).equals(bestMatchCountIndex.get(rightRes))) {
                     mappings.add(createMatchResource(leftRes, rightRes, null));
-                    removeFromIndex(filenameResourcesIndexLeft, leftRes);
-                    removeFromIndex(filenameResourcesIndexRight, rightRes);
+                    filenameResourcesIndexLeft.remove(leftRes);
+                    filenameResourcesIndexRight.remove(rightRes);
                 }
             }
         }
@@ -272,88 +260,6 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
 
     }
 
-    /**
-     * Remove a resource entry from the index for all segments it has been registered for.
-     *
-     * @param index
-     *            The index to clean.
-     * @param resource
-     *            The resource to remove
-     */
-    private void removeFromIndex(ListMultimap<String, Resource> index, Resource resource) {
-        List<String> keys = Lists.newArrayList(index.keySet());
-        for (String key : keys) {
-            index.remove(key, resource);
-        }
-    }
-
-    /**
-     * Count the number of matching segments for two resources.
-     *
-     * <p>
-     * The segment comparison starts from the end of the resources' URIs except of the filename.<br>
-     * The filename is expected to match for the resources provided to this method (including
-     * renaming awareness etc.). The comparison is done beginning from the end, because the sources
-     * of the same software product might be stored at different locations on the disk. So the
-     * beginning of the URIs / the locations where the implementations are stored, are expected to
-     * be different anyway.
-     * </p>
-     *
-     * @param leftResource
-     *            The left resource to compare the uri.
-     * @param rightResource
-     *            The right resource to compare the uri.
-     * @return The number of matching segments of the resources.
-     */
-    private int getMatchingSegmentsPathOnly(Resource leftResource, Resource rightResource) {
-
-        URI leftURI = leftResource.getURI();
-        URI rightUri = rightResource.getURI();
-        int count = 0;
-
-        String[] segmentsLeft = processRenamingNormalizations(leftURI.segments());
-        String[] segmentsRight = rightUri.segments();
-
-        segmentsLeft = removeLast(segmentsLeft);
-        segmentsRight = removeLast(segmentsRight);
-
-        int leftLength = segmentsLeft.length;
-        int rightLength = segmentsRight.length;
-
-        for (int i = 0; i < leftLength; i++) {
-
-            if (i >= rightLength) {
-                break;
-            }
-
-            String refString = segmentsLeft[leftLength - 1 - i];
-            String compString = segmentsRight[rightLength - 1 - i];
-            if (refString.equals(compString)) {
-                count++;
-            } else {
-                break;
-            }
-        }
-
-        return count;
-    }
-
-    /**
-     * Remove the last element of an array.
-     *
-     * In case of an empty array or null provided, also an empty array will be returned.
-     *
-     * @param array
-     *            The array to remove the last element of.
-     * @return A copy of the original array without it's last element.
-     */
-    private String[] removeLast(String[] array) {
-        if (array == null || array.length == 0) {
-            return new String[] {};
-        }
-        return Arrays.copyOfRange(array, 0, array.length - 1);
-    }
-
     /**
      * Resources are identified by URIs consisting of segments (directories and files).<br>
      * To apply a java package renaming normalization that also manifests in the source directories,
@@ -387,7 +293,7 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
             }
             sb.append(segmentsLeft[i]);
         }
-        String leftSegmentsAsString = NormalizationUtil.normalizeNamespace(sb.toString(), uriNormalizationPatterns);
+        String leftSegmentsAsString = uriNormalizer.normalize(sb.toString());
         List<String> split = Lists.newArrayList(Splitter.on('.').split(leftSegmentsAsString));
         split.add(leftFilename);
         segmentsLeft = Iterables.toArray(split, String.class);
@@ -397,6 +303,15 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
     /**
      * Index a set of resources according to their last segment.
      *
+     * <p>
+     * The resources are additionally indexed by their directory segments, i.e., the segments of
+     * their URIs except of the filename, beginning from the end. The filename is expected to match
+     * for the resources compared by their directories (including renaming awareness etc.). The
+     * comparison is done beginning from the end, because the sources of the same software product
+     * might be stored at different locations on the disk. So the beginning of the URIs / the
+     * locations where the implementations are stored, are expected to be different anyway.
+     * </p>
+     *
      * @param resources
      *            The resources to index.
      * @param index
@@ -404,29 +319,56 @@ public class HierarchicalStrategyResourceMatcher extends StrategyResourceMatcher
      * @param fileNameNormalizationPatterns
      *            The list of patterns to apply during resource indexing. Null or an empty list if
      *            none should be applied.
+     * @param normalizePath
+     *            Flag if the renaming normalizations are applied to the directory segments.
      */
-    private void indexResources(Iterator<? extends Resource> resources, ListMultimap<String, Resource> index,
-            Map<Pattern, String> fileNameNormalizationPatterns) {
+    private void indexResources(Iterator<? extends Resource> resources, ResourcePathIndex index,
+            Map<Pattern, String> fileNameNormalizationPatterns, boolean normalizePath) {
 
         while (resources.hasNext()) {
             Resource res = resources.next();
             String filename = res.getURI().lastSegment();
-            index.put(filename, res);
+            List<String> filenames = Lists.newArrayList(filename);
 
             // handle renaming
-            if (fileNameNormalizationPatterns == null) {
-                continue;
-            }
-            for (Pattern pattern : fileNameNormalizationPatterns.keySet()) {
-                String replace = fileNameNormalizationPatterns.get(pattern);
-                String newFilename = pattern.matcher(filename).replaceAll(replace);
-                if (!filename.equals(newFilename)) {
-                    index.put(newFilename, res);
+            if (fileNameNormalizationPatterns != null) {
+                for (Pattern pattern : fileNameNormalizationPatterns.keySet()) {
+                    String replace = fileNameNormalizationPatterns.get(pattern);
+                    String newFilename = pattern.matcher(filename).replaceAll(replace);
+                    if (!filename.equals(newFilename)) {
+                        filenames.add(newFilename);
+                    }
                 }
             }
 
+            index.add(res, getReversedDirectorySegments(res.getURI(), normalizePath), filenames);
         }
 
     }
 
+    /**
+     * Get the directory segments of a URI, i.e., all segments except of the filename, in reversed
+     * order.
+     *
+     * @param uri
+     *            The URI to get the segments of.
+     * @param normalize
+     *            Flag if the renaming normalizations are applied to the segments.
+     * @return The reversed directory segments.
+     */
+    private String[] getReversedDirectorySegments(URI uri, boolean normalize) {
+        String[] segments = uri.segments();
+        if (segments.length == 0) {
+            return segments;
+        }
+        if (normalize) {
+            segments = processRenamingNormalizations(segments);
+        }
+        String[] reversed = new String[segments.length - 1];
+        for (int i = 0; i < reversed.length; i++) {
+            reversed[i] = segments[segments.length - 2 - i];
+        }
+        return reversed;
+    }
+
 }
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.diffing.match;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.resource.Resource;
+
+/**
+ * Index of resources by their file names and directory paths.
+ * <p>
+ * For each file name, the resources are stored in a trie of their directory segments in reversed
+ * order, i.e., beginning with the directory containing the file. So the resources sharing the
+ * longest path suffix with a given path are found by walking down the trie once. A resource is
+ * removed by walking down the trie along its own path.
+ * </p>
+ * <p>
+ * Resources are returned in the order in which they were added.
+ * </p>
+ */
+public class ResourcePathIndex {
+
+    /** The tries for the file names in the order of their registration. */
+    private final Map<String, Node> roots = new LinkedHashMap<String, Node>();
+
+    /** The registrations of the indexed resources. */
+    private final Map<Resource, Registration> registrations = new HashMap<Resource, Registration>();
+
+    /** The sequence number for the next added resource. */
+    private int nextSequence = 0;
+
+    /**
+     * Add a resource to the index.
+     *
+     * @param resource
+     *            The resource to add.
+     * @param reversedPath
+     *            The directory segments of the resource in reversed order.
+     * @param keys
+     *            The file names to register the resource for.
+     */
+    public void add(Resource resource, String[] reversedPath, Collection<String> keys) {
+        if (registrations.containsKey(resource)) {
+            return;
+        }
+        Registration registration = new Registration(resource, reversedPath, nextSequence++);
+        for (String key : keys) {
+            if (!registration.keys.add(key)) {
+                continue;
+            }
+            Node node = roots.computeIfAbsent(key, k -> new Node());
+            node.size++;
+            for (String segment : reversedPath) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+                node.size++;
+            }
+            node.registrations.add(registration);
+        }
+        registrations.put(resource, registration);
+    }
+
+    /**
+     * Remove a resource for all file names it has been registered for.
+     *
+     * @param resource
+     *            The resource to remove.
+     */
+    public void remove(Resource resource) {
+        Registration registration = registrations.remove(resource);
+        if (registration == null) {
+            return;
+        }
+        for (String key : registration.keys) {
+            Node root = roots.get(key);
+            if (--root.size == 0) {
+                roots.remove(key);
+                continue;
+            }
+            Node node = root;
+            boolean pruned = false;
+            for (String segment : registration.reversedPath) {
+                Node child = node.children.get(segment);
+                if (--child.size == 0) {
+                    node.children.remove(segment);
+                    pruned = true;
+                    break;
+                }
+                node = child;
+            }
+            if (!pruned) {
+                node.registrations.remove(registration);
+            }
+        }
+    }
+
+    /**
+     * Clear the index.
+     */
+    public void clear() {
+        roots.clear();
+        registrations.clear();
+        nextSequence = 0;
+    }
+
+    /**
+     * Get the file names with at least one registered resource.
+     *
+     * @return A copy of the file names in the order of their registration.
+     */
+    public List<String> getKeys() {
+        return new ArrayList<String>(roots.keySet());
+    }
+
+    /**
+     * Get the resources registered for a file name.
+     *
+     * @param key
+     *            The file name.
+     * @return The resources in the order they were added.
+     */
+    public List<Resource> get(String key) {
+        Node root = roots.get(key);
+        if (root == null) {
+            return new ArrayList<Resource>();
+        }
+        return collect(root);
+    }
+
+    /**
+     * Get all indexed resources.
+     *
+     * @return The resources ordered by the file names and the order they were added.
+     */
+    public Set<Resource> getAll() {
+        Set<Resource> resources = new LinkedHashSet<Resource>();
+        for (Node root : roots.values()) {
+            resources.addAll(collect(root));
+        }
+        return resources;
+    }
+
+    /**
+     * Get the reversed directory path a resource was added with.
+     *
+     * @param resource
+     *            The resource.
+     * @return The reversed directory segments or null if the resource is not indexed.
+     */
+    public String[] getReversedPath(Resource resource) {
+        Registration registration = registrations.get(resource);
+        return registration == null ? null : registration.reversedPath;
+    }
+
+    /**
+     * Get the length of the longest directory path suffix a path shares with a resource registered
+     * for a file name.
+     *
+     * @param key
+     *            The file name.
+     * @param reversedPath
+     *            The directory segments of the path in reversed order.
+     * @return The number of shared segments. 0 if no resource is registered for the file name.
+     */
+    public int getLongestSuffixLength(String key, String[] reversedPath) {
+        Node root = roots.get(key);
+        if (root == null) {
+            return 0;
+        }
+        int length = 0;
+        Node node = root;
+        for (String segment : reversedPath) {
+            node = node.children.get(segment);
+            if (node == null) {
+                break;
+            }
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Get the resources registered for a file name which share the longest directory path suffix
+     * with a path.
+     *
+     * @param key
+     *            The file name.
+     * @param reversedPath
+     *            The directory segments of the path in reversed order.
+     * @return The resources in the order they were added.
+     */
+    public List<Resource> getLongestSuffixMatches(String key, String[] reversedPath) {
+        Node node = roots.get(key);
+        if (node == null) {
+            return new ArrayList<Resource>();
+        }
+        for (String segment : reversedPath) {
+            Node child = node.children.get(segment);
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+        return collect(node);
+    }
+
+    /**
+     * Collect the resources of a subtree in the order they were added.
+     *
+     * @param node
+     *            The root of the subtree.
+     * @return The resources.
+     */
+    private static List<Resource> collect(Node node) {
+        List<Registration> collected = new ArrayList<Registration>(node.size);
+        List<Node> pending = new ArrayList<Node>();
+        pending.add(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.remove(pending.size() - 1);
+            collected.addAll(current.registrations);
+            pending.addAll(current.children.values());
+        }
+        collected.sort(Comparator.comparingInt(registration -> registration.sequence));
+
+        List<Resource> resources = new ArrayList<Resource>(collected.size());
+        for (Registration registration : collected) {
+            resources.add(registration.resource);
+        }
+        return resources;
+    }
+
+    /**
+     * A node of a trie. It represents a directory path suffix.
+     */
+    private static final class Node {
+
+        /** The nodes for the longer path suffixes by their next segment. */
+        private final Map<String, Node> children = new HashMap<String, Node>();
+
+        /** The registrations of the resources whose directory path ends in this node. */
+        private final List<Registration> registrations = new ArrayList<Registration>(1);
+
+        /** The number of registrations in the subtree of this node. */
+        private int size = 0;
+    }
+
+    /**
+     * The registration of a resource.
+     */
+    private static final class Registration {
+
+        /** The resource. */
+        private final Resource resource;
+
+        /** The directory segments of the resource in reversed order. */
+        private final String[] reversedPath;
+
+        /** The sequence number of the resource. */
+        private final int sequence;
+
+        /** The file names the resource is registered for. */
+        private final Set<String> keys = new LinkedHashSet<String>();
+
+        /**
+         * Constructor to set the registered resource.
+         *
+         * @param resource
+         *            The resource.
+         * @param reversedPath
+         *            The directory segments of the resource in reversed order.
+         * @param sequence
+         *            The sequence number of the resource.
+         */
+        private Registration(Resource resource, String[] reversedPath, int sequence) {
+            this.resource = resource;
+            this.reversedPath = reversedPath;
+            this.sequence = sequence;
+        }
+    }
+}
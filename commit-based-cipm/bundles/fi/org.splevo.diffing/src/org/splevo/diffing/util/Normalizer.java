@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.diffing.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+
+/**
+ * Applies a set of normalization patterns to strings. It produces the same results as
+ * {@link NormalizationUtil#normalize(String, Map)} but memorizes the results for the most recently
+ * normalized strings.
+ *
+ * The wildcard rules created by {@link NormalizationUtil#loadRemoveNormalizations(String, String)}
+ * without a suffix are recognized and applied with string operations instead of regular expressions if
+ * their literal part consists of letters, digits, and underscores only. All other patterns are applied as
+ * regular expressions.
+ */
+public class Normalizer {
+
+    /** The default number of memorized results. */
+    public static final int DEFAULT_CACHE_SIZE = 10000;
+
+    /** A pattern to recognize the rules for *literal entries: (.*)literal replaced by $1. */
+    private static final Pattern LITERAL_SUFFIX_RULE = Pattern.compile("\\(\\.\\*\\)(\\w+)");
+
+    /** A pattern to recognize the rules for literal* entries: literal*(.*) replaced by $1. */
+    private static final Pattern LITERAL_PREFIX_RULE = Pattern.compile("(\\w+)(\\w)\\*\\(\\.\\*\\)");
+
+    /** Line terminators are not matched by the dot of a regular expression. */
+    private static final Pattern LINE_TERMINATORS = Pattern.compile("[\\n\\r\\u0085\\u2028\\u2029]");
+
+    private static final String GROUP_REPLACEMENT = "$1";
+
+    private final List<Step> steps = Lists.newArrayList();
+
+    private final LoadingCache<String, String> cache;
+
+    /**
+     * Creates a normalizer with the default cache size.
+     *
+     * @param normalizations
+     *            The map of normalization patterns and according replacements in the order of
+     *            their application.
+     */
+    public Normalizer(Map<Pattern, String> normalizations) {
+        this(normalizations, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a normalizer.
+     *
+     * @param normalizations
+     *            The map of normalization patterns and according replacements in the order of
+     *            their application.
+     * @param cacheSize
+     *            The maximum number of memorized results.
+     */
+    public Normalizer(Map<Pattern, String> normalizations, int cacheSize) {
+        for (Map.Entry<Pattern, String> entry : normalizations.entrySet()) {
+            steps.add(createStep(entry.getKey(), entry.getValue()));
+        }
+        this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build(new CacheLoader<String, String>() {
+            @Override
+            public String load(String key) {
+                return apply(key);
+            }
+        });
+    }
+
+    private static Step createStep(Pattern pattern, String replacement) {
+        if (pattern.flags() == 0 && GROUP_REPLACEMENT.equals(replacement)) {
+            Matcher suffixRule = LITERAL_SUFFIX_RULE.matcher(pattern.pattern());
+            if (suffixRule.matches()) {
+                return new RemoveLastOccurrenceStep(pattern, suffixRule.group(1));
+            }
+            Matcher prefixRule = LITERAL_PREFIX_RULE.matcher(pattern.pattern());
+            if (prefixRule.matches()) {
+                return new RemoveFirstOccurrenceStep(pattern, prefixRule.group(1), prefixRule.group(2).charAt(0));
+            }
+        }
+        return new Step(pattern, replacement);
+    }
+
+    /**
+     * Normalizes a string.
+     *
+     * @param original
+     *            The string to normalize.
+     * @return The normalized string. If null was submitted, an empty string will be returned.
+     */
+    public String normalize(String original) {
+        String value = Strings.nullToEmpty(original);
+        if (steps.isEmpty()) {
+            return value;
+        }
+        return cache.getUnchecked(value);
+    }
+
+    private String apply(String value) {
+        // The string operations are only equivalent to the regular expressions if the string
+        // contains no line terminators because they are not matched by the dot.
+        boolean useStringOperations = !LINE_TERMINATORS.matcher(value).find();
+        String result = value;
+        for (Step step : steps) {
+            result = useStringOperations ? step.apply(result) : step.applyRegex(result);
+        }
+        return result;
+    }
+
+    /**
+     * A normalization by a regular expression.
+     */
+    private static class Step {
+
+        private final Pattern pattern;
+
+        private final String replacement;
+
+        Step(Pattern pattern, String replacement) {
+            this.pattern = pattern;
+            this.replacement = replacement;
+        }
+
+        String apply(String value) {
+            return applyRegex(value);
+        }
+
+        String applyRegex(String value) {
+            return pattern.matcher(value).replaceAll(replacement);
+        }
+    }
+
+    /**
+     * The rule (.*)literal replaced by $1 which removes the last occurrence of the literal.
+     */
+    private static class RemoveLastOccurrenceStep extends Step {
+
+        private final String literal;
+
+        RemoveLastOccurrenceStep(Pattern pattern, String literal) {
+            super(pattern, GROUP_REPLACEMENT);
+            this.literal = literal;
+        }
+
+        @Override
+        String apply(String value) {
+            int index = value.lastIndexOf(literal);
+            if (index < 0) {
+                return value;
+            }
+            return value.substring(0, index) + value.substring(index + literal.length());
+        }
+    }
+
+    /**
+     * The rule literal, followed by the repeated character and (.*), replaced by $1. It removes the
+     * first occurrence of the literal together with all directly following repetitions of the
+     * character.
+     */
+    private static class RemoveFirstOccurrenceStep extends Step {
+
+        private final String literal;
+
+        private final char repeated;
+
+        RemoveFirstOccurrenceStep(Pattern pattern, String literal, char repeated) {
+            super(pattern, GROUP_REPLACEMENT);
+            this.literal = literal;
+            this.repeated = repeated;
+        }
+
+        @Override
+        String apply(String value) {
+            int index = value.indexOf(literal);
+            if (index < 0) {
+                return value;
+            }
+            int end = index + literal.length();
+            while (end < value.length() && value.charAt(end) == repeated) {
+                end++;
+            }
+            return value.substring(0, index) + value.substring(end);
+        }
+    }
+}
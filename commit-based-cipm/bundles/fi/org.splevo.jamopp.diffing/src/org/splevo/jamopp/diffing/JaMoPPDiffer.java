@@ -33,7 +33,6 @@ import org.eclipse.emf.compare.diff.IDiffEngine;
 import org.eclipse.emf.compare.match.DefaultMatchEngine;
 import org.eclipse.emf.compare.match.IMatchEngine;
 import org.eclipse.emf.compare.match.impl.MatchEngineFactoryRegistryImpl;
-import org.eclipse.emf.compare.match.resource.StrategyResourceMatcher;
 import org.eclipse.emf.compare.postprocessor.BasicPostProcessorDescriptorImpl;
 import org.eclipse.emf.compare.postprocessor.IPostProcessor;
 import org.eclipse.emf.compare.postprocessor.PostProcessorDescriptorRegistryImpl;
@@ -49,17 +48,22 @@ import org.splevo.commons.emf.SPLevoResourceSet;
 import org.splevo.diffing.Differ;
 import org.splevo.diffing.DiffingException;
 import org.splevo.diffing.DiffingNotSupportedException;
+import org.splevo.diffing.match.HierarchicalMatchEngine;
+import org.splevo.diffing.match.HierarchicalMatchEngine.CandidateKeyStrategy;
 import org.splevo.diffing.match.HierarchicalMatchEngine.EqualityStrategy;
 import org.splevo.diffing.match.HierarchicalMatchEngine.IgnoreStrategy;
+import org.splevo.diffing.match.HierarchicalMatchEngine.SubtreeHashStrategy;
 import org.splevo.diffing.match.HierarchicalMatchEngineFactory;
 import org.splevo.diffing.match.HierarchicalStrategyResourceMatcher;
 import org.splevo.diffing.util.NormalizationUtil;
 import org.splevo.extraction.SoftwareModelExtractionException;
 import org.splevo.jamopp.diffing.diff.JaMoPPDiffBuilder;
 import org.splevo.jamopp.diffing.diff.JaMoPPFeatureFilter;
+import org.splevo.jamopp.diffing.match.JaMoPPCandidateKeyStrategy;
 import org.splevo.jamopp.diffing.match.JaMoPPEqualityHelper;
 import org.splevo.jamopp.diffing.match.JaMoPPEqualityStrategy;
 import org.splevo.jamopp.diffing.match.JaMoPPIgnoreStrategy;
+import org.splevo.jamopp.diffing.match.JaMoPPSubtreeHashStrategy;
 import org.splevo.jamopp.diffing.postprocessor.JaMoPPPostProcessor;
 import org.splevo.jamopp.diffing.scope.JavaModelMatchScope;
 import org.splevo.jamopp.diffing.scope.PackageIgnoreChecker;
@@ -373,6 +377,13 @@ public class JaMoPPDiffer implements Differ {
                 return new JaMoPPFeatureFilter(packageIgnoreChecker);
             }
 
+            @Override
+            protected void checkForDifferences(Match match, Monitor monitor) {
+                if (!HierarchicalMatchEngine.isIdenticalSubtreeMatch(match)) {
+                    super.checkForDifferences(match, monitor);
+                }
+            }
+
             @Override
             public void diff(Comparison comparison, Monitor monitor) {
                 for (Match rootMatch : comparison.getMatches()) {
@@ -409,10 +420,14 @@ public class JaMoPPDiffer implements Differ {
         IEqualityHelper equalityHelper = initEqualityHelper(similarityChecker);
         EqualityStrategy equalityStrategy = new JaMoPPEqualityStrategy(similarityChecker);
         IgnoreStrategy ignoreStrategy = new JaMoPPIgnoreStrategy(packageIgnoreChecker);
-        StrategyResourceMatcher resourceMatcher = initResourceMatcher(diffingOptions);
 
-        IMatchEngine.Factory matchEngineFactory = new HierarchicalMatchEngineFactory(equalityHelper, equalityStrategy,
-                ignoreStrategy, resourceMatcher);
+        CandidateKeyStrategy candidateKeyStrategy = new JaMoPPCandidateKeyStrategy(similarityChecker);
+        SubtreeHashStrategy subtreeHashStrategy = new JaMoPPSubtreeHashStrategy(similarityChecker);
+
+        IMatchEngine.Factory matchEngineFactory = HierarchicalMatchEngineFactory.builder()
+                .equalityHelper(() -> equalityHelper).equalityStrategy(equalityStrategy)
+                .ignoreStrategy(ignoreStrategy).resourceMatcher(() -> initResourceMatcher(diffingOptions))
+                .candidateKeyStrategy(candidateKeyStrategy).subtreeHashStrategy(subtreeHashStrategy).build();
         matchEngineFactory.setRanking(20);
 
         IMatchEngine.Factory.Registry matchEngineRegistry = new MatchEngineFactoryRegistryImpl();
@@ -11,10 +11,11 @@
  *******************************************************************************/
 package org.splevo.jamopp.diffing.diff;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.compare.Diff;
@@ -66,7 +67,9 @@ public class JaMoPPDiffBuilder extends DiffBuilder {
     /** A cache for added and deleted element diffs. */
     private Map<EObject, Diff> addDeleteCache = new LinkedHashMap<EObject, Diff>();
 
-    private List<EObject> resourceAttachementRegistry = new ArrayList<EObject>();
+    /** The elements for which a resource attachment change was created. */
+    private Set<EObject> resourceAttachementRegistry = Collections
+            .newSetFromMap(new IdentityHashMap<EObject, Boolean>());
 
     /** To check if an element is referenced that should be ignored. */
     private PackageIgnoreChecker packageIgnoreChecker = null;
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.jamopp.diffing.match;
+
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.emftext.language.java.classifiers.ConcreteClassifier;
+import org.emftext.language.java.commons.NamedElement;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.Package;
+import org.emftext.language.java.members.Constructor;
+import org.emftext.language.java.members.EnumConstant;
+import org.emftext.language.java.members.Field;
+import org.emftext.language.java.members.Method;
+import org.splevo.diffing.match.HierarchicalMatchEngine.CandidateKeyStrategy;
+import org.splevo.jamopp.diffing.similarity.SimilarityChecker;
+import org.splevo.jamopp.diffing.util.JaMoPPModelUtil;
+
+import com.google.common.base.Strings;
+
+/**
+ * Candidate key strategy for JaMoPP models matched with a {@link SimilarityChecker} based equality
+ * strategy.
+ * <p>
+ * The similarity checker never considers elements of different types as similar, so every key
+ * contains the element's EClass. For members, the key additionally contains the name (and the
+ * parameter count for methods and constructors) which are compared without any normalization.
+ * Compilation units, classifiers and packages are keyed by their (qualified) names only if no
+ * normalizations are in use, as normalizations are applied to the left element only.
+ * </p>
+ */
+public class JaMoPPCandidateKeyStrategy implements CandidateKeyStrategy {
+
+    /** Flag whether compilation units, classifiers and packages can be keyed by their names. */
+    private boolean keyNamespaceElements;
+
+    /**
+     * Constructor to set the required dependencies.
+     *
+     * @param similarityChecker
+     *            The similarity checker used by the equality strategy the keys are computed for.
+     */
+    public JaMoPPCandidateKeyStrategy(SimilarityChecker similarityChecker) {
+        this.keyNamespaceElements = !similarityChecker.hasNormalizations();
+    }
+
+    @Override
+    public Object getCandidateKey(EObject element) {
+        if (element instanceof Method) {
+            Method method = (Method) element;
+            return List.of(element.eClass(), Strings.nullToEmpty(method.getName()), method.getParameters().size());
+        }
+        if (element instanceof Constructor) {
+            Constructor constructor = (Constructor) element;
+            return List.of(element.eClass(), Strings.nullToEmpty(constructor.getName()),
+                    constructor.getParameters().size());
+        }
+        if (element instanceof Field || element instanceof EnumConstant) {
+            return List.of(element.eClass(), Strings.nullToEmpty(((NamedElement) element).getName()));
+        }
+        if (element instanceof org.emftext.language.java.containers.Module) {
+            String name = ((org.emftext.language.java.containers.Module) element).getName();
+            return List.of(element.eClass(), Strings.nullToEmpty(name));
+        }
+
+        if (keyNamespaceElements) {
+            if (element instanceof CompilationUnit) {
+                CompilationUnit unit = (CompilationUnit) element;
+                return List.of(element.eClass(), Strings.nullToEmpty(unit.getName()),
+                        Strings.nullToEmpty(unit.getNamespacesAsString()));
+            }
+            if (element instanceof ConcreteClassifier) {
+                ConcreteClassifier classifier = (ConcreteClassifier) element;
+                return List.of(element.eClass(), Strings.nullToEmpty(classifier.getQualifiedName()));
+            }
+            if (element instanceof Package) {
+                return List.of(element.eClass(), Strings.nullToEmpty(JaMoPPModelUtil.buildNamespacePath(element)));
+            }
+        }
+
+        return element.eClass();
+    }
+
+}
@@ -42,4 +42,14 @@ public class JaMoPPEqualityStrategy implements EqualityStrategy {
         return false;
     }
 
+    @Override
+    public void startMatching() {
+        similarityChecker.startComparison();
+    }
+
+    @Override
+    public void finishMatching() {
+        similarityChecker.finishComparison();
+    }
+
 }
\ No newline at end of file
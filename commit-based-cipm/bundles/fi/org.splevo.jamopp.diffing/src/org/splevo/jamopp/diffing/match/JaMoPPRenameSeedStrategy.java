@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.jamopp.diffing.match;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.emftext.language.java.classifiers.ConcreteClassifier;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.splevo.diffing.match.HierarchicalMatchEngine.MatchSeedStrategy;
+import org.splevo.jamopp.util.JaMoPPLogicalPathUtil;
+
+/**
+ * Match seed strategy for JaMoPP models based on renamed files, e.g., as detected by a version
+ * control system.
+ * <p>
+ * The compilation unit of a renamed file in the left (new) model is seeded to match the
+ * compilation unit of the original file in the right (old) model. A compilation unit belongs to a
+ * file if its logical path (namespaces and name) is a suffix of the file path, so the location of
+ * the source directory does not matter. Paths shared by several renamed files are ambiguous and
+ * not seeded. The classifiers of seeded compilation units are seeded by their names, because their
+ * qualified names change with a package move and would not be considered as similar.
+ * </p>
+ * <p>
+ * A strategy is created for the renamed files of a single comparison.
+ * </p>
+ */
+public class JaMoPPRenameSeedStrategy implements MatchSeedStrategy {
+
+    /** The original paths of the renamed files by the suffixes of their new paths. */
+    private final Map<String, String> newPathSuffixes = new HashMap<String, String>();
+
+    /** The original paths of the renamed files by the suffixes of their original paths. */
+    private final Map<String, String> oldPathSuffixes = new HashMap<String, String>();
+
+    /**
+     * Constructor to set the renamed files of a comparison.
+     *
+     * @param renamedFiles
+     *            The new paths of the renamed files by their original paths. Null or an empty map
+     *            if no files were renamed.
+     */
+    public JaMoPPRenameSeedStrategy(Map<String, String> renamedFiles) {
+        if (renamedFiles == null) {
+            return;
+        }
+
+        Set<String> ambiguousNewSuffixes = new HashSet<String>();
+        Set<String> ambiguousOldSuffixes = new HashSet<String>();
+        for (Map.Entry<String, String> renamedFile : renamedFiles.entrySet()) {
+            String oldPath = JaMoPPLogicalPathUtil.normalizePath(renamedFile.getKey());
+            String newPath = JaMoPPLogicalPathUtil.normalizePath(renamedFile.getValue());
+            addSuffixes(newPathSuffixes, ambiguousNewSuffixes, newPath, oldPath);
+            addSuffixes(oldPathSuffixes, ambiguousOldSuffixes, oldPath, oldPath);
+        }
+        newPathSuffixes.keySet().removeAll(ambiguousNewSuffixes);
+        oldPathSuffixes.keySet().removeAll(ambiguousOldSuffixes);
+    }
+
+    @Override
+    public Object getLeftSeedKey(EObject element) {
+        return getSeedKey(element, newPathSuffixes);
+    }
+
+    @Override
+    public Object getRightSeedKey(EObject element) {
+        return getSeedKey(element, oldPathSuffixes);
+    }
+
+    /**
+     * Compute the seed key of an element. The key of a compilation unit is the original path of
+     * its file. The key of a classifier is the key of its container extended by its name.
+     *
+     * @param element
+     *            The element to compute the key for.
+     * @param pathSuffixes
+     *            The original paths of the renamed files by the path suffixes of the element's
+     *            model.
+     * @return The key or null if the element does not belong to a renamed file.
+     */
+    private String getSeedKey(EObject element, Map<String, String> pathSuffixes) {
+        if (pathSuffixes.isEmpty()) {
+            return null;
+        }
+        if (element instanceof CompilationUnit) {
+            return pathSuffixes.get(JaMoPPLogicalPathUtil.createLogicalPath((CompilationUnit) element));
+        }
+        if (element instanceof ConcreteClassifier) {
+            String name = ((ConcreteClassifier) element).getName();
+            EObject container = element.eContainer();
+            if (name == null
+                    || !(container instanceof CompilationUnit || container instanceof ConcreteClassifier)) {
+                return null;
+            }
+            String containerKey = getSeedKey(container, pathSuffixes);
+            return containerKey == null ? null : containerKey + JaMoPPLogicalPathUtil.SEPARATOR + name;
+        }
+        return null;
+    }
+
+    /**
+     * Register all suffixes of a path consisting of complete segments.
+     *
+     * @param suffixes
+     *            The map to register the suffixes in.
+     * @param ambiguousSuffixes
+     *            The set to collect the suffixes already registered for another path.
+     * @param path
+     *            The path to register the suffixes of.
+     * @param key
+     *            The value to register the suffixes for.
+     */
+    private static void addSuffixes(Map<String, String> suffixes, Set<String> ambiguousSuffixes, String path,
+            String key) {
+        for (String suffix : JaMoPPLogicalPathUtil.getSuffixes(path)) {
+            String previousKey = suffixes.putIfAbsent(suffix, key);
+            if (previousKey != null && !previousKey.equals(key)) {
+                ambiguousSuffixes.add(suffix);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.jamopp.diffing.match;
+
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.emftext.commons.layout.LayoutPackage;
+import org.emftext.language.java.commons.NamedElement;
+import org.emftext.language.java.parameters.Parameter;
+import org.emftext.language.java.parameters.Parametrizable;
+import org.emftext.language.java.types.Type;
+import org.emftext.language.java.types.TypeReference;
+import org.emftext.language.java.types.TypedElement;
+import org.splevo.diffing.match.HierarchicalMatchEngine.SubtreeHashStrategy;
+import org.splevo.jamopp.diffing.diff.JaMoPPFeatureFilter;
+import org.splevo.jamopp.diffing.similarity.SimilarityChecker;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Subtree hash strategy for JaMoPP models.
+ * <p>
+ * The hash of an element is built from its EClass, its attribute values, the targets of its
+ * non-containment references, and the hashes of its contents (a Merkle hash). Derived, transient,
+ * and container features as well as the layout information are ignored like in the
+ * {@link JaMoPPFeatureFilter}, so a subtree which only moved within its file keeps its hash.
+ * Reference targets are described by their path of names and containment positions and by their
+ * signatures, so the hash does not depend on the URI of the resource.
+ * </p>
+ * <p>
+ * The similarity checker applies normalizations to the left element only. In this case, identical
+ * subtrees are not necessarily similar, so no hashes are computed.
+ * </p>
+ */
+public class JaMoPPSubtreeHashStrategy implements SubtreeHashStrategy {
+
+    /** The hash function for the subtrees. */
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    /** Flag whether hashes are computed. */
+    private boolean enabled;
+
+    /** The hashes of the elements of the current match run. */
+    private final Map<EObject, HashCode> hashes = new IdentityHashMap<EObject, HashCode>();
+
+    /** The descriptions of the reference targets of the current match run. */
+    private final Map<EObject, String> targetDescriptions = new IdentityHashMap<EObject, String>();
+
+    /**
+     * Constructor for a strategy which computes the hashes independently of a similarity checker,
+     * for example, to fingerprint models.
+     */
+    public JaMoPPSubtreeHashStrategy() {
+        this.enabled = true;
+    }
+
+    /**
+     * Constructor to set the required dependencies.
+     *
+     * @param similarityChecker
+     *            The similarity checker used by the equality strategy the hashes are computed for.
+     */
+    public JaMoPPSubtreeHashStrategy(SimilarityChecker similarityChecker) {
+        this.enabled = !similarityChecker.hasNormalizations();
+    }
+
+    @Override
+    public Object getSubtreeHash(EObject element) {
+        if (!enabled) {
+            return null;
+        }
+        return computeHash(element);
+    }
+
+    @Override
+    public void startMatching() {
+        hashes.clear();
+        targetDescriptions.clear();
+    }
+
+    @Override
+    public void finishMatching() {
+        hashes.clear();
+        targetDescriptions.clear();
+    }
+
+    /**
+     * Compute the hash of a subtree. The hashes of all elements of the subtree are cached.
+     *
+     * @param element
+     *            The root element of the subtree.
+     * @return The hash.
+     */
+    private HashCode computeHash(EObject element) {
+        HashCode hash = hashes.get(element);
+        if (hash != null) {
+            return hash;
+        }
+
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        putString(hasher, element.eClass().getName());
+        for (EStructuralFeature feature : element.eClass().getEAllStructuralFeatures()) {
+            if (isIgnored(feature) || !element.eIsSet(feature)) {
+                continue;
+            }
+            putString(hasher, feature.getName());
+            if (feature.isMany()) {
+                List<?> values = (List<?>) element.eGet(feature, false);
+                hasher.putInt(values.size());
+                for (Object value : values) {
+                    putValue(hasher, feature, value);
+                }
+            } else {
+                putValue(hasher, feature, element.eGet(feature, false));
+            }
+        }
+
+        hash = hasher.hash();
+        hashes.put(element, hash);
+        return hash;
+    }
+
+    /**
+     * Add a single value of a feature to a hash.
+     *
+     * @param hasher
+     *            The hasher to add the value to.
+     * @param feature
+     *            The feature of the value.
+     * @param value
+     *            The value.
+     */
+    private void putValue(Hasher hasher, EStructuralFeature feature, Object value) {
+        if (value == null) {
+            hasher.putByte((byte) 0);
+        } else if (feature instanceof EAttribute) {
+            putString(hasher, value.toString());
+        } else if (((EReference) feature).isContainment()) {
+            hasher.putBytes(computeHash((EObject) value).asBytes());
+        } else {
+            putString(hasher, describeTarget((EObject) value));
+        }
+    }
+
+    /**
+     * Describe the target of a non-containment reference by the names or containment positions of
+     * the target and its containers and by the signature of the target. Proxies are described by
+     * their URI.
+     *
+     * @param target
+     *            The referenced element.
+     * @return The description.
+     */
+    private String describeTarget(EObject target) {
+        String description = targetDescriptions.get(target);
+        if (description != null) {
+            return description;
+        }
+
+        if (target.eIsProxy()) {
+            description = EcoreUtil.getURI(target).toString();
+        } else {
+            StringBuilder builder = new StringBuilder();
+            EObject container = target.eContainer();
+            if (container != null) {
+                builder.append(describeTarget(container));
+                builder.append('/');
+                EReference containmentFeature = target.eContainmentFeature();
+                builder.append(containmentFeature.getName());
+                if (containmentFeature.isMany()) {
+                    builder.append('.');
+                    builder.append(((List<?>) container.eGet(containmentFeature, false)).indexOf(target));
+                }
+            }
+            builder.append(':');
+            builder.append(target.eClass().getName());
+            if (target instanceof NamedElement) {
+                builder.append(':');
+                builder.append(((NamedElement) target).getName());
+            }
+            appendSignature(builder, target);
+            description = builder.toString();
+        }
+
+        targetDescriptions.put(target, description);
+        return description;
+    }
+
+    /**
+     * Append the signature of a reference target, so that a reference whose target is replaced by
+     * another element at the same position changes the hash. Parametrizable elements are described
+     * by their parameter types like in the signature comparison of the {@link SimilarityChecker},
+     * typed elements by their type.
+     *
+     * @param builder
+     *            The builder of the description.
+     * @param target
+     *            The referenced element.
+     */
+    private static void appendSignature(StringBuilder builder, EObject target) {
+        if (target instanceof Parametrizable) {
+            builder.append('(');
+            for (Parameter parameter : ((Parametrizable) target).getParameters()) {
+                appendTypeName(builder, parameter.getTypeReference());
+                builder.append(',');
+            }
+            builder.append(')');
+        }
+        if (target instanceof TypedElement) {
+            builder.append(':');
+            appendTypeName(builder, ((TypedElement) target).getTypeReference());
+        }
+    }
+
+    /**
+     * Append the name and array dimension of a referenced type. The type is described by its name
+     * only, as type parameters are contained in the elements they parameterize.
+     *
+     * @param builder
+     *            The builder of the description.
+     * @param typeReference
+     *            The type reference.
+     */
+    private static void appendTypeName(StringBuilder builder, TypeReference typeReference) {
+        if (typeReference == null) {
+            return;
+        }
+        Type type = typeReference.getTarget();
+        if (type == null) {
+            builder.append(typeReference.eClass().getName());
+        } else if (type.eIsProxy()) {
+            builder.append(EcoreUtil.getURI(type));
+        } else if (type instanceof NamedElement) {
+            builder.append(((NamedElement) type).getName());
+        } else {
+            builder.append(type.eClass().getName());
+        }
+        for (long dimension = 0; dimension < typeReference.getArrayDimension(); dimension++) {
+            builder.append("[]");
+        }
+    }
+
+    /**
+     * Check if a feature is ignored for the hash.
+     *
+     * @param feature
+     *            The feature to check.
+     * @return True if the feature is ignored, false if not.
+     */
+    private static boolean isIgnored(EStructuralFeature feature) {
+        if (feature.isDerived() || feature.isTransient()) {
+            return true;
+        }
+        if (feature instanceof EReference) {
+            EReference reference = (EReference) feature;
+            return reference.isContainer()
+                    || LayoutPackage.Literals.LAYOUT_INFORMATION.isSuperTypeOf(reference.getEReferenceType());
+        }
+        return false;
+    }
+
+    /**
+     * Add a string to a hash. The length is added first so the concatenation of strings is
+     * unambiguous.
+     *
+     * @param hasher
+     *            The hasher to add the string to.
+     * @param value
+     *            The string to add.
+     */
+    private static void putString(Hasher hasher, String value) {
+        String string = String.valueOf(value);
+        hasher.putInt(string.length());
+        hasher.putString(string, StandardCharsets.UTF_8);
+    }
+}
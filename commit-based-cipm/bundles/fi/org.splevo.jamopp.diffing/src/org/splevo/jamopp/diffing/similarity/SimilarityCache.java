@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.jamopp.diffing.similarity;
+
+import org.eclipse.emf.ecore.EObject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Bounded memo of similarity decisions for pairs of elements.
+ * <p>
+ * Elements are identified by their identity and not by their equals() implementation. The memo is
+ * disabled by default and only valid as long as the compared models do not change, so it should
+ * only be enabled for the duration of a single comparison run.
+ * </p>
+ */
+final class SimilarityCache {
+
+    /** The default maximum number of memorized decisions. */
+    static final long DEFAULT_MAXIMUM_SIZE = 100000;
+
+    /** The memorized decisions. Null if the memo is disabled. */
+    private volatile Cache<ElementPair, Boolean> decisions = null;
+
+    /**
+     * Enable the memo with a fresh and empty decision table.
+     *
+     * @param maximumSize
+     *            The maximum number of decisions to keep.
+     */
+    void enable(long maximumSize) {
+        decisions = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Disable the memo and drop all decisions.
+     */
+    void disable() {
+        decisions = null;
+    }
+
+    /**
+     * Get a memorized decision.
+     *
+     * @param element1
+     *            The first element.
+     * @param element2
+     *            The second element.
+     * @param checkStatementPosition
+     *            The statement position flag of the check.
+     * @return The decision or null if none is known.
+     */
+    Boolean get(EObject element1, EObject element2, boolean checkStatementPosition) {
+        Cache<ElementPair, Boolean> currentDecisions = decisions;
+        if (currentDecisions == null) {
+            return null;
+        }
+        return currentDecisions.getIfPresent(new ElementPair(element1, element2, checkStatementPosition));
+    }
+
+    /**
+     * Memorize a decision. Undecided (null) results are not memorized.
+     *
+     * @param element1
+     *            The first element.
+     * @param element2
+     *            The second element.
+     * @param checkStatementPosition
+     *            The statement position flag of the check.
+     * @param decision
+     *            The decision to memorize.
+     */
+    void put(EObject element1, EObject element2, boolean checkStatementPosition, Boolean decision) {
+        Cache<ElementPair, Boolean> currentDecisions = decisions;
+        if (currentDecisions == null || decision == null) {
+            return;
+        }
+        currentDecisions.put(new ElementPair(element1, element2, checkStatementPosition), decision);
+    }
+
+    /**
+     * Drop all decisions involving an element.
+     *
+     * @param element
+     *            The changed element.
+     */
+    void invalidate(EObject element) {
+        Cache<ElementPair, Boolean> currentDecisions = decisions;
+        if (currentDecisions != null) {
+            currentDecisions.asMap().keySet()
+                    .removeIf(pair -> pair.element1 == element || pair.element2 == element);
+        }
+    }
+
+    /**
+     * Drop all decisions but keep the memo enabled.
+     */
+    void invalidateAll() {
+        Cache<ElementPair, Boolean> currentDecisions = decisions;
+        if (currentDecisions != null) {
+            currentDecisions.invalidateAll();
+        }
+    }
+
+    /**
+     * Identity based key of a similarity check.
+     */
+    private static final class ElementPair {
+
+        private final EObject element1;
+        private final EObject element2;
+        private final boolean checkStatementPosition;
+
+        private ElementPair(EObject element1, EObject element2, boolean checkStatementPosition) {
+            this.element1 = element1;
+            this.element2 = element2;
+            this.checkStatementPosition = checkStatementPosition;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = System.identityHashCode(element1);
+            hash = 31 * hash + System.identityHashCode(element2);
+            return 31 * hash + (checkStatementPosition ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ElementPair)) {
+                return false;
+            }
+            ElementPair other = (ElementPair) obj;
+            return element1 == other.element1 && element2 == other.element2
+                    && checkStatementPosition == other.checkStatementPosition;
+        }
+    }
+}
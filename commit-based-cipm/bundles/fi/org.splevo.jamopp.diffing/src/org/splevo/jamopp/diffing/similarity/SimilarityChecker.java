@@ -25,9 +25,10 @@ import com.google.common.collect.Maps;
 /**
  * Checker for the similarity of two elements specific for the java application model.
  *
- * TODO: Check caching for this similarity checker. Would require to pass this to the similarity
- * switch as well!
- *
+ * <p>
+ * The similarity switches are reused per thread. In addition, decisions can be memorized for the
+ * duration of a comparison run (see {@link #startComparison()} and {@link #finishComparison()}).
+ * </p>
  */
 public class SimilarityChecker {
 
@@ -40,6 +41,15 @@ public class SimilarityChecker {
     private LinkedHashMap<Pattern, String> packageNormalizations = null;
     private boolean defaultCheckStatementPositionFlag = true;
 
+    /** The reusable switches of the current thread indexed by the statement position flag. */
+    private ThreadLocal<SimilaritySwitch[]> similaritySwitches = createSwitchStorage();
+
+    /** The checker with the inverted default statement position flag for nested checks. */
+    private SimilarityChecker invertedChecker = null;
+
+    /** The memo of similarity decisions shared with the inverted checker. */
+    private SimilarityCache similarityCache = new SimilarityCache();
+
     /**
      * Constructor to set the required configurations.
      *
@@ -68,6 +78,17 @@ public class SimilarityChecker {
         this.packageNormalizations = Maps.newLinkedHashMap();
     }
     
+    /**
+     * Indicates if the SimilarityChecker instance applies any classifier, compilation unit or package
+     * normalization.
+     * 
+     * @return true if at least one normalization is configured. false otherwise.
+     */
+    public boolean hasNormalizations() {
+        return !classifierNormalizations.isEmpty() || !compilationUnitNormalizations.isEmpty()
+                || !packageNormalizations.isEmpty();
+    }
+    
     /**
      * Indicates if the SimilarityChecker instance checks the position of statements in its default behavior.
      * 
@@ -84,6 +105,52 @@ public class SimilarityChecker {
      */
     public void setCheckStatementPositionOnDefault(boolean check) {
     	this.defaultCheckStatementPositionFlag = check;
+    	this.similaritySwitches = createSwitchStorage();
+    	this.invertedChecker = null;
+    	this.similarityCache.invalidateAll();
+    }
+
+    /**
+     * Starts a comparison run. Until {@link #finishComparison()} is called, similarity decisions are
+     * memorized. The compared models must not change during the run unless the changed elements are
+     * passed to {@link #invalidate(EObject)}.
+     */
+    public void startComparison() {
+        startComparison(SimilarityCache.DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Starts a comparison run with a specific memo size.
+     * 
+     * @param maximumSize the maximum number of memorized decisions.
+     * @see #startComparison()
+     */
+    public void startComparison(long maximumSize) {
+        this.similarityCache.enable(maximumSize);
+    }
+
+    /**
+     * Finishes a comparison run and drops all memorized decisions.
+     */
+    public void finishComparison() {
+        this.similarityCache.disable();
+    }
+
+    /**
+     * Drops all memorized decisions involving an element. Must be called if an element changes
+     * during a comparison run.
+     * 
+     * @param element the changed element.
+     */
+    public void invalidate(EObject element) {
+        this.similarityCache.invalidate(element);
+    }
+
+    /**
+     * Drops all memorized decisions of the current comparison run.
+     */
+    public void invalidateAll() {
+        this.similarityCache.invalidateAll();
     }
 
     /**
@@ -164,8 +231,15 @@ public class SimilarityChecker {
             return Boolean.FALSE;
         }
 
+        Boolean similarity = similarityCache.get(element1, element2, checkStatementPosition);
+        if (similarity != null) {
+            return similarity;
+        }
+
         // check type specific similarity
-        return this.checkSimilarityForResolvedAndSameType(element1, element2, checkStatementPosition);
+        similarity = this.checkSimilarityForResolvedAndSameType(element1, element2, checkStatementPosition);
+        similarityCache.put(element1, element2, checkStatementPosition, similarity);
+        return similarity;
     }
     
     /**
@@ -179,8 +253,61 @@ public class SimilarityChecker {
      */
     protected Boolean checkSimilarityForResolvedAndSameType(EObject element1, EObject element2,
     		boolean checkStatementPosition) {
-    	return new SimilaritySwitch(element2, checkStatementPosition, classifierNormalizations,
-    			compilationUnitNormalizations, packageNormalizations).doSwitch(element1);
+    	SimilaritySwitch similaritySwitch = getSimilaritySwitch(checkStatementPosition);
+    	// the switch is reused by nested checks, so the previous compare element must be restored
+    	EObject previousCompareElement = similaritySwitch.getCompareElement();
+    	similaritySwitch.setCompareElement(element2);
+    	try {
+    		return similaritySwitch.doSwitch(element1);
+    	} finally {
+    		similaritySwitch.setCompareElement(previousCompareElement);
+    	}
+    }
+
+    /**
+     * Gets the reusable similarity switch of the current thread.
+     * 
+     * @param checkStatementPosition the statement position flag of the switch.
+     * @return the switch.
+     */
+    private SimilaritySwitch getSimilaritySwitch(boolean checkStatementPosition) {
+    	SimilaritySwitch[] switches = similaritySwitches.get();
+    	int index = checkStatementPosition ? 1 : 0;
+    	if (switches[index] == null) {
+    		switches[index] = new SimilaritySwitch(getCheckerWithDefault(checkStatementPosition),
+    				checkStatementPosition, classifierNormalizations, compilationUnitNormalizations,
+    				packageNormalizations);
+    	}
+    	return switches[index];
+    }
+
+    /**
+     * Gets a checker for nested checks with a specific default statement position flag.
+     * 
+     * @param checkStatementPosition the default statement position flag.
+     * @return this checker or the checker with the inverted default flag.
+     */
+    private synchronized SimilarityChecker getCheckerWithDefault(boolean checkStatementPosition) {
+    	if (checkStatementPosition == defaultCheckStatementPositionFlag) {
+    		return this;
+    	}
+    	if (invertedChecker == null) {
+    		invertedChecker = new SimilarityChecker(classifierNormalizations, compilationUnitNormalizations,
+    				packageNormalizations);
+    		invertedChecker.defaultCheckStatementPositionFlag = checkStatementPosition;
+    		invertedChecker.invertedChecker = this;
+    		invertedChecker.similarityCache = this.similarityCache;
+    	}
+    	return invertedChecker;
+    }
+
+    /**
+     * Creates the storage for the reusable switches.
+     * 
+     * @return the storage.
+     */
+    private static ThreadLocal<SimilaritySwitch[]> createSwitchStorage() {
+    	return ThreadLocal.withInitial(() -> new SimilaritySwitch[2]);
     }
 
     /**
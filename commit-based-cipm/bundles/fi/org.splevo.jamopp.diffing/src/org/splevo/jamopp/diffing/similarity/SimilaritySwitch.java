@@ -133,7 +133,7 @@ import org.emftext.language.java.types.util.TypesSwitch;
 import org.emftext.language.java.variables.AdditionalLocalVariable;
 import org.emftext.language.java.variables.Variable;
 import org.emftext.language.java.variables.util.VariablesSwitch;
-import org.splevo.diffing.util.NormalizationUtil;
+import org.splevo.diffing.util.Normalizer;
 import org.splevo.jamopp.diffing.util.JaMoPPModelUtil;
 import org.splevo.jamopp.util.JaMoPPElementUtil;
 
@@ -184,10 +184,35 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
             LinkedHashMap<Pattern, String> classifierNormalizations,
             LinkedHashMap<Pattern, String> compilationUnitNormalizations,
             LinkedHashMap<Pattern, String> packageNormalizations) {
-        this.similarityChecker = new SimilarityChecker(classifierNormalizations, compilationUnitNormalizations,
-                packageNormalizations);
-        this.similarityChecker.setCheckStatementPositionOnDefault(checkStatementPosition);
+        this(createInternalChecker(checkStatementPosition, classifierNormalizations, compilationUnitNormalizations,
+                packageNormalizations), checkStatementPosition, classifierNormalizations,
+                compilationUnitNormalizations, packageNormalizations);
         this.compareElement = compareElement;
+    }
+
+    /**
+     * Constructor for a reusable switch. The element to compare with must be set with
+     * {@link #setCompareElement(EObject)} before each check.
+     * 
+     * @param similarityChecker
+     *            The checker to use for nested similarity checks. Its default statement position
+     *            flag must match the checkStatementPosition flag.
+     * @param checkStatementPosition
+     *            Flag if the similarity check should consider the position of a statement or not.
+     * @param classifierNormalizations
+     *            A list of patterns replace any match in a classifier name with the defined
+     *            replacement string.
+     * @param compilationUnitNormalizations
+     *            A list of patterns replace any match in a compilation unit name with the defined
+     *            replacement string.
+     * @param packageNormalizations
+     *            A list of package normalization patterns.
+     */
+    public SimilaritySwitch(SimilarityChecker similarityChecker, boolean checkStatementPosition,
+            LinkedHashMap<Pattern, String> classifierNormalizations,
+            LinkedHashMap<Pattern, String> compilationUnitNormalizations,
+            LinkedHashMap<Pattern, String> packageNormalizations) {
+        this.similarityChecker = similarityChecker;
         addSwitch(new AnnotationsSimilaritySwitch());
         addSwitch(new ArraysSimilaritySwitch());
         addSwitch(new ClassifiersSimilaritySwitch(classifierNormalizations));
@@ -210,6 +235,48 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
         addSwitch(new ModulesSimilaritySwitch());
     }
 
+    /**
+     * Create the checker for nested similarity checks of a switch which is not reused.
+     * 
+     * @param checkStatementPosition
+     *            The default statement position flag of the checker.
+     * @param classifierNormalizations
+     *            The classifier normalizations.
+     * @param compilationUnitNormalizations
+     *            The compilation unit normalizations.
+     * @param packageNormalizations
+     *            The package normalizations.
+     * @return The created checker.
+     */
+    private static SimilarityChecker createInternalChecker(boolean checkStatementPosition,
+            LinkedHashMap<Pattern, String> classifierNormalizations,
+            LinkedHashMap<Pattern, String> compilationUnitNormalizations,
+            LinkedHashMap<Pattern, String> packageNormalizations) {
+        SimilarityChecker checker = new SimilarityChecker(classifierNormalizations, compilationUnitNormalizations,
+                packageNormalizations);
+        checker.setCheckStatementPositionOnDefault(checkStatementPosition);
+        return checker;
+    }
+
+    /**
+     * Get the element the switched element is compared with.
+     * 
+     * @return The right-side / original element.
+     */
+    EObject getCompareElement() {
+        return compareElement;
+    }
+
+    /**
+     * Set the element the switched element is compared with.
+     * 
+     * @param compareElement
+     *            The right-side / original element to check the similarity against.
+     */
+    void setCompareElement(EObject compareElement) {
+        this.compareElement = compareElement;
+    }
+
     /**
      * Similarity decisions for annotation elements.
      */
@@ -271,10 +338,10 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
     private class ClassifiersSimilaritySwitch extends ClassifiersSwitch<Boolean> {
 
         /**
-         * A list of patterns replace any match in a classifier name with the defined replacement
-         * string.
+         * The normalizer to replace any match of the classifier normalization patterns in a
+         * classifier name with the defined replacement string.
          */
-        private Map<Pattern, String> classifierNormalizationPatterns = null;
+        private Normalizer classifierNormalizer = null;
 
         /**
          * Constructor to set the required configurations.
@@ -284,7 +351,7 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
          *            replacement string.
          */
         public ClassifiersSimilaritySwitch(Map<Pattern, String> classifierNormalizationPatterns) {
-            this.classifierNormalizationPatterns = classifierNormalizationPatterns;
+            this.classifierNormalizer = new Normalizer(classifierNormalizationPatterns);
         }
 
         /**
@@ -300,7 +367,7 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
 
             ConcreteClassifier classifier2 = (ConcreteClassifier) compareElement;
 
-            String name1 = NormalizationUtil.normalize(classifier1.getQualifiedName(), classifierNormalizationPatterns);
+            String name1 = classifierNormalizer.normalize(classifier1.getQualifiedName());
             String name2 = Strings.nullToEmpty(classifier2.getQualifiedName());
 
             return (name1.equals(name2));
@@ -350,9 +417,9 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
      */
     private class ContainersSimilaritySwitch extends ContainersSwitch<Boolean> {
 
-        private LinkedHashMap<Pattern, String> compilationUnitNormalizations = null;
+        private Normalizer compilationUnitNormalizer = null;
 
-        private LinkedHashMap<Pattern, String> packageNormalizations = null;
+        private Normalizer packageNormalizer = null;
 
         /**
          * Constructor to set the required configurations.
@@ -365,8 +432,8 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
          */
         public ContainersSimilaritySwitch(LinkedHashMap<Pattern, String> compilationUnitNormalizations,
                 LinkedHashMap<Pattern, String> packageNormalizations) {
-            this.compilationUnitNormalizations = compilationUnitNormalizations;
-            this.packageNormalizations = packageNormalizations;
+            this.compilationUnitNormalizer = new Normalizer(compilationUnitNormalizations);
+            this.packageNormalizer = new Normalizer(packageNormalizations);
         }
 
         /**
@@ -388,15 +455,14 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
 
             CompilationUnit unit2 = (CompilationUnit) compareElement;
 
-            String name1 = NormalizationUtil.normalize(unit1.getName(), compilationUnitNormalizations);
-            name1 = NormalizationUtil.normalize(name1, packageNormalizations);
+            String name1 = compilationUnitNormalizer.normalize(unit1.getName());
+            name1 = packageNormalizer.normalize(name1);
             String name2 = unit2.getName();
             if (!name1.equals(name2)) {
                 return Boolean.FALSE;
             }
 
-            String namespaceString1 = NormalizationUtil.normalizeNamespace(unit1.getNamespacesAsString(),
-                    packageNormalizations);
+            String namespaceString1 = packageNormalizer.normalize(unit1.getNamespacesAsString());
             String namespaceString2 = Strings.nullToEmpty(unit2.getNamespacesAsString());
             if (!namespaceString1.equals(namespaceString2)) {
                 return Boolean.FALSE;
@@ -421,7 +487,7 @@ public class SimilaritySwitch extends ComposedSwitch<Boolean> {
             Package package2 = (Package) compareElement;
 
             String packagePath1 = JaMoPPModelUtil.buildNamespacePath(package1);
-            packagePath1 = NormalizationUtil.normalizeNamespace(packagePath1, packageNormalizations);
+            packagePath1 = packageNormalizer.normalize(packagePath1);
             String packagePath2 = JaMoPPModelUtil.buildNamespacePath(package2);
             if (!packagePath1.equals(packagePath2)) {
                 return Boolean.FALSE;
@@ -0,0 +1,863 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.jamopp.extraction.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * A reference cache file in a compact binary format.
+ * <p>
+ * The cached references of a directory are stored in a snapshot and a journal. The snapshot is
+ * memory-mapped and queried without deserializing it: Every string is stored once in a table
+ * sorted by its UTF-8 bytes so that it is found by a binary search. The references of a resource
+ * are stored as sorted string ids, and target URIs are split into their resource URI and fragment
+ * so that the resource URIs are shared.
+ * </p>
+ * <p>
+ * Changes are kept in memory and appended to the journal by {@link #flush()}. When the journal
+ * becomes large compared to the snapshot, {@link #compact()} merges both into a new snapshot.
+ * </p>
+ * <p>
+ * The snapshot and its journal belong to a generation which is part of their file names. A compaction
+ * writes the snapshot of the next generation instead of replacing the mapped snapshot, so the mapped
+ * file is never modified. Files of older generations are deleted as soon as possible.
+ * </p>
+ * <p>
+ * A file without a directory is kept in memory only.
+ * </p>
+ */
+public final class BinaryReferenceCacheFile {
+
+    /** The prefix of the names of the snapshot and journal files, followed by their generation. */
+    public static final String FILE_NAME_PREFIX = "jamopp.cache.";
+
+    /** The extension of the snapshot files. */
+    public static final String SNAPSHOT_FILE_EXTENSION = ".bin";
+
+    /** The extension of the journal files. */
+    public static final String JOURNAL_FILE_EXTENSION = ".log";
+
+    private static final int SNAPSHOT_MAGIC = 0x4A435253;
+    private static final int JOURNAL_MAGIC = 0x4A43524A;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = 5 * Integer.BYTES;
+    private static final int JOURNAL_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RESOURCE_RECORD_SIZE = 3 * Integer.BYTES;
+    private static final int ENTRY_RECORD_SIZE = 3 * Integer.BYTES;
+    private static final int NO_STRING = -1;
+    private static final char FRAGMENT_SEPARATOR = '#';
+
+    private static final int DEFINE_STRING = 0;
+    private static final int PUT = 1;
+    private static final int REMOVE_RESOURCE = 2;
+    private static final int REMOVE_TARGETS = 3;
+
+    /** The minimum number of journal records before the journal is compacted. */
+    private static final int MIN_JOURNAL_RECORDS_FOR_COMPACTION = 10000;
+
+    private static Logger logger = Logger.getLogger(BinaryReferenceCacheFile.class);
+
+    private final File directory;
+    private long generation = 0;
+    private File snapshotFile;
+    private File journalFile;
+
+    /** The mapped snapshot. Null if there is no snapshot. */
+    private ByteBuffer snapshot = null;
+    private int stringCount = 0;
+    private int resourceCount = 0;
+    private int entryCount = 0;
+    private int resourcesPosition = 0;
+    private int entriesPosition = 0;
+
+    /** The references added after the snapshot was written. */
+    private final Map<String, LinkedHashMap<String, String>> addedReferences = new LinkedHashMap<>();
+    /** The resources whose references in the snapshot are removed. */
+    private final Set<String> removedResources = new HashSet<>();
+    /** The prefixes of target URIs whose references in the snapshot are removed. */
+    private final List<String> removedTargetPrefixes = new ArrayList<>();
+
+    private final Map<String, Integer> journalStringIds = new HashMap<>();
+    private final ByteArrayOutputStream pendingRecords = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOutput = new DataOutputStream(pendingRecords);
+    private long journalLength = 0;
+    private int journalRecords = 0;
+
+    /**
+     * Open the cache file of a directory. Errors while reading the files are logged, and the
+     * affected data is ignored.
+     *
+     * @param directory
+     *            The directory containing the cache files or null to keep the cache in memory.
+     */
+    public BinaryReferenceCacheFile(File directory) {
+        this.directory = directory;
+        if (directory == null) {
+            return;
+        }
+        setGeneration(findLatestGeneration());
+        deleteOlderGenerations();
+        try {
+            mapSnapshot();
+        } catch (IOException e) {
+            logger.error("Cache file could not be accessed correctly: " + snapshotFile, e);
+            snapshot = null;
+        }
+        try {
+            loadJournal();
+        } catch (IOException e) {
+            logger.error("Cache journal could not be accessed correctly: " + journalFile, e);
+        }
+    }
+
+    /**
+     * Check if a snapshot or journal exists for this file.
+     *
+     * @return True if cached data was persisted in the binary format before.
+     */
+    public synchronized boolean exists() {
+        return snapshot != null || journalLength > 0;
+    }
+
+    /**
+     * Get the cached target URI of a reference.
+     *
+     * @param resource
+     *            The URI of the resource containing the reference.
+     * @param fragment
+     *            The fragment URI of the reference.
+     * @return The target URI or null if it is not cached.
+     */
+    public synchronized String get(String resource, String fragment) {
+        String target = getAdded(resource, fragment);
+        if (target != null) {
+            return target;
+        }
+        if (removedResources.contains(resource)) {
+            return null;
+        }
+        target = getFromSnapshot(resource, fragment);
+        if (target != null && isTargetRemoved(target)) {
+            return null;
+        }
+        return target;
+    }
+
+    /**
+     * Get a target URI which was cached after the snapshot was written.
+     *
+     * @param resource
+     *            The URI of the resource containing the reference.
+     * @param fragment
+     *            The fragment URI of the reference.
+     * @return The target URI or null if it is not cached.
+     */
+    public synchronized String getAdded(String resource, String fragment) {
+        Map<String, String> references = addedReferences.get(resource);
+        return references != null ? references.get(fragment) : null;
+    }
+
+    /**
+     * Check if references for a resource are cached.
+     *
+     * @param resource
+     *            The URI of the resource.
+     * @return True if the resource is cached.
+     */
+    public synchronized boolean containsResource(String resource) {
+        if (addedReferences.containsKey(resource)) {
+            return true;
+        }
+        return !removedResources.contains(resource) && snapshot != null && findResource(resource) >= 0;
+    }
+
+    /**
+     * Check if the references for a resource were removed.
+     *
+     * @param resource
+     *            The URI of the resource.
+     * @return True if the references were removed and not added again.
+     */
+    public synchronized boolean isResourceRemoved(String resource) {
+        return removedResources.contains(resource) && !addedReferences.containsKey(resource);
+    }
+
+    /**
+     * Check if references to a target were removed.
+     *
+     * @param target
+     *            The target URI.
+     * @return True if the references to the target were removed.
+     */
+    public synchronized boolean isTargetRemoved(String target) {
+        for (String prefix : removedTargetPrefixes) {
+            if (target.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cache the target URI of a reference.
+     *
+     * @param resource
+     *            The URI of the resource containing the reference.
+     * @param fragment
+     *            The fragment URI of the reference.
+     * @param target
+     *            The target URI.
+     */
+    public synchronized void put(String resource, String fragment, String target) {
+        addedReferences.computeIfAbsent(resource, r -> new LinkedHashMap<>()).put(fragment, target);
+        if (journalFile != null) {
+            try {
+                int resourceId = getJournalStringId(resource);
+                int fragmentId = getJournalStringId(fragment);
+                int targetId = getJournalStringId(target);
+                pendingOutput.writeByte(PUT);
+                pendingOutput.writeInt(resourceId);
+                pendingOutput.writeInt(fragmentId);
+                pendingOutput.writeInt(targetId);
+                journalRecords++;
+            } catch (IOException e) {
+                logger.error("Failed to record a cache entry", e);
+            }
+        }
+    }
+
+    /**
+     * Remove all references of a resource.
+     *
+     * @param resource
+     *            The URI of the resource.
+     */
+    public synchronized void removeResource(String resource) {
+        addedReferences.remove(resource);
+        removedResources.add(resource);
+        recordRemoval(REMOVE_RESOURCE, resource);
+    }
+
+    /**
+     * Remove all references whose target URI starts with a prefix.
+     *
+     * @param prefix
+     *            The prefix of the target URIs.
+     */
+    public synchronized void removeTargets(String prefix) {
+        for (Map<String, String> references : addedReferences.values()) {
+            references.values().removeIf(target -> target.startsWith(prefix));
+        }
+        removedTargetPrefixes.add(prefix);
+        recordRemoval(REMOVE_TARGETS, prefix);
+    }
+
+    private void recordRemoval(int type, String value) {
+        if (journalFile == null) {
+            return;
+        }
+        try {
+            int id = getJournalStringId(value);
+            pendingOutput.writeByte(type);
+            pendingOutput.writeInt(id);
+            journalRecords++;
+        } catch (IOException e) {
+            logger.error("Failed to record a cache removal", e);
+        }
+    }
+
+    private int getJournalStringId(String value) throws IOException {
+        Integer id = journalStringIds.get(value);
+        if (id == null) {
+            id = journalStringIds.size();
+            journalStringIds.put(value, id);
+            pendingOutput.writeByte(DEFINE_STRING);
+            writeString(pendingOutput, value);
+        }
+        return id;
+    }
+
+    /**
+     * Append all changes which were not persisted yet to the journal.
+     *
+     * @throws IOException
+     *             If the journal cannot be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (journalFile == null || pendingRecords.size() == 0) {
+            return;
+        }
+        FileUtils.forceMkdir(journalFile.getParentFile());
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(journalFile, journalLength > 0)))) {
+            if (journalLength == 0) {
+                out.writeInt(JOURNAL_MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                journalLength = JOURNAL_HEADER_SIZE;
+            }
+            pendingRecords.writeTo(out);
+        }
+        journalLength += pendingRecords.size();
+        pendingRecords.reset();
+    }
+
+    /**
+     * Check if the journal should be merged into the snapshot.
+     *
+     * @return True if the journal is large compared to the snapshot.
+     */
+    public synchronized boolean needsCompaction() {
+        return journalFile != null && journalRecords >= Math.max(MIN_JOURNAL_RECORDS_FOR_COMPACTION, entryCount / 4);
+    }
+
+    /**
+     * Merge the snapshot and all changes into a new snapshot and clear the journal.
+     *
+     * @throws IOException
+     *             If the new snapshot cannot be written.
+     */
+    public synchronized void compact() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        logger.debug("Compact reference cache file: " + snapshotFile.getAbsolutePath());
+        replaceSnapshot(collectReferences(readSnapshot()));
+    }
+
+    /**
+     * Use references loaded from another format as the base of this file. The changes of the
+     * journal are applied to them, and the result is written as new snapshot. If the snapshot
+     * cannot be written, the references are kept in memory.
+     *
+     * @param references
+     *            The references per resource.
+     */
+    public synchronized void importReferences(Map<String, ? extends Map<String, String>> references) {
+        Map<String, LinkedHashMap<String, String>> merged = collectReferences(references);
+        if (directory != null) {
+            try {
+                replaceSnapshot(merged);
+                return;
+            } catch (IOException e) {
+                logger.warn("Cache file could not be written: " + snapshotFile, e);
+            }
+        }
+        addedReferences.clear();
+        addedReferences.putAll(merged);
+    }
+
+    /**
+     * Apply the changes to base references.
+     *
+     * @param base
+     *            The base references per resource.
+     * @return The resulting references per resource.
+     */
+    private Map<String, LinkedHashMap<String, String>> collectReferences(
+            Map<String, ? extends Map<String, String>> base) {
+        Map<String, LinkedHashMap<String, String>> result = new LinkedHashMap<>();
+        for (Entry<String, ? extends Map<String, String>> resourceEntry : base.entrySet()) {
+            if (removedResources.contains(resourceEntry.getKey())) {
+                continue;
+            }
+            LinkedHashMap<String, String> references = new LinkedHashMap<>();
+            for (Entry<String, String> entry : resourceEntry.getValue().entrySet()) {
+                if (!isTargetRemoved(entry.getValue())) {
+                    references.put(entry.getKey(), entry.getValue());
+                }
+            }
+            result.put(resourceEntry.getKey(), references);
+        }
+        for (Entry<String, LinkedHashMap<String, String>> resourceEntry : addedReferences.entrySet()) {
+            result.computeIfAbsent(resourceEntry.getKey(), r -> new LinkedHashMap<>())
+                    .putAll(resourceEntry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Write the references as snapshot of the next generation and use it instead of the current
+     * snapshot and journal. The current snapshot is not modified because it is still mapped.
+     *
+     * @param references
+     *            The references per resource.
+     * @throws IOException
+     *             If the new snapshot cannot be written.
+     */
+    private void replaceSnapshot(Map<String, ? extends Map<String, String>> references) throws IOException {
+        long nextGeneration = generation + 1;
+        File nextSnapshotFile = getSnapshotFile(nextGeneration);
+        File tempFile = new File(directory, nextSnapshotFile.getName() + ".tmp");
+        FileUtils.forceMkdir(directory);
+        writeSnapshot(tempFile, references);
+        Files.move(tempFile.toPath(), nextSnapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        // Drop the mapping of the current snapshot before its files are deleted.
+        snapshot = null;
+        setGeneration(nextGeneration);
+        addedReferences.clear();
+        removedResources.clear();
+        removedTargetPrefixes.clear();
+        journalStringIds.clear();
+        pendingRecords.reset();
+        journalLength = 0;
+        journalRecords = 0;
+        mapSnapshot();
+        deleteOlderGenerations();
+    }
+
+    private void setGeneration(long newGeneration) {
+        generation = newGeneration;
+        snapshotFile = getSnapshotFile(newGeneration);
+        journalFile = new File(directory, FILE_NAME_PREFIX + newGeneration + JOURNAL_FILE_EXTENSION);
+    }
+
+    private File getSnapshotFile(long fileGeneration) {
+        return new File(directory, FILE_NAME_PREFIX + fileGeneration + SNAPSHOT_FILE_EXTENSION);
+    }
+
+    /**
+     * Find the latest generation with a snapshot.
+     *
+     * @return The generation or 0 if there is no snapshot.
+     */
+    private long findLatestGeneration() {
+        long latest = 0;
+        String[] names = directory.list();
+        if (names == null) {
+            return latest;
+        }
+        for (String name : names) {
+            latest = Math.max(latest, parseGeneration(name, SNAPSHOT_FILE_EXTENSION));
+        }
+        return latest;
+    }
+
+    /**
+     * Delete the snapshots and journals of older generations. Files which cannot be deleted yet,
+     * e.g., because they are still mapped, are deleted when the cache file is opened again.
+     */
+    private void deleteOlderGenerations() {
+        String[] names = directory.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            long fileGeneration = Math.max(parseGeneration(name, SNAPSHOT_FILE_EXTENSION),
+                    Math.max(parseGeneration(name, JOURNAL_FILE_EXTENSION),
+                            parseGeneration(name, SNAPSHOT_FILE_EXTENSION + ".tmp")));
+            if (fileGeneration >= 0 && fileGeneration < generation) {
+                try {
+                    Files.deleteIfExists(new File(directory, name).toPath());
+                } catch (IOException e) {
+                    logger.debug("Cache file of an older generation could not be deleted yet: " + name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the generation of a cache file from its name.
+     *
+     * @param name
+     *            The name of the file.
+     * @param extension
+     *            The expected extension of the file.
+     * @return The generation or -1 if the name does not belong to such a cache file.
+     */
+    private static long parseGeneration(String name, String extension) {
+        if (!name.startsWith(FILE_NAME_PREFIX) || !name.endsWith(extension)
+                || name.length() <= FILE_NAME_PREFIX.length() + extension.length()) {
+            return -1;
+        }
+        String generation = name.substring(FILE_NAME_PREFIX.length(), name.length() - extension.length());
+        for (int idx = 0; idx < generation.length(); idx++) {
+            if (!Character.isDigit(generation.charAt(idx))) {
+                return -1;
+            }
+        }
+        try {
+            return Long.parseLong(generation);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void writeSnapshot(File file, Map<String, ? extends Map<String, String>> references)
+            throws IOException {
+        // Intern all strings and sort them by their bytes so that the ids reflect their order.
+        Map<String, byte[]> encodedStrings = new HashMap<>();
+        int entries = 0;
+        for (Entry<String, ? extends Map<String, String>> resourceEntry : references.entrySet()) {
+            encode(encodedStrings, resourceEntry.getKey());
+            for (Entry<String, String> entry : resourceEntry.getValue().entrySet()) {
+                encode(encodedStrings, entry.getKey());
+                int separator = entry.getValue().indexOf(FRAGMENT_SEPARATOR);
+                if (separator < 0) {
+                    encode(encodedStrings, entry.getValue());
+                } else {
+                    encode(encodedStrings, entry.getValue().substring(0, separator));
+                    encode(encodedStrings, entry.getValue().substring(separator + 1));
+                }
+                entries++;
+            }
+        }
+        List<String> strings = new ArrayList<>(encodedStrings.keySet());
+        strings.sort((s1, s2) -> Arrays.compareUnsigned(encodedStrings.get(s1), encodedStrings.get(s2)));
+        Map<String, Integer> ids = new HashMap<>();
+        for (int idx = 0; idx < strings.size(); idx++) {
+            ids.put(strings.get(idx), idx);
+        }
+        List<String> resources = new ArrayList<>(references.keySet());
+        resources.sort((r1, r2) -> Integer.compare(ids.get(r1), ids.get(r2)));
+
+        long stringsPosition = (long) SNAPSHOT_HEADER_SIZE + (long) strings.size() * Integer.BYTES
+                + (long) resources.size() * RESOURCE_RECORD_SIZE + (long) entries * ENTRY_RECORD_SIZE;
+        long size = stringsPosition;
+        for (String value : strings) {
+            size += Integer.BYTES + encodedStrings.get(value).length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The reference cache is too large for the binary format.");
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(strings.size());
+            out.writeInt(resources.size());
+            out.writeInt(entries);
+            int offset = (int) stringsPosition;
+            for (String value : strings) {
+                out.writeInt(offset);
+                offset += Integer.BYTES + encodedStrings.get(value).length;
+            }
+            int firstEntry = 0;
+            for (String resource : resources) {
+                out.writeInt(ids.get(resource));
+                out.writeInt(firstEntry);
+                out.writeInt(references.get(resource).size());
+                firstEntry += references.get(resource).size();
+            }
+            for (String resource : resources) {
+                List<Entry<String, String>> resourceEntries = new ArrayList<>(references.get(resource).entrySet());
+                resourceEntries.sort((e1, e2) -> Integer.compare(ids.get(e1.getKey()), ids.get(e2.getKey())));
+                for (Entry<String, String> entry : resourceEntries) {
+                    out.writeInt(ids.get(entry.getKey()));
+                    int separator = entry.getValue().indexOf(FRAGMENT_SEPARATOR);
+                    if (separator < 0) {
+                        out.writeInt(ids.get(entry.getValue()));
+                        out.writeInt(NO_STRING);
+                    } else {
+                        out.writeInt(ids.get(entry.getValue().substring(0, separator)));
+                        out.writeInt(ids.get(entry.getValue().substring(separator + 1)));
+                    }
+                }
+            }
+            for (String value : strings) {
+                byte[] bytes = encodedStrings.get(value);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void encode(Map<String, byte[]> encodedStrings, String value) {
+        encodedStrings.computeIfAbsent(value, v -> v.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void mapSnapshot() throws IOException {
+        snapshot = null;
+        stringCount = 0;
+        resourceCount = 0;
+        entryCount = 0;
+        if (!snapshotFile.exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < SNAPSHOT_HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid size of the cache file " + snapshotFile);
+            }
+            ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != SNAPSHOT_MAGIC || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                throw new IOException("Unknown format of the cache file " + snapshotFile);
+            }
+            int strings = buffer.getInt(2 * Integer.BYTES);
+            int resources = buffer.getInt(3 * Integer.BYTES);
+            int entries = buffer.getInt(4 * Integer.BYTES);
+            long tablesSize = SNAPSHOT_HEADER_SIZE + (long) strings * Integer.BYTES
+                    + (long) resources * RESOURCE_RECORD_SIZE + (long) entries * ENTRY_RECORD_SIZE;
+            if (strings < 0 || resources < 0 || entries < 0 || tablesSize > channel.size()) {
+                throw new IOException("Invalid tables in the cache file " + snapshotFile);
+            }
+            stringCount = strings;
+            resourceCount = resources;
+            entryCount = entries;
+            resourcesPosition = SNAPSHOT_HEADER_SIZE + stringCount * Integer.BYTES;
+            entriesPosition = resourcesPosition + resourceCount * RESOURCE_RECORD_SIZE;
+            snapshot = buffer;
+        }
+    }
+
+    private String getFromSnapshot(String resource, String fragment) {
+        if (snapshot == null) {
+            return null;
+        }
+        int resourceIndex = findResource(resource);
+        if (resourceIndex < 0) {
+            return null;
+        }
+        int fragmentId = findString(fragment);
+        if (fragmentId == NO_STRING) {
+            return null;
+        }
+        int resourcePosition = resourcesPosition + resourceIndex * RESOURCE_RECORD_SIZE;
+        int low = snapshot.getInt(resourcePosition + Integer.BYTES);
+        int high = low + snapshot.getInt(resourcePosition + 2 * Integer.BYTES) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entryPosition = entriesPosition + mid * ENTRY_RECORD_SIZE;
+            int midId = snapshot.getInt(entryPosition);
+            if (midId < fragmentId) {
+                low = mid + 1;
+            } else if (midId > fragmentId) {
+                high = mid - 1;
+            } else {
+                String targetResource = readString(snapshot.getInt(entryPosition + Integer.BYTES));
+                int targetFragmentId = snapshot.getInt(entryPosition + 2 * Integer.BYTES);
+                if (targetFragmentId == NO_STRING) {
+                    return targetResource;
+                }
+                return targetResource + FRAGMENT_SEPARATOR + readString(targetFragmentId);
+            }
+        }
+        return null;
+    }
+
+    private int findResource(String resource) {
+        int resourceId = findString(resource);
+        if (resourceId == NO_STRING) {
+            return -1;
+        }
+        int low = 0;
+        int high = resourceCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = snapshot.getInt(resourcesPosition + mid * RESOURCE_RECORD_SIZE);
+            if (midId < resourceId) {
+                low = mid + 1;
+            } else if (midId > resourceId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int findString(String value) {
+        byte[] key = value.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = stringCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareString(mid, key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return NO_STRING;
+    }
+
+    private int compareString(int id, byte[] key) {
+        int offset = snapshot.getInt(SNAPSHOT_HEADER_SIZE + id * Integer.BYTES);
+        int length = snapshot.getInt(offset);
+        int common = Math.min(length, key.length);
+        for (int idx = 0; idx < common; idx++) {
+            int comparison = Integer.compare(Byte.toUnsignedInt(snapshot.get(offset + Integer.BYTES + idx)),
+                    Byte.toUnsignedInt(key[idx]));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String readString(int id) {
+        int offset = snapshot.getInt(SNAPSHOT_HEADER_SIZE + id * Integer.BYTES);
+        byte[] bytes = new byte[snapshot.getInt(offset)];
+        ByteBuffer view = snapshot.duplicate();
+        view.position(offset + Integer.BYTES);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read all references of the snapshot.
+     *
+     * @return The references per resource.
+     */
+    private Map<String, LinkedHashMap<String, String>> readSnapshot() {
+        Map<String, LinkedHashMap<String, String>> references = new LinkedHashMap<>();
+        if (snapshot == null) {
+            return references;
+        }
+        for (int resourceIndex = 0; resourceIndex < resourceCount; resourceIndex++) {
+            int resourcePosition = resourcesPosition + resourceIndex * RESOURCE_RECORD_SIZE;
+            LinkedHashMap<String, String> resourceReferences = new LinkedHashMap<>();
+            int firstEntry = snapshot.getInt(resourcePosition + Integer.BYTES);
+            int lastEntry = firstEntry + snapshot.getInt(resourcePosition + 2 * Integer.BYTES);
+            for (int entry = firstEntry; entry < lastEntry; entry++) {
+                int entryPosition = entriesPosition + entry * ENTRY_RECORD_SIZE;
+                String target = readString(snapshot.getInt(entryPosition + Integer.BYTES));
+                int targetFragmentId = snapshot.getInt(entryPosition + 2 * Integer.BYTES);
+                if (targetFragmentId != NO_STRING) {
+                    target = target + FRAGMENT_SEPARATOR + readString(targetFragmentId);
+                }
+                resourceReferences.put(readString(snapshot.getInt(entryPosition)), target);
+            }
+            references.put(readString(snapshot.getInt(resourcePosition)), resourceReferences);
+        }
+        return references;
+    }
+
+    /**
+     * Load the journal and apply its records. A malformed record is treated like an incomplete
+     * record at the end of the journal: It and all following records are ignored, and the journal
+     * is truncated before it.
+     *
+     * @throws IOException
+     *             If the journal cannot be read or has an unknown format.
+     */
+    private void loadJournal() throws IOException {
+        if (!journalFile.exists()) {
+            return;
+        }
+        List<String> strings = new ArrayList<>();
+        long fileLength = journalFile.length();
+        long validLength = JOURNAL_HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            if (in.readInt() != JOURNAL_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown format of the cache journal " + journalFile);
+            }
+            try {
+                int type = in.read();
+                while (type >= 0) {
+                    if (type == DEFINE_STRING) {
+                        int length = in.readInt();
+                        if (length < 0 || length > fileLength - validLength) {
+                            throw new MalformedRecordException("Invalid string length " + length);
+                        }
+                        byte[] bytes = new byte[length];
+                        in.readFully(bytes);
+                        String value = new String(bytes, StandardCharsets.UTF_8);
+                        journalStringIds.put(value, strings.size());
+                        strings.add(value);
+                        validLength += 1 + Integer.BYTES + bytes.length;
+                    } else if (type == PUT) {
+                        String resource = readJournalString(in, strings);
+                        String fragment = readJournalString(in, strings);
+                        String target = readJournalString(in, strings);
+                        addedReferences.computeIfAbsent(resource, r -> new LinkedHashMap<>()).put(fragment, target);
+                        validLength += 1 + 3 * Integer.BYTES;
+                        journalRecords++;
+                    } else if (type == REMOVE_RESOURCE) {
+                        String resource = readJournalString(in, strings);
+                        addedReferences.remove(resource);
+                        removedResources.add(resource);
+                        validLength += 1 + Integer.BYTES;
+                        journalRecords++;
+                    } else if (type == REMOVE_TARGETS) {
+                        String prefix = readJournalString(in, strings);
+                        for (Map<String, String> references : addedReferences.values()) {
+                            references.values().removeIf(target -> target.startsWith(prefix));
+                        }
+                        removedTargetPrefixes.add(prefix);
+                        validLength += 1 + Integer.BYTES;
+                        journalRecords++;
+                    } else {
+                        throw new MalformedRecordException("Unknown record type " + type);
+                    }
+                    type = in.read();
+                }
+            } catch (EOFException e) {
+                logger.warn("Ignoring an incomplete record at the end of the cache journal " + journalFile);
+            } catch (MalformedRecordException e) {
+                logger.warn("Ignoring a malformed record and all following records in the cache journal "
+                        + journalFile + ": " + e.getMessage());
+            }
+        }
+        journalLength = validLength;
+        if (fileLength > validLength) {
+            try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    private static String readJournalString(DataInputStream in, List<String> strings)
+            throws IOException, MalformedRecordException {
+        int id = in.readInt();
+        if (id < 0 || id >= strings.size()) {
+            throw new MalformedRecordException("Unknown string id " + id);
+        }
+        return strings.get(id);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Signals a record of the journal which cannot be applied.
+     */
+    private static class MalformedRecordException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
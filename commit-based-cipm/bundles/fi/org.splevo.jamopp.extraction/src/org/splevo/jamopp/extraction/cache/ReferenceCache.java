@@ -18,9 +18,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
@@ -31,10 +29,8 @@ import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
-import org.emftext.language.java.JavaClasspath;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 /**
@@ -45,14 +41,13 @@ import com.google.common.collect.Sets;
  * separate resource set is used per software, but for differencing several software models must be
  * accessed in one resource set.
  * 
- * Cache files are always named according to {@link #CACHE_FILE_NAME}.
+ * Cache files are stored in the binary format of {@link BinaryReferenceCacheFile}. During
+ * initialization, the cache files existing in the provided directories are opened without loading
+ * their content. Subdirectories are not considered. A directory containing only a cache file in the
+ * former serialized format named {@link #CACHE_FILE_NAME} is converted to the binary format.
  * 
- * During initialization, cache files existing in the provided directories are loaded.
- * Subdirectories are not considered.
- * 
- * When proxies in new resources are resolved and {@link #save()} is triggered, they are stored in a
- * cache file of the first directory provided in the list. If a cache file already exists in the
- * first cache directory, the existing cache is loaded and enhanced with the new cached references.
+ * When proxies in new resources are resolved and {@link #save()} is triggered, the new cached
+ * references are appended to the cache file of the first directory provided in the list.
  */
 public class ReferenceCache {
 
@@ -76,12 +71,11 @@ public class ReferenceCache {
      */
     private final List<String> cacheFileDirectories;
 
-    /** The cache data object to work with. */
-    private ReferenceCacheData cacheData = new ReferenceCacheData();
+    /** The cache files per directory. The first one receives all changes. */
+    private final List<BinaryReferenceCacheFile> cacheFiles = Lists.newArrayList();
 
     /**
-     * Constructor to set a list of directories containing cache files. Within these directories,
-     * files with the name {@link #CACHE_FILE_NAME} are searched.
+     * Constructor to set a list of directories containing cache files.
      * 
      * If a new file must be created, this will be done in the first directory of the list.
      * 
@@ -94,19 +88,23 @@ public class ReferenceCache {
     }
 
     /**
-     * Initialize the cache by loading all cache files available in the configured directory.
-     * 
-     * In addition, register the jar files in the {@link JavaClasspath}.
+     * Initialize the cache by opening all cache files available in the configured directory.
+     * Cache files in the former serialized format are converted if there is no binary cache file.
      */
     private void init() {
         for (String cacheDirectory : this.cacheFileDirectories) {
+            BinaryReferenceCacheFile binaryCacheFile = new BinaryReferenceCacheFile(new File(cacheDirectory));
             File cacheFile = new File(cacheDirectory + File.separator + CACHE_FILE_NAME);
-            if (cacheFile.exists() && cacheFile.canRead()) {
+            if (!binaryCacheFile.exists() && cacheFile.exists() && cacheFile.canRead()) {
                 ReferenceCacheData loadedCacheData = load(cacheFile);
                 if (loadedCacheData != null) {
-                    cacheData.merge(loadedCacheData);
+                    binaryCacheFile.importReferences(loadedCacheData.getResourceToTargetURIListMap());
                 }
             }
+            cacheFiles.add(binaryCacheFile);
+        }
+        if (cacheFiles.isEmpty()) {
+            cacheFiles.add(new BinaryReferenceCacheFile(null));
         }
     }
 
@@ -127,13 +125,12 @@ public class ReferenceCache {
 
     /**
      * Trigger to save all non yet persisted cache entries.<br>
-     * These are the entries created for resources that could not be loaded from any existing cache
-     * file.
+     * These are the entries created or removed since the last save.
      * 
      * If more than one cache file directory was created, the first entry in the list will be used.
      * 
-     * If the cache file already exists, it will not be overridden, but loaded and the new entries
-     * will be added to it.
+     * The entries are appended to the existing cache file. If many entries were appended, the cache
+     * file is compacted.
      * 
      */
     public void save() {
@@ -143,18 +140,19 @@ public class ReferenceCache {
             return;
         }
 
-        File cacheFile = new File(cacheFileDirectories.get(0) + File.separator + CACHE_FILE_NAME);
-        ReferenceCacheData cacheDataExisting = load(cacheFile);
-        if (cacheDataExisting == null) {
-            cacheDataExisting = new ReferenceCacheData();
-            cacheData.merge(cacheDataExisting);
+        BinaryReferenceCacheFile cacheFile = cacheFiles.get(0);
+        try {
+            cacheFile.flush();
+            if (cacheFile.needsCompaction()) {
+                cacheFile.compact();
+            }
+        } catch (IOException e) {
+            logger.warn("cache file could not be accessed in: " + cacheFileDirectories.get(0), e);
         }
-
-        save(cacheFile, cacheData);
     }
 
     /**
-     * Persist the cache in the file system.
+     * Persist the cache in the file system in the former serialized format.
      * 
      * @param cacheFile
      *            The file to save to.
@@ -259,12 +257,7 @@ public class ReferenceCache {
      */
     public EObject getEObject(Resource resource, String id) {
 
-        String resourceUri = resource.getURI().toString();
-        LinkedHashMap<String, String> targetUriMap = cacheData.getResourceToTargetURIListMap().get(resourceUri);
-        if (targetUriMap == null) {
-            return null;
-        }
-        String targetURI = targetUriMap.get(id);
+        String targetURI = findTargetURI(resource.getURI().toString(), id);
         if (targetURI == null) {
             return null;
         }
@@ -272,6 +265,38 @@ public class ReferenceCache {
         return getTarget(resource, targetURI);
     }
 
+    /**
+     * Find the cached target URI of a proxy. The changes of the first cache file are considered
+     * first. Otherwise, the last cache file containing the resource is used.
+     * 
+     * @param resourceUri
+     *            The URI of the resource containing the proxy.
+     * @param id
+     *            The id (local fragment uri) of the proxy.
+     * @return The target URI or null if it is not cached.
+     */
+    private String findTargetURI(String resourceUri, String id) {
+        BinaryReferenceCacheFile primaryCacheFile = cacheFiles.get(0);
+        String targetURI = primaryCacheFile.getAdded(resourceUri, id);
+        if (targetURI != null) {
+            return targetURI;
+        }
+        if (primaryCacheFile.isResourceRemoved(resourceUri)) {
+            return null;
+        }
+        for (int i = cacheFiles.size() - 1; i >= 0; i--) {
+            BinaryReferenceCacheFile cacheFile = cacheFiles.get(i);
+            if (cacheFile.containsResource(resourceUri)) {
+                targetURI = cacheFile.get(resourceUri, id);
+                if (targetURI == null || primaryCacheFile.isTargetRemoved(targetURI)) {
+                    return null;
+                }
+                return targetURI;
+            }
+        }
+        return null;
+    }
+
     /**
      * Check is already present in the cached.
      * 
@@ -280,7 +305,19 @@ public class ReferenceCache {
      * @return True/ False if it is cached or not.
      */
     public boolean isCached(Resource resource) {
-        return cacheData.getResourceToTargetURIListMap().containsKey(resource.getURI().toString());
+        String resourceUri = resource.getURI().toString();
+        if (cacheFiles.get(0).containsResource(resourceUri)) {
+            return true;
+        }
+        if (cacheFiles.get(0).isResourceRemoved(resourceUri)) {
+            return false;
+        }
+        for (BinaryReferenceCacheFile cacheFile : cacheFiles) {
+            if (cacheFile.containsResource(resourceUri)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -328,13 +365,7 @@ public class ReferenceCache {
             return;
         }
 
-        LinkedHashMap<String, String> targetURIMap = cacheData.getResourceToTargetURIListMap().get(resourceUri);
-        if (targetURIMap == null) {
-            targetURIMap = Maps.newLinkedHashMap();
-            cacheData.getResourceToTargetURIListMap().put(resourceUri, targetURIMap);
-        }
-
-        targetURIMap.put(fragmentURI, targetURI);
+        cacheFiles.get(0).put(resourceUri, fragmentURI, targetURI);
         notResolvedFromCacheCounterReference++;
     }
 
@@ -344,7 +375,8 @@ public class ReferenceCache {
 
     /**
      * Resets the cache for the given resource and saves the cache afterwards to prevent old entries
-     * from appearing after loading the resource again.
+     * from appearing after loading the resource again. The removal is appended to the cache file
+     * instead of rewriting it.
      * 
      * @param resource
      *            The resource for which the cache shall be reset.
@@ -354,16 +386,8 @@ public class ReferenceCache {
             return;
         }
         final String uriToRemovePrefix = resource.getURI().toString() + "#";
-        cacheData.getResourceToTargetURIListMap().remove(resource.getURI().toString());
-        for (LinkedHashMap<String, String> map : cacheData.getResourceToTargetURIListMap().values()) {
-            List<String> toRemove = Lists.newArrayList();
-            for (Entry<String, String> entry : map.entrySet()) {
-                if (entry.getValue().startsWith(uriToRemovePrefix)) {
-                    toRemove.add(entry.getKey());
-                }
-            }
-            map.keySet().removeAll(toRemove);
-        }
+        cacheFiles.get(0).removeResource(resource.getURI().toString());
+        cacheFiles.get(0).removeTargets(uriToRemovePrefix);
         save();
     }
 
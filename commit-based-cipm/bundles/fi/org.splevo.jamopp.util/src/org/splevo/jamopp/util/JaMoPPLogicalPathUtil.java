@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.splevo.jamopp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.emftext.language.java.LogicalJavaURIGenerator;
+import org.emftext.language.java.commons.NamespaceAwareElement;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.JavaRoot;
+import org.emftext.language.java.containers.Module;
+import org.emftext.language.java.containers.Package;
+
+/**
+ * Utility class to relate JaMoPP models to the files they were parsed from.
+ *
+ * The logical path of a model consists of its namespaces and the name of its file, e.g.,
+ * <code>org/example/Item.java</code> for a compilation unit. It does not depend on the location
+ * of the source directory. Therefore, a model belongs to a file if its logical path is a suffix
+ * of the file path consisting of complete segments.
+ */
+public final class JaMoPPLogicalPathUtil {
+
+    /** The separator of the path segments. */
+    public static final char SEPARATOR = '/';
+
+    /** Disable constructor for utility class. */
+    private JaMoPPLogicalPathUtil() {
+    }
+
+    /**
+     * Create the logical path of a model from its namespaces and name.
+     *
+     * @param root
+     *            The root element of the model.
+     * @return The logical path.
+     */
+    public static String createLogicalPath(JavaRoot root) {
+        StringBuilder builder = new StringBuilder();
+        if (root instanceof NamespaceAwareElement) {
+            for (String namespace : ((NamespaceAwareElement) root).getNamespaces()) {
+                builder.append(namespace);
+                builder.append(SEPARATOR);
+            }
+        }
+        if (root instanceof CompilationUnit) {
+            builder.append(root.getName());
+            builder.append(LogicalJavaURIGenerator.JAVA_FILE_EXTENSION);
+        } else if (root instanceof Package) {
+            builder.append(LogicalJavaURIGenerator.JAVA_PACKAGE_FILE_NAME);
+        } else if (root instanceof Module) {
+            builder.append(LogicalJavaURIGenerator.JAVA_MODULE_FILE_NAME);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Normalize a file path so that its segments are separated by {@link #SEPARATOR}.
+     *
+     * @param path
+     *            The file path.
+     * @return The normalized path.
+     */
+    public static String normalizePath(String path) {
+        return path.replace('\\', SEPARATOR);
+    }
+
+    /**
+     * Get all suffixes of a normalized path which consist of complete segments. Logical paths are
+     * compared with these suffixes to relate models to files.
+     *
+     * @param path
+     *            The normalized path.
+     * @return The suffixes starting with the complete path and ending with the last segment.
+     */
+    public static List<String> getSuffixes(String path) {
+        List<String> suffixes = new ArrayList<String>();
+        int idx = -1;
+        do {
+            suffixes.add(path.substring(idx + 1));
+            idx = path.indexOf(SEPARATOR, idx + 1);
+        } while (idx >= 0);
+        return suffixes;
+    }
+}
@@ -0,0 +1,186 @@
+package cipm.consistency.commitintegration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.utils.SeekableInMemoryByteChannel;
+import org.apache.log4j.Logger;
+
+/**
+ * Removes entries from archives (WAR, JAR, and ZIP files).
+ *
+ * An archive is rewritten in a single pass. The kept entries are copied without decompressing and
+ * compressing them again. Nested archives are rewritten in memory. The original archive is only replaced
+ * if at least one entry was removed.
+ */
+public class ArchiveEntryRemover {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + ArchiveEntryRemover.class.getSimpleName());
+	/**
+	 * Patterns for the entries of the monitoring classes which must not be deployed with the instrumented
+	 * code.
+	 */
+	public static final List<String> MONITORING_CLASS_PATTERNS = List.of(
+			"(.*/)?cipm/consistency/bridge/monitoring/controller/ThreadMonitoringController\\.class",
+			"(.*/)?cipm/consistency/bridge/monitoring/controller/ServiceParameters\\.class");
+	private static final List<String> ARCHIVE_EXTENSIONS = List.of(".jar", ".war", ".zip");
+	private final List<Pattern> patterns;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param patterns regular expressions for the names of the removed entries. A
+	 *                 name is the path of the entry within the archive which
+	 *                 directly contains it. For an entry of a nested archive, it
+	 *                 does not include the path of the nested archive.
+	 */
+	public ArchiveEntryRemover(Collection<String> patterns) {
+		this.patterns = patterns.stream().map(Pattern::compile).collect(Collectors.toList());
+	}
+
+	/**
+	 * Removes the entries from multiple archives in parallel. Errors are logged.
+	 *
+	 * @param archives paths to the archives.
+	 */
+	public void removeEntries(Collection<Path> archives) {
+		if (archives.isEmpty()) {
+			return;
+		}
+		int threads = Math.min(archives.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (Path archive : archives) {
+				results.add(executor.submit(() -> removeEntries(archive)));
+			}
+			for (Future<Boolean> result : results) {
+				try {
+					result.get();
+				} catch (ExecutionException e) {
+					LOGGER.error("Could not remove the entries from an archive.", e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.error("The removal of the entries was interrupted.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Removes the entries from an archive.
+	 *
+	 * @param archive path to the archive.
+	 * @return true if entries were removed. false if the archive is unchanged.
+	 * @throws IOException if the archive cannot be read or written.
+	 */
+	public boolean removeEntries(Path archive) throws IOException {
+		Path temporary = Files.createTempFile(archive.toAbsolutePath().getParent(),
+				archive.getFileName().toString(), ".tmp");
+		try {
+			boolean changed;
+			try (ZipFile zip = new ZipFile(archive.toFile());
+					ZipArchiveOutputStream out = new ZipArchiveOutputStream(temporary.toFile())) {
+				changed = rewrite(zip, out);
+			}
+			if (changed) {
+				Files.move(temporary, archive, StandardCopyOption.REPLACE_EXISTING);
+				LOGGER.debug("Removed entries from " + archive);
+			}
+			return changed;
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private boolean rewrite(ZipFile zip, ZipArchiveOutputStream out) throws IOException {
+		boolean changed = false;
+		for (Enumeration<ZipArchiveEntry> entries = zip.getEntriesInPhysicalOrder(); entries.hasMoreElements();) {
+			ZipArchiveEntry entry = entries.nextElement();
+			if (isRemoved(entry.getName())) {
+				changed = true;
+				continue;
+			}
+			if (!entry.isDirectory() && isArchive(entry.getName())) {
+				byte[] rewritten = rewriteNestedArchive(zip, entry);
+				if (rewritten != null) {
+					writeEntry(out, entry, rewritten);
+					changed = true;
+					continue;
+				}
+			}
+			try (InputStream raw = zip.getRawInputStream(entry)) {
+				out.addRawArchiveEntry(entry, raw);
+			}
+		}
+		return changed;
+	}
+
+	private boolean isRemoved(String name) {
+		return patterns.stream().anyMatch(p -> p.matcher(name).matches());
+	}
+
+	private static boolean isArchive(String name) {
+		return ARCHIVE_EXTENSIONS.stream().anyMatch(name::endsWith);
+	}
+
+	/**
+	 * Rewrites a nested archive in memory.
+	 *
+	 * @return the content of the rewritten archive or null if the archive is unchanged.
+	 */
+	private byte[] rewriteNestedArchive(ZipFile zip, ZipArchiveEntry entry) throws IOException {
+		byte[] content;
+		try (InputStream in = zip.getInputStream(entry)) {
+			content = in.readAllBytes();
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length);
+		boolean changed;
+		try (ZipFile nestedZip = new ZipFile(new SeekableInMemoryByteChannel(content));
+				ZipArchiveOutputStream out = new ZipArchiveOutputStream(bytes)) {
+			changed = rewrite(nestedZip, out);
+		} catch (IOException e) {
+			LOGGER.debug("The entry " + entry.getName() + " is not a readable archive: " + e.getMessage());
+			return null;
+		}
+		return changed ? bytes.toByteArray() : null;
+	}
+
+	private static void writeEntry(ZipArchiveOutputStream out, ZipArchiveEntry original, byte[] content)
+			throws IOException {
+		ZipArchiveEntry entry = new ZipArchiveEntry(original.getName());
+		entry.setTime(original.getTime());
+		if (original.getMethod() == ZipEntry.STORED) {
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(content.length);
+			entry.setCrc(crc.getValue());
+		} else {
+			entry.setMethod(ZipEntry.DEFLATED);
+		}
+		out.putArchiveEntry(entry);
+		out.write(content);
+		out.closeArchiveEntry();
+	}
+}
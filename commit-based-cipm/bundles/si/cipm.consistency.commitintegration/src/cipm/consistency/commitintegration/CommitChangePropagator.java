@@ -2,18 +2,39 @@ package cipm.consistency.commitintegration;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.diff.DiffEntry;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
 import cipm.consistency.commitintegration.settings.SettingKeys;
+import cipm.consistency.domains.java.propagation.CompilationUnitFingerprints;
+import cipm.consistency.domains.java.propagation.JavaChangeResolutionContext;
 import cipm.consistency.tools.evaluation.data.EvaluationDataContainer;
+import cipm.consistency.tools.evaluation.data.ExecutionTimeData;
+import cipm.consistency.tools.evaluation.data.PhaseProfiler;
+import tools.vitruv.applications.pcmjava.seffstatements.pojotransformations.code2seff.BasicComponentForPackageMappingFinder;
 import tools.vitruv.framework.vsum.internal.InternalVirtualModel;
 
 /**
@@ -34,6 +55,13 @@ public class CommitChangePropagator {
 	private InternalVirtualModel vsum;
 	private String remoteRepository;
 	private JavaFileSystemLayout fileLayout;
+	/**
+	 * The Java models of the last incremental propagation and their commit. The
+	 * models are kept in memory so that the unchanged models can be moved into the
+	 * models of the next commit instead of copying the models of the VSUM.
+	 */
+	private Resource previousJavaModel;
+	private String previousJavaModelCommit;
 
 	/**
 	 * Creates a new instance.
@@ -117,16 +145,191 @@ public class CommitChangePropagator {
 		if (commits.size() > 0) {
 			RevCommit first = commits.remove(0);
 			LOGGER.debug("Propagating " + commits.size() + " commits.");
-			for (RevCommit next : commits) {
-				boolean result = propagateChanges(first, next);
-				if (result) {
-					first = next;
+			int lookahead = getCommitLookahead();
+			if (lookahead > 0 && commits.size() > 1) {
+				propagateChangesPipelined(first, commits, lookahead);
+			} else {
+				for (RevCommit next : commits) {
+					boolean result = propagateChanges(first, next);
+					if (result) {
+						first = next;
+					}
 				}
 			}
 			LOGGER.debug("Finished propagating the commits.");
 		}
 	}
 
+	/**
+	 * Propagates changes from a list of commits in a pipeline. While the changes
+	 * of one commit are propagated, the next commits are exported into separate
+	 * directories, preprocessed and parsed in the background. The propagation
+	 * itself is performed in the order of the commits. If the Java code can be
+	 * parsed incrementally, the changed files of a prepared commit are parsed
+	 * during its propagation instead.
+	 * 
+	 * @param first     the commit which is currently represented in the VSUM.
+	 * @param commits   the commits with changes to propagate.
+	 * @param lookahead the maximum number of commits which are prepared in
+	 *                  advance.
+	 * @throws GitAPIException if there is an exception within the Git usage.
+	 * @throws IOException     if something from the repositories cannot be read.
+	 */
+	private void propagateChangesPipelined(RevCommit first, List<RevCommit> commits, int lookahead)
+			throws GitAPIException, IOException {
+		LOGGER.debug("Preparing up to " + lookahead + " commits in advance.");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Deque<Future<PreparedCommit>> preparations = new ArrayDeque<>();
+		int nextPreparation = 0;
+		RevCommit lastPropagated = null;
+		try {
+			for (int idx = 0; idx < commits.size(); idx++) {
+				while (nextPreparation < commits.size() && nextPreparation <= idx + lookahead) {
+					RevCommit commit = commits.get(nextPreparation);
+					preparations.add(executor.submit(() -> prepareCommit(commit)));
+					nextPreparation++;
+				}
+				PreparedCommit prepared = awaitPreparation(preparations.poll());
+				try {
+					if (propagatePreparedChanges(first, prepared)) {
+						first = prepared.commit;
+						lastPropagated = prepared.commit;
+					}
+				} finally {
+					prepared.dispose();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			for (Future<PreparedCommit> preparation : preparations) {
+				preparation.cancel(true);
+			}
+			FileUtils.deleteQuietly(fileLayout.getWorktrees().toFile());
+		}
+		if (lastPropagated != null) {
+			// The local repository represents the last propagated commit as in the sequential propagation.
+			String commitId = lastPropagated.getId().getName();
+			checkout(commitId);
+			preprocess();
+		}
+	}
+
+	private PreparedCommit awaitPreparation(Future<PreparedCommit> preparation) throws GitAPIException, IOException {
+		try {
+			return preparation.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while preparing a commit.", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof GitAPIException) {
+				throw (GitAPIException) cause;
+			} else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Exports, preprocesses and parses a commit. The commit is exported into a
+	 * directory with the same name as the local repository so that the detected
+	 * components do not depend on the directory.
+	 * 
+	 * @param commit the commit.
+	 * @return the prepared commit.
+	 * @throws IOException if the commit cannot be exported.
+	 */
+	private PreparedCommit prepareCommit(RevCommit commit) throws IOException {
+		String commitId = commit.getId().getName();
+		Path worktree = fileLayout.getWorktrees().resolve(commitId);
+		Path dir = worktree.resolve(fileLayout.getLocalJavaRepo().getFileName());
+		PreparedCommit prepared = new PreparedCommit(commit, worktree, dir);
+		// The phases are attached to the evaluation data when the commit is propagated.
+		try (var recording = PhaseProfiler.recordInto(prepared.times)) {
+			LOGGER.debug("Exporting " + commitId + " into " + dir);
+			try (var phase = PhaseProfiler.start(PhaseProfiler.CHECKOUT)) {
+				FileUtils.deleteDirectory(worktree.toFile());
+				repoWrapper.exportCommit(commit, dir.toFile());
+			}
+			prepared.preprocessed = preprocess(dir.toFile());
+			// With the incremental parsing, only the changed files are parsed during the
+			// propagation based on the models of the previous commit.
+			if (prepared.preprocessed && !isIncrementalParsingEnabled()) {
+				prepared.parsedModels = JavaParserAndPropagatorUtils.parseJavaCodeInBackground(dir);
+			}
+		}
+		return prepared;
+	}
+
+	/**
+	 * Propagates the changes of a prepared commit to the VSUM. The phases recorded
+	 * during the preparation are attached to the current evaluation data. The
+	 * models parsed in the background are used if the Java code cannot be parsed
+	 * incrementally.
+	 * 
+	 * @param start    the first commit.
+	 * @param prepared the prepared second commit.
+	 * @return true if the changes are successfully propagated. false indicates that
+	 *         there are no changes for Java files or the pre-processing failed.
+	 * @throws IOException if something from the repositories cannot be read.
+	 */
+	private boolean propagatePreparedChanges(RevCommit start, PreparedCommit prepared) throws IOException {
+		String commitId = prepared.commit.getId().getName();
+		String oldId = start != null ? start.getId().getName() : null;
+		PhaseProfiler.attach(prepared.times);
+		List<DiffEntry> diffs = computeDiffs(start, prepared.commit);
+		if (diffs == null) {
+			return false;
+		}
+		if (!prepared.preprocessed) {
+			LOGGER.debug("The preprocessing failed. Aborting.");
+			return false;
+		}
+		CompilationUnitFingerprints fingerprints = loadFingerprints();
+		JavaChangeResolutionContext context = createChangeResolutionContext(fingerprints, diffs);
+		try {
+			if (canParseIncrementally(oldId)) {
+				Resource previousModel = takePreviousJavaModel(oldId);
+				previousJavaModel = JavaParserAndPropagatorUtils.parseAndPropagateJavaCode(prepared.directory,
+						fileLayout.getJavaModelFile(), vsum, fileLayout.getModuleConfiguration(), previousModel,
+						diffs, context);
+				previousJavaModelCommit = commitId;
+			} else if (prepared.parsedModels != null) {
+				releasePreviousJavaModel();
+				LOGGER.debug("Propagating the models parsed in the background.");
+				JavaParserAndPropagatorUtils.propagateParsedJavaCode(prepared.parsedModels, prepared.directory,
+						fileLayout.getJavaModelFile(), vsum, fileLayout.getModuleConfiguration(), context);
+				prepared.parsedModels = null;
+			} else {
+				releasePreviousJavaModel();
+				JavaParserAndPropagatorUtils.parseAndPropagateJavaCode(prepared.directory,
+						fileLayout.getJavaModelFile(), vsum, fileLayout.getModuleConfiguration(), context);
+			}
+		} finally {
+			invalidateCorrespondenceCaches();
+		}
+		storeModelCommit(commitId, fingerprints);
+		LOGGER.debug("Finished the propagation of " + commitId);
+		return true;
+	}
+
+	private int getCommitLookahead() {
+		String lookahead = CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getProperty(SettingKeys.COMMIT_LOOKAHEAD);
+		if (lookahead == null || lookahead.isBlank()) {
+			return 0;
+		}
+		try {
+			return Integer.parseInt(lookahead.trim());
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid number of commits to prepare in advance: " + lookahead);
+			return 0;
+		}
+	}
+
 	/**
 	 * Propagates changes between an empty repository and a specific commit.
 	 * 
@@ -175,39 +378,286 @@ public class CommitChangePropagator {
 	 */
 	public boolean propagateChanges(RevCommit start, RevCommit end) throws GitAPIException, IOException {
 		String commitId = end.getId().getName();
-		LOGGER.debug("Obtaining all differences.");
-		List<DiffEntry> diffs = repoWrapper.computeDiffsBetweenTwoCommits(start, end, true, true);
-		if (diffs.size() == 0) {
-			LOGGER.debug("No Java files changed for " + commitId + " so that no propagation is performed.");
+		String oldId = start != null ? start.getId().getName() : null;
+		List<DiffEntry> diffs = computeDiffs(start, end);
+		if (diffs == null) {
 			return false;
 		}
-		var cs = EvaluationDataContainer.getGlobalContainer().getChangeStatistic();
-		String oldId = start != null ? start.getId().getName() : null;
-		cs.setOldCommit(oldId != null ? oldId : "");
-		cs.setNewCommit(commitId);
-		cs.setNumberCommits(repoWrapper.getAllCommitsBetweenTwoCommits(oldId, commitId).size() + 1);
-		LOGGER.debug("Cleaning the repository.");
-		repoWrapper.performCompleteClean();
-		LOGGER.debug("Checkout of " + commitId);
-		repoWrapper.checkout(commitId);
+		checkout(commitId);
 		boolean preprocessResult = preprocess();
 		if (!preprocessResult) {
 			LOGGER.debug("The preprocessing failed. Aborting.");
 			return false;
 		}
 		LOGGER.debug("Delegating the change propagation to the JavaParserAndPropagatorUtility.");
-		JavaParserAndPropagatorUtils.parseAndPropagateJavaCode(repoWrapper.getRootDirectory().toPath(),
-				fileLayout.getJavaModelFile(), vsum, fileLayout.getModuleConfiguration());
+		CompilationUnitFingerprints fingerprints = loadFingerprints();
+		JavaChangeResolutionContext context = createChangeResolutionContext(fingerprints, diffs);
+		try {
+			if (canParseIncrementally(oldId)) {
+				Resource previousModel = takePreviousJavaModel(oldId);
+				previousJavaModel = JavaParserAndPropagatorUtils.parseAndPropagateJavaCode(
+						repoWrapper.getRootDirectory().toPath(), fileLayout.getJavaModelFile(), vsum,
+						fileLayout.getModuleConfiguration(), previousModel, diffs, context);
+				previousJavaModelCommit = commitId;
+			} else {
+				releasePreviousJavaModel();
+				JavaParserAndPropagatorUtils.parseAndPropagateJavaCode(repoWrapper.getRootDirectory().toPath(),
+						fileLayout.getJavaModelFile(), vsum, fileLayout.getModuleConfiguration(), context);
+			}
+		} finally {
+			invalidateCorrespondenceCaches();
+		}
+		storeModelCommit(commitId, fingerprints);
 		LOGGER.debug("Finished the propagation of " + commitId);
 		return true;
 	}
 
-	private boolean preprocess() {
+	/**
+	 * Returns the Java models of a commit for an incremental parsing. If the
+	 * models of the last incremental propagation belong to the commit, they are
+	 * used. Otherwise, the Java models in the VSUM are copied because they must
+	 * not be modified.
+	 * 
+	 * @param commitId id of the commit.
+	 * @return the Java models. They are consumed by the incremental parsing.
+	 */
+	private Resource takePreviousJavaModel(String commitId) {
+		Resource previousModel = previousJavaModel;
+		boolean reusable = previousModel != null && commitId.equals(previousJavaModelCommit);
+		previousJavaModel = null;
+		previousJavaModelCommit = null;
+		if (reusable) {
+			return previousModel;
+		}
+		if (previousModel != null) {
+			previousModel.unload();
+		}
+		Resource vsumModel = vsum.getModelInstance(URI.createFileURI(fileLayout.getJavaModelFile().toString()))
+				.getResource();
+		Resource copy = new ResourceSetImpl().createResource(vsumModel.getURI());
+		copy.getContents().addAll(EcoreUtil.copyAll(vsumModel.getContents()));
+		return copy;
+	}
+
+	/**
+	 * Unloads the Java models of the last incremental propagation.
+	 */
+	private void releasePreviousJavaModel() {
+		if (previousJavaModel != null) {
+			previousJavaModel.unload();
+			previousJavaModel = null;
+			previousJavaModelCommit = null;
+		}
+	}
+
+	/**
+	 * Discards the caches of the SEFF reconstruction which depend on the
+	 * correspondences. The correspondences can change during a propagation
+	 * without a notification, so that the caches must not outlive it.
+	 */
+	private void invalidateCorrespondenceCaches() {
+		BasicComponentForPackageMappingFinder.invalidateCache(vsum.getCorrespondenceModel());
+	}
+
+	/**
+	 * Loads the fingerprints of the compilation units of the stored Java model if
+	 * they are enabled. The change resolution only uses them if they belong to the
+	 * commit of the stored Java model.
+	 * 
+	 * @return the fingerprints or null if they are disabled.
+	 */
+	private CompilationUnitFingerprints loadFingerprints() {
+		if (!CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.USE_COMPILATION_UNIT_FINGERPRINTS)) {
+			return null;
+		}
+		return new CompilationUnitFingerprints(fileLayout.getJavaModelFingerprintsFile());
+	}
+
+	/**
+	 * Reads the commit of the Java model in the VSUM.
+	 * 
+	 * @return the commit or null if it is unknown.
+	 * @throws IOException if the commit cannot be read.
+	 */
+	private String readModelCommit() throws IOException {
+		if (!Files.exists(fileLayout.getJavaModelCommitFile())) {
+			return null;
+		}
+		String modelCommit = Files.readString(fileLayout.getJavaModelCommitFile()).trim();
+		return modelCommit.isEmpty() ? null : modelCommit;
+	}
+
+	/**
+	 * Creates the context of the change resolution for the propagation of a
+	 * commit.
+	 * 
+	 * @param fingerprints the fingerprints of the stored Java model or null if
+	 *                     they are disabled.
+	 * @param diffs        the differences of the Java files between the previous
+	 *                     and the propagated commit.
+	 * @return the context.
+	 * @throws IOException if the commit of the Java model in the VSUM cannot be
+	 *                     read.
+	 */
+	private JavaChangeResolutionContext createChangeResolutionContext(CompilationUnitFingerprints fingerprints,
+			List<DiffEntry> diffs) throws IOException {
+		JavaChangeResolutionContext context = new JavaChangeResolutionContext();
+		context.setFingerprints(fingerprints);
+		context.setOldStateCommit(readModelCommit());
+		context.setRenamedFiles(getRenamedFiles(diffs));
+		return context;
+	}
+
+	/**
+	 * Stores the commit of the Java model after a successful propagation together
+	 * with the fingerprints of its compilation units.
+	 * 
+	 * @param commitId     id of the propagated commit.
+	 * @param fingerprints the fingerprints recorded during the propagation or null
+	 *                     if they are disabled.
+	 * @throws IOException if the commit or fingerprints cannot be written.
+	 */
+	private void storeModelCommit(String commitId, CompilationUnitFingerprints fingerprints) throws IOException {
+		Files.createDirectories(fileLayout.getJavaModelCommitFile().getParent());
+		Files.writeString(fileLayout.getJavaModelCommitFile(), commitId);
+		if (fingerprints != null) {
+			fingerprints.save(commitId);
+		} else {
+			Files.deleteIfExists(fileLayout.getJavaModelFingerprintsFile());
+		}
+	}
+
+	/**
+	 * Collects the Java files renamed between two commits if the renames are
+	 * passed to the change resolution.
+	 * 
+	 * @param diffs the differences of the Java files between the commits.
+	 * @return the new paths of the renamed files by their original paths, or null
+	 *         if no file was renamed or the renames are not used.
+	 */
+	private Map<String, String> getRenamedFiles(List<DiffEntry> diffs) {
+		if (!CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.USE_GIT_RENAMES)) {
+			return null;
+		}
+		Map<String, String> renamedFiles = new HashMap<>();
+		for (DiffEntry diff : diffs) {
+			if (diff.getChangeType() == DiffEntry.ChangeType.RENAME) {
+				renamedFiles.put(diff.getOldPath(), diff.getNewPath());
+			}
+		}
+		if (renamedFiles.isEmpty()) {
+			return null;
+		}
+		LOGGER.debug(renamedFiles.size() + " Java files were renamed.");
+		return renamedFiles;
+	}
+
+	/**
+	 * Computes the differences of the Java files between two commits and records
+	 * the change statistic.
+	 * 
+	 * @param start the first commit.
+	 * @param end   the second commit.
+	 * @return the differences or null if no Java file changed.
+	 * @throws IOException if the repository cannot be read.
+	 */
+	private List<DiffEntry> computeDiffs(RevCommit start, RevCommit end) throws IOException {
+		String commitId = end.getId().getName();
+		LOGGER.debug("Obtaining all differences.");
+		try (var phase = PhaseProfiler.start(PhaseProfiler.DIFF)) {
+			List<DiffEntry> diffs = repoWrapper.computeDiffsBetweenTwoCommits(start, end, true, true);
+			if (diffs.size() == 0) {
+				LOGGER.debug("No Java files changed for " + commitId + " so that no propagation is performed.");
+				return null;
+			}
+			var cs = EvaluationDataContainer.getGlobalContainer().getChangeStatistic();
+			String oldId = start != null ? start.getId().getName() : null;
+			cs.setOldCommit(oldId != null ? oldId : "");
+			cs.setNewCommit(commitId);
+			cs.setNumberCommits(repoWrapper.getAllCommitsBetweenTwoCommits(oldId, commitId).size() + 1);
+			return diffs;
+		}
+	}
+
+	/**
+	 * Checks if the Java code can be parsed incrementally. This requires that the
+	 * stored Java model represents the start commit.
+	 * 
+	 * @param oldId id of the start commit.
+	 * @return true if the Java code can be parsed incrementally.
+	 * @throws IOException if the commit of the stored Java model cannot be read.
+	 */
+	private boolean canParseIncrementally(String oldId) throws IOException {
+		if (oldId == null || !isIncrementalParsingEnabled()) {
+			return false;
+		}
+		if (Files.notExists(fileLayout.getJavaModelFile())) {
+			return false;
+		}
+		return oldId.equals(readModelCommit());
+	}
+
+	/**
+	 * Checks out a commit in the local repository. If enabled, only the files which
+	 * differ from the current working tree are updated. Otherwise or if this is not
+	 * possible, the working tree is cleaned completely before the checkout.
+	 * 
+	 * @param commitId id of the commit.
+	 * @throws GitAPIException if there is an exception within the Git usage.
+	 * @throws IOException     if the working tree cannot be updated.
+	 */
+	private void checkout(String commitId) throws GitAPIException, IOException {
+		if (isIncrementalCheckoutEnabled()) {
+			LOGGER.debug("Incremental checkout of " + commitId);
+			try (var phase = PhaseProfiler.start(PhaseProfiler.CHECKOUT)) {
+				if (repoWrapper.checkoutIncrementally(commitId)) {
+					return;
+				}
+			}
+			LOGGER.debug("The working tree cannot be updated incrementally.");
+		}
+		LOGGER.debug("Cleaning the repository.");
+		try (var phase = PhaseProfiler.start(PhaseProfiler.CLEAN)) {
+			repoWrapper.performCompleteClean();
+		}
+		LOGGER.debug("Checkout of " + commitId);
+		try (var phase = PhaseProfiler.start(PhaseProfiler.CHECKOUT)) {
+			repoWrapper.checkout(commitId);
+		}
+	}
+
+	private boolean isIncrementalParsingEnabled() {
+		return CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.PERFORM_INCREMENTAL_PARSING);
+	}
+
+	private boolean isIncrementalCheckoutEnabled() {
+		return CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.PERFORM_INCREMENTAL_CHECKOUT);
+	}
+
+	private boolean preprocess() throws GitAPIException, IOException {
+		boolean result = preprocess(this.repoWrapper.getRootDirectory());
+		if (isIncrementalCheckoutEnabled()) {
+			// The files changed by the preprocessing are reverted by the next checkout.
+			repoWrapper.recordWorkingTreeArtifacts();
+		}
+		return result;
+	}
+
+	private boolean preprocess(File dir) {
 		File possibleFile = new File(CommitIntegrationSettingsContainer.getSettingsContainer()
 				.getProperty(SettingKeys.PATH_TO_PREPROCESSING_SCRIPT));
 		String absPath = possibleFile.getAbsolutePath();
 		if (possibleFile.exists()) {
-			return ExternalCommandExecutionUtils.runScript(this.repoWrapper.getRootDirectory(), absPath);
+			try (var phase = PhaseProfiler.start(PhaseProfiler.PREPROCESS)) {
+				return ExternalCommandExecutionUtils.runScript(dir, absPath,
+						ExternalCommandExecutionUtils.getPaths(SettingKeys.PREPROCESSING_SCRIPT_INPUTS),
+						ExternalCommandExecutionUtils.getPaths(SettingKeys.PREPROCESSING_SCRIPT_OUTPUTS))
+						.isSuccessful();
+			}
 		} else {
 			LOGGER.debug(absPath + " not found.");
 		}
@@ -242,6 +692,7 @@ public class CommitChangePropagator {
 	 */
 	public void shutdown() {
 		LOGGER.debug("Shutting down.");
+		releasePreviousJavaModel();
 		repoWrapper.closeRepository();
 	}
 
@@ -252,4 +703,34 @@ public class CommitChangePropagator {
 	public JavaFileSystemLayout getJavaFileSystemLayout() {
 		return fileLayout;
 	}
+
+	/**
+	 * A commit which is exported, preprocessed and parsed in advance.
+	 */
+	private static class PreparedCommit {
+		private final RevCommit commit;
+		private final Path worktree;
+		private final Path directory;
+		private final ExecutionTimeData times = new ExecutionTimeData();
+		private boolean preprocessed;
+		private ResourceSet parsedModels;
+
+		PreparedCommit(RevCommit commit, Path worktree, Path directory) {
+			this.commit = commit;
+			this.worktree = worktree;
+			this.directory = directory;
+		}
+
+		/**
+		 * Unloads the parsed models if they were not propagated and deletes the
+		 * exported files.
+		 */
+		void dispose() {
+			if (parsedModels != null) {
+				parsedModels.getResources().forEach(Resource::unload);
+				parsedModels = null;
+			}
+			FileUtils.deleteQuietly(worktree.toFile());
+		}
+	}
 }
@@ -1,11 +1,16 @@
 package cipm.consistency.commitintegration;
 
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 
-import org.apache.commons.lang.SystemUtils;
 import org.apache.log4j.Logger;
 
+import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
+import cipm.consistency.commitintegration.settings.SettingKeys;
+
 /**
  * A utility class for executing external commands.
  * 
@@ -26,22 +31,62 @@ public final class ExternalCommandExecutionUtils {
 	 * @return true if the script was successfully executed. false otherwise.
 	 */
 	public static boolean runScript(File directory, String command) {
-		int result = -1;
+		return runScript(directory, command, List.of(), List.of()).isSuccessful();
+	}
+
+	/**
+	 * Runs an external script with the configured timeout. If a directory for the
+	 * script results is configured and inputs are declared, a successful result is
+	 * cached and reused as long as the script and its inputs do not change.
+	 * 
+	 * @param directory directory in which the script shall run.
+	 * @param command   the script to run.
+	 * @param inputs    files or directories, relative to <code>directory</code>,
+	 *                  which determine the result of the script.
+	 * @param outputs   files or directories, relative to <code>directory</code>,
+	 *                  which are produced by the script.
+	 * @return the result of the script.
+	 */
+	public static ScriptResult runScript(File directory, String command, Collection<String> inputs,
+			Collection<String> outputs) {
+		ScriptRunner runner = new ScriptRunner(getTimeout(), ScriptRunner.DEFAULT_OUTPUT_LIMIT);
+		String cacheDirectory = CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getProperty(SettingKeys.PATH_TO_SCRIPT_RESULT_CACHE);
+		if (cacheDirectory != null && !cacheDirectory.isBlank() && !inputs.isEmpty()) {
+			runner.setResultCache(Paths.get(cacheDirectory), inputs, outputs);
+		}
 		LOGGER.debug("Executing " + command);
-		if (SystemUtils.IS_OS_WINDOWS) {
-			result = internalRunScript(directory, "cmd.exe", "/c", "\"" + command + "\"");
+		ScriptResult result = runner.run(directory, command);
+		if (result.isSuccessful()) {
+			LOGGER.debug("Executed " + command + ": " + result + "\n" + result.getOutput());
 		} else {
-			result = internalRunScript(directory, command);
+			LOGGER.warn("Executing " + command + " failed: " + result + "\n" + result.getOutput());
 		}
-		return result == 0;
+		return result;
 	}
 
-	private static int internalRunScript(File directory, String... command) {
+	/**
+	 * Reads a setting with a list of paths separated by semicolons.
+	 * 
+	 * @param key the key of the setting.
+	 * @return the paths. If the setting does not exist, the list is empty.
+	 */
+	public static List<String> getPaths(String key) {
+		return CommitIntegrationSettingsContainer.getSettingsContainer().getPropertyAsList(key);
+	}
+
+	private static Duration getTimeout() {
+		String timeout = CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getProperty(SettingKeys.SCRIPT_TIMEOUT);
+		if (timeout == null || timeout.isBlank()) {
+			return null;
+		}
 		try {
-			Process process = new ProcessBuilder().directory(directory).inheritIO().command(command).start();
-			return process.waitFor();
-		} catch (IOException | InterruptedException e) {
-			return -1;
+			long seconds = Long.parseLong(timeout.trim());
+			return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid script timeout: " + timeout);
+			return null;
 		}
 	}
 }
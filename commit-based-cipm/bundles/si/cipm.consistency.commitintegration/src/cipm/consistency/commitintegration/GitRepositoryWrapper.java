@@ -4,13 +4,23 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.ResetCommand.ResetType;
+import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.CheckoutConflictException;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.InvalidRefNameException;
@@ -24,11 +34,15 @@ import org.eclipse.jgit.diff.DiffFormatter;
 import org.eclipse.jgit.diff.EditList;
 import org.eclipse.jgit.diff.RawText;
 import org.eclipse.jgit.diff.RenameDetector;
+import org.eclipse.jgit.dircache.DirCache;
 import org.eclipse.jgit.errors.CorruptObjectException;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
 import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.patch.FileHeader;
@@ -36,6 +50,7 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.treewalk.AbstractTreeIterator;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.eclipse.jgit.util.io.NullOutputStream;
@@ -50,6 +65,12 @@ import cipm.consistency.tools.evaluation.data.EvaluationDataContainer;
  * @author Martin Armbruster
  */
 public class GitRepositoryWrapper {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + GitRepositoryWrapper.class.getSimpleName());
+	/**
+	 * Name of the file in the Git directory which lists the files changed in the working tree
+	 * since the last checkout.
+	 */
+	private static final String ARTIFACT_MANIFEST = "cipm-artifacts";
 	private Git git;
 	private RevCommit latestCommit;
 	private File rootDirectory;
@@ -415,6 +436,42 @@ public class GitRepositoryWrapper {
 		return result;
 	}
 	
+	/**
+	 * Writes the files of a commit into a directory without changing the working tree of the repository.
+	 * The directory does not contain the Git metadata.
+	 * 
+	 * @param commit the commit.
+	 * @param targetDirectory the directory in which the files are written.
+	 * @throws IOException if the files cannot be read or written.
+	 */
+	public void exportCommit(RevCommit commit, File targetDirectory) throws IOException {
+		Path root = targetDirectory.toPath();
+		try (ObjectReader reader = git.getRepository().newObjectReader();
+				TreeWalk walk = new TreeWalk(reader)) {
+			walk.addTree(commit.getTree());
+			walk.setRecursive(true);
+			while (walk.next()) {
+				FileMode mode = walk.getFileMode(0);
+				if (FileMode.GITLINK.equals(mode)) {
+					continue;
+				}
+				Path file = root.resolve(walk.getPathString());
+				Files.createDirectories(file.getParent());
+				ObjectLoader loader = reader.open(walk.getObjectId(0));
+				if (FileMode.SYMLINK.equals(mode)) {
+					Files.createSymbolicLink(file, Paths.get(new String(loader.getBytes(), StandardCharsets.UTF_8)));
+				} else {
+					try (OutputStream out = Files.newOutputStream(file)) {
+						loader.copyTo(out);
+					}
+					if (FileMode.EXECUTABLE_FILE.equals(mode)) {
+						file.toFile().setExecutable(true);
+					}
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Performs a complete cleaning of the git repository, i. e., all untracked and ignored files are removed,
 	 * and all changes are reset to the last commit.
@@ -437,5 +494,161 @@ public class GitRepositoryWrapper {
 			}
 		}
 		git.reset().setMode(ResetType.HARD).call();
+		Files.deleteIfExists(getArtifactManifest());
+	}
+	
+	private Path getArtifactManifest() {
+		return git.getRepository().getDirectory().toPath().resolve(ARTIFACT_MANIFEST);
+	}
+	
+	/**
+	 * Records the files which were added, modified, or removed in the working tree since the last checkout,
+	 * for example, by a preprocessing. The recorded files are reverted by the next incremental checkout.
+	 * If there are staged changes, nothing is recorded so that the next incremental checkout is not possible.
+	 * 
+	 * @throws GitAPIException if the status of the working tree cannot be computed.
+	 * @throws IOException if the record cannot be written.
+	 */
+	public void recordWorkingTreeArtifacts() throws GitAPIException, IOException {
+		Path manifest = getArtifactManifest();
+		Files.deleteIfExists(manifest);
+		Status status = git.status().call();
+		if (!status.getAdded().isEmpty() || !status.getChanged().isEmpty() || !status.getRemoved().isEmpty()
+				|| !status.getConflicting().isEmpty()) {
+			LOGGER.debug("The working tree contains staged changes. They are not recorded.");
+			return;
+		}
+		Set<String> paths = new TreeSet<>();
+		paths.addAll(status.getUntracked());
+		paths.addAll(status.getUntrackedFolders());
+		paths.addAll(status.getIgnoredNotInIndex());
+		paths.addAll(status.getModified());
+		paths.addAll(status.getMissing());
+		Files.write(manifest, paths, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Checks out a commit by updating only the files which differ from the current working tree. At first, the
+	 * files recorded by {@link #recordWorkingTreeArtifacts()} are reverted: untracked and ignored files are
+	 * removed, and modified or missing files are restored. Afterwards, the commit is checked out so that only
+	 * the files changed between the commits are written. At last, the written and reverted files are verified
+	 * against the tree of the commit.
+	 * 
+	 * If there is no record of the working tree or the verification fails, false is returned. In this case,
+	 * the working tree needs to be cleaned completely with {@link #performCompleteClean()} before the checkout.
+	 * 
+	 * @param id the commit id or branch to checkout.
+	 * @return true if the commit was checked out and the working tree corresponds to the commit.
+	 * @throws GitAPIException if a Git operation cannot be performed.
+	 * @throws IOException if an IO operation cannot be performed.
+	 */
+	public boolean checkoutIncrementally(String id) throws GitAPIException, IOException {
+		Path manifest = getArtifactManifest();
+		if (Files.notExists(manifest)) {
+			return false;
+		}
+		List<String> artifacts = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+		// The record is invalid as soon as the working tree is changed.
+		Files.delete(manifest);
+		
+		DirCache index = git.getRepository().readDirCache();
+		List<String> trackedArtifacts = new ArrayList<>();
+		for (String artifact : artifacts) {
+			if (index.findEntry(artifact) >= 0) {
+				trackedArtifacts.add(artifact);
+				continue;
+			}
+			File file = new File(rootDirectory, artifact);
+			if (file.isDirectory()) {
+				FileUtils.deleteDirectory(file);
+				if (index.getEntriesWithin(artifact).length > 0) {
+					trackedArtifacts.add(artifact);
+				}
+			} else {
+				Files.deleteIfExists(file.toPath());
+			}
+		}
+		if (!trackedArtifacts.isEmpty()) {
+			git.checkout().addPaths(trackedArtifacts).call();
+		}
+		
+		RevCommit start = git.getRepository().parseCommit(git.getRepository().resolve(Constants.HEAD));
+		try {
+			checkout(id);
+		} catch (CheckoutConflictException e) {
+			LOGGER.debug("The incremental checkout of " + id + " failed: " + e.getMessage());
+			return false;
+		}
+		RevCommit end = git.getRepository().parseCommit(git.getRepository().resolve(Constants.HEAD));
+		Set<String> touchedPaths = new TreeSet<>(artifacts);
+		touchedPaths.addAll(computeChangedPaths(start, end));
+		return verifyWorkingTree(end, touchedPaths);
+	}
+	
+	private Collection<String> computeChangedPaths(RevCommit start, RevCommit end) throws IOException {
+		Set<String> paths = new TreeSet<>();
+		if (start.equals(end)) {
+			return paths;
+		}
+		try (ObjectReader reader = git.getRepository().newObjectReader();
+				TreeWalk walk = new TreeWalk(reader)) {
+			walk.addTree(start.getTree());
+			walk.addTree(end.getTree());
+			walk.setRecursive(true);
+			walk.setFilter(TreeFilter.ANY_DIFF);
+			for (DiffEntry diff : DiffEntry.scan(walk)) {
+				if (diff.getChangeType() != DiffEntry.ChangeType.ADD) {
+					paths.add(diff.getOldPath());
+				}
+				if (diff.getChangeType() != DiffEntry.ChangeType.DELETE) {
+					paths.add(diff.getNewPath());
+				}
+			}
+		}
+		return paths;
+	}
+	
+	/**
+	 * Checks if files in the working tree have the content of a commit.
+	 */
+	private boolean verifyWorkingTree(RevCommit commit, Collection<String> paths) throws IOException {
+		ObjectInserter.Formatter formatter = new ObjectInserter.Formatter();
+		Path root = rootDirectory.toPath();
+		try (ObjectReader reader = git.getRepository().newObjectReader()) {
+			for (String path : paths) {
+				Path file = root.resolve(path);
+				try (TreeWalk walk = TreeWalk.forPath(reader, path, commit.getTree())) {
+					if (walk == null) {
+						if (Files.exists(file, LinkOption.NOFOLLOW_LINKS)) {
+							LOGGER.debug(path + " is not part of " + commit.getName() + " but exists.");
+							return false;
+						}
+						continue;
+					}
+					FileMode mode = walk.getFileMode(0);
+					if (walk.isSubtree() || FileMode.GITLINK.equals(mode)) {
+						continue;
+					}
+					byte[] content;
+					if (FileMode.SYMLINK.equals(mode)) {
+						if (!Files.isSymbolicLink(file)) {
+							LOGGER.debug(path + " is not a symbolic link.");
+							return false;
+						}
+						content = Files.readSymbolicLink(file).toString().getBytes(StandardCharsets.UTF_8);
+					} else if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+						content = Files.readAllBytes(file);
+					} else {
+						LOGGER.debug(path + " is missing.");
+						return false;
+					}
+					if (!formatter.idFor(Constants.OBJ_BLOB, content).equals(walk.getObjectId(0))) {
+						LOGGER.debug(path + " differs from " + commit.getName() + ".");
+						return false;
+					}
+				}
+			}
+		}
+		return true;
 	}
 }
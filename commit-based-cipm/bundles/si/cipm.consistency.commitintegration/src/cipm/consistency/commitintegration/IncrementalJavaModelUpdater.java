@@ -0,0 +1,479 @@
+package cipm.consistency.commitintegration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EContentsEList;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.emftext.language.java.JavaClasspath;
+import org.emftext.language.java.LogicalJavaURIGenerator;
+import org.emftext.language.java.commons.NamedElement;
+import org.emftext.language.java.commons.NamespaceAwareElement;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.JavaRoot;
+import org.emftext.language.java.containers.Origin;
+import org.emftext.language.java.parameters.Parameter;
+import org.emftext.language.java.parameters.Parametrizable;
+import org.emftext.language.java.types.Type;
+import org.emftext.language.java.types.TypeReference;
+import org.splevo.jamopp.util.JaMoPPLogicalPathUtil;
+
+import jamopp.parser.jdt.singlefile.JaMoPPJDTSingleFileParser;
+
+/**
+ * Updates a previously parsed Java model by re-parsing only the Java files which
+ * changed between two commits. The unchanged compilation units are moved from
+ * the previous model into the updated model, and references to replaced
+ * compilation units are redirected to their newly parsed counterparts. If a
+ * reference cannot be redirected, the referencing file is re-parsed as well.
+ */
+public class IncrementalJavaModelUpdater {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + IncrementalJavaModelUpdater.class.getSimpleName());
+	private static final String SEPARATOR = "/";
+	/**
+	 * Maximum share of the Java files which may be re-parsed before the
+	 * incremental update is considered to be more expensive than a complete
+	 * parsing.
+	 */
+	private static final double MAX_REPARSE_RATIO = 0.5;
+	private Path dir;
+	private String[] exclusionPatterns;
+	private ResourceSet resourceSet;
+	private Map<String, Resource> resourcesByPath = new HashMap<>();
+	private Set<Resource> parsedResources = new HashSet<>();
+	private Set<URI> registeredURIs = new HashSet<>();
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param dir               directory in which the Java code of the new commit
+	 *                          resides.
+	 * @param resourceSet       the ResourceSet which is used for the parsing and in
+	 *                          which the updated models are placed.
+	 * @param exclusionPatterns regular expressions for files which are not parsed.
+	 */
+	public IncrementalJavaModelUpdater(Path dir, ResourceSet resourceSet, String[] exclusionPatterns) {
+		this.dir = dir.toAbsolutePath();
+		this.resourceSet = resourceSet;
+		this.exclusionPatterns = exclusionPatterns;
+	}
+
+	/**
+	 * Updates the previous model for the given differences.
+	 *
+	 * @param previousModel Resource containing all Java models of the previous
+	 *                      commit. Its unchanged models are moved into the
+	 *                      ResourceSet without copying them. Therefore, it must
+	 *                      not be used afterwards, even if the update fails.
+	 * @param diffs         the differences between the previous and new commit.
+	 * @param parser        the parser for the changed files.
+	 * @return true if the ResourceSet contains the updated models. false if an
+	 *         incremental update is not possible so that the complete code needs
+	 *         to be parsed.
+	 */
+	public boolean update(Resource previousModel, List<DiffEntry> diffs, JaMoPPJDTSingleFileParser parser) {
+		List<String> files;
+		try {
+			files = collectJavaFiles();
+		} catch (IOException e) {
+			LOGGER.error(e);
+			return false;
+		}
+		LOGGER.debug("Taking over " + previousModel.getContents().size() + " Java models from the previous commit.");
+		Map<String, EObject> removedRoots = new HashMap<>();
+		if (!takeOverPreviousModels(new ArrayList<>(previousModel.getContents()), files, diffs, removedRoots)) {
+			return false;
+		}
+
+		Map<EObject, EObject> replacedRoots = new HashMap<>();
+		Map<String, EObject> renamedRoots = new HashMap<>();
+		Set<String> pending = new HashSet<>();
+		for (DiffEntry diff : diffs) {
+			boolean parse = diff.getChangeType() != DiffEntry.ChangeType.DELETE && !isExcluded(diff.getNewPath())
+					&& Files.exists(dir.resolve(diff.getNewPath()));
+			if (diff.getChangeType() == DiffEntry.ChangeType.DELETE
+					|| diff.getChangeType() == DiffEntry.ChangeType.RENAME) {
+				EObject oldRoot = takeRemovedRoot(diff.getOldPath(), removedRoots);
+				if (oldRoot != null && parse) {
+					// The references to the old model are redirected to the model of the
+					// renamed file once it is parsed.
+					renamedRoots.put(diff.getNewPath(), oldRoot);
+				} else if (oldRoot != null) {
+					replacedRoots.put(oldRoot, null);
+				}
+			}
+			if (parse) {
+				pending.add(diff.getNewPath());
+			}
+		}
+		removedRoots.values().forEach(root -> replacedRoots.put(root, null));
+
+		registerJavaRoots();
+		Set<String> reparsed = new HashSet<>();
+		int maxReparsedFiles = (int) (files.size() * MAX_REPARSE_RATIO);
+		while (!pending.isEmpty() || !replacedRoots.isEmpty()) {
+			reparsed.addAll(pending);
+			if (reparsed.size() > maxReparsedFiles) {
+				LOGGER.debug("Too many files need to be re-parsed for an incremental update.");
+				unregisterJavaRoots();
+				return false;
+			}
+			LOGGER.debug("Parsing " + pending.size() + " changed files.");
+			Set<Resource> roundResources = new HashSet<>();
+			for (String path : pending) {
+				Resource oldResource = removeResource(path);
+				EObject oldRoot = renamedRoots.remove(path);
+				if (oldResource != null && !oldResource.getContents().isEmpty()) {
+					if (oldRoot != null) {
+						replacedRoots.put(oldRoot, null);
+					}
+					oldRoot = oldResource.getContents().get(0);
+				}
+				Resource newResource = parser.parseFile(dir.resolve(path));
+				EObject newRoot = null;
+				if (newResource != null) {
+					resourcesByPath.put(path, newResource);
+					parsedResources.add(newResource);
+					roundResources.add(newResource);
+					newRoot = newResource.getContents().isEmpty() ? null : newResource.getContents().get(0);
+				}
+				if (oldRoot != null) {
+					replacedRoots.put(oldRoot, newRoot);
+				}
+			}
+			pending = redirectReferences(replacedRoots, roundResources);
+			replacedRoots = new HashMap<>();
+		}
+		unregisterJavaRoots();
+		LOGGER.debug("Re-parsed " + reparsed.size() + " of " + files.size() + " files.");
+		return true;
+	}
+
+	/**
+	 * Returns the Resources which were newly parsed during the update.
+	 *
+	 * @return the newly parsed Resources.
+	 */
+	public Set<Resource> getParsedResources() {
+		return parsedResources;
+	}
+
+	private List<String> collectJavaFiles() throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			return paths.filter(Files::isRegularFile).map(p -> dir.relativize(p.toAbsolutePath()).toString())
+					.map(p -> p.replace(dir.getFileSystem().getSeparator(), SEPARATOR))
+					.filter(p -> p.endsWith(LogicalJavaURIGenerator.JAVA_FILE_EXTENSION))
+					.filter(p -> !p.startsWith(".git" + SEPARATOR)).filter(p -> !isExcluded(p))
+					.collect(Collectors.toList());
+		}
+	}
+
+	private boolean isExcluded(String relativePath) {
+		String absPath = dir.resolve(relativePath).toString().replace(dir.getFileSystem().getSeparator(), SEPARATOR);
+		for (String pattern : exclusionPatterns) {
+			if (!pattern.isEmpty() && absPath.matches(pattern)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the models of the previous commit into Resources. Models
+	 * originating from a file are related to their file in the current working
+	 * tree by their logical path so that they obtain the same Resource URI as
+	 * after a complete parsing.
+	 *
+	 * @param removedRoots map in which models of removed files are stored by their
+	 *                     logical paths.
+	 * @return false if a model cannot be related to a file unambiguously.
+	 */
+	private boolean takeOverPreviousModels(Collection<EObject> roots, List<String> files, List<DiffEntry> diffs,
+			Map<String, EObject> removedRoots) {
+		Map<String, JavaRoot> fileRootsByLogicalPath = new HashMap<>();
+		for (EObject obj : roots) {
+			JavaRoot root = (JavaRoot) obj;
+			String logicalPath = JaMoPPLogicalPathUtil.createLogicalPath(root);
+			if (root instanceof org.emftext.language.java.containers.Module) {
+				addResource(LogicalJavaURIGenerator.getModuleURI(root.getName()), root);
+			} else if (root instanceof CompilationUnit && root.getOrigin() != Origin.FILE) {
+				addResource(LogicalJavaURIGenerator.getJavaFileResourceURI(
+						logicalPath.substring(0, logicalPath.length()
+								- LogicalJavaURIGenerator.JAVA_FILE_EXTENSION.length()).replace(SEPARATOR, ".")),
+						root);
+			} else if (fileRootsByLogicalPath.put(logicalPath, root) != null) {
+				LOGGER.debug("Ambiguous Java models for " + logicalPath + ".");
+				return false;
+			}
+		}
+		for (String file : files) {
+			String logicalPath = findLongestLogicalPath(file, fileRootsByLogicalPath);
+			if (logicalPath != null) {
+				JavaRoot root = fileRootsByLogicalPath.remove(logicalPath);
+				resourcesByPath.put(file, addResource(URI.createFileURI(dir.resolve(file).toString()), root));
+			}
+		}
+		Set<String> removedPathSuffixes = new HashSet<>();
+		diffs.stream().filter(d -> d.getChangeType() != DiffEntry.ChangeType.ADD).map(DiffEntry::getOldPath)
+				.map(JaMoPPLogicalPathUtil::normalizePath)
+				.forEach(p -> removedPathSuffixes.addAll(JaMoPPLogicalPathUtil.getSuffixes(p)));
+		for (var entry : fileRootsByLogicalPath.entrySet()) {
+			if (entry.getValue() instanceof org.emftext.language.java.containers.Package) {
+				addResource(LogicalJavaURIGenerator.getPackageURI(
+						String.join(".", ((NamespaceAwareElement) entry.getValue()).getNamespaces())),
+						entry.getValue());
+			} else if (removedPathSuffixes.contains(entry.getKey())) {
+				removedRoots.put(entry.getKey(), entry.getValue());
+			} else {
+				LOGGER.debug("No file found for the Java model " + entry.getKey() + ".");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String findLongestLogicalPath(String file, Map<String, JavaRoot> rootsByLogicalPath) {
+		for (String suffix : JaMoPPLogicalPathUtil.getSuffixes(file)) {
+			if (rootsByLogicalPath.containsKey(suffix)) {
+				return suffix;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the model of a removed or renamed file and removes it from the
+	 * updated models.
+	 *
+	 * @return the model or null if there is no model of the file.
+	 */
+	private EObject takeRemovedRoot(String oldPath, Map<String, EObject> removedRoots) {
+		Resource oldResource = removeResource(oldPath);
+		if (oldResource != null && !oldResource.getContents().isEmpty()) {
+			return oldResource.getContents().get(0);
+		}
+		for (String suffix : JaMoPPLogicalPathUtil.getSuffixes(JaMoPPLogicalPathUtil.normalizePath(oldPath))) {
+			if (removedRoots.containsKey(suffix)) {
+				return removedRoots.remove(suffix);
+			}
+		}
+		return null;
+	}
+
+	private Resource addResource(URI uri, EObject root) {
+		Resource resource = resourceSet.createResource(uri);
+		resource.getContents().add(root);
+		return resource;
+	}
+
+	private Resource removeResource(String path) {
+		Resource resource = resourcesByPath.remove(path);
+		if (resource != null) {
+			resourceSet.getResources().remove(resource);
+			parsedResources.remove(resource);
+		}
+		return resource;
+	}
+
+	private void registerJavaRoots() {
+		for (Resource resource : resourceSet.getResources()) {
+			for (EObject root : resource.getContents()) {
+				JavaClasspath.get().registerJavaRoot((JavaRoot) root, resource.getURI());
+			}
+			registeredURIs.add(resource.getURI());
+		}
+	}
+
+	private void unregisterJavaRoots() {
+		JavaClasspath.get().getURIMap().entrySet().removeIf(entry -> registeredURIs.contains(entry.getValue()));
+		registeredURIs.clear();
+	}
+
+	/**
+	 * Redirects references from the taken over models and the models parsed in
+	 * previous rounds to replaced models to the corresponding elements in the
+	 * newly parsed models. References which cannot be redirected are removed from
+	 * models not originating from a file.
+	 *
+	 * @param replacedRoots  mapping from the replaced to the newly parsed models.
+	 *                       The newly parsed model is null if the file was
+	 *                       removed.
+	 * @param roundResources the Resources parsed in the current round. They
+	 *                       already reference the newly parsed models.
+	 * @return paths of files whose models contain references which cannot be
+	 *         redirected and, thus, need to be re-parsed.
+	 */
+	private Set<String> redirectReferences(Map<EObject, EObject> replacedRoots, Set<Resource> roundResources) {
+		Set<String> unresolvablePaths = new HashSet<>();
+		if (replacedRoots.isEmpty()) {
+			return unresolvablePaths;
+		}
+		Map<Resource, String> pathsByResource = new HashMap<>();
+		resourcesByPath.forEach((path, resource) -> pathsByResource.put(resource, path));
+		Map<EObject, Map<String, EObject>> elementsByKey = new HashMap<>();
+		for (Resource resource : resourceSet.getResources()) {
+			if (roundResources.contains(resource)) {
+				continue;
+			}
+			String path = pathsByResource.get(resource);
+			List<EObject> sources = new ArrayList<>();
+			List<EReference> features = new ArrayList<>();
+			List<EObject> targets = new ArrayList<>();
+			resource.getAllContents().forEachRemaining(obj -> {
+				for (@SuppressWarnings("unchecked")
+				EContentsEList.FeatureIterator<EObject> it = (EContentsEList.FeatureIterator<EObject>) obj
+						.eCrossReferences().iterator(); it.hasNext();) {
+					EObject target = it.next();
+					EReference ref = (EReference) it.feature();
+					if (!target.eIsProxy() && !ref.isDerived() && ref.isChangeable()
+							&& replacedRoots.containsKey(EcoreUtil.getRootContainer(target))) {
+						sources.add(obj);
+						features.add(ref);
+						targets.add(target);
+					}
+				}
+			});
+			for (int idx = 0; idx < sources.size(); idx++) {
+				EObject oldTarget = targets.get(idx);
+				EObject newRoot = replacedRoots.get(EcoreUtil.getRootContainer(oldTarget));
+				EObject newTarget = null;
+				if (newRoot != null) {
+					newTarget = elementsByKey.computeIfAbsent(newRoot, IncrementalJavaModelUpdater::indexElements)
+							.get(createKey(oldTarget));
+				}
+				if (newTarget != null && replaceReference(sources.get(idx), features.get(idx), oldTarget, newTarget)) {
+					continue;
+				}
+				if (path != null) {
+					unresolvablePaths.add(path);
+					break;
+				}
+				removeReference(sources.get(idx), features.get(idx), oldTarget);
+			}
+		}
+		return unresolvablePaths;
+	}
+
+	private static void removeReference(EObject source, EReference ref, EObject oldTarget) {
+		if (ref.isMany()) {
+			((EList<?>) source.eGet(ref, false)).remove(oldTarget);
+		} else {
+			source.eUnset(ref);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean replaceReference(EObject source, EReference ref, EObject oldTarget, EObject newTarget) {
+		if (!ref.getEReferenceType().isInstance(newTarget)) {
+			return false;
+		}
+		if (ref.isMany()) {
+			EList<EObject> values = (EList<EObject>) source.eGet(ref, false);
+			int idx = values.indexOf(oldTarget);
+			if (idx < 0) {
+				return false;
+			}
+			try {
+				values.set(idx, newTarget);
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+		} else {
+			source.eSet(ref, newTarget);
+		}
+		return true;
+	}
+
+	/**
+	 * Indexes all elements of a model by a key which is stable against changes in
+	 * the order of named elements. Elements with ambiguous keys are mapped to null.
+	 */
+	private static Map<String, EObject> indexElements(EObject root) {
+		Map<String, EObject> index = new HashMap<>();
+		index.put("", root);
+		indexChildren(root, "", index);
+		return index;
+	}
+
+	private static void indexChildren(EObject parent, String parentKey, Map<String, EObject> index) {
+		Map<EStructuralFeature, Integer> positions = new HashMap<>();
+		for (EObject child : parent.eContents()) {
+			int position = positions.merge(child.eContainingFeature(), 1, Integer::sum) - 1;
+			String key = parentKey + SEPARATOR + createSegment(child, position);
+			if (index.containsKey(key)) {
+				index.put(key, null);
+			} else {
+				index.put(key, child);
+			}
+			indexChildren(child, key, index);
+		}
+	}
+
+	private static String createKey(EObject obj) {
+		if (obj.eContainer() == null) {
+			return "";
+		}
+		EStructuralFeature feature = obj.eContainingFeature();
+		int position = feature.isMany() ? ((List<?>) obj.eContainer().eGet(feature)).indexOf(obj) : 0;
+		return createKey(obj.eContainer()) + SEPARATOR + createSegment(obj, position);
+	}
+
+	private static String createSegment(EObject obj, int position) {
+		StringBuilder segment = new StringBuilder(obj.eContainingFeature().getName());
+		if (obj instanceof NamedElement && ((NamedElement) obj).getName() != null) {
+			segment.append(':');
+			segment.append(((NamedElement) obj).getName());
+			if (obj instanceof Parametrizable) {
+				segment.append('(');
+				for (Parameter param : ((Parametrizable) obj).getParameters()) {
+					appendTypeName(segment, param.getTypeReference());
+					segment.append(',');
+				}
+				segment.append(')');
+			}
+		} else {
+			segment.append('.');
+			segment.append(position);
+		}
+		return segment.toString();
+	}
+
+	/**
+	 * Appends the name of a parameter type. Like in the comparison of method
+	 * signatures, parameters are distinguished by their types and array
+	 * dimensions, but not by their names.
+	 */
+	private static void appendTypeName(StringBuilder segment, TypeReference typeReference) {
+		if (typeReference == null) {
+			return;
+		}
+		Type type = typeReference.getTarget();
+		if (type instanceof NamedElement) {
+			segment.append(((NamedElement) type).getName());
+		} else if (type != null) {
+			segment.append(type.eClass().getName());
+		}
+		for (long dim = 0; dim < typeReference.getArrayDimension(); dim++) {
+			segment.append("[]");
+		}
+	}
+}
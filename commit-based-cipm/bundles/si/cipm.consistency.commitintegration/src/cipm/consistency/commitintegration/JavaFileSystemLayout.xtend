@@ -13,22 +13,31 @@ class JavaFileSystemLayout {
 	static final String localJavaRepoDirName = "local-repo-clone";
 	static final String javaModelFileContainerDirName = "vsum-variant";
 	static final String javaModelFileName = "Java.javaxmi";
+	static final String javaModelCommitFileName = "Java.commit";
+	static final String javaModelFingerprintsFileName = "Java.fingerprints";
 	static final String instrumentationDirName = "instrumented";
 	static final String moduleConfigurationFileName = "module-configuration.properties";
 	static final String externalCallTargetPairsFileName = "external-call-target-pairs.json";
+	static final String worktreesDirName = "worktrees";
 	Path localJavaRepo;
 	Path javaModelFileContainer;
 	Path javaModelFile;
+	Path javaModelCommitFile;
+	Path javaModelFingerprintsFile;
 	Path instrumentationCopy;
 	Path moduleConfiguration;
 	Path externalCallTargetPairsFile;
+	Path worktrees;
 	
 	new(Path parent) {
 		localJavaRepo = parent.resolve(localJavaRepoDirName)
 		javaModelFileContainer = parent.resolve(javaModelFileContainerDirName)
 		javaModelFile = javaModelFileContainer.resolve(javaModelFileName)
+		javaModelCommitFile = javaModelFileContainer.resolve(javaModelCommitFileName)
+		javaModelFingerprintsFile = javaModelFileContainer.resolve(javaModelFingerprintsFileName)
 		instrumentationCopy = parent.resolve(instrumentationDirName)
 		moduleConfiguration = parent.resolve(moduleConfigurationFileName);
 		externalCallTargetPairsFile = parent.resolve(externalCallTargetPairsFileName);
+		worktrees = parent.resolve(worktreesDirName);
 	}
 }
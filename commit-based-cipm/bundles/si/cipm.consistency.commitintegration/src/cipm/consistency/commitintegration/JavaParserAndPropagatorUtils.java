@@ -2,7 +2,11 @@ package cipm.consistency.commitintegration;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
@@ -10,18 +14,24 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.jgit.diff.DiffEntry;
 import org.emftext.language.java.JavaClasspath;
 import org.emftext.language.java.containers.JavaRoot;
 import org.emftext.language.java.types.PrimitiveType;
 
 import cipm.consistency.commitintegration.detection.BuildFileBasedComponentDetectionStrategy;
+import cipm.consistency.commitintegration.detection.BuildFileIndex;
 import cipm.consistency.commitintegration.detection.ComponentDetectionStrategy;
 import cipm.consistency.commitintegration.detection.ComponentModuleDetector;
 import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
 import cipm.consistency.commitintegration.settings.SettingKeys;
+import cipm.consistency.domains.java.propagation.JavaChangeResolutionContext;
+import cipm.consistency.domains.java.propagation.JavaStateBasedChangeResolutionStrategy;
+import cipm.consistency.tools.evaluation.data.PhaseProfiler;
 import jamopp.options.ParserOptions;
 import jamopp.parser.jdt.singlefile.JaMoPPJDTSingleFileParser;
 import jamopp.recovery.trivial.TrivialRecovery;
+import tools.vitruv.domains.provider.java.AdjustedJavaDomainProvider;
 import tools.vitruv.framework.vsum.VirtualModel;
 
 /**
@@ -33,6 +43,14 @@ import tools.vitruv.framework.vsum.VirtualModel;
 public final class JavaParserAndPropagatorUtils {
 	private static final Logger LOGGER = Logger.getLogger("cipm." + JavaParserAndPropagatorUtils.class.getSimpleName());
 	private static Configuration config = new Configuration(true, new BuildFileBasedComponentDetectionStrategy());
+	private static final BuildFileIndex BUILD_FILE_INDEX = new BuildFileIndex(true);
+	/**
+	 * Lock for the parsing. The parser options are static so that parsers must not
+	 * run concurrently with different options. The background parsing of
+	 * prepared commits and the parsing during a propagation are serialized with
+	 * it.
+	 */
+	private static final Object PARSER_LOCK = new Object();
 
 	private JavaParserAndPropagatorUtils() {
 	}
@@ -47,6 +65,140 @@ public final class JavaParserAndPropagatorUtils {
 	 */
 	public static Resource parseJavaCodeIntoOneModel(Path dir, Path target, Path modConfig) {
 		// 1. Parse the code.
+		ResourceSet resourceSet = null;
+		try (var phase = PhaseProfiler.start(PhaseProfiler.PARSE)) {
+			resourceSet = parseJavaCode(dir);
+			recoverUnresolvedReferences(resourceSet, new ArrayList<>(resourceSet.getResources()));
+		}
+		
+		LOGGER.debug("Parsed " + resourceSet.getResources().size() + " files.");
+
+		return detectComponentsAndMergeModels(resourceSet, dir, target, modConfig);
+	}
+	
+	private static ResourceSet parseJavaCode(Path dir) {
+		synchronized (PARSER_LOCK) {
+			ResourceSet resourceSet = null;
+			JaMoPPJDTSingleFileParser parser = createParser(new ResourceSetImpl());
+			LOGGER.debug("Parsing " + dir.toString());
+			int threads = getParserThreads();
+			if (threads > 1 && !config.resolveAll) {
+				resourceSet = new ResourceSetImpl();
+				if (!new ParallelJavaParser(threads, getExclusionPatterns()).parseDirectory(dir, resourceSet)) {
+					LOGGER.debug("The Java code cannot be parsed in parallel. Parsing it sequentially.");
+					resourceSet = null;
+				}
+			}
+			if (resourceSet == null) {
+				resourceSet = parser.parseDirectory(dir);
+			}
+			return resourceSet;
+		}
+	}
+	
+	/**
+	 * Parses only the Java code which changed between two commits and creates one
+	 * Resource with all models. The models of the unchanged Java code are taken over
+	 * from the models of the previous commit.
+	 * 
+	 * @param dir           directory in which the Java code resides.
+	 * @param target        target file of the Resource with all models.
+	 * @param modConfig     file which contains the stored module configuration.
+	 * @param previousModel the Resource with all models of the previous commit. Its
+	 *                      unchanged models are moved into the new Resource so
+	 *                      that it must not be used afterwards.
+	 * @param diffs         the differences of the Java files between the previous
+	 *                      and the current commit.
+	 * @return the Resource with all models or null if the Java code cannot be
+	 *         parsed incrementally.
+	 */
+	public static Resource parseJavaCodeIncrementallyIntoOneModel(Path dir, Path target, Path modConfig,
+			Resource previousModel, List<DiffEntry> diffs) {
+		// 1. Parse the changed code.
+		ResourceSet resourceSet = new ResourceSetImpl();
+		IncrementalJavaModelUpdater updater = new IncrementalJavaModelUpdater(dir, resourceSet, getExclusionPatterns());
+		try (var phase = PhaseProfiler.start(PhaseProfiler.PARSE)) {
+			LOGGER.debug("Incrementally parsing " + dir.toString());
+			synchronized (PARSER_LOCK) {
+				JaMoPPJDTSingleFileParser parser = createParser(resourceSet);
+				if (!updater.update(previousModel, diffs, parser)) {
+					return null;
+				}
+			}
+			recoverUnresolvedReferences(resourceSet, updater.getParsedResources());
+		}
+		
+		LOGGER.debug("Parsed " + updater.getParsedResources().size() + " files.");
+
+		return detectComponentsAndMergeModels(resourceSet, dir, target, modConfig);
+	}
+	
+	/**
+	 * Parses all Java code without resolving references and without changing the
+	 * class path. Therefore, the parsing can be performed in the background while
+	 * other Java models are propagated. It is not performed concurrently with
+	 * other parsing because the parser options are shared. The parsed models are
+	 * propagated with
+	 * {@link #propagateParsedJavaCode(ResourceSet, Path, Path, VirtualModel, Path, JavaChangeResolutionContext)}.
+	 * 
+	 * @param dir directory in which the Java code resides.
+	 * @return the ResourceSet with the parsed models or null if the Java code
+	 *         cannot be parsed in the background. This is the case if all
+	 *         dependencies are resolved during the parsing or if the parsing fails.
+	 */
+	public static ResourceSet parseJavaCodeInBackground(Path dir) {
+		if (config.resolveAll) {
+			return null;
+		}
+		LOGGER.debug("Parsing " + dir.toString() + " in the background");
+		ResourceSet resourceSet = new ResourceSetImpl();
+		try (var phase = PhaseProfiler.start(PhaseProfiler.PARSE)) {
+			synchronized (PARSER_LOCK) {
+				setParserOptions();
+				if (!new ParallelJavaParser(Math.max(1, getParserThreads()), getExclusionPatterns())
+						.parseDirectoryWithoutRegistration(dir, resourceSet)) {
+					return null;
+				}
+			}
+		}
+		return resourceSet;
+	}
+	
+	/**
+	 * Propagates Java models which were parsed with
+	 * {@link #parseJavaCodeInBackground(Path)}. The models are registered in the
+	 * class path, their references are recovered, and the components are detected
+	 * before the propagation.
+	 * 
+	 * @param resourceSet the ResourceSet with the parsed models.
+	 * @param dir         the directory with the Java code.
+	 * @param target      destination in which the complete Java model will be
+	 *                    stored.
+	 * @param vsum        the VSUM.
+	 * @param configPath  file path to the module configuration.
+	 * @param context     the context of the change resolution. Can be null.
+	 */
+	public static void propagateParsedJavaCode(ResourceSet resourceSet, Path dir, Path target, VirtualModel vsum,
+			Path configPath, JavaChangeResolutionContext context) {
+		try (var phase = PhaseProfiler.start(PhaseProfiler.PARSE)) {
+			ParallelJavaParser.registerJavaRoots(resourceSet);
+			recoverUnresolvedReferences(resourceSet, new ArrayList<>(resourceSet.getResources()));
+		}
+		LOGGER.debug("Parsed " + resourceSet.getResources().size() + " files.");
+		Resource all = detectComponentsAndMergeModels(resourceSet, dir, target, configPath);
+		propagateJavaModels(all, vsum, context, true);
+	}
+	
+	private static JaMoPPJDTSingleFileParser createParser(ResourceSet resourceSet) {
+		setParserOptions();
+		
+		JaMoPPJDTSingleFileParser parser = new JaMoPPJDTSingleFileParser();
+		parser.setResourceSet(resourceSet);
+		parser.setExclusionPatterns(getExclusionPatterns());
+		return parser;
+	}
+	
+	private static void setParserOptions() {
 		ParserOptions.CREATE_LAYOUT_INFORMATION.setValue(Boolean.FALSE);
 		ParserOptions.REGISTER_LOCAL.setValue(Boolean.TRUE);
 		if (config.resolveAll) {
@@ -56,17 +208,31 @@ public final class JavaParserAndPropagatorUtils {
 			ParserOptions.RESOLVE_ALL_BINDINGS.setValue(Boolean.FALSE);
 			ParserOptions.RESOLVE_EVERYTHING.setValue(Boolean.FALSE);
 		}
-		
-		JaMoPPJDTSingleFileParser parser = new JaMoPPJDTSingleFileParser();
-		parser.setResourceSet(new ResourceSetImpl());
-		parser.setExclusionPatterns(CommitIntegrationSettingsContainer.getSettingsContainer()
-				.getProperty(SettingKeys.JAVA_PARSER_EXCLUSION_PATTERNS).split(";"));
-		LOGGER.debug("Parsing " + dir.toString());
-		ResourceSet resourceSet = parser.parseDirectory(dir);
-		
+	}
+	
+	private static String[] getExclusionPatterns() {
+		return CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getProperty(SettingKeys.JAVA_PARSER_EXCLUSION_PATTERNS).split(";");
+	}
+	
+	private static int getParserThreads() {
+		String threads = CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getProperty(SettingKeys.JAVA_PARSER_THREADS);
+		if (threads == null || threads.isBlank()) {
+			return 1;
+		}
+		try {
+			return Integer.parseInt(threads.trim());
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Invalid number of parser threads: " + threads);
+			return 1;
+		}
+	}
+	
+	private static void recoverUnresolvedReferences(ResourceSet resourceSet, Collection<Resource> parsedResources) {
 		if (!config.resolveAll) {
 			// Wrap all primitive types to ensure that their wrapper classes are loaded.
-			for (var resource : new ArrayList<>(resourceSet.getResources())) {
+			for (var resource : parsedResources) {
 				resource.getAllContents().forEachRemaining(obj -> {
 					if (obj instanceof PrimitiveType) {
 						var type = (PrimitiveType) obj;
@@ -76,15 +242,22 @@ public final class JavaParserAndPropagatorUtils {
 			}
 			new TrivialRecovery(resourceSet).recover();
 		}
-		
-		LOGGER.debug("Parsed " + resourceSet.getResources().size() + " files.");
-
+	}
+	
+	private static Resource detectComponentsAndMergeModels(ResourceSet resourceSet, Path dir, Path target,
+			Path modConfig) {
 		// 2. Filter the resources and create modules for components.
-		ComponentModuleDetector detector = new ComponentModuleDetector();
-		for (var strat : config.strategies) {
-			detector.addComponentDetectionStrategy(strat);
+		try (var phase = PhaseProfiler.start(PhaseProfiler.COMPONENT_DETECTION)) {
+			ComponentModuleDetector detector = new ComponentModuleDetector();
+			if (CommitIntegrationSettingsContainer.getSettingsContainer()
+					.getPropertyAsBoolean(SettingKeys.REUSE_BUILD_FILE_INDEX)) {
+				detector.setBuildFileIndex(BUILD_FILE_INDEX);
+			}
+			for (var strat : config.strategies) {
+				detector.addComponentDetectionStrategy(strat);
+			}
+			detector.detectComponentsAndCreateModules(resourceSet, dir.toAbsolutePath(), modConfig);
 		}
-		detector.detectComponentsAndCreateModules(resourceSet, dir.toAbsolutePath(), modConfig);
 
 		// 3. Create one resource with all Java models.
 		LOGGER.debug("Creating one resource with all Java models.");
@@ -115,17 +288,106 @@ public final class JavaParserAndPropagatorUtils {
 	 * @param configPath file path to the module configuration.
 	 */
 	public static void parseAndPropagateJavaCode(Path dir, Path target, VirtualModel vsum, Path configPath) {
+		parseAndPropagateJavaCode(dir, target, vsum, configPath, (JavaChangeResolutionContext) null);
+	}
+
+	/**
+	 * Performs an integration or change propagation of Java code into Vitruvius.
+	 * 
+	 * @param dir        the directory with the Java code.
+	 * @param target     destination in which the complete Java model will be
+	 *                   stored.
+	 * @param vsum       the VSUM.
+	 * @param configPath file path to the module configuration.
+	 * @param context    the context of the change resolution. Can be null.
+	 */
+	public static void parseAndPropagateJavaCode(Path dir, Path target, VirtualModel vsum, Path configPath,
+			JavaChangeResolutionContext context) {
 		// 1. Parse the Java code and create one Resource with all models.
 		Resource all = parseJavaCodeIntoOneModel(dir, target, configPath);
-		all.getContents().forEach(content -> JavaClasspath.get().registerJavaRoot((JavaRoot) content, all.getURI()));
 
 		// 2. Propagate the Java models.
+		propagateJavaModels(all, vsum, context, true);
+	}
+	
+	/**
+	 * Performs a change propagation of Java code into Vitruvius in which only the
+	 * changed Java code is parsed. If the changed Java code cannot be parsed
+	 * incrementally, all Java code is parsed. If the scoped change resolution is
+	 * enabled, only the Java models of the changed Java code and the models
+	 * related to them are compared with the previous models.
+	 * 
+	 * @param dir           the directory with the Java code.
+	 * @param target        destination in which the complete Java model will be
+	 *                      stored.
+	 * @param vsum          the VSUM.
+	 * @param configPath    file path to the module configuration.
+	 * @param previousModel the Resource with all models of the previous commit. It
+	 *                      must not be a Resource of the VSUM because its
+	 *                      unchanged models are moved into the new models.
+	 *                      Therefore, it must not be used afterwards.
+	 * @param diffs         the differences of the Java files between the previous
+	 *                      and the current commit.
+	 * @param context       the context of the change resolution. Can be null. If
+	 *                      the scoped change resolution is enabled, the changed
+	 *                      files of the differences are set in it.
+	 * @return the Resource with the propagated models. In contrast to the other
+	 *         propagations, it is not unloaded so that it can be the previous
+	 *         model of the next incremental propagation.
+	 */
+	public static Resource parseAndPropagateJavaCode(Path dir, Path target, VirtualModel vsum, Path configPath,
+			Resource previousModel, List<DiffEntry> diffs, JavaChangeResolutionContext context) {
+		// 1. Parse the changed Java code and create one Resource with all models.
+		Resource all = parseJavaCodeIncrementallyIntoOneModel(dir, target, configPath, previousModel, diffs);
+		if (all == null) {
+			LOGGER.debug("The Java code cannot be parsed incrementally. Parsing all Java code.");
+			all = parseJavaCodeIntoOneModel(dir, target, configPath);
+		}
+
+		// 2. Propagate the Java models.
+		if (CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.PERFORM_SCOPED_CHANGE_RESOLUTION)) {
+			if (context == null) {
+				context = new JavaChangeResolutionContext();
+			}
+			context.setChangedFiles(getChangedFiles(diffs));
+		}
+		propagateJavaModels(all, vsum, context, false);
+		return all;
+	}
+	
+	private static Set<String> getChangedFiles(List<DiffEntry> diffs) {
+		Set<String> files = new HashSet<>();
+		for (DiffEntry diff : diffs) {
+			if (diff.getChangeType() != DiffEntry.ChangeType.ADD) {
+				files.add(diff.getOldPath());
+			}
+			if (diff.getChangeType() != DiffEntry.ChangeType.DELETE) {
+				files.add(diff.getNewPath());
+			}
+		}
+		return files;
+	}
+	
+	private static void propagateJavaModels(Resource all, VirtualModel vsum, JavaChangeResolutionContext context,
+			boolean unload) {
+		all.getContents().forEach(content -> JavaClasspath.get().registerJavaRoot((JavaRoot) content, all.getURI()));
 		LOGGER.debug("Propagating the Java models.");
-		vsum.propagateChangedState(all);
+		try (var phase = PhaseProfiler.start(PhaseProfiler.PROPAGATION)) {
+			var strategy = new AdjustedJavaDomainProvider().getDomain().getStateChangePropagationStrategy();
+			if (context != null && strategy instanceof JavaStateBasedChangeResolutionStrategy) {
+				((JavaStateBasedChangeResolutionStrategy) strategy).runWithContext(context,
+						() -> vsum.propagateChangedState(all));
+			} else {
+				vsum.propagateChangedState(all);
+			}
+		}
 		JavaClasspath.get().getURIMap().entrySet().stream().filter(entry -> entry.getValue() == all.getURI())
 				.map(Map.Entry::getKey).collect(Collectors.toList())
 				.forEach(u -> JavaClasspath.get().getURIMap().remove(u));
-		all.unload();
+		if (unload) {
+			all.unload();
+		}
 		JavaClasspath.remove(all);
 	}
 	
@@ -137,7 +399,8 @@ public final class JavaParserAndPropagatorUtils {
 		 * Creates a new instance.
 		 * 
 		 * @param resolveAll true if all dependencies for the Java code are available and should be parsed into models.
-		 *                         Otherwise, only direct dependencies are resolved.
+		 *                         Otherwise, only direct dependencies are resolved. All dependencies are resolved
+		 *                         during the parsing, so that the Java code cannot be parsed in parallel.
 		 * @param strategies all strategies to detect components.
 		 */
 		public Configuration(boolean resolveAll, ComponentDetectionStrategy... strategies) {
@@ -0,0 +1,181 @@
+package cipm.consistency.commitintegration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.emftext.language.java.JavaClasspath;
+import org.emftext.language.java.LogicalJavaURIGenerator;
+import org.emftext.language.java.containers.JavaRoot;
+
+import jamopp.options.ParserOptions;
+import jamopp.parser.jdt.singlefile.JaMoPPJDTSingleFileParser;
+
+/**
+ * Parses the Java files of a directory with several worker threads. The files
+ * are partitioned into contiguous chunks of the sorted file list. Every worker
+ * parses its chunk with an own parser and ResourceSet. Afterwards, the parsed
+ * Resources are moved into the target ResourceSet in the order of the sorted
+ * file list, and their Java roots are registered in the class path.
+ *
+ * <p>
+ * The parsing only works if references are not resolved during the parsing
+ * because the workers do not see the models of the other workers. All
+ * references remain proxies which are resolved in the target ResourceSet
+ * afterwards.
+ * </p>
+ */
+class ParallelJavaParser {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + ParallelJavaParser.class.getSimpleName());
+	private static final String SEPARATOR = "/";
+	private int threads;
+	private String[] exclusionPatterns;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param threads           the number of worker threads.
+	 * @param exclusionPatterns regular expressions for files which are not parsed.
+	 */
+	ParallelJavaParser(int threads, String[] exclusionPatterns) {
+		this.threads = threads;
+		this.exclusionPatterns = exclusionPatterns;
+	}
+
+	/**
+	 * Parses all Java files in a directory. The parser options must be set
+	 * before and must not be changed during the parsing. Afterwards, the parser
+	 * options have their previous values.
+	 *
+	 * @param dir       the directory.
+	 * @param targetSet the ResourceSet in which the parsed Resources are placed.
+	 * @return true if all files were parsed. false if the parsing failed. In this
+	 *         case, the target ResourceSet is not modified.
+	 */
+	boolean parseDirectory(Path dir, ResourceSet targetSet) {
+		if (!parseDirectoryWithoutRegistration(dir, targetSet)) {
+			return false;
+		}
+		registerJavaRoots(targetSet);
+		return true;
+	}
+
+	/**
+	 * Parses all Java files in a directory without registering the parsed roots
+	 * in the class path. The class path is not changed so that the parsing can be
+	 * performed while other models are propagated.
+	 *
+	 * @param dir       the directory.
+	 * @param targetSet the ResourceSet in which the parsed Resources are placed.
+	 * @return true if all files were parsed. false if the parsing failed. In this
+	 *         case, the target ResourceSet is not modified.
+	 * @see #registerJavaRoots(ResourceSet)
+	 */
+	boolean parseDirectoryWithoutRegistration(Path dir, ResourceSet targetSet) {
+		List<Path> files;
+		try {
+			files = collectJavaFiles(dir.toAbsolutePath());
+		} catch (IOException e) {
+			LOGGER.error("Could not collect the Java files in " + dir + ".", e);
+			return false;
+		}
+
+		// Registering the parsed roots in the shared class path is not thread-safe.
+		// Therefore, it is done after the parsing.
+		boolean registerLocal = Boolean.TRUE.equals(ParserOptions.REGISTER_LOCAL.getValue());
+		ParserOptions.REGISTER_LOCAL.setValue(Boolean.FALSE);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Resource> parsedResources = new ArrayList<>();
+		try {
+			List<Future<List<Resource>>> results = new ArrayList<>();
+			for (List<Path> partition : partition(files)) {
+				results.add(executor.submit(() -> parseFiles(partition)));
+			}
+			for (Future<List<Resource>> result : results) {
+				parsedResources.addAll(result.get());
+			}
+		} catch (ExecutionException e) {
+			LOGGER.error("Parallel parsing failed.", e.getCause());
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.error("Parallel parsing was interrupted.", e);
+			return false;
+		} finally {
+			executor.shutdownNow();
+			ParserOptions.REGISTER_LOCAL.setValue(Boolean.valueOf(registerLocal));
+		}
+
+		targetSet.getResources().addAll(parsedResources);
+		LOGGER.debug("Parsed " + parsedResources.size() + " files with " + threads + " threads.");
+		return true;
+	}
+
+	/**
+	 * Registers the Java roots of all Resources in the class path.
+	 *
+	 * @param resourceSet the ResourceSet with the Resources.
+	 */
+	static void registerJavaRoots(ResourceSet resourceSet) {
+		for (Resource resource : resourceSet.getResources()) {
+			for (EObject root : resource.getContents()) {
+				JavaClasspath.get().registerJavaRoot((JavaRoot) root, resource.getURI());
+			}
+		}
+	}
+
+	private List<Resource> parseFiles(List<Path> files) {
+		JaMoPPJDTSingleFileParser parser = new JaMoPPJDTSingleFileParser();
+		parser.setResourceSet(new ResourceSetImpl());
+		parser.setExclusionPatterns(exclusionPatterns);
+		List<Resource> resources = new ArrayList<>();
+		for (Path file : files) {
+			Resource resource = parser.parseFile(file);
+			if (resource != null) {
+				resources.add(resource);
+			}
+		}
+		return resources;
+	}
+
+	private List<List<Path>> partition(List<Path> files) {
+		List<List<Path>> partitions = new ArrayList<>();
+		int size = (files.size() + threads - 1) / threads;
+		for (int start = 0; start < files.size(); start += size) {
+			partitions.add(files.subList(start, Math.min(start + size, files.size())));
+		}
+		return partitions;
+	}
+
+	private List<Path> collectJavaFiles(Path dir) throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			return paths.filter(Files::isRegularFile)
+					.filter(p -> p.toString().endsWith(LogicalJavaURIGenerator.JAVA_FILE_EXTENSION))
+					.filter(p -> !dir.relativize(p).startsWith(".git")).filter(p -> !isExcluded(p)).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	private boolean isExcluded(Path file) {
+		String absPath = file.toString().replace(file.getFileSystem().getSeparator(), SEPARATOR);
+		for (String pattern : exclusionPatterns) {
+			if (!pattern.isEmpty() && absPath.matches(pattern)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,112 @@
+package cipm.consistency.commitintegration;
+
+/**
+ * The result of running an external script with the {@link ScriptRunner}.
+ */
+public class ScriptResult {
+	/**
+	 * Classifies how a script ended.
+	 */
+	public enum Status {
+		/** The script finished with the exit code 0. */
+		SUCCESS,
+		/** The script finished with an exit code indicating an error. */
+		FAILURE,
+		/** The script could not be executed by the shell (exit code 126). */
+		NOT_EXECUTABLE,
+		/** The shell could not find the script or a command (exit code 127). */
+		NOT_FOUND,
+		/** The script was terminated by a signal (exit code greater than 128). */
+		TERMINATED,
+		/** The script exceeded the timeout and was destroyed. */
+		TIMEOUT,
+		/** Waiting for the script was interrupted and the script was destroyed. */
+		INTERRUPTED,
+		/** The process for the script could not be started. */
+		NOT_STARTED
+	}
+
+	private final Status status;
+	private final int exitCode;
+	private final String output;
+	private final boolean outputTruncated;
+	private final long duration;
+	private final boolean cached;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param status          the classification of the end of the script.
+	 * @param exitCode        the exit code or -1 if the script did not finish.
+	 * @param output          the captured standard and error output.
+	 * @param outputTruncated true if the beginning of the output was discarded.
+	 * @param duration        the duration of the execution in milliseconds.
+	 * @param cached          true if the result was taken from the cache.
+	 */
+	public ScriptResult(Status status, int exitCode, String output, boolean outputTruncated, long duration,
+			boolean cached) {
+		this.status = status;
+		this.exitCode = exitCode;
+		this.output = output;
+		this.outputTruncated = outputTruncated;
+		this.duration = duration;
+		this.cached = cached;
+	}
+
+	/**
+	 * Classifies an exit code of a script.
+	 *
+	 * @param exitCode the exit code.
+	 * @param windows  true if the script was executed on Windows which does not use
+	 *                 the exit codes of a POSIX shell.
+	 * @return the classification.
+	 */
+	public static Status classify(int exitCode, boolean windows) {
+		if (exitCode == 0) {
+			return Status.SUCCESS;
+		}
+		if (!windows) {
+			if (exitCode == 126) {
+				return Status.NOT_EXECUTABLE;
+			} else if (exitCode == 127) {
+				return Status.NOT_FOUND;
+			} else if (exitCode > 128) {
+				return Status.TERMINATED;
+			}
+		}
+		return Status.FAILURE;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public boolean isSuccessful() {
+		return status == Status.SUCCESS;
+	}
+
+	public int getExitCode() {
+		return exitCode;
+	}
+
+	public String getOutput() {
+		return output;
+	}
+
+	public boolean isOutputTruncated() {
+		return outputTruncated;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	public boolean isCached() {
+		return cached;
+	}
+
+	@Override
+	public String toString() {
+		return status + " (exit code " + exitCode + ", " + duration + " ms" + (cached ? ", cached" : "") + ")";
+	}
+}
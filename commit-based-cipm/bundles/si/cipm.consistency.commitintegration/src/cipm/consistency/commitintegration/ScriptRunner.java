@@ -0,0 +1,322 @@
+package cipm.consistency.commitintegration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.SystemUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Runs external scripts. The standard and error output of a script is captured up to a limit so that
+ * only the end of a long output is kept. A script which exceeds the timeout is destroyed together with
+ * its child processes.
+ *
+ * Optionally, successful results are cached. The key of a result is the hash of the command, the
+ * content of the script, and the contents of the declared input paths. If a result with the same key
+ * is found, the script is not run, but the declared output paths are restored from the cache.
+ */
+public class ScriptRunner {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + ScriptRunner.class.getSimpleName());
+	/**
+	 * The default number of characters of the output which are kept.
+	 */
+	public static final int DEFAULT_OUTPUT_LIMIT = 64 * 1024;
+	private static final String RESULT_FILE = "result.properties";
+	private static final String OUTPUT_FILE = "output.log";
+	private static final String FILES_DIRECTORY = "files";
+	private final Duration timeout;
+	private final int outputLimit;
+	private Path cacheDirectory;
+	private List<String> inputs = List.of();
+	private List<String> outputs = List.of();
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param timeout     the maximum duration of a script. null for no limit.
+	 * @param outputLimit the maximum number of characters of the output which are
+	 *                    kept.
+	 */
+	public ScriptRunner(Duration timeout, int outputLimit) {
+		this.timeout = timeout;
+		this.outputLimit = outputLimit;
+	}
+
+	/**
+	 * Enables the caching of successful results.
+	 *
+	 * @param directory directory in which the results are stored.
+	 * @param inputs    files or directories, relative to the directory of the
+	 *                  script execution, which determine the result of the script.
+	 * @param outputs   files or directories, relative to the directory of the
+	 *                  script execution, which are produced by the script and
+	 *                  restored from the cache.
+	 */
+	public void setResultCache(Path directory, Collection<String> inputs, Collection<String> outputs) {
+		this.cacheDirectory = directory;
+		this.inputs = new ArrayList<>(new TreeSet<>(inputs));
+		this.outputs = new ArrayList<>(new TreeSet<>(outputs));
+	}
+
+	/**
+	 * Runs a script.
+	 *
+	 * @param directory directory in which the script shall run.
+	 * @param script    path to the script.
+	 * @return the result.
+	 */
+	public ScriptResult run(File directory, String script) {
+		String key = null;
+		if (cacheDirectory != null && !inputs.isEmpty()) {
+			try {
+				key = computeKey(directory.toPath(), script);
+				ScriptResult cached = restoreResult(directory.toPath(), key);
+				if (cached != null) {
+					LOGGER.debug("Reusing the cached result of " + script + ": " + cached);
+					return cached;
+				}
+			} catch (IOException e) {
+				LOGGER.debug("The result cache cannot be used for " + script + ": " + e.getMessage());
+				key = null;
+			}
+		}
+		ScriptResult result;
+		if (SystemUtils.IS_OS_WINDOWS) {
+			result = execute(directory, "cmd.exe", "/c", "\"" + script + "\"");
+		} else {
+			result = execute(directory, script);
+		}
+		if (key != null && result.isSuccessful()) {
+			try {
+				storeResult(directory.toPath(), key, result);
+			} catch (IOException e) {
+				LOGGER.debug("The result of " + script + " cannot be cached: " + e.getMessage());
+			}
+		}
+		return result;
+	}
+
+	private ScriptResult execute(File directory, String... command) {
+		long start = System.currentTimeMillis();
+		Process process;
+		try {
+			process = new ProcessBuilder().directory(directory).redirectErrorStream(true).command(command).start();
+		} catch (IOException e) {
+			return new ScriptResult(ScriptResult.Status.NOT_STARTED, -1, e.getMessage(), false, 0, false);
+		}
+		OutputCollector collector = new OutputCollector(process.getInputStream(), Charset.defaultCharset());
+		collector.start();
+		ScriptResult.Status status;
+		int exitCode = -1;
+		try {
+			if (timeout == null) {
+				process.waitFor();
+				status = null;
+			} else if (process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				status = null;
+			} else {
+				status = ScriptResult.Status.TIMEOUT;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			status = ScriptResult.Status.INTERRUPTED;
+		}
+		if (status == null) {
+			exitCode = process.exitValue();
+			status = ScriptResult.classify(exitCode, SystemUtils.IS_OS_WINDOWS);
+		} else {
+			process.descendants().forEach(ProcessHandle::destroyForcibly);
+			process.destroyForcibly();
+		}
+		try {
+			collector.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return new ScriptResult(status, exitCode, collector.getOutput(), collector.isTruncated(),
+				System.currentTimeMillis() - start, false);
+	}
+
+	private String computeKey(Path directory, String script) throws IOException {
+		MessageDigest digest = createDigest();
+		digest.update(script.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(Files.readAllBytes(Path.of(script)));
+		for (String input : inputs) {
+			Path path = directory.resolve(input);
+			digest.update(input.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			if (Files.isDirectory(path)) {
+				List<Path> files;
+				try (Stream<Path> stream = Files.walk(path)) {
+					files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+				}
+				for (Path file : files) {
+					digest.update(path.relativize(file).toString().replace('\\', '/')
+							.getBytes(StandardCharsets.UTF_8));
+					digest.update((byte) 0);
+					digest.update(hash(file));
+				}
+			} else if (Files.isRegularFile(path)) {
+				digest.update(hash(path));
+			} else {
+				digest.update((byte) 1);
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	private static byte[] hash(Path file) throws IOException {
+		MessageDigest digest = createDigest();
+		byte[] buffer = new byte[8192];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder builder = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+			builder.append(Character.forDigit(b & 0xF, 16));
+		}
+		return builder.toString();
+	}
+
+	private ScriptResult restoreResult(Path directory, String key) throws IOException {
+		Path entry = cacheDirectory.resolve(key);
+		Path resultFile = entry.resolve(RESULT_FILE);
+		if (Files.notExists(resultFile)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(resultFile, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		Path files = entry.resolve(FILES_DIRECTORY);
+		for (String output : outputs) {
+			Path cachedOutput = files.resolve(output);
+			Path target = directory.resolve(output);
+			if (Files.isDirectory(cachedOutput)) {
+				FileUtils.copyDirectory(cachedOutput.toFile(), target.toFile());
+			} else if (Files.isRegularFile(cachedOutput)) {
+				Files.createDirectories(target.getParent());
+				Files.copy(cachedOutput, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		String output = Files.readString(entry.resolve(OUTPUT_FILE), StandardCharsets.UTF_8);
+		return new ScriptResult(ScriptResult.Status.SUCCESS, 0, output,
+				Boolean.parseBoolean(properties.getProperty("truncated")), 0, true);
+	}
+
+	private void storeResult(Path directory, String key, ScriptResult result) throws IOException {
+		Path entry = cacheDirectory.resolve(key);
+		Path temporary = Files.createTempDirectory(Files.createDirectories(cacheDirectory), key);
+		try {
+			Path files = temporary.resolve(FILES_DIRECTORY);
+			for (String output : outputs) {
+				Path source = directory.resolve(output);
+				Path cachedOutput = files.resolve(output);
+				if (Files.isDirectory(source)) {
+					FileUtils.copyDirectory(source.toFile(), cachedOutput.toFile());
+				} else if (Files.isRegularFile(source)) {
+					Files.createDirectories(cachedOutput.getParent());
+					Files.copy(source, cachedOutput);
+				}
+			}
+			Files.writeString(temporary.resolve(OUTPUT_FILE), result.getOutput(), StandardCharsets.UTF_8);
+			Properties properties = new Properties();
+			properties.setProperty("duration", Long.toString(result.getDuration()));
+			properties.setProperty("truncated", Boolean.toString(result.isOutputTruncated()));
+			// The result file is written last so that incomplete entries are not used.
+			try (Writer writer = Files.newBufferedWriter(temporary.resolve(RESULT_FILE), StandardCharsets.UTF_8)) {
+				properties.store(writer, null);
+			}
+			if (Files.notExists(entry)) {
+				Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+			}
+		} finally {
+			FileUtils.deleteQuietly(temporary.toFile());
+		}
+	}
+
+	/**
+	 * Reads the output of a process and keeps its end.
+	 */
+	private class OutputCollector extends Thread {
+		private final Reader reader;
+		private final StringBuilder output = new StringBuilder();
+		private boolean truncated;
+
+		OutputCollector(InputStream stream, Charset charset) {
+			this.reader = new InputStreamReader(stream, charset);
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			char[] buffer = new char[4096];
+			try (reader) {
+				int read;
+				while ((read = reader.read(buffer)) >= 0) {
+					append(buffer, read);
+				}
+			} catch (IOException e) {
+				// The process was destroyed.
+			}
+		}
+
+		private synchronized void append(char[] buffer, int length) {
+			output.append(buffer, 0, length);
+			if (output.length() > 2 * outputLimit) {
+				output.delete(0, output.length() - outputLimit);
+				truncated = true;
+			}
+		}
+
+		synchronized String getOutput() {
+			if (output.length() > outputLimit) {
+				output.delete(0, output.length() - outputLimit);
+				truncated = true;
+			}
+			return output.toString();
+		}
+
+		synchronized boolean isTruncated() {
+			return truncated;
+		}
+	}
+}
@@ -1,6 +1,5 @@
 package cipm.consistency.commitintegration.detection;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 import org.eclipse.emf.ecore.resource.Resource;
@@ -12,34 +11,30 @@ import org.eclipse.emf.ecore.resource.Resource;
  * @author Martin Armbruster
  */
 public class BuildFileBasedComponentDetectionStrategy implements ComponentDetectionStrategy {
-	private static final String MAVEN_POM_FILE_NAME = "pom.xml";
-	private static final String GRADLE_BUILD_FILE_NAME = "build.gradle";
-	private static final String DOCKERFILE_FILE_NAME = "Dockerfile";
+	private BuildFileIndex buildFileIndex;
+
+	@Override
+	public void setBuildFileIndex(BuildFileIndex index) {
+		this.buildFileIndex = index;
+	}
 
 	@Override
 	public void detectComponent(Resource res, Path file, Path container, ModuleCandidates candidate) {
-		Path parent = file.getParent();
+		BuildFileIndex index = this.buildFileIndex;
+		if (index == null) {
+			index = new BuildFileIndex(false);
+			index.beginRun(container);
+		}
 		// Beginning with the Java file, the file system hierarchy is searched upwards
 		// until the container directory is reached.
-		while (container.compareTo(parent) != 0) {
-			boolean buildFileExistence = checkSiblingExistence(parent, MAVEN_POM_FILE_NAME)
-					|| checkSiblingExistence(parent, GRADLE_BUILD_FILE_NAME);
-			boolean dockerFileExistence = checkSiblingExistence(parent, DOCKERFILE_FILE_NAME);
-			if (buildFileExistence) {
-				String modName = parent.getParent().getFileName().toString();
-				if (dockerFileExistence) {
-					candidate.addModuleClassifier(ModuleState.MICROSERVICE_COMPONENT, modName, res);
-				} else {
-					candidate.addModuleClassifier(ModuleState.COMPONENT_CANDIDATE, modName, res);
-				}
-				return;
+		Path buildDirectory = index.findBuildDirectory(file.getParent());
+		if (buildDirectory != null) {
+			String modName = buildDirectory.getFileName().toString();
+			if (index.containsFile(buildDirectory, BuildFileIndex.DOCKERFILE_FILE_NAME)) {
+				candidate.addModuleClassifier(ModuleState.MICROSERVICE_COMPONENT, modName, res);
+			} else {
+				candidate.addModuleClassifier(ModuleState.COMPONENT_CANDIDATE, modName, res);
 			}
-			parent = parent.getParent();
 		}
 	}
-
-	private boolean checkSiblingExistence(Path file, String siblingName) {
-		Path sibling = file.resolveSibling(siblingName);
-		return Files.exists(sibling);
-	}
 }
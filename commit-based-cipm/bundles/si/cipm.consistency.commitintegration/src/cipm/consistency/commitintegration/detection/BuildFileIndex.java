@@ -0,0 +1,149 @@
+package cipm.consistency.commitintegration.detection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Caches which build and deployment configuration files exist in directories and which directory with a
+ * build file is the nearest one for a directory with Java files.
+ *
+ * Within a detection run, every directory is inspected once. Optionally, the inspected directories are
+ * kept for the next detection runs. In this case, a directory is only inspected again if its modification
+ * time changed, which happens if files are added to or removed from the directory.
+ */
+public class BuildFileIndex {
+	/**
+	 * Name of the build file of Maven.
+	 */
+	public static final String MAVEN_POM_FILE_NAME = "pom.xml";
+	/**
+	 * Name of the build file of Gradle.
+	 */
+	public static final String GRADLE_BUILD_FILE_NAME = "build.gradle";
+	/**
+	 * Name of the file for Docker images.
+	 */
+	public static final String DOCKERFILE_FILE_NAME = "Dockerfile";
+	private static final List<String> TRACKED_FILE_NAMES = List.of(MAVEN_POM_FILE_NAME, GRADLE_BUILD_FILE_NAME,
+			DOCKERFILE_FILE_NAME);
+	private final boolean reuseAcrossRuns;
+	private final Map<Path, DirectoryEntry> directories = new HashMap<>();
+	private final Set<Path> inspectedDirectories = new HashSet<>();
+	private final Map<Path, Optional<Path>> buildDirectories = new HashMap<>();
+	private Path container;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param reuseAcrossRuns true if the inspected directories are kept for the next
+	 *                        detection runs.
+	 */
+	public BuildFileIndex(boolean reuseAcrossRuns) {
+		this.reuseAcrossRuns = reuseAcrossRuns;
+	}
+
+	/**
+	 * Starts a new detection run.
+	 *
+	 * @param runContainer path to the repository which contains the complete
+	 *                     project and source code.
+	 */
+	public void beginRun(Path runContainer) {
+		inspectedDirectories.clear();
+		buildDirectories.clear();
+		if (!reuseAcrossRuns || !runContainer.equals(this.container)) {
+			directories.clear();
+		}
+		this.container = runContainer;
+	}
+
+	/**
+	 * Checks if a build or deployment configuration file exists in a directory.
+	 *
+	 * @param directory the directory.
+	 * @param fileName  name of the file. It must be one of the file names defined
+	 *                  in this class.
+	 * @return true if the file exists.
+	 */
+	public boolean containsFile(Path directory, String fileName) {
+		return getEntry(directory).fileNames.contains(fileName);
+	}
+
+	/**
+	 * Finds the nearest directory with a build file for a directory. Beginning with
+	 * the parent of the directory, the file system hierarchy is searched upwards
+	 * until the container directory is reached.
+	 *
+	 * @param directory the directory.
+	 * @return the directory with the build file or null if there is none.
+	 */
+	public Path findBuildDirectory(Path directory) {
+		List<Path> visited = new ArrayList<>();
+		Path current = directory;
+		Optional<Path> result = Optional.empty();
+		while (current != null && container.compareTo(current) != 0) {
+			Optional<Path> known = buildDirectories.get(current);
+			if (known != null) {
+				result = known;
+				break;
+			}
+			visited.add(current);
+			Path parent = current.getParent();
+			if (parent != null && (containsFile(parent, MAVEN_POM_FILE_NAME)
+					|| containsFile(parent, GRADLE_BUILD_FILE_NAME))) {
+				result = Optional.of(parent);
+				break;
+			}
+			current = parent;
+		}
+		for (Path path : visited) {
+			buildDirectories.put(path, result);
+		}
+		return result.orElse(null);
+	}
+
+	private DirectoryEntry getEntry(Path directory) {
+		DirectoryEntry entry = directories.get(directory);
+		if (entry != null && inspectedDirectories.contains(directory)) {
+			return entry;
+		}
+		FileTime modified = reuseAcrossRuns ? getModificationTime(directory) : null;
+		if (entry == null || modified == null || !modified.equals(entry.modified)) {
+			entry = new DirectoryEntry(modified);
+			for (String fileName : TRACKED_FILE_NAMES) {
+				if (Files.exists(directory.resolve(fileName))) {
+					entry.fileNames.add(fileName);
+				}
+			}
+			directories.put(directory, entry);
+		}
+		inspectedDirectories.add(directory);
+		return entry;
+	}
+
+	private static FileTime getModificationTime(Path directory) {
+		try {
+			return Files.getLastModifiedTime(directory);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static class DirectoryEntry {
+		private final FileTime modified;
+		private final Set<String> fileNames = new HashSet<>();
+
+		DirectoryEntry(FileTime modified) {
+			this.modified = modified;
+		}
+	}
+}
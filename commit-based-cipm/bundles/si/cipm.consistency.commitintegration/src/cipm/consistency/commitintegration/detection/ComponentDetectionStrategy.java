@@ -21,4 +21,13 @@ public interface ComponentDetectionStrategy {
 	 * @param candidate the storage of the module candidates.
 	 */
 	public void detectComponent(Resource res, Path file, Path container, ModuleCandidates candidate);
+
+	/**
+	 * Sets the index of the build files which is shared by all strategies in a
+	 * detection run. Strategies which do not consider build files ignore it.
+	 * 
+	 * @param index the index for the current detection run.
+	 */
+	public default void setBuildFileIndex(BuildFileIndex index) {
+	}
 }
@@ -29,11 +29,23 @@ import tools.vitruv.framework.userinteraction.UserInteractionFactory;
  */
 public final class ComponentModuleDetector {
 	private Set<ComponentDetectionStrategy> strategies = new HashSet<>();
+	private BuildFileIndex buildFileIndex = new BuildFileIndex(false);
 
 	public void addComponentDetectionStrategy(ComponentDetectionStrategy strategy) {
 		strategies.add(strategy);
 	}
 
+	/**
+	 * Sets the index of the build files which is shared by all strategies. An
+	 * index which keeps the inspected directories can be reused for the detection
+	 * in later commits.
+	 * 
+	 * @param buildFileIndex the index.
+	 */
+	public void setBuildFileIndex(BuildFileIndex buildFileIndex) {
+		this.buildFileIndex = buildFileIndex;
+	}
+
 	/**
 	 * Detects the components and creates a module for every component.
 	 * 
@@ -45,6 +57,8 @@ public final class ComponentModuleDetector {
 	public void detectComponentsAndCreateModules(ResourceSet resourceSet, Path dir, Path configPath) {
 		ModuleConfiguration config = new ModuleConfiguration(configPath);
 		ModuleCandidates candidate = new ModuleCandidates();
+		buildFileIndex.beginRun(dir);
+		strategies.forEach(s -> s.setBuildFileIndex(buildFileIndex));
 		for (Resource resource : resourceSet.getResources()) {
 			if (resource.getContents().isEmpty()) {
 				continue;
@@ -12,6 +12,7 @@ import cipm.consistency.base.models.instrumentation.InstrumentationModel.Instrum
 import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute
 import cipm.consistency.models.instrumentation.InstrumentationModelUtil
 import tools.vitruv.applications.pcmjava.seffstatements.code2seff.extended.ExtendedJava2PcmMethodBodyChangePreprocessor
+import cipm.consistency.tools.evaluation.data.PhaseProfiler
 
 /**
  * Propagates changes in method bodies to the extended instrumentation model.
@@ -30,7 +31,9 @@ class Java2ImChangePropagationSpecification extends ExtendedJava2PcmMethodBodyCh
 		if (super.doesHandleChange(change, correspondenceModel)) {
 			val attrChange = change as ReplaceSingleValuedEAttribute<?, ?>;
 			val meth = attrChange.affectedEObject as Method;
-			executeJava2ImTransformation(correspondenceModel, userInteractor, meth)
+			try (val phase = PhaseProfiler.start(PhaseProfiler.IM_UPDATE)) {
+				executeJava2ImTransformation(correspondenceModel, userInteractor, meth)
+			}
 		}
 	}
 	
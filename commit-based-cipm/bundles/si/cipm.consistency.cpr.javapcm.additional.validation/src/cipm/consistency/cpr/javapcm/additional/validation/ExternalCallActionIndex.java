@@ -0,0 +1,98 @@
+package cipm.consistency.cpr.javapcm.additional.validation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.seff.ExternalCallAction;
+import org.palladiosimulator.pcm.seff.SeffPackage;
+
+/**
+ * An index of the external calls without a target in a repository.
+ *
+ * The index is attached to the repository once and observes all its contents. It is updated by the
+ * notifications of the changes to the repository, for example, by the propagated changes of a commit.
+ * Therefore, the external calls without a target can be found without traversing the complete
+ * repository.
+ */
+class ExternalCallActionIndex extends EContentAdapter {
+	private final Set<ExternalCallAction> emptyTargetCalls = new LinkedHashSet<>();
+	private final Repository repository;
+
+	private ExternalCallActionIndex(Repository repository) {
+		this.repository = repository;
+	}
+
+	/**
+	 * Returns the index for a repository. If the repository has no index yet, it
+	 * is created by traversing the repository once.
+	 *
+	 * @param repository the repository.
+	 * @return the index.
+	 */
+	static ExternalCallActionIndex getIndex(Repository repository) {
+		for (var adapter : repository.eAdapters()) {
+			if (adapter instanceof ExternalCallActionIndex) {
+				return (ExternalCallActionIndex) adapter;
+			}
+		}
+		var index = new ExternalCallActionIndex(repository);
+		repository.eAdapters().add(index);
+		return index;
+	}
+
+	/**
+	 * Returns the external calls without a target which are still contained in the
+	 * repository.
+	 *
+	 * @return the external calls without a target.
+	 */
+	List<ExternalCallAction> getEmptyTargetCalls() {
+		var result = new ArrayList<ExternalCallAction>();
+		for (var call : emptyTargetCalls) {
+			if (call.getCalledService_ExternalService() == null && EcoreUtil.isAncestor(repository, call)) {
+				result.add(call);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+		if (notification.getFeature() == SeffPackage.Literals.EXTERNAL_CALL_ACTION__CALLED_SERVICE_EXTERNAL_SERVICE
+				&& notification.getNotifier() instanceof ExternalCallAction) {
+			update((ExternalCallAction) notification.getNotifier());
+		}
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		super.setTarget(target);
+		if (target instanceof ExternalCallAction) {
+			update((ExternalCallAction) target);
+		}
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		if (target instanceof ExternalCallAction) {
+			emptyTargetCalls.remove(target);
+		}
+	}
+
+	private void update(ExternalCallAction call) {
+		if (call.getCalledService_ExternalService() == null) {
+			emptyTargetCalls.add(call);
+		} else {
+			emptyTargetCalls.remove(call);
+		}
+	}
+}
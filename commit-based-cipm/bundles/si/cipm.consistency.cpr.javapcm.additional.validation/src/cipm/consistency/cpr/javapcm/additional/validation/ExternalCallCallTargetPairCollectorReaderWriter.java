@@ -44,4 +44,22 @@ public final class ExternalCallCallTargetPairCollectorReaderWriter {
 		}
 		return new ExternalCallCallTargetPairCollector();
 	}
+
+	/**
+	 * Reads a collection of rules for the targets of external calls from a file.
+	 * 
+	 * @param target path to the file in which the rules are stored.
+	 * @return the loaded rules. If the file cannot be read, the collection is
+	 *         empty.
+	 */
+	public static ExternalCallTargetRuleCollection readRules(Path target) {
+		try (BufferedReader reader = Files.newBufferedReader(target)) {
+			var rules = new Gson().fromJson(reader, ExternalCallTargetRuleCollection.class);
+			if (rules != null) {
+				return rules;
+			}
+		} catch (IOException e) {
+		}
+		return new ExternalCallTargetRuleCollection();
+	}
 }
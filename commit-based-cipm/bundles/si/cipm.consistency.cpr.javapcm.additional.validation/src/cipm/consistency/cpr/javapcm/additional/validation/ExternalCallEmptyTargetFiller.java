@@ -3,7 +3,11 @@ package cipm.consistency.cpr.javapcm.additional.validation;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.log4j.Logger;
 import org.palladiosimulator.pcm.repository.BasicComponent;
 import org.palladiosimulator.pcm.repository.OperationInterface;
 import org.palladiosimulator.pcm.repository.OperationRequiredRole;
@@ -23,12 +27,24 @@ import tools.vitruv.framework.userinteraction.UserInteractionFactory;
 /**
  * Tries to find a target for all external calls which have no target.
  * 
+ * The external calls without a target are taken from an index which is updated by the changes to the
+ * repository. At first, the stored pairs of external calls and their targets are considered. Afterwards,
+ * the rules are applied. If neither determines a target, the developer is asked unless the batch mode is
+ * active.
+ * 
  * @author Martin Armbruster
  */
 public class ExternalCallEmptyTargetFiller {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + ExternalCallEmptyTargetFiller.class.getSimpleName());
+	private static final String KEY_SEPARATOR = "\u0000";
 	private CorrespondenceModel cm;
 	private Repository repository;
 	private Path collectionFile;
+	private ExternalCallTargetRuleCollection rules = new ExternalCallTargetRuleCollection();
+	private boolean batchMode;
+	private Map<String, List<ExternalCallCallTargetPair>> pairsByCall;
+	private Map<String, List<OperationInterface>> interfacesByName;
+	private List<OperationSignature> signatures;
 
 	/**
 	 * Creates a new instance.
@@ -44,28 +60,50 @@ public class ExternalCallEmptyTargetFiller {
 		this.collectionFile = collection;
 	}
 
+	/**
+	 * Sets the rules which determine the targets of external calls which are not
+	 * contained in the stored pairs.
+	 * 
+	 * @param rules the rules.
+	 */
+	public void setRules(ExternalCallTargetRuleCollection rules) {
+		this.rules = rules;
+	}
+
+	/**
+	 * Sets the batch mode. In the batch mode, the developer is not asked for the
+	 * targets of external calls. External calls for which neither a stored pair
+	 * nor a rule determines a target are kept without a target.
+	 * 
+	 * @param batchMode true if the batch mode is used.
+	 */
+	public void setBatchMode(boolean batchMode) {
+		this.batchMode = batchMode;
+	}
+
 	/**
 	 * Tries to find the targets for all external calls without a target.
 	 */
 	public void fillExternalCalls() {
+		var calls = ExternalCallActionIndex.getIndex(repository).getEmptyTargetCalls();
+		if (calls.isEmpty()) {
+			return;
+		}
 		var pairs = ExternalCallCallTargetPairCollectorReaderWriter.read(collectionFile);
-		for (var comp : repository.getComponents__Repository()) {
-			if (comp instanceof BasicComponent) {
-				var basicComp = (BasicComponent) comp;
-				for (var seff : basicComp.getServiceEffectSpecifications__BasicComponent()) {
-					if (seff instanceof ResourceDemandingSEFF) {
-						var rdseff = (ResourceDemandingSEFF) seff;
-						for (var iter = rdseff.eAllContents(); iter.hasNext();) {
-							var next = iter.next();
-							if (next instanceof ExternalCallAction) {
-								var extCall = (ExternalCallAction) next;
-								if (extCall.getCalledService_ExternalService() == null) {
-									fillExternalCall(pairs, basicComp, rdseff, extCall);
-								}
-							}
-						}
-					}
-				}
+		if (pairs == null) {
+			pairs = new ExternalCallCallTargetPairCollector();
+		}
+		pairsByCall = new HashMap<>();
+		pairs.forEach(p -> indexPair(p));
+		interfacesByName = new HashMap<>();
+		repository.getInterfaces__Repository().stream().filter(i -> i instanceof OperationInterface)
+				.forEach(i -> interfacesByName.computeIfAbsent(i.getEntityName(), k -> new ArrayList<>())
+						.add((OperationInterface) i));
+		signatures = null;
+		for (var extCall : calls) {
+			var rdseff = findSeff(extCall);
+			if (rdseff != null && rdseff.getBasicComponent_ServiceEffectSpecification() instanceof BasicComponent) {
+				fillExternalCall(pairs, rdseff.getBasicComponent_ServiceEffectSpecification(), rdseff, extCall);
 			}
 		}
 		ExternalCallCallTargetPairCollectorReaderWriter.write(pairs, collectionFile);
@@ -75,6 +113,40 @@ public class ExternalCallEmptyTargetFiller {
 		}
 	}
 
+	private static ResourceDemandingSEFF findSeff(ExternalCallAction action) {
+		var container = action.eContainer();
+		while (container != null && !(container instanceof ResourceDemandingSEFF)) {
+			container = container.eContainer();
+		}
+		return (ResourceDemandingSEFF) container;
+	}
+
+	private static String createPairKey(String componentName, String seffName, String externalCallEncoding) {
+		return componentName + KEY_SEPARATOR + seffName + KEY_SEPARATOR + externalCallEncoding;
+	}
+
+	private void indexPair(ExternalCallCallTargetPair pair) {
+		pairsByCall.computeIfAbsent(
+				createPairKey(pair.getComponentName(), pair.getSeffName(), pair.getExternalCallEncoding()),
+				k -> new ArrayList<>()).add(pair);
+	}
+
+	/**
+	 * Finds a service by the name of its interface and its name.
+	 * 
+	 * @return the service or null if there is no such service.
+	 */
+	private OperationSignature findSignature(String interfaceName, String serviceName) {
+		for (var opInter : interfacesByName.getOrDefault(interfaceName, List.of())) {
+			for (var sig : opInter.getSignatures__OperationInterface()) {
+				if (sig.getEntityName().equals(serviceName)) {
+					return sig;
+				}
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Performs the actual finding of the external call target.
 	 * 
@@ -86,32 +158,44 @@ public class ExternalCallEmptyTargetFiller {
 	 */
 	private void fillExternalCall(ExternalCallCallTargetPairCollector pairs, RepositoryComponent component,
 			ResourceDemandingSEFF seff, ExternalCallAction action) {
+		String componentName = component.getEntityName();
+		String seffName = seff.getDescribedService__SEFF().getEntityName();
+		String encoding = encodeAbstractAction(action);
 		// At first, look into the stored pairs if the external call is available.
-		for (var p : pairs) {
-			if (p.getComponentName().equals(component.getEntityName())
-					&& p.getSeffName().equals(seff.getDescribedService__SEFF().getEntityName())
-					&& p.getExternalCallEncoding().equals(encodeAbstractAction(action))) {
-				// Search for the appropriate interface and service.
-				for (var inter : repository.getInterfaces__Repository()) {
-					if (inter.getEntityName().equals(p.getInterfaceName())
-							&& inter instanceof OperationInterface) {
-						var opInter = (OperationInterface) inter;
-						for (var sig : opInter.getSignatures__OperationInterface()) {
-							if (sig.getEntityName().equals(p.getServiceName())) {
-								setCallTargetForExternalCall(component, action, sig);
-								return;
-							}
-						}
-					}
+		for (var p : pairsByCall.getOrDefault(createPairKey(componentName, seffName, encoding), List.of())) {
+			// Search for the appropriate interface and service.
+			var sig = findSignature(p.getInterfaceName(), p.getServiceName());
+			if (sig != null) {
+				setCallTargetForExternalCall(component, action, sig);
+				return;
+			}
+		}
+		// Afterwards, apply the first rule which determines an existing service.
+		for (var rule : rules) {
+			if (rule.matches(componentName, seffName, action.getEntityName())) {
+				var sig = findSignature(rule.getInterfaceName(), rule.getServiceName());
+				if (sig != null) {
+					addPair(pairs, componentName, seffName, encoding, sig);
+					setCallTargetForExternalCall(component, action, sig);
+					return;
 				}
+				LOGGER.warn("A rule for the external call " + action.getEntityName() + " refers to the unknown service "
+						+ rule.getServiceName() + " (" + rule.getInterfaceName() + ").");
 			}
 		}
+		if (batchMode) {
+			LOGGER.warn("No target found for the external call " + action.getEntityName() + " in " + componentName
+					+ "." + seffName + ".");
+			return;
+		}
 		// Ask the developer to decide which existing service is the target of the
 		// external call.
-		ArrayList<OperationSignature> signatures = new ArrayList<>();
-		repository.getInterfaces__Repository().stream().filter(i -> i instanceof OperationInterface)
-				.map(i -> (OperationInterface) i)
-				.forEach(i -> i.getSignatures__OperationInterface().forEach(signatures::add));
+		if (signatures == null) {
+			signatures = new ArrayList<>();
+			repository.getInterfaces__Repository().stream().filter(i -> i instanceof OperationInterface)
+					.map(i -> (OperationInterface) i)
+					.forEach(i -> i.getSignatures__OperationInterface().forEach(signatures::add));
+		}
 		ArrayList<String> signaturesRepr = new ArrayList<>();
 		signatures.forEach(s -> signaturesRepr
 				.add(s.getEntityName() + "(" + s.getInterface__OperationSignature().getEntityName() + ")"));
@@ -137,17 +221,23 @@ public class ExternalCallEmptyTargetFiller {
 		if (index != -1) {
 			// Create a new pair for the external call and its target.
 			var service = signatures.get(index);
-			var newPair = new ExternalCallCallTargetPair();
-			newPair.setComponentName(component.getEntityName());
-			newPair.setSeffName(seff.getDescribedService__SEFF().getEntityName());
-			newPair.setExternalCallEncoding(encodeAbstractAction(action));
-			newPair.setServiceName(service.getEntityName());
-			newPair.setInterfaceName(service.getInterface__OperationSignature().getEntityName());
-			pairs.add(newPair);
+			addPair(pairs, componentName, seffName, encoding, service);
 			setCallTargetForExternalCall(component, action, service);
 		}
 	}
 
+	private void addPair(ExternalCallCallTargetPairCollector pairs, String componentName, String seffName,
+			String encoding, OperationSignature service) {
+		var newPair = new ExternalCallCallTargetPair();
+		newPair.setComponentName(componentName);
+		newPair.setSeffName(seffName);
+		newPair.setExternalCallEncoding(encoding);
+		newPair.setServiceName(service.getEntityName());
+		newPair.setInterfaceName(service.getInterface__OperationSignature().getEntityName());
+		pairs.add(newPair);
+		indexPair(newPair);
+	}
+
 	/**
 	 * Sets the target for an external call.
 	 * 
@@ -0,0 +1,89 @@
+package cipm.consistency.cpr.javapcm.additional.validation;
+
+import java.util.regex.Pattern;
+
+/**
+ * A rule which determines the target of external calls without asking the developer. All patterns are
+ * regular expressions. A missing pattern matches everything.
+ */
+public class ExternalCallTargetRule {
+	private String componentPattern;
+	private String seffPattern;
+	private String externalCallPattern;
+	private String interfaceName;
+	private String serviceName;
+	private transient Pattern compiledComponentPattern;
+	private transient Pattern compiledSeffPattern;
+	private transient Pattern compiledExternalCallPattern;
+
+	/**
+	 * Checks if the rule applies to an external call.
+	 * 
+	 * @param componentName    name of the component which contains the external
+	 *                         call.
+	 * @param seffName         name of the service described by the SEFF which
+	 *                         contains the external call.
+	 * @param externalCallName name of the external call.
+	 * @return true if the rule applies.
+	 */
+	public boolean matches(String componentName, String seffName, String externalCallName) {
+		if (compiledComponentPattern == null && componentPattern != null) {
+			compiledComponentPattern = Pattern.compile(componentPattern);
+		}
+		if (compiledSeffPattern == null && seffPattern != null) {
+			compiledSeffPattern = Pattern.compile(seffPattern);
+		}
+		if (compiledExternalCallPattern == null && externalCallPattern != null) {
+			compiledExternalCallPattern = Pattern.compile(externalCallPattern);
+		}
+		return matches(compiledComponentPattern, componentName) && matches(compiledSeffPattern, seffName)
+				&& matches(compiledExternalCallPattern, externalCallName);
+	}
+
+	private static boolean matches(Pattern pattern, String value) {
+		return pattern == null || value != null && pattern.matcher(value).matches();
+	}
+
+	public String getComponentPattern() {
+		return componentPattern;
+	}
+
+	public void setComponentPattern(String componentPattern) {
+		this.componentPattern = componentPattern;
+		this.compiledComponentPattern = null;
+	}
+
+	public String getSeffPattern() {
+		return seffPattern;
+	}
+
+	public void setSeffPattern(String seffPattern) {
+		this.seffPattern = seffPattern;
+		this.compiledSeffPattern = null;
+	}
+
+	public String getExternalCallPattern() {
+		return externalCallPattern;
+	}
+
+	public void setExternalCallPattern(String externalCallPattern) {
+		this.externalCallPattern = externalCallPattern;
+		this.compiledExternalCallPattern = null;
+	}
+
+	public String getInterfaceName() {
+		return interfaceName;
+	}
+
+	public void setInterfaceName(String interfaceName) {
+		this.interfaceName = interfaceName;
+	}
+
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	public void setServiceName(String serviceName) {
+		this.serviceName = serviceName;
+	}
+}
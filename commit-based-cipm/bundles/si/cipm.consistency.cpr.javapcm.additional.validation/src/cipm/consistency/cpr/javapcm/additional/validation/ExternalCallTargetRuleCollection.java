@@ -0,0 +1,9 @@
+package cipm.consistency.cpr.javapcm.additional.validation;
+
+import java.util.ArrayList;
+
+/**
+ * A collection of rules for the targets of external calls. The first applicable rule is used.
+ */
+public class ExternalCallTargetRuleCollection extends ArrayList<ExternalCallTargetRule> {
+}
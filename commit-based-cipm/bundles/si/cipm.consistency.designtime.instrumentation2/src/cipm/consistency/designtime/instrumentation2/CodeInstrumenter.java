@@ -1,17 +1,25 @@
 package cipm.consistency.designtime.instrumentation2;
 
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.change.ChangeDescription;
+import org.eclipse.emf.ecore.change.util.ChangeRecorder;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.emftext.language.java.commons.Commentable;
+import org.emftext.language.java.containers.CompilationUnit;
 import org.emftext.language.java.members.Method;
 import org.emftext.language.java.statements.Statement;
 import org.emftext.language.java.statements.StatementListContainer;
@@ -22,6 +30,7 @@ import cipm.consistency.base.models.instrumentation.InstrumentationModel.Instrum
 import cipm.consistency.base.models.instrumentation.InstrumentationModel.ServiceInstrumentationPoint;
 import cipm.consistency.designtime.instrumentation2.instrumenter.MinimalMonitoringEnvironmentModelGenerator;
 import cipm.consistency.designtime.instrumentation2.instrumenter.ServiceInstrumentationPointInstrumenter;
+import cipm.consistency.tools.evaluation.data.PhaseProfiler;
 import tools.vitruv.framework.correspondence.CorrespondenceModel;
 import tools.vitruv.framework.correspondence.CorrespondenceModelUtil;
 
@@ -39,6 +48,27 @@ public final class CodeInstrumenter {
 
 	public static Resource instrument(InstrumentationModel im, CorrespondenceModel cm, Resource javaModel, Path output,
 			Path input, boolean adaptive) {
+		return instrument(im, cm, javaModel, output, input, adaptive, false);
+	}
+
+	/**
+	 * Instruments the source code in a copy of the Java model.
+	 * 
+	 * @param im                the instrumentation model.
+	 * @param cm                the correspondence model.
+	 * @param javaModel         the Java model to instrument. It is copied.
+	 * @param output            the directory for the instrumented code.
+	 * @param input             the directory of the original code.
+	 * @param adaptive          true if only active instrumentation points shall be
+	 *                          instrumented. false otherwise.
+	 * @param onlyChangedFiles  true if only the instrumented compilation units
+	 *                          shall be written and the unchanged files shall be
+	 *                          linked. false if all files shall be copied and all
+	 *                          compilation units written.
+	 * @return the instrumented copy of the Java model.
+	 */
+	public static Resource instrument(InstrumentationModel im, CorrespondenceModel cm, Resource javaModel, Path output,
+			Path input, boolean adaptive, boolean onlyChangedFiles) {
 		LOGGER.debug("Executing the " + (adaptive ? "adaptive" : "full") + " instrumentation.");
 		LOGGER.debug("Copying the Java model.");
 		ResourceSet targetSet = new ResourceSetImpl();
@@ -48,6 +78,7 @@ public final class CodeInstrumenter {
 		LOGGER.debug("Generating the minimal monitoring environment.");
 		MinimalMonitoringEnvironmentModelGenerator gen = new MinimalMonitoringEnvironmentModelGenerator(copy);
 		ServiceInstrumentationPointInstrumenter sipIns = new ServiceInstrumentationPointInstrumenter(gen);
+		Set<CompilationUnit> instrumentedUnits = new HashSet<>();
 
 		for (ServiceInstrumentationPoint sip : im.getPoints()) {
 			LOGGER.debug("Instrumenting the service " + sip.getService().getDescribedService__SEFF().getEntityName());
@@ -55,16 +86,116 @@ public final class CodeInstrumenter {
 					.iterator().next();
 			Method copiedService = findCopiedEObject(targetSet, service);
 			ActionStatementMapping statementMap = createActionStatementMapping(targetSet, sip, cm);
+			addAffectedCompilationUnits(instrumentedUnits, copiedService, statementMap);
 			sipIns.instrument(copiedService, sip, statementMap, adaptive);
 		}
 
 		LOGGER.debug("Saving the instrumented code.");
-		ModelSaverInRepositoryCopy.saveModels(targetSet, copy, output, input, gen);
+		try (var phase = PhaseProfiler.start(PhaseProfiler.SAVING)) {
+			ModelSaverInRepositoryCopy.saveModels(targetSet, copy, onlyChangedFiles ? instrumentedUnits : null,
+					output, input, gen);
+		}
 		LOGGER.debug("Finished the instrumentation.");
 
 		return copy;
 	}
 
+	/**
+	 * Instruments the source code without copying the Java model. The
+	 * instrumentation is applied to the given Java model while its changes are
+	 * recorded. Only the compilation units containing instrumented services are
+	 * changed and printed into the copy of the repository. Afterwards, the
+	 * recorded changes are reverted so that the Java model is in its original
+	 * state again.
+	 * 
+	 * @param im        the instrumentation model.
+	 * @param cm        the correspondence model.
+	 * @param javaModel the Java model to instrument. It is not changed after the
+	 *                  instrumentation.
+	 * @param output    the directory for the instrumented code.
+	 * @param input     the directory of the original code.
+	 * @param adaptive  true if only active instrumentation points shall be
+	 *                  instrumented. false otherwise.
+	 */
+	public static void instrumentInPlace(InstrumentationModel im, CorrespondenceModel cm, Resource javaModel,
+			Path output, Path input, boolean adaptive) {
+		instrumentInPlace(im, cm, javaModel, output, input, adaptive, false);
+	}
+
+	/**
+	 * Instruments the source code without copying the Java model.
+	 * 
+	 * @param im        the instrumentation model.
+	 * @param cm        the correspondence model.
+	 * @param javaModel the Java model to instrument. It is not changed after the
+	 *                  instrumentation.
+	 * @param output    the directory for the instrumented code.
+	 * @param input     the directory of the original code.
+	 * @param adaptive  true if only active instrumentation points shall be
+	 *                  instrumented. false otherwise.
+	 * @param linkFiles true if the unchanged files shall be linked instead of
+	 *                  copied.
+	 * @see #instrumentInPlace(InstrumentationModel, CorrespondenceModel, Resource, Path, Path, boolean)
+	 */
+	public static void instrumentInPlace(InstrumentationModel im, CorrespondenceModel cm, Resource javaModel,
+			Path output, Path input, boolean adaptive, boolean linkFiles) {
+		LOGGER.debug("Executing the " + (adaptive ? "adaptive" : "full") + " in-place instrumentation.");
+		LOGGER.debug("Generating the minimal monitoring environment.");
+		MinimalMonitoringEnvironmentModelGenerator gen = new MinimalMonitoringEnvironmentModelGenerator(javaModel);
+		ServiceInstrumentationPointInstrumenter sipIns = new ServiceInstrumentationPointInstrumenter(gen);
+
+		Map<ServiceInstrumentationPoint, Method> services = new LinkedHashMap<>();
+		Map<ServiceInstrumentationPoint, ActionStatementMapping> statementMaps = new HashMap<>();
+		Set<CompilationUnit> affectedUnits = new LinkedHashSet<>();
+		for (ServiceInstrumentationPoint sip : im.getPoints()) {
+			Method service = CorrespondenceModelUtil.getCorrespondingEObjects(cm, sip.getService(), Method.class)
+					.iterator().next();
+			ActionStatementMapping statementMap = createActionStatementMapping(null, sip, cm);
+			services.put(sip, service);
+			statementMaps.put(sip, statementMap);
+			addAffectedCompilationUnits(affectedUnits, service, statementMap);
+		}
+
+		ChangeRecorder recorder = new ChangeRecorder();
+		recorder.beginRecording(affectedUnits);
+		try {
+			for (var entry : services.entrySet()) {
+				ServiceInstrumentationPoint sip = entry.getKey();
+				LOGGER.debug("Instrumenting the service "
+						+ sip.getService().getDescribedService__SEFF().getEntityName());
+				sipIns.instrument(entry.getValue(), sip, statementMaps.get(sip), adaptive);
+			}
+
+			LOGGER.debug("Saving the " + affectedUnits.size() + " instrumented compilation units.");
+			try (var phase = PhaseProfiler.start(PhaseProfiler.SAVING)) {
+				ModelSaverInRepositoryCopy.saveCompilationUnits(affectedUnits, output, input, gen, linkFiles);
+			}
+		} finally {
+			LOGGER.debug("Reverting the instrumentation in the Java model.");
+			ChangeDescription changes = recorder.endRecording();
+			recorder.dispose();
+			changes.apply();
+		}
+		LOGGER.debug("Finished the instrumentation.");
+	}
+
+	private static void addAffectedCompilationUnits(Set<CompilationUnit> units, Method service,
+			ActionStatementMapping statementMap) {
+		addContainingCompilationUnit(units, service);
+		statementMap.values().forEach(stat -> addContainingCompilationUnit(units, stat));
+		statementMap.getAbstractActionToLastStatementMapping().values()
+				.forEach(stat -> addContainingCompilationUnit(units, stat));
+	}
+
+	private static void addContainingCompilationUnit(Set<CompilationUnit> units, EObject element) {
+		if (element instanceof Commentable) {
+			CompilationUnit cu = ((Commentable) element).getContainingCompilationUnit();
+			if (cu != null) {
+				units.add(cu);
+			}
+		}
+	}
+
 	private static ActionStatementMapping createActionStatementMapping(ResourceSet copyContainer,
 			ServiceInstrumentationPoint sip, CorrespondenceModel cm) {
 		ActionStatementMapping statementMap = new ActionStatementMapping();
@@ -90,8 +221,12 @@ public final class CodeInstrumenter {
 		return statementMap;
 	}
 
+	// Returns the original element if there is no copy container.
 	@SuppressWarnings("unchecked")
 	private static <T extends EObject> T findCopiedEObject(ResourceSet copyContainer, T original) {
+		if (copyContainer == null) {
+			return original;
+		}
 		EObject potResult = copyContainer.getEObject(EcoreUtil.getURI(original), false);
 		if (potResult != null && original.eClass().isInstance(potResult)) {
 			return (T) potResult;
@@ -1,16 +1,15 @@
 package cipm.consistency.designtime.instrumentation2;
 
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.apache.commons.io.FileUtils;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -22,6 +21,7 @@ import org.emftext.language.java.containers.JavaRoot;
 import org.emftext.language.java.containers.Origin;
 
 import cipm.consistency.designtime.instrumentation2.instrumenter.MinimalMonitoringEnvironmentModelGenerator;
+import jamopp.printer.JaMoPPPrinter;
 
 /**
  * Saves the instrumented model by merging it with the original sources.
@@ -34,20 +34,28 @@ public final class ModelSaverInRepositoryCopy {
 
 	static void saveModels(ResourceSet copyContainer, Resource copiedResource, Path target, Path source,
 			MinimalMonitoringEnvironmentModelGenerator monitoringEnv) {
+		saveModels(copyContainer, copiedResource, null, target, source, monitoringEnv);
+	}
+
+	/**
+	 * Saves the instrumented model by merging it with the original sources.
+	 * 
+	 * @param copyContainer     the ResourceSet containing the instrumented model.
+	 * @param copiedResource    the Resource with the instrumented model.
+	 * @param instrumentedUnits the compilation units which were instrumented. If
+	 *                          null, all compilation units are saved into a full
+	 *                          copy of the repository. Otherwise, only these
+	 *                          compilation units are saved, and the unchanged
+	 *                          files are linked.
+	 * @param target            the directory for the copy of the repository.
+	 * @param source            the directory of the original repository.
+	 * @param monitoringEnv     the monitoring environment.
+	 */
+	static void saveModels(ResourceSet copyContainer, Resource copiedResource,
+			Set<? extends JavaRoot> instrumentedUnits, Path target, Path source,
+			MinimalMonitoringEnvironmentModelGenerator monitoringEnv) {
 		try {
-			// Copy the repository.
-			FileUtils.copyDirectory(source.toFile(), target.toFile(), new FileFilter() {
-				@Override
-				public boolean accept(File pathname) {
-					return !pathname.getName().equals(".git");
-				}});
-			var origJavaFiles = Files.walk(target).filter(Files::isRegularFile)
-					.map(Path::toAbsolutePath).filter(p -> {
-				String abs = p.toString();
-				return abs.endsWith(LogicalJavaURIGenerator.JAVA_FILE_EXTENSION)
-						&& !(abs.matches(".*?/src/test/java/.*?"))
-						&& !(abs.matches(".*?/utilities/tools.descartes.teastore.kieker/.*?"));
-			}).collect(Collectors.toList());
+			var repositoryCopy = RepositoryCopy.create(source, target, instrumentedUnits != null);
 			// Provide Resources for the monitoring environment.
 			Resource monRes = copyContainer.createResource(URI.createURI("empty:/ThreadMonitoringController.java"));
 			monRes.getContents().add(monitoringEnv.threadMonitoringControllerCU);
@@ -57,26 +65,25 @@ public final class ModelSaverInRepositoryCopy {
 			for (EObject root : new ArrayList<>(copiedResource.getContents())) {
 				JavaRoot cu = (JavaRoot) root;
 				// All Java models originating from a file are printed.
-				if (cu.getOrigin() == Origin.FILE) {
+				if (cu.getOrigin() == Origin.FILE && (instrumentedUnits == null || instrumentedUnits.contains(cu))) {
 					String lastPart = createLastPathPart(cu);
-					for (Path path : origJavaFiles) {
+					for (Path path : repositoryCopy.findJavaFiles(lastPart)) {
 						// Relate the Java model to its original file.
 						String absPath = path.toString();
-						if (absPath.endsWith(lastPart)) {
-							// Because all Java models are contained within one Resource,
-							// a new Resource is
-							// created for every model to be printed.
-							Resource newResource = copyContainer.createResource(
-									URI.createFileURI(path.toString()));
-							newResource.getContents().add(cu);
-							newResource.save(null);
-							copiedResource.getContents().add(cu);
-							checkMonitoringEnvironmentPrinting(injectedProjects,
-									absPath.substring(0, absPath.length()
-											- lastPart.length()), monRes,
-									monitoringEnv.threadMonitoringControllerCU, serviceRes,
-									monitoringEnv.serviceParametersCU);
-						}
+						// Because all Java models are contained within one Resource,
+						// a new Resource is
+						// created for every model to be printed.
+						Resource newResource = copyContainer.createResource(
+								URI.createFileURI(path.toString()));
+						newResource.getContents().add(cu);
+						repositoryCopy.prepareForWriting(path);
+						newResource.save(null);
+						copiedResource.getContents().add(cu);
+						checkMonitoringEnvironmentPrinting(repositoryCopy, injectedProjects,
+								absPath.substring(0, absPath.length()
+										- lastPart.length()), monRes,
+								monitoringEnv.threadMonitoringControllerCU, serviceRes,
+								monitoringEnv.serviceParametersCU);
 					}
 				}
 			}
@@ -86,6 +93,54 @@ public final class ModelSaverInRepositoryCopy {
 		}
 	}
 
+	/**
+	 * Saves instrumented compilation units without moving them into new Resources.
+	 * The repository is copied, and only the given compilation units are printed
+	 * over their original files in the copy. All other files remain unchanged.
+	 * 
+	 * @param units         the instrumented compilation units.
+	 * @param target        the directory for the copy of the repository.
+	 * @param source        the directory of the original repository.
+	 * @param monitoringEnv the monitoring environment to add to every project
+	 *                      with an instrumented compilation unit.
+	 * @param linkFiles     true if the unchanged files shall be linked instead of
+	 *                      copied.
+	 */
+	static void saveCompilationUnits(Collection<? extends JavaRoot> units, Path target, Path source,
+			MinimalMonitoringEnvironmentModelGenerator monitoringEnv, boolean linkFiles) {
+		try {
+			var repositoryCopy = RepositoryCopy.create(source, target, linkFiles);
+			Set<String> injectedProjects = new HashSet<>();
+			for (JavaRoot cu : units) {
+				if (cu.getOrigin() != Origin.FILE) {
+					continue;
+				}
+				String lastPart = createLastPathPart(cu);
+				for (Path path : repositoryCopy.findJavaFiles(lastPart)) {
+					String absPath = path.toString();
+					printModel(repositoryCopy, cu, path);
+					String project = absPath.substring(0, absPath.length() - lastPart.length());
+					if (injectedProjects.add(project)) {
+						printModel(repositoryCopy, monitoringEnv.threadMonitoringControllerCU,
+								Path.of(project + createLastPathPart(monitoringEnv.threadMonitoringControllerCU)));
+						printModel(repositoryCopy, monitoringEnv.serviceParametersCU,
+								Path.of(project + createLastPathPart(monitoringEnv.serviceParametersCU)));
+					}
+				}
+			}
+		} catch (IOException e) {
+		}
+	}
+
+	// Prints a Java model into a file without changing its containment.
+	private static void printModel(RepositoryCopy repositoryCopy, JavaRoot cu, Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		repositoryCopy.prepareForWriting(file);
+		try (OutputStream stream = Files.newOutputStream(file)) {
+			JaMoPPPrinter.print(cu, stream);
+		}
+	}
+
 	// Converts a Java model to a file name.
 	private static String createLastPathPart(JavaRoot cu) {
 		StringBuilder builder = new StringBuilder();
@@ -108,13 +163,17 @@ public final class ModelSaverInRepositoryCopy {
 	}
 
 	// Checks if the monitoring environment can be printed.
-	private static void checkMonitoringEnvironmentPrinting(Set<String> injectedProjects, String project,
-			Resource monitoringRes, CompilationUnit monitoringCU, Resource serviceRes, CompilationUnit serviceCU)
-			throws IOException {
+	private static void checkMonitoringEnvironmentPrinting(RepositoryCopy repositoryCopy,
+			Set<String> injectedProjects, String project, Resource monitoringRes, CompilationUnit monitoringCU,
+			Resource serviceRes, CompilationUnit serviceCU) throws IOException {
 		if (!injectedProjects.contains(project)) {
-			monitoringRes.setURI(URI.createFileURI(project + createLastPathPart(monitoringCU)));
+			Path monitoringFile = Path.of(project + createLastPathPart(monitoringCU));
+			repositoryCopy.prepareForWriting(monitoringFile);
+			monitoringRes.setURI(URI.createFileURI(monitoringFile.toString()));
 			monitoringRes.save(null);
-			serviceRes.setURI(URI.createFileURI(project + createLastPathPart(serviceCU)));
+			Path serviceFile = Path.of(project + createLastPathPart(serviceCU));
+			repositoryCopy.prepareForWriting(serviceFile);
+			serviceRes.setURI(URI.createFileURI(serviceFile.toString()));
 			serviceRes.save(null);
 			injectedProjects.add(project);
 		}
@@ -0,0 +1,140 @@
+package cipm.consistency.designtime.instrumentation2;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+import org.emftext.language.java.LogicalJavaURIGenerator;
+
+/**
+ * A copy of a repository in which instrumented Java files are written. The Java
+ * files of the copy are indexed by their file name so that the file of a
+ * compilation unit is found without scanning all files.
+ *
+ * <p>
+ * Optionally, the files of the copy are hard links to the original files. In
+ * this case, a file needs to be prepared with
+ * {@link #prepareForWriting(Path)} before it is written so that the original
+ * file is not changed.
+ * </p>
+ */
+final class RepositoryCopy {
+	private static final Logger LOGGER = Logger.getLogger("cipm." + RepositoryCopy.class.getSimpleName());
+	private static final String GIT_DIRECTORY = ".git";
+	private final boolean linked;
+	private final Map<String, List<Path>> javaFilesByName = new HashMap<>();
+
+	private RepositoryCopy(boolean linked) {
+		this.linked = linked;
+	}
+
+	/**
+	 * Copies a repository.
+	 *
+	 * @param source    the directory of the original repository.
+	 * @param target    the directory for the copy.
+	 * @param linkFiles true if the files in the copy shall be hard links to the
+	 *                  original files if possible. false if they shall be copied.
+	 * @return the copy.
+	 * @throws IOException if the repository cannot be copied.
+	 */
+	static RepositoryCopy create(Path source, Path target, boolean linkFiles) throws IOException {
+		RepositoryCopy copy = new RepositoryCopy(linkFiles);
+		if (linkFiles) {
+			linkDirectory(source, target);
+		} else {
+			FileUtils.copyDirectory(source.toFile(), target.toFile(), new FileFilter() {
+				@Override
+				public boolean accept(File pathname) {
+					return !pathname.getName().equals(GIT_DIRECTORY);
+				}});
+		}
+		copy.indexJavaFiles(target);
+		return copy;
+	}
+
+	private static void linkDirectory(Path source, Path target) throws IOException {
+		Path absSource = source.toAbsolutePath();
+		Path absTarget = target.toAbsolutePath();
+		Files.walkFileTree(absSource, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				if (dir.getFileName() != null && dir.getFileName().toString().equals(GIT_DIRECTORY)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				Files.createDirectories(absTarget.resolve(absSource.relativize(dir)));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (!file.getFileName().toString().equals(GIT_DIRECTORY)) {
+					Path link = absTarget.resolve(absSource.relativize(file));
+					try {
+						Files.createLink(link, file);
+					} catch (IOException | UnsupportedOperationException e) {
+						LOGGER.debug("Could not link " + file + ". It is copied.");
+						Files.copy(file, link, StandardCopyOption.REPLACE_EXISTING,
+								StandardCopyOption.COPY_ATTRIBUTES);
+					}
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void indexJavaFiles(Path target) throws IOException {
+		try (var paths = Files.walk(target)) {
+			for (Path p : paths.filter(Files::isRegularFile).map(Path::toAbsolutePath).filter(p -> {
+				String abs = p.toString();
+				return abs.endsWith(LogicalJavaURIGenerator.JAVA_FILE_EXTENSION)
+						&& !(abs.matches(".*?/src/test/java/.*?"))
+						&& !(abs.matches(".*?/utilities/tools.descartes.teastore.kieker/.*?"));
+			}).collect(Collectors.toList())) {
+				javaFilesByName.computeIfAbsent(p.getFileName().toString(), k -> new ArrayList<>()).add(p);
+			}
+		}
+	}
+
+	/**
+	 * Finds the Java files in the copy whose path ends with a given relative path.
+	 *
+	 * @param lastPathPart the relative path which starts with a separator and
+	 *                     ends with the file name.
+	 * @return the absolute paths of the found files.
+	 */
+	List<Path> findJavaFiles(String lastPathPart) {
+		String fileName = lastPathPart.substring(lastPathPart.lastIndexOf(File.separator) + 1);
+		List<Path> candidates = javaFilesByName.get(fileName);
+		if (candidates == null) {
+			return List.of();
+		}
+		return candidates.stream().filter(p -> p.toString().endsWith(lastPathPart)).collect(Collectors.toList());
+	}
+
+	/**
+	 * Prepares a file in the copy for writing. If the file is a hard link, it is
+	 * removed so that the original file is not changed by the writing.
+	 *
+	 * @param file the file to write.
+	 * @throws IOException if the file cannot be prepared.
+	 */
+	void prepareForWriting(Path file) throws IOException {
+		if (linked) {
+			Files.deleteIfExists(file);
+		}
+	}
+}
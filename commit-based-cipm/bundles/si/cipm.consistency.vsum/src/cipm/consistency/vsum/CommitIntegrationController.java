@@ -3,16 +3,12 @@ package cipm.consistency.vsum;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
@@ -21,13 +17,16 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.jgit.api.errors.GitAPIException;
 
+import cipm.consistency.commitintegration.ArchiveEntryRemover;
 import cipm.consistency.commitintegration.CommitChangePropagator;
 import cipm.consistency.commitintegration.ExternalCommandExecutionUtils;
 import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
 import cipm.consistency.commitintegration.settings.SettingKeys;
+import cipm.consistency.cpr.javapcm.additional.validation.ExternalCallCallTargetPairCollectorReaderWriter;
 import cipm.consistency.cpr.javapcm.additional.validation.ExternalCallEmptyTargetFiller;
 import cipm.consistency.designtime.instrumentation2.CodeInstrumenter;
 import cipm.consistency.tools.evaluation.data.EvaluationDataContainer;
+import cipm.consistency.tools.evaluation.data.PhaseProfiler;
 import tools.vitruv.framework.propagation.ChangePropagationSpecification;
 
 /**
@@ -97,54 +96,71 @@ public class CommitIntegrationController {
 		}
 		
 		long overallTimer = System.currentTimeMillis();
-		instrumentedModel = null;
-		Path insDir = this.prop.getJavaFileSystemLayout().getInstrumentationCopy();
-		removeInstrumentationDirectory(insDir);
+		boolean result;
+		try (var commitPhase = PhaseProfiler.start(PhaseProfiler.COMMIT)) {
+			instrumentedModel = null;
+			Path insDir = this.prop.getJavaFileSystemLayout().getInstrumentationCopy();
+			removeInstrumentationDirectory(insDir);
 		
-		// Deactivate all action instrumentation points.
-		this.facade.getInstrumentationModel().getPoints().forEach(sip -> 
-			sip.getActionInstrumentationPoints().forEach(aip -> aip.setActive(false)));
-		this.facade.getInstrumentationModel().eResource().save(null);
+			// Deactivate all action instrumentation points.
+			this.facade.getInstrumentationModel().getPoints().forEach(sip -> 
+				sip.getActionInstrumentationPoints().forEach(aip -> aip.setActive(false)));
+			this.facade.getInstrumentationModel().eResource().save(null);
 		
-		long fineTimer = System.currentTimeMillis();
+			long fineTimer = System.currentTimeMillis();
 		
-		// Propagate the changes.
-		boolean result = prop.propagateChanges(oldCommit, newCommit);
+			// Propagate the changes.
+			result = prop.propagateChanges(oldCommit, newCommit);
 		
-		fineTimer = System.currentTimeMillis() - fineTimer;
-		EvaluationDataContainer.getGlobalContainer().getExecutionTimes()
-				.setChangePropagationTime(fineTimer);
+			fineTimer = System.currentTimeMillis() - fineTimer;
+			EvaluationDataContainer.getGlobalContainer().getExecutionTimes()
+					.setChangePropagationTime(fineTimer);
 		
-		if (result) {
-			@SuppressWarnings("restriction")
-			ExternalCallEmptyTargetFiller filler = new ExternalCallEmptyTargetFiller(
-					facade.getVSUM().getCorrespondenceModel(),
-					facade.getPCMWrapper().getRepository(),
-					prop.getJavaFileSystemLayout().getExternalCallTargetPairsFile());
-			filler.fillExternalCalls();
+			if (result) {
+				@SuppressWarnings("restriction")
+				ExternalCallEmptyTargetFiller filler = new ExternalCallEmptyTargetFiller(
+						facade.getVSUM().getCorrespondenceModel(),
+						facade.getPCMWrapper().getRepository(),
+						prop.getJavaFileSystemLayout().getExternalCallTargetPairsFile());
+				String rulesFile = CommitIntegrationSettingsContainer.getSettingsContainer()
+						.getProperty(SettingKeys.PATH_TO_EXTERNAL_CALL_TARGET_RULES);
+				if (rulesFile != null) {
+					filler.setRules(ExternalCallCallTargetPairCollectorReaderWriter.readRules(Paths.get(rulesFile)));
+				}
+				filler.setBatchMode(CommitIntegrationSettingsContainer.getSettingsContainer()
+						.getPropertyAsBoolean(SettingKeys.PERFORM_EXTERNAL_CALL_RESOLUTION_IN_BATCH_MODE));
+				filler.fillExternalCalls();
 			
-			boolean hasChangedIM = false;
-			for (var sip : this.facade.getInstrumentationModel().getPoints()) {
-				for (var aip : sip.getActionInstrumentationPoints()) {
-					hasChangedIM |= aip.isActive();
+				boolean hasChangedIM = false;
+				for (var sip : this.facade.getInstrumentationModel().getPoints()) {
+					for (var aip : sip.getActionInstrumentationPoints()) {
+						hasChangedIM |= aip.isActive();
+					}
 				}
-			}
-			if (!hasChangedIM) {
-				LOGGER.debug("No instrumentation points changed.");
-			}
-			boolean fullInstrumentation = CommitIntegrationSettingsContainer.getSettingsContainer()
-					.getPropertyAsBoolean(SettingKeys.PERFORM_FULL_INSTRUMENTATION);
+				if (!hasChangedIM) {
+					LOGGER.debug("No instrumentation points changed.");
+				}
+				boolean fullInstrumentation = CommitIntegrationSettingsContainer.getSettingsContainer()
+						.getPropertyAsBoolean(SettingKeys.PERFORM_FULL_INSTRUMENTATION);
 			
-			// Instrument the code only if there is a new action instrumentation point or if a full instrumentation
-			// shall be performed.
-			if (hasChangedIM || fullInstrumentation) {
-				fineTimer = System.currentTimeMillis();
-				Resource insModel = performInstrumentation(insDir, fullInstrumentation);
-				fineTimer = System.currentTimeMillis() - fineTimer;
-				EvaluationDataContainer.getGlobalContainer().getExecutionTimes()
-						.setInstrumentationTime(fineTimer);
-				if (storeInstrumentedModel) {
-					this.instrumentedModel = insModel;
+				// Instrument the code only if there is a new action instrumentation point or if a full instrumentation
+				// shall be performed.
+				if (hasChangedIM || fullInstrumentation) {
+					fineTimer = System.currentTimeMillis();
+					try (var phase = PhaseProfiler.start(PhaseProfiler.INSTRUMENTATION)) {
+						if (storeInstrumentedModel || !CommitIntegrationSettingsContainer.getSettingsContainer()
+								.getPropertyAsBoolean(SettingKeys.PERFORM_IN_PLACE_INSTRUMENTATION)) {
+							Resource insModel = performInstrumentation(insDir, fullInstrumentation);
+							if (storeInstrumentedModel) {
+								this.instrumentedModel = insModel;
+							}
+						} else {
+							performInPlaceInstrumentation(insDir, fullInstrumentation);
+						}
+					}
+					fineTimer = System.currentTimeMillis() - fineTimer;
+					EvaluationDataContainer.getGlobalContainer().getExecutionTimes()
+							.setInstrumentationTime(fineTimer);
 				}
 			}
 		}
@@ -183,7 +199,20 @@ public class CommitIntegrationController {
 			this.facade.getInstrumentationModel(),
 			this.facade.getVSUM().getCorrespondenceModel(),
 			javaModel, instrumentationDirectory,
-			this.prop.getJavaFileSystemLayout().getLocalJavaRepo(), !performFullInstrumentation);
+			this.prop.getJavaFileSystemLayout().getLocalJavaRepo(), !performFullInstrumentation,
+			CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.WRITE_ONLY_INSTRUMENTED_FILES));
+	}
+	
+	@SuppressWarnings("restriction")
+	private void performInPlaceInstrumentation(Path instrumentationDirectory, boolean performFullInstrumentation) {
+		CodeInstrumenter.instrumentInPlace(
+			this.facade.getInstrumentationModel(),
+			this.facade.getVSUM().getCorrespondenceModel(),
+			getJavaModelResource(), instrumentationDirectory,
+			this.prop.getJavaFileSystemLayout().getLocalJavaRepo(), !performFullInstrumentation,
+			CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsBoolean(SettingKeys.WRITE_ONLY_INSTRUMENTED_FILES));
 	}
 
 	/**
@@ -200,13 +229,7 @@ public class CommitIntegrationController {
 						.getProperty(SettingKeys.DEPLOYMENT_PATH));
 				var result = copyArtifacts(instrumentationCodeDir, deployPath);
 				LOGGER.debug("Removing the monitoring classes.");
-				result.forEach(p -> {
-					try {
-						removeMonitoringClasses(p);
-					} catch (IOException e) {
-						LOGGER.error(e);
-					}
-				});
+				removeMonitoringClasses(result);
 			} else {
 				LOGGER.debug("Could not compile the instrumented code.");
 			}
@@ -219,7 +242,9 @@ public class CommitIntegrationController {
 		String compileScript = CommitIntegrationSettingsContainer.getSettingsContainer()
 			.getProperty(SettingKeys.PATH_TO_COMPILATION_SCRIPT);
 		compileScript = new File(compileScript).getAbsolutePath();
-		return ExternalCommandExecutionUtils.runScript(insCode.toFile(), compileScript);
+		return ExternalCommandExecutionUtils.runScript(insCode.toFile(), compileScript,
+				ExternalCommandExecutionUtils.getPaths(SettingKeys.COMPILATION_SCRIPT_INPUTS),
+				ExternalCommandExecutionUtils.getPaths(SettingKeys.COMPILATION_SCRIPT_OUTPUTS)).isSuccessful();
 	}
 	
 	private List<Path> copyArtifacts(Path insCode, Path deployPath) throws IOException {
@@ -250,39 +275,13 @@ public class CommitIntegrationController {
 		return result;
 	}
 	
-	private void removeMonitoringClasses(Path file) throws IOException {
-		Map<String, String> options = new HashMap<>();
-		options.put("create", "false");
-		try (FileSystem fileSys = FileSystems.newFileSystem(file.toUri(), options)) {
-			String tmcEndPath = "cipm/consistency/bridge/monitoring/controller/ThreadMonitoringController.class";
-			String spEndPath = "cipm/consistency/bridge/monitoring/controller/ServiceParameters.class";
-			fileSys.getRootDirectories().forEach(root -> {
-				try {
-					Files.walk(root).filter(p -> {
-						String fullPath = p.toString();
-						if (fullPath.endsWith(".jar") || fullPath.endsWith(".war")
-								|| fullPath.endsWith(".zip")) {
-							try {
-								removeMonitoringClasses(p);
-							} catch (IOException e) {
-								LOGGER.error(e);
-							}
-						} else if (fullPath.endsWith(tmcEndPath) || fullPath.endsWith(spEndPath)) {
-							return true;
-						}
-						return false;
-					}).forEach(p -> {
-						try {
-							Files.delete(p);
-						} catch (IOException e) {
-							LOGGER.error(e);
-						}
-					});
-				} catch (IOException e) {
-					LOGGER.error(e);
-				}
-			});
+	private void removeMonitoringClasses(List<Path> files) {
+		List<String> patterns = CommitIntegrationSettingsContainer.getSettingsContainer()
+				.getPropertyAsList(SettingKeys.DEPLOYMENT_REMOVED_ENTRIES);
+		if (patterns.isEmpty()) {
+			patterns = ArchiveEntryRemover.MONITORING_CLASS_PATTERNS;
 		}
+		new ArchiveEntryRemover(patterns).removeEntries(files);
 	}
 	
 	/**
@@ -0,0 +1,122 @@
+package tools.vitruv.applications.pcmjava.seffstatements.code2seff.finegrained;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.emftext.language.java.statements.Statement;
+import org.palladiosimulator.pcm.seff.AbstractAction;
+import org.splevo.jamopp.diffing.similarity.SimilarityChecker;
+
+import tools.vitruv.framework.correspondence.CorrespondenceModel;
+import tools.vitruv.framework.correspondence.CorrespondenceModelUtil;
+
+/**
+ * Index of the AbstractActions of an old SEFF for the matching with the AbstractActions of a new SEFF.
+ *
+ * The statements corresponding to the old AbstractActions are queried once. The old AbstractActions are
+ * grouped by their type, and their statements are grouped by the type of the statements. Since the
+ * SimilarityChecker considers elements of different types as not similar, a new AbstractAction is only
+ * compared to old AbstractActions of the same type, and its statements are only compared to statements
+ * of the same type.
+ */
+class AbstractActionIndex {
+	private final Map<Class<?>, List<IndexedAction>> actionsByType = new HashMap<>();
+	private final SimilarityChecker similarityChecker;
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param oldAbstractActions the AbstractActions of the old SEFF in their order.
+	 * @param ci                 the correspondence model which contains the
+	 *                           correspondences between the old AbstractActions and
+	 *                           statements.
+	 * @param similarityChecker  the checker for the similarity of statements.
+	 */
+	AbstractActionIndex(List<AbstractAction> oldAbstractActions, CorrespondenceModel ci,
+			SimilarityChecker similarityChecker) {
+		this.similarityChecker = similarityChecker;
+		for (AbstractAction oldAbstractAction : oldAbstractActions) {
+			Set<Statement> statements = CorrespondenceModelUtil.getCorrespondingEObjects(ci, oldAbstractAction,
+					Statement.class);
+			actionsByType.computeIfAbsent(oldAbstractAction.getClass(), k -> new ArrayList<>())
+					.add(new IndexedAction(oldAbstractAction, groupByType(statements)));
+		}
+	}
+
+	private static Map<Class<?>, List<Statement>> groupByType(Collection<Statement> statements) {
+		Map<Class<?>, List<Statement>> statementsByType = new HashMap<>();
+		if (statements != null) {
+			for (Statement statement : statements) {
+				statementsByType.computeIfAbsent(statement.getClass(), k -> new ArrayList<>()).add(statement);
+			}
+		}
+		return statementsByType;
+	}
+
+	/**
+	 * Matches a new AbstractAction with the first old AbstractAction which has similar statements. If
+	 * all statements of the new AbstractAction are similar, the matching is added as unmodified.
+	 * Otherwise, it is added as modified.
+	 *
+	 * @param newAbstractAction           the new AbstractAction.
+	 * @param newAbstractActionStatements the statements of the new AbstractAction.
+	 * @param difference                  the difference to which the matching is
+	 *                                    added.
+	 */
+	void match(AbstractAction newAbstractAction, List<Statement> newAbstractActionStatements,
+			ResourceDemandingBehaviourDiff difference) {
+		List<IndexedAction> candidates = actionsByType.get(newAbstractAction.getClass());
+		if (candidates == null) {
+			return;
+		}
+		Map<Class<?>, List<Statement>> newStatementsByType = groupByType(newAbstractActionStatements);
+		for (IndexedAction candidate : candidates) {
+			int similarStatementsCount = this.countSimilarStatements(newStatementsByType, candidate);
+			if (newAbstractActionStatements.size() == similarStatementsCount) {
+				difference.getUnmodifiedAbstractActions()
+						.add(new AbstractActionMatching(newAbstractAction, candidate.action));
+				return;
+			} else if (similarStatementsCount != 0) {
+				difference.getModifiedAbstractActions()
+						.add(new AbstractActionMatching(newAbstractAction, candidate.action));
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of similar pairs of new statements and statements of an old AbstractAction.
+	 */
+	private int countSimilarStatements(Map<Class<?>, List<Statement>> newStatementsByType,
+			IndexedAction candidate) {
+		int similarStatementsCount = 0;
+		for (Map.Entry<Class<?>, List<Statement>> entry : newStatementsByType.entrySet()) {
+			List<Statement> oldStatements = candidate.statementsByType.get(entry.getKey());
+			if (oldStatements == null) {
+				continue;
+			}
+			for (Statement newStatement : entry.getValue()) {
+				for (Statement oldStatement : oldStatements) {
+					if (Boolean.TRUE.equals(this.similarityChecker.isSimilar(newStatement, oldStatement))) {
+						similarStatementsCount++;
+					}
+				}
+			}
+		}
+		return similarStatementsCount;
+	}
+
+	private static class IndexedAction {
+		private final AbstractAction action;
+		private final Map<Class<?>, List<Statement>> statementsByType;
+
+		IndexedAction(AbstractAction action, Map<Class<?>, List<Statement>> statementsByType) {
+			this.action = action;
+			this.statementsByType = statementsByType;
+		}
+	}
+}
@@ -1,10 +1,9 @@
 package tools.vitruv.applications.pcmjava.seffstatements.code2seff.finegrained;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.emftext.language.java.members.Method;
@@ -28,7 +27,6 @@ import de.uka.ipd.sdq.identifier.Identifier;
 import tools.vitruv.applications.pcmjava.seffstatements.code2seff.BasicComponentFinding;
 import tools.vitruv.applications.pcmjava.seffstatements.code2seff.extended.ExtendedClassMethodBodyChangedTransformation;
 import tools.vitruv.framework.correspondence.CorrespondenceModel;
-import tools.vitruv.framework.correspondence.CorrespondenceModelUtil;
 import tools.vitruv.framework.userinteraction.UserInteractor;
 
 /**
@@ -115,7 +113,7 @@ public class FineGrainedClassMethodBodyChangedTransformation extends ExtendedCla
 		}
 
 		// Find modified AbstractActions.
-		this.matchNewAndOldSeff(oldSEFF, newSEFF, ci);
+		this.matchNewAndOldSeff(listOldAbstractActions, newSEFF, ci);
 
 		// Find deleted AbstractActions.
 		for (AbstractAction oldAbstractAction : listOldAbstractActions) {
@@ -142,39 +140,19 @@ public class FineGrainedClassMethodBodyChangedTransformation extends ExtendedCla
 		return listAbstractActions;
 	}
 
-	private void matchNewAndOldSeff(ResourceDemandingBehaviour oldSEFF, ResourceDemandingBehaviour newSEFF,
+	private void matchNewAndOldSeff(List<AbstractAction> oldAbstractActions, ResourceDemandingBehaviour newSEFF,
 			CorrespondenceModel ci) {
 
-		List<AbstractAction> oldAbstractActions = this.getRelevantAbstractActions(oldSEFF);
+		AbstractActionIndex oldActionIndex = new AbstractActionIndex(oldAbstractActions, ci, this.similarityChecker);
 		Map<AbstractAction, List<Statement>> newSeffStatements = this.getNewSeffElementStatements(newSEFF);
 
 		for (Map.Entry<AbstractAction, List<Statement>> entry : newSeffStatements.entrySet()) {
-			AbstractAction newAbstractAction = entry.getKey();
-			List<Statement> newAbstractActionStatements = entry.getValue();
-
-			for (AbstractAction oldAbstractAction : oldAbstractActions) {
-				// Get corresponding statements for old AbstractAction.
-				Set<Statement> oldAbstractActionStatements = CorrespondenceModelUtil.getCorrespondingEObjects(ci,
-						oldAbstractAction, Statement.class);
-
-				int similarStatementsCount = this.compareAbstractActions(newAbstractAction, oldAbstractAction,
-						newAbstractActionStatements, oldAbstractActionStatements);
-
-				if (newAbstractActionStatements.size() == similarStatementsCount) {
-					rdbDifference.getUnmodifiedAbstractActions()
-							.add(new AbstractActionMatching(newAbstractAction, oldAbstractAction));
-					break;
-				} else if (similarStatementsCount != 0) {
-					rdbDifference.getModifiedAbstractActions()
-							.add(new AbstractActionMatching(newAbstractAction, oldAbstractAction));
-					break;
-				}
-			}
+			oldActionIndex.match(entry.getKey(), entry.getValue(), rdbDifference);
 		}
 	}
 
 	private Map<AbstractAction, List<Statement>> getNewSeffElementStatements(ResourceDemandingBehaviour newSEFF) {
-		Map<AbstractAction, List<Statement>> newSeffStatements = new HashMap<>();
+		Map<AbstractAction, List<Statement>> newSeffStatements = new LinkedHashMap<>();
 		List<SeffElementSourceCodeLink> seffStatementLinks = this.getSourceCodeDecoratorRepository()
 				.getSeffElementsSourceCodeLinks();
 		for (SeffElementSourceCodeLink seffStatementLink : seffStatementLinks) {
@@ -184,35 +162,6 @@ public class FineGrainedClassMethodBodyChangedTransformation extends ExtendedCla
 		return newSeffStatements;
 	}
 
-	private int compareAbstractActions(AbstractAction newAbstractAction, AbstractAction oldAbstractAction,
-			List<Statement> newAbstractActionStatements, Set<Statement> oldAbstractActionStatements) {
-		if (oldAbstractAction.getClass() != newAbstractAction.getClass()) {
-			return 0;
-		} else {
-			// Compare statements.
-			return this.compareStatements(newAbstractActionStatements, oldAbstractActionStatements);
-		}
-	}
-
-	/**
-	 * Returns the number of similar statements.
-	 * 
-	 * @param newStatements statements of the new method.
-	 * @param oldStatements statements of the old method.
-	 * @return the number of similar statements.
-	 */
-	private int compareStatements(List<Statement> newStatements, Set<Statement> oldStatements) {
-		int similarStatementsCount = 0;
-		for (Statement newStatement : newStatements) {
-			for (Statement oldStatement : oldStatements) {
-				if (this.similarityChecker.isSimilar(newStatement, oldStatement)) {
-					similarStatementsCount++;
-				}
-			}
-		}
-		return similarStatementsCount;
-	}
-
 	private void mergeDifferences(ResourceDemandingBehaviour rdBehavior, ResourceDemandingBehaviour newSeff) {
 		final List<AbstractAction> steps = rdBehavior.getSteps_Behaviour();
 
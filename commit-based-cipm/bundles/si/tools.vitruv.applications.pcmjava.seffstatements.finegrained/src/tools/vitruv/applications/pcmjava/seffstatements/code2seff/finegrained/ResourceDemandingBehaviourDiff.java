@@ -1,7 +1,9 @@
 package tools.vitruv.applications.pcmjava.seffstatements.code2seff.finegrained;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.palladiosimulator.pcm.seff.AbstractAction;
 
@@ -16,6 +18,10 @@ public class ResourceDemandingBehaviourDiff {
 	private List<AbstractAction> addedAbstractActions;
 	private List<AbstractActionMatching> modifiedAbstractActions;
 	private List<AbstractActionMatching> unmodifiedAbstractActions;
+	private final Map<AbstractAction, AbstractActionMatching> newActionMatchings = new IdentityHashMap<>();
+	private final Map<AbstractAction, AbstractActionMatching> oldActionMatchings = new IdentityHashMap<>();
+	private int indexedModifiedCount = -1;
+	private int indexedUnmodifiedCount = -1;
 	
 	public ResourceDemandingBehaviourDiff() {
 		deletedAbstractActions =  new ArrayList<>();
@@ -41,44 +47,38 @@ public class ResourceDemandingBehaviourDiff {
 	}
 	
 	public boolean hasOldAbstractActionMatching(AbstractAction oldAbstractAction) {
-		for (AbstractActionMatching matching : getModifiedAbstractActions()) {
-			if (oldAbstractAction == matching.getOldAbstractAction()) {
-				return true;
-			}
-		}
-		for (AbstractActionMatching matching : getUnmodifiedAbstractActions()) {
-			if (oldAbstractAction == matching.getOldAbstractAction()) {
-				return true;
-			}
-		}
-		return false;
+		updateMatchingIndex();
+		return oldActionMatchings.containsKey(oldAbstractAction);
 	}
 	
 	public boolean hasNewAbstractActionMatching(AbstractAction newAbstractAction) {
-		for (AbstractActionMatching matching : getModifiedAbstractActions()) {
-			if (matching.getNewAbstractAction() == newAbstractAction) {
-				return true;
-			}
-		}
-		for (AbstractActionMatching matching : getUnmodifiedAbstractActions()) {
-			if (matching.getNewAbstractAction() == newAbstractAction) {
-				return true;
-			}
-		}
-		return false;
+		return getNewAbstractActionMatching(newAbstractAction) != null;
 	}
 	
 	public AbstractActionMatching getNewAbstractActionMatching(AbstractAction newAction) {
-		for (var matching : getModifiedAbstractActions()) {
-			if (matching.getNewAbstractAction() == newAction) {
-				return matching;
-			}
+		updateMatchingIndex();
+		return newActionMatchings.get(newAction);
+	}
+	
+	/**
+	 * Indexes the matchings by their actions. As the lists of matchings can be modified directly, the
+	 * index is rebuilt if the number of matchings changed. Modified matchings take precedence over
+	 * unmodified matchings, and earlier matchings over later ones.
+	 */
+	private void updateMatchingIndex() {
+		if (indexedModifiedCount == modifiedAbstractActions.size()
+				&& indexedUnmodifiedCount == unmodifiedAbstractActions.size()) {
+			return;
 		}
-		for (var matching : getUnmodifiedAbstractActions()) {
-			if (matching.getNewAbstractAction() == newAction) {
-				return matching;
+		newActionMatchings.clear();
+		oldActionMatchings.clear();
+		for (List<AbstractActionMatching> matchings : List.of(modifiedAbstractActions, unmodifiedAbstractActions)) {
+			for (AbstractActionMatching matching : matchings) {
+				newActionMatchings.putIfAbsent(matching.getNewAbstractAction(), matching);
+				oldActionMatchings.putIfAbsent(matching.getOldAbstractAction(), matching);
 			}
 		}
-		return null;
+		indexedModifiedCount = modifiedAbstractActions.size();
+		indexedUnmodifiedCount = unmodifiedAbstractActions.size();
 	}
 }
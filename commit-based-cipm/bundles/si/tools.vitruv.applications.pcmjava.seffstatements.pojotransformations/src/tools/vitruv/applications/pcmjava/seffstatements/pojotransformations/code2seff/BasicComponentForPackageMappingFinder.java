@@ -5,11 +5,7 @@ import java.util.Set;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.resource.Resource;
-import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.emftext.language.java.containers.CompilationUnit;
-import org.emftext.language.java.containers.ContainersFactory;
 import org.emftext.language.java.containers.JavaRoot;
 import org.emftext.language.java.containers.Package;
 import org.emftext.language.java.members.Method;
@@ -29,16 +25,12 @@ public class BasicComponentForPackageMappingFinder implements BasicComponentFind
 
     private static final Logger LOGGER = Logger.getLogger(BasicComponentForPackageMappingFinder.class.getSimpleName());
 
-    private final ResourceSet dummyResourceSet;
-
-    public BasicComponentForPackageMappingFinder() {
-        this.dummyResourceSet = new ResourceSetImpl();
-    }
-
     /**
      * To find the BasicComponent we try to find a corresponding component for the package of the
      * method. If the class of the method is in a nested package of a component we find the matching
-     * component by finding the BasicComponent of the parent component.
+     * component by finding the BasicComponent of the parent component. The results of the
+     * correspondence queries are cached per correspondence model so that the methods of a package
+     * share the queries.
      */
     @Override
     public BasicComponent findBasicComponentForMethod(final Method newMethod, final CorrespondenceModel ci) {
@@ -48,18 +40,28 @@ public class BasicComponentForPackageMappingFinder implements BasicComponentFind
                     + " cause the compilation of the method is null");
             return null;
         }
-        final Package jaMoPPPackage = this.createPackage(cu, cu.getNamespaces());
-        final BasicComponent correspondingBc = this.findCorrespondingBasicComponentForPackage(jaMoPPPackage, ci);
+        final URI packageVuri = this.createPackageVuri(cu);
+        final BasicComponent correspondingBc = this.findCorrespondingBasicComponentForPackage(packageVuri,
+                cu.getNamespaces(), ci);
         if (null == correspondingBc) {
-            LOGGER.info("Could not find basic component for method " + newMethod + " in package " + jaMoPPPackage);
+            LOGGER.info("Could not find basic component for method " + newMethod + " in package "
+                    + String.join(".", cu.getNamespaces()));
         }
         return correspondingBc;
     }
 
-    private Package createPackage(final JavaRoot cu, final List<String> namespace) {
-        final Package jaMoPPPackage = ContainersFactory.eINSTANCE.createPackage();
-        jaMoPPPackage.getNamespaces().addAll(namespace);
-        // attach dummy resource in order to enable Tuid calculation
+    /**
+     * Discards the cached results of the correspondence queries for a correspondence model. It must be
+     * called after each propagation because the correspondences between packages and BasicComponents
+     * can change without a notification.
+     *
+     * @param ci the correspondence model.
+     */
+    public static void invalidateCache(final CorrespondenceModel ci) {
+        PackageMappingComponentCache.invalidate(ci);
+    }
+
+    private URI createPackageVuri(final JavaRoot cu) {
         final URI vuri = cu.eResource().getURI();
         String packageURIString = vuri.toString();
         final String lastSegment = vuri.lastSegment();
@@ -68,31 +70,44 @@ public class BasicComponentForPackageMappingFinder implements BasicComponentFind
             packageURIString = packageURIString.substring(0, newLength);
             packageURIString = packageURIString + "package-info.java";
         }
-        final URI packageVuri = URI.createURI(packageURIString);
-        final Resource dummyResource = this.dummyResourceSet.createResource(packageVuri);
-        dummyResource.getContents().add(jaMoPPPackage);
-        return jaMoPPPackage;
+        return URI.createURI(packageURIString);
     }
 
     /**
-     * Recursively finds the corresponding basic component for the package. Walks up the package
-     * hierarchy and returns the first matching basic component.
+     * Finds the corresponding basic component for the package. Walks up the package hierarchy and
+     * returns the first matching basic component.
      *
-     * @param jaMoPPPackage the package model to investigate.
+     * @param packageVuri the URI of the package.
+     * @param namespaces the namespaces of the package.
      * @param ci the current correspondence model.
      * @return the first matching basic component.
      */
-    private BasicComponent findCorrespondingBasicComponentForPackage(final Package jaMoPPPackage,
-            final CorrespondenceModel ci) {
-        if (0 == jaMoPPPackage.getNamespaces().size()) {
-            return null;
+    private BasicComponent findCorrespondingBasicComponentForPackage(final URI packageVuri,
+            final List<String> namespaces, final CorrespondenceModel ci) {
+        final PackageMappingComponentCache cache = PackageMappingComponentCache.get(ci);
+        for (int length = namespaces.size(); length > 0; length--) {
+            final List<String> packageNamespaces = namespaces.subList(0, length);
+            final String key = packageVuri + "#" + String.join(".", packageNamespaces);
+            BasicComponent component = cache.lookup(key);
+            if (null == component) {
+                component = this.queryBasicComponent(cache.getDummyPackage(packageVuri), packageNamespaces, ci);
+                cache.store(key, component);
+            }
+            if (null != component) {
+                return component;
+            }
         }
+        return null;
+    }
+
+    private BasicComponent queryBasicComponent(final Package jaMoPPPackage, final List<String> namespaces,
+            final CorrespondenceModel ci) {
+        jaMoPPPackage.getNamespaces().clear();
+        jaMoPPPackage.getNamespaces().addAll(namespaces);
         final Set<BasicComponent> correspondingComponents = CorrespondenceModelUtil
                 .getCorrespondingEObjects(ci, jaMoPPPackage, BasicComponent.class);
         if (null == correspondingComponents || correspondingComponents.isEmpty()) {
-
-            jaMoPPPackage.getNamespaces().remove(jaMoPPPackage.getNamespaces().size() - 1);
-            return this.findCorrespondingBasicComponentForPackage(jaMoPPPackage, ci);
+            return null;
         }
         return correspondingComponents.iterator().next();
     }
@@ -0,0 +1,144 @@
+package tools.vitruv.applications.pcmjava.seffstatements.pojotransformations.code2seff;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.emftext.language.java.containers.ContainersFactory;
+import org.emftext.language.java.containers.Package;
+import org.palladiosimulator.pcm.repository.BasicComponent;
+import org.palladiosimulator.pcm.repository.Repository;
+import org.palladiosimulator.pcm.repository.RepositoryPackage;
+
+import tools.vitruv.framework.correspondence.CorrespondenceModel;
+
+/**
+ * Caches the BasicComponents which correspond to packages for one correspondence model.
+ *
+ * The correspondence model does not notify about added or removed correspondences. In the package
+ * mapping, the correspondences between packages and BasicComponents are added and removed together with
+ * the BasicComponents. Therefore, the cache observes the components of the repository and is cleared as
+ * soon as a component is added or removed. Only found components are cached because the reactions can
+ * create the correspondence of a package during a propagation before its SEFFs are reconstructed.
+ * Correspondences can also change without a notification, e.g., if a component is reused for another
+ * package. Therefore, the cache only lives for one propagation and is discarded with
+ * {@link #invalidate(CorrespondenceModel)} afterwards.
+ */
+final class PackageMappingComponentCache {
+
+    private static final Map<CorrespondenceModel, PackageMappingComponentCache> CACHES = new WeakHashMap<>();
+
+    private final Map<String, BasicComponent> components = new HashMap<>();
+    private final ResourceSet dummyResourceSet = new ResourceSetImpl();
+    private final Map<URI, Package> dummyPackages = new HashMap<>();
+    private final AdapterImpl invalidator = new AdapterImpl() {
+        @Override
+        public void notifyChanged(final Notification notification) {
+            if (notification.getFeature() == RepositoryPackage.Literals.REPOSITORY__COMPONENTS_REPOSITORY
+                    && !notification.isTouch()) {
+                PackageMappingComponentCache.this.invalidate();
+            }
+        }
+    };
+    private Repository observedRepository;
+
+    private PackageMappingComponentCache() {
+    }
+
+    /**
+     * Returns the cache for a correspondence model.
+     *
+     * @param ci the correspondence model.
+     * @return the cache.
+     */
+    static synchronized PackageMappingComponentCache get(final CorrespondenceModel ci) {
+        return CACHES.computeIfAbsent(ci, key -> new PackageMappingComponentCache());
+    }
+
+    /**
+     * Discards the cache for a correspondence model, e.g., after a propagation. The next lookup starts
+     * with an empty cache.
+     *
+     * @param ci the correspondence model.
+     */
+    static synchronized void invalidate(final CorrespondenceModel ci) {
+        final PackageMappingComponentCache cache = CACHES.remove(ci);
+        if (cache != null) {
+            cache.dispose();
+        }
+    }
+
+    private void dispose() {
+        if (this.observedRepository != null) {
+            this.observedRepository.eAdapters().remove(this.invalidator);
+            this.observedRepository = null;
+        }
+        this.invalidate();
+        this.dummyPackages.clear();
+        this.dummyResourceSet.getResources().clear();
+    }
+
+    private void invalidate() {
+        this.components.clear();
+    }
+
+    /**
+     * Looks up the cached component for a package.
+     *
+     * @param key the key of the package.
+     * @return the corresponding component or null if nothing is cached.
+     */
+    BasicComponent lookup(final String key) {
+        return this.components.get(key);
+    }
+
+    /**
+     * Stores the result of a correspondence query for a package. Packages without a corresponding
+     * component are not cached because their correspondence can be created later in the propagation.
+     *
+     * @param key the key of the package.
+     * @param component the corresponding component or null if there is none.
+     */
+    void store(final String key, final BasicComponent component) {
+        if (component == null) {
+            return;
+        }
+        this.observe(component.getRepository__RepositoryComponent());
+        this.components.put(key, component);
+    }
+
+    private void observe(final Repository repository) {
+        if (repository == null || repository == this.observedRepository) {
+            return;
+        }
+        if (this.observedRepository != null) {
+            this.observedRepository.eAdapters().remove(this.invalidator);
+            this.invalidate();
+        }
+        this.observedRepository = repository;
+        repository.eAdapters().add(this.invalidator);
+    }
+
+    /**
+     * Returns the package used for the correspondence queries of packages with the given URI. The package
+     * and its resource are created once and reused for all queries.
+     *
+     * @param packageVuri the URI of the package.
+     * @return the package.
+     */
+    Package getDummyPackage(final URI packageVuri) {
+        return this.dummyPackages.computeIfAbsent(packageVuri, uri -> {
+            final Package jaMoPPPackage = ContainersFactory.eINSTANCE.createPackage();
+            // attach dummy resource in order to enable Tuid calculation
+            final Resource dummyResource = this.dummyResourceSet.createResource(uri);
+            dummyResource.getContents().add(jaMoPPPackage);
+            return jaMoPPPackage;
+        });
+    }
+}
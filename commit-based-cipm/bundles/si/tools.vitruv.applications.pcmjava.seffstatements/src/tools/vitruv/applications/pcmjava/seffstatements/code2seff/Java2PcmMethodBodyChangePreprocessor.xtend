@@ -16,6 +16,7 @@ import tools.vitruv.domains.java.JavaDomainProvider
 import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute
 import org.emftext.language.java.commons.CommonsPackage
 import tools.vitruv.framework.domains.AbstractVitruvDomain
+import cipm.consistency.tools.evaluation.data.PhaseProfiler
 
 class Java2PcmMethodBodyChangePreprocessor extends AbstractChangePropagationSpecification {
 	val Code2SeffFactory code2SeffFactory;
@@ -33,7 +34,9 @@ class Java2PcmMethodBodyChangePreprocessor extends AbstractChangePropagationSpec
 		if (doesHandleChange(change, correspondenceModel)) {
 			val attrChange = change as ReplaceSingleValuedEAttribute<?, ?>;
 			val meth = attrChange.affectedEObject as Method;
-			executeClassMethodBodyChangeRefiner(correspondenceModel, userInteractor, meth);
+			try (val phase = PhaseProfiler.start(PhaseProfiler.SEFF_RECONSTRUCTION)) {
+				executeClassMethodBodyChangeRefiner(correspondenceModel, userInteractor, meth);
+			}
 		}
 	}
 
@@ -0,0 +1,38 @@
+package cipm.consistency.diffing.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this package with the GC profiler to additionally
+ * report the allocation rates.
+ */
+public final class BenchmarkRunner {
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args optional regular expression to select the benchmarks. If not
+	 *             given, all benchmarks of this package are run.
+	 * @throws RunnerException if the benchmarks cannot be executed.
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*";
+		Options options = new OptionsBuilder().include(include).addProfiler(GCProfiler.class)
+				.jvmArgsAppend(propagateFixture()).build();
+		new Runner(options).run();
+	}
+
+	private static String propagateFixture() {
+		String fixture = System.getProperty(JavaModelState.FIXTURE_PROPERTY);
+		if (fixture == null) {
+			return "-D" + JavaModelState.FIXTURE_PROPERTY + "=";
+		}
+		return "-D" + JavaModelState.FIXTURE_PROPERTY + "=" + fixture;
+	}
+}
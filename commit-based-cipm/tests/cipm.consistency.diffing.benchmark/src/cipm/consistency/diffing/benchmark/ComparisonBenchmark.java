@@ -0,0 +1,73 @@
+package cipm.consistency.diffing.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.BasicMonitor;
+import org.eclipse.emf.compare.Comparison;
+import org.eclipse.emf.compare.match.IMatchEngine;
+import org.emftext.language.java.JavaPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cipm.consistency.commitintegration.diff.util.JavaChangedMethodDetectorDiffPostProcessor;
+import cipm.consistency.commitintegration.diff.util.JavaMatchEngineFactoryGenerator;
+import cipm.consistency.commitintegration.diff.util.JavaModelComparator;
+import cipm.consistency.commitintegration.diff.util.ResourceListFilteringComparisonScope;
+
+/**
+ * Benchmarks the comparison of two Java models. The match benchmark only
+ * measures the matching with the hierarchical match engine. The comparison
+ * benchmarks measure the match, diff and post-processing phases together.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ComparisonBenchmark {
+
+	/**
+	 * Matches the new state against the old state.
+	 *
+	 * @param state the models.
+	 * @return the comparison containing the matches.
+	 */
+	@Benchmark
+	public Comparison match(JavaModelState state) {
+		IMatchEngine engine = JavaMatchEngineFactoryGenerator.generateMatchEngineFactory().getMatchEngine();
+		var scope = new ResourceListFilteringComparisonScope(state.getNewState(), state.getOldState(), null, null);
+		scope.getNsURIs().add(JavaPackage.eNS_URI);
+		return engine.match(scope, new BasicMonitor());
+	}
+
+	/**
+	 * Compares the new state against the old state without post-processing.
+	 *
+	 * @param state the models.
+	 * @return the comparison.
+	 */
+	@Benchmark
+	public Comparison compare(JavaModelState state) {
+		return JavaModelComparator.compareJavaModels(state.getNewState(), state.getOldState(), null, null, null);
+	}
+
+	/**
+	 * Compares the new state against the old state and detects the changed
+	 * methods.
+	 *
+	 * @param state the models.
+	 * @return the number of changed methods.
+	 */
+	@Benchmark
+	public int compareAndDetectChangedMethods(JavaModelState state) {
+		var postProcessor = new JavaChangedMethodDetectorDiffPostProcessor();
+		JavaModelComparator.compareJavaModels(state.getNewState(), state.getOldState(), null, null,
+				postProcessor);
+		return postProcessor.getChangedMethods().size();
+	}
+}
@@ -0,0 +1,118 @@
+package cipm.consistency.diffing.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+import org.emftext.language.java.JavaPackage;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Provides an old and a new state of a Java model for the benchmarks. By
+ * default, both states are generated with the {@link SyntheticJavaModelGenerator}.
+ * If the system property {@value #FIXTURE_PROPERTY} points to a Java.javaxmi
+ * file (e. g., one stored by the commit integration), it is loaded as the old
+ * state, and a copy with changes is used as the new state.
+ */
+@State(Scope.Benchmark)
+public class JavaModelState {
+	/**
+	 * Name of the system property for the path to a model fixture.
+	 */
+	public static final String FIXTURE_PROPERTY = "cipm.benchmark.fixture";
+	private static final String JAVAXMI_EXTENSION = "javaxmi";
+	private static final long SEED = 42;
+
+	@Param({ "2" })
+	public int packages;
+
+	@Param({ "5", "20" })
+	public int classesPerPackage;
+
+	@Param({ "10" })
+	public int methodsPerClass;
+
+	@Param({ "10" })
+	public int statementsPerMethod;
+
+	@Param({ "0.05" })
+	public double changeRatio;
+
+	private Resource oldState;
+	private Resource newState;
+
+	/**
+	 * Creates or loads the models.
+	 *
+	 * @throws IOException if the fixture cannot be loaded.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		JavaPackage.eINSTANCE.eClass();
+		ResourceSet oldSet = createResourceSet();
+		ResourceSet newSet = createResourceSet();
+		String fixture = System.getProperty(FIXTURE_PROPERTY);
+
+		if (fixture != null && !fixture.isBlank()) {
+			Path fixturePath = Paths.get(fixture).toAbsolutePath();
+			if (!Files.exists(fixturePath)) {
+				throw new IOException("The fixture " + fixturePath + " does not exist.");
+			}
+			oldState = oldSet.getResource(URI.createFileURI(fixturePath.toString()), true);
+			newState = newSet.createResource(URI.createFileURI(fixturePath.toString() + ".new." + JAVAXMI_EXTENSION));
+			newState.getContents().addAll(EcoreUtil.copyAll(oldState.getContents()));
+		} else {
+			SyntheticJavaModelGenerator generator = new SyntheticJavaModelGenerator(packages, classesPerPackage,
+					methodsPerClass, statementsPerMethod);
+			oldState = generator.generate(oldSet, URI.createFileURI("/benchmark/old/Java." + JAVAXMI_EXTENSION));
+			newState = generator.generate(newSet, URI.createFileURI("/benchmark/new/Java." + JAVAXMI_EXTENSION));
+		}
+		SyntheticJavaModelGenerator.applyChanges(newState, changeRatio, SEED);
+	}
+
+	/**
+	 * Unloads the models.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		newState.unload();
+		oldState.unload();
+	}
+
+	private ResourceSet createResourceSet() {
+		ResourceSet set = new ResourceSetImpl();
+		set.getResourceFactoryRegistry().getExtensionToFactoryMap().put(JAVAXMI_EXTENSION,
+				new XMIResourceFactoryImpl());
+		return set;
+	}
+
+	/**
+	 * Returns the old state.
+	 *
+	 * @return the Resource with the old state.
+	 */
+	public Resource getOldState() {
+		return oldState;
+	}
+
+	/**
+	 * Returns the new state.
+	 *
+	 * @return the Resource with the new state.
+	 */
+	public Resource getNewState() {
+		return newState;
+	}
+}
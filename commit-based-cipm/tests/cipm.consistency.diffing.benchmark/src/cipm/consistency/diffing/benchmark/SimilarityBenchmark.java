@@ -0,0 +1,132 @@
+package cipm.consistency.diffing.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.members.Method;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.splevo.diffing.util.NormalizationUtil;
+import org.splevo.jamopp.diffing.similarity.SimilarityChecker;
+
+/**
+ * Benchmarks the similarity checks and the name normalization which are
+ * executed for every candidate pair during the matching.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SimilarityBenchmark {
+	private SimilarityChecker checker;
+	private List<EObject> oldUnits;
+	private List<EObject> newUnits;
+	private List<Method> oldMethods;
+	private List<Method> newMethods;
+	private LinkedHashMap<Pattern, String> normalizations;
+	private List<String> names;
+
+	/**
+	 * Collects the elements to compare.
+	 *
+	 * @param state the models.
+	 */
+	@Setup(Level.Trial)
+	public void setUp(JavaModelState state) {
+		checker = new SimilarityChecker();
+		oldUnits = new ArrayList<>(state.getOldState().getContents());
+		newUnits = new ArrayList<>(state.getNewState().getContents());
+		oldMethods = collectMethods(state.getOldState());
+		newMethods = collectMethods(state.getNewState());
+
+		normalizations = NormalizationUtil.loadRemoveNormalizations("*Impl\n*Test", ".java");
+		names = new ArrayList<>();
+		for (EObject unit : oldUnits) {
+			names.add(((CompilationUnit) unit).getName() + ".java");
+		}
+	}
+
+	private static List<Method> collectMethods(Resource resource) {
+		List<Method> methods = new ArrayList<>();
+		resource.getAllContents().forEachRemaining(obj -> {
+			if (obj instanceof Method) {
+				methods.add((Method) obj);
+			}
+		});
+		return methods;
+	}
+
+	/**
+	 * Checks the similarity of every pair of compilation units.
+	 *
+	 * @param blackhole consumes the results.
+	 */
+	@Benchmark
+	public void compilationUnitPairs(Blackhole blackhole) {
+		for (EObject newUnit : newUnits) {
+			for (EObject oldUnit : oldUnits) {
+				blackhole.consume(checker.isSimilar(newUnit, oldUnit));
+			}
+		}
+	}
+
+	/**
+	 * Checks the similarity of the methods at the same position, including their
+	 * bodies.
+	 *
+	 * @param blackhole consumes the results.
+	 */
+	@Benchmark
+	public void methodPairs(Blackhole blackhole) {
+		int size = Math.min(newMethods.size(), oldMethods.size());
+		for (int i = 0; i < size; i++) {
+			blackhole.consume(checker.isSimilar(newMethods.get(i), oldMethods.get(i)));
+		}
+	}
+
+	/**
+	 * Checks the similarity of the methods at the same position within one
+	 * comparison run so that the decisions are memorized.
+	 *
+	 * @param blackhole consumes the results.
+	 */
+	@Benchmark
+	public void methodPairsWithinComparison(Blackhole blackhole) {
+		checker.startComparison();
+		try {
+			methodPairs(blackhole);
+		} finally {
+			checker.finishComparison();
+		}
+	}
+
+	/**
+	 * Normalizes the names of all compilation units.
+	 *
+	 * @param blackhole consumes the results.
+	 */
+	@Benchmark
+	public void normalize(Blackhole blackhole) {
+		for (String name : names) {
+			blackhole.consume(NormalizationUtil.normalize(name, normalizations));
+		}
+	}
+}
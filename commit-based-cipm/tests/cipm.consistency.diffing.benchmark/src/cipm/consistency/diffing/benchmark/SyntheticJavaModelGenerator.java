@@ -0,0 +1,162 @@
+package cipm.consistency.diffing.benchmark;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.emftext.language.java.classifiers.ClassifiersFactory;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.ContainersFactory;
+import org.emftext.language.java.literals.DecimalIntegerLiteral;
+import org.emftext.language.java.literals.LiteralsFactory;
+import org.emftext.language.java.members.ClassMethod;
+import org.emftext.language.java.members.Field;
+import org.emftext.language.java.members.MembersFactory;
+import org.emftext.language.java.parameters.OrdinaryParameter;
+import org.emftext.language.java.parameters.ParametersFactory;
+import org.emftext.language.java.references.IdentifierReference;
+import org.emftext.language.java.references.ReferencesFactory;
+import org.emftext.language.java.statements.Block;
+import org.emftext.language.java.statements.LocalVariableStatement;
+import org.emftext.language.java.statements.Return;
+import org.emftext.language.java.statements.StatementsFactory;
+import org.emftext.language.java.types.TypesFactory;
+import org.emftext.language.java.variables.LocalVariable;
+import org.emftext.language.java.variables.VariablesFactory;
+
+/**
+ * Generates synthetic Java models of a configurable size. Every generated
+ * package contains a number of classes with one field and a number of methods.
+ * Every method consists of local variable statements and a return statement.
+ */
+public class SyntheticJavaModelGenerator {
+	private static final String BASE_PACKAGE = "cipm.benchmark";
+	private int packages;
+	private int classesPerPackage;
+	private int methodsPerClass;
+	private int statementsPerMethod;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param packages            the number of packages.
+	 * @param classesPerPackage   the number of classes in each package.
+	 * @param methodsPerClass     the number of methods in each class.
+	 * @param statementsPerMethod the number of local variable statements in each
+	 *                            method.
+	 */
+	public SyntheticJavaModelGenerator(int packages, int classesPerPackage, int methodsPerClass,
+			int statementsPerMethod) {
+		this.packages = packages;
+		this.classesPerPackage = classesPerPackage;
+		this.methodsPerClass = methodsPerClass;
+		this.statementsPerMethod = statementsPerMethod;
+	}
+
+	/**
+	 * Generates a model in a new Resource.
+	 *
+	 * @param resourceSet the ResourceSet in which the Resource is created.
+	 * @param uri         URI of the Resource.
+	 * @return the Resource containing the compilation units of the model.
+	 */
+	public Resource generate(ResourceSet resourceSet, URI uri) {
+		Resource resource = resourceSet.createResource(uri);
+		for (int p = 0; p < packages; p++) {
+			for (int c = 0; c < classesPerPackage; c++) {
+				resource.getContents().add(createCompilationUnit(p, c));
+			}
+		}
+		return resource;
+	}
+
+	/**
+	 * Changes the literal values of randomly selected local variables. The same
+	 * seed always results in the same changes for models of the same size.
+	 *
+	 * @param resource    the Resource with the model to change.
+	 * @param changeRatio the share of local variables to change between 0 and 1.
+	 * @param seed        the seed for the selection of the local variables.
+	 * @return the number of changed local variables.
+	 */
+	public static int applyChanges(Resource resource, double changeRatio, long seed) {
+		Random random = new Random(seed);
+		int changes = 0;
+		for (TreeIterator<EObject> iter = resource.getAllContents(); iter.hasNext();) {
+			EObject obj = iter.next();
+			if (obj instanceof DecimalIntegerLiteral && random.nextDouble() < changeRatio) {
+				DecimalIntegerLiteral literal = (DecimalIntegerLiteral) obj;
+				literal.setDecimalValue(literal.getDecimalValue().add(BigInteger.ONE));
+				changes++;
+			}
+		}
+		return changes;
+	}
+
+	private CompilationUnit createCompilationUnit(int packageIndex, int classIndex) {
+		String className = "Class" + classIndex;
+		CompilationUnit unit = ContainersFactory.eINSTANCE.createCompilationUnit();
+		for (String ns : BASE_PACKAGE.split("\\.")) {
+			unit.getNamespaces().add(ns);
+		}
+		unit.getNamespaces().add("p" + packageIndex);
+		unit.setName(className);
+
+		var cls = ClassifiersFactory.eINSTANCE.createClass();
+		cls.setName(className);
+		cls.makePublic();
+		unit.getClassifiers().add(cls);
+
+		Field field = MembersFactory.eINSTANCE.createField();
+		field.setName("field");
+		field.setTypeReference(TypesFactory.eINSTANCE.createInt());
+		cls.getMembers().add(field);
+
+		for (int m = 0; m < methodsPerClass; m++) {
+			cls.getMembers().add(createMethod("method" + m));
+		}
+		return unit;
+	}
+
+	private ClassMethod createMethod(String name) {
+		ClassMethod method = MembersFactory.eINSTANCE.createClassMethod();
+		method.setName(name);
+		method.makePublic();
+		method.setTypeReference(TypesFactory.eINSTANCE.createInt());
+		OrdinaryParameter param = ParametersFactory.eINSTANCE.createOrdinaryParameter();
+		param.setName("param");
+		param.setTypeReference(TypesFactory.eINSTANCE.createInt());
+		method.getParameters().add(param);
+
+		Block block = StatementsFactory.eINSTANCE.createBlock();
+		LocalVariable lastVariable = null;
+		for (int s = 0; s < statementsPerMethod; s++) {
+			LocalVariable variable = VariablesFactory.eINSTANCE.createLocalVariable();
+			variable.setName("v" + s);
+			variable.setTypeReference(TypesFactory.eINSTANCE.createInt());
+			DecimalIntegerLiteral literal = LiteralsFactory.eINSTANCE.createDecimalIntegerLiteral();
+			literal.setDecimalValue(BigInteger.valueOf(s));
+			variable.setInitialValue(literal);
+			LocalVariableStatement statement = StatementsFactory.eINSTANCE.createLocalVariableStatement();
+			statement.setVariable(variable);
+			block.getStatements().add(statement);
+			lastVariable = variable;
+		}
+
+		Return ret = StatementsFactory.eINSTANCE.createReturn();
+		IdentifierReference ref = ReferencesFactory.eINSTANCE.createIdentifierReference();
+		if (lastVariable != null) {
+			ref.setTarget(lastVariable);
+		} else {
+			ref.setTarget(param);
+		}
+		ret.setReturnValue(ref);
+		block.getStatements().add(ret);
+		method.setStatement(block);
+		return method;
+	}
+}
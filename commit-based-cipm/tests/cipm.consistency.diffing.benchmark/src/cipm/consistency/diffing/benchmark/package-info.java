@@ -0,0 +1,4 @@
+/**
+ * Contains JMH micro-benchmarks for the matching, diffing and similarity checking of Java models.
+ */
+package cipm.consistency.diffing.benchmark;
@@ -86,6 +86,7 @@ public abstract class AbstractCITest {
 					this.controller.getVSUMFacade().getInstrumentationModel(), javaModel, instrumentedModel,
 					this.controller.getVSUMFacade().getVSUM().getCorrespondenceModel());
 			EvaluationDataContainerReaderWriter.write(evalResult, root.resolve(this.evaluationResultFileNamePrefix + newCommit + ".json"));
+			EvaluationDataContainerReaderWriter.writePhases(evalResult, root.resolve(this.evaluationResultFileNamePrefix + newCommit + "-phases.csv"));
 			LOGGER.debug("Copying the propagated state.");
 			Path copy = root.resolveSibling(root.getFileName().toString() + "-" + num + "-" + newCommit);
 			FileUtils.copyDirectory(root.toFile(), copy.toFile());
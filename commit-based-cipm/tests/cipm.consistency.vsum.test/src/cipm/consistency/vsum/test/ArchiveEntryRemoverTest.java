@@ -0,0 +1,224 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cipm.consistency.commitintegration.ArchiveEntryRemover;
+
+/**
+ * Tests the removal of entries from archives and nested archives.
+ */
+public class ArchiveEntryRemoverTest {
+	private static final String CONTROLLER_PACKAGE = "cipm/consistency/bridge/monitoring/controller/";
+	private static final String CONTROLLER = CONTROLLER_PACKAGE + "ThreadMonitoringController.class";
+	private static final String PARAMETERS = CONTROLLER_PACKAGE + "ServiceParameters.class";
+	private static final String ITEM = "org/example/Item.class";
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testRemoveEntriesFromNestedStoredArchive() throws IOException {
+		byte[] monitoringJar = createArchive(Map.of(CONTROLLER, "controller", PARAMETERS, "parameters",
+				CONTROLLER_PACKAGE + "Other.class", "other"), ZipEntry.DEFLATED);
+		byte[] libraryJar = createArchive(Map.of(ITEM, "item"), ZipEntry.DEFLATED);
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("WEB-INF/classes/" + CONTROLLER, bytes("controller"));
+		entries.put("WEB-INF/classes/" + ITEM, bytes("item"));
+		entries.put("WEB-INF/lib/monitoring.jar", monitoringJar);
+		entries.put("WEB-INF/lib/library.jar", libraryJar);
+		entries.put("WEB-INF/lib/broken.jar", bytes("not an archive"));
+		Path war = tempDir.resolve("app.war");
+		Files.write(war, createArchive(entries, ZipEntry.STORED));
+
+		assertTrue(new ArchiveEntryRemover(ArchiveEntryRemover.MONITORING_CLASS_PATTERNS).removeEntries(war));
+
+		try (ZipFile zip = new ZipFile(war.toFile())) {
+			assertEquals(List.of("WEB-INF/classes/" + ITEM, "WEB-INF/lib/monitoring.jar", "WEB-INF/lib/library.jar",
+					"WEB-INF/lib/broken.jar"), getNames(zip));
+			ZipEntry nested = zip.getEntry("WEB-INF/lib/monitoring.jar");
+			byte[] nestedContent = zip.getInputStream(nested).readAllBytes();
+			assertEquals(ZipEntry.STORED, nested.getMethod());
+			assertEquals(nestedContent.length, nested.getSize());
+			assertEquals(nestedContent.length, nested.getCompressedSize());
+			assertEquals(crc(nestedContent), nested.getCrc());
+			assertEquals(Map.of(CONTROLLER_PACKAGE + "Other.class", "other"),
+					readArchive(nestedContent));
+			assertArrayEquals(libraryJar, zip.getInputStream(zip.getEntry("WEB-INF/lib/library.jar")).readAllBytes());
+			assertEquals("not an archive",
+					string(zip.getInputStream(zip.getEntry("WEB-INF/lib/broken.jar")).readAllBytes()));
+			assertEquals("item", string(zip.getInputStream(zip.getEntry("WEB-INF/classes/" + ITEM)).readAllBytes()));
+		}
+	}
+
+	@Test
+	public void testRemoveEntriesFromArchiveNestedTwice() throws IOException {
+		byte[] innerZip = createArchive(Map.of(CONTROLLER, "controller", ITEM, "item"), ZipEntry.DEFLATED);
+		byte[] outerJar = createArchive(Map.of("lib/inner.zip", innerZip), ZipEntry.STORED);
+		Path archive = tempDir.resolve("app.zip");
+		Files.write(archive, createArchive(Map.of("outer.jar", outerJar), ZipEntry.DEFLATED));
+
+		assertTrue(new ArchiveEntryRemover(ArchiveEntryRemover.MONITORING_CLASS_PATTERNS).removeEntries(archive));
+
+		try (ZipFile zip = new ZipFile(archive.toFile())) {
+			assertEquals(ZipEntry.DEFLATED, zip.getEntry("outer.jar").getMethod());
+			byte[] outer = zip.getInputStream(zip.getEntry("outer.jar")).readAllBytes();
+			ZipEntry inner = readEntries(outer).get("lib/inner.zip");
+			assertEquals(ZipEntry.STORED, inner.getMethod());
+			byte[] innerContent = readArchiveBytes(outer).get("lib/inner.zip");
+			assertEquals(crc(innerContent), inner.getCrc());
+			assertEquals(Map.of(ITEM, "item"), readArchive(innerContent));
+		}
+	}
+
+	@Test
+	public void testNamesOfNestedEntriesExcludeArchivePath() throws IOException {
+		byte[] jar = createArchive(Map.of(ITEM, "nested item"), ZipEntry.STORED);
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("WEB-INF/classes/" + ITEM, bytes("item"));
+		entries.put("WEB-INF/lib/library.jar", jar);
+		Path war = tempDir.resolve("app.war");
+		Files.write(war, createArchive(entries, ZipEntry.DEFLATED));
+
+		assertTrue(new ArchiveEntryRemover(List.of("org/example/Item\\.class")).removeEntries(war));
+
+		try (ZipFile zip = new ZipFile(war.toFile())) {
+			assertEquals(List.of("WEB-INF/classes/" + ITEM, "WEB-INF/lib/library.jar"), getNames(zip));
+			byte[] nested = zip.getInputStream(zip.getEntry("WEB-INF/lib/library.jar")).readAllBytes();
+			assertTrue(readArchive(nested).isEmpty());
+		}
+	}
+
+	@Test
+	public void testUnchangedArchiveIsNotRewritten() throws IOException {
+		Path jar = tempDir.resolve("library.jar");
+		byte[] content = createArchive(Map.of(ITEM, "item",
+				"lib/nested.jar", createArchive(Map.of(ITEM, "item"), ZipEntry.STORED)), ZipEntry.STORED);
+		Files.write(jar, content);
+
+		assertFalse(new ArchiveEntryRemover(ArchiveEntryRemover.MONITORING_CLASS_PATTERNS).removeEntries(jar));
+
+		assertArrayEquals(content, Files.readAllBytes(jar));
+		try (var files = Files.list(tempDir)) {
+			assertEquals(List.of(jar), files.collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void testRemoveEntriesFromSeveralArchives() throws IOException {
+		List<Path> archives = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Path jar = tempDir.resolve("library" + i + ".jar");
+			Files.write(jar, createArchive(Map.of(ITEM, "item" + i, CONTROLLER, "controller"), ZipEntry.DEFLATED));
+			archives.add(jar);
+		}
+		archives.add(tempDir.resolve("missing.jar"));
+
+		new ArchiveEntryRemover(ArchiveEntryRemover.MONITORING_CLASS_PATTERNS).removeEntries(archives);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(Map.of(ITEM, "item" + i), readArchive(Files.readAllBytes(archives.get(i))));
+		}
+	}
+
+	private static byte[] createArchive(Map<String, ?> entries, int method) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+			for (Map.Entry<String, ?> entry : entries.entrySet()) {
+				byte[] content = entry.getValue() instanceof byte[] ? (byte[]) entry.getValue()
+						: bytes((String) entry.getValue());
+				ZipEntry zipEntry = new ZipEntry(entry.getKey());
+				zipEntry.setMethod(method);
+				if (method == ZipEntry.STORED) {
+					zipEntry.setSize(content.length);
+					zipEntry.setCompressedSize(content.length);
+					zipEntry.setCrc(crc(content));
+				}
+				out.putNextEntry(zipEntry);
+				out.write(content);
+				out.closeEntry();
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Map<String, String> readArchive(byte[] archive) throws IOException {
+		Map<String, String> entries = new LinkedHashMap<>();
+		readArchiveBytes(archive).forEach((name, content) -> entries.put(name, string(content)));
+		return entries;
+	}
+
+	private static Map<String, byte[]> readArchiveBytes(byte[] archive) throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(archive))) {
+			for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+				entries.put(entry.getName(), in.readAllBytes());
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Reads the entries of an archive from its central directory, which contains
+	 * the sizes and checksums of all entries.
+	 */
+	private Map<String, ZipEntry> readEntries(byte[] archive) throws IOException {
+		Path file = Files.createTempFile(tempDir, "nested", ".zip");
+		Files.write(file, archive);
+		Map<String, ZipEntry> entries = new LinkedHashMap<>();
+		try (ZipFile zip = new ZipFile(file.toFile())) {
+			for (Enumeration<? extends ZipEntry> it = zip.entries(); it.hasMoreElements();) {
+				ZipEntry entry = it.nextElement();
+				entries.put(entry.getName(), entry);
+				try (InputStream in = zip.getInputStream(entry)) {
+					// Reading the entry verifies its checksum.
+					in.readAllBytes();
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static List<String> getNames(ZipFile zip) {
+		List<String> names = new ArrayList<>();
+		zip.stream().forEach(entry -> names.add(entry.getName()));
+		return names;
+	}
+
+	private static long crc(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		return crc.getValue();
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String string(byte[] content) {
+		return new String(content, StandardCharsets.UTF_8);
+	}
+}
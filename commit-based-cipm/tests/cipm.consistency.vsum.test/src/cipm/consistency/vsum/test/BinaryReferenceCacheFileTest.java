@@ -0,0 +1,334 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.splevo.jamopp.extraction.cache.BinaryReferenceCacheFile;
+
+/**
+ * Tests the binary format of the reference cache, the replay of its journal,
+ * and its compaction into snapshots of new generations.
+ */
+public class BinaryReferenceCacheFileTest {
+	private static final String ITEM = "file:/project/src/org/example/Item.java";
+	private static final String CART = "file:/project/src/org/example/Cart.java";
+	private static final String STRING = "pathmap:/javaclass/java.lang.String.java#//@classifiers.0";
+	private static final String LIST = "pathmap:/javaclass/java.util.List.java#//@classifiers.0";
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testInMemoryFile() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(null);
+		file.put(ITEM, "//@members.0", STRING);
+		file.put(CART, "//@members.0", LIST);
+		file.flush();
+		file.compact();
+
+		assertFalse(file.exists());
+		assertFalse(file.needsCompaction());
+		assertEquals(STRING, file.get(ITEM, "//@members.0"));
+		file.removeTargets("pathmap:/javaclass/java.util.");
+		assertNull(file.get(CART, "//@members.0"));
+		file.removeResource(ITEM);
+		assertNull(file.get(ITEM, "//@members.0"));
+		assertTrue(file.isResourceRemoved(ITEM));
+	}
+
+	@Test
+	public void testJournalReplay() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertFalse(file.exists());
+		file.put(ITEM, "//@members.0", STRING);
+		file.put(ITEM, "//@members.1", LIST);
+		file.put(CART, "//@members.0", LIST);
+		file.put(CART, "//@members.1", ITEM + "#//@classifiers.0");
+		file.removeResource(CART);
+		file.put(CART, "//@members.2", STRING);
+		file.removeTargets("pathmap:/javaclass/java.util.");
+		file.flush();
+		file.put(ITEM, "//@members.2", STRING);
+
+		assertEquals(Set.of("jamopp.cache.0.log"), listFiles());
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertTrue(reopened.exists());
+		assertEquals(STRING, reopened.get(ITEM, "//@members.0"));
+		assertEquals(STRING, reopened.getAdded(ITEM, "//@members.0"));
+		assertNull(reopened.get(ITEM, "//@members.1"));
+		assertNull(reopened.get(ITEM, "//@members.2"), "Changes which were not flushed must be lost.");
+		assertNull(reopened.get(CART, "//@members.0"));
+		assertNull(reopened.get(CART, "//@members.1"));
+		assertEquals(STRING, reopened.get(CART, "//@members.2"));
+		assertTrue(reopened.containsResource(CART));
+		assertFalse(reopened.isResourceRemoved(CART));
+		assertTrue(reopened.isTargetRemoved(LIST));
+		assertFalse(reopened.isTargetRemoved(STRING));
+	}
+
+	@Test
+	public void testJournalIsAppendedAfterReplay() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		file.put(ITEM, "//@members.0", STRING);
+		file.flush();
+
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+		reopened.put(ITEM, "//@members.1", STRING);
+		reopened.put(CART, "//@members.0", LIST);
+		reopened.flush();
+
+		BinaryReferenceCacheFile replayed = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertEquals(STRING, replayed.get(ITEM, "//@members.0"));
+		assertEquals(STRING, replayed.get(ITEM, "//@members.1"));
+		assertEquals(LIST, replayed.get(CART, "//@members.0"));
+	}
+
+	@Test
+	public void testCompactionWritesNextGeneration() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		file.put(ITEM, "//@members.0", STRING);
+		file.put(ITEM, "//@members.1", "pathmap:/javaclass/java.lang.Object.java");
+		file.put(CART, "//@members.0", LIST);
+		file.flush();
+		file.compact();
+
+		assertEquals(Set.of("jamopp.cache.1.bin"), listFiles());
+		assertNull(file.getAdded(ITEM, "//@members.0"));
+		assertEquals(STRING, file.get(ITEM, "//@members.0"));
+
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertTrue(reopened.exists());
+		assertNull(reopened.getAdded(ITEM, "//@members.0"));
+		assertEquals(STRING, reopened.get(ITEM, "//@members.0"));
+		assertEquals("pathmap:/javaclass/java.lang.Object.java", reopened.get(ITEM, "//@members.1"));
+		assertEquals(LIST, reopened.get(CART, "//@members.0"));
+		assertNull(reopened.get(ITEM, "//@members.2"));
+		assertNull(reopened.get("file:/project/src/org/example/Checkout.java", "//@members.0"));
+		assertTrue(reopened.containsResource(CART));
+
+		reopened.removeResource(CART);
+		reopened.removeTargets("pathmap:/javaclass/java.lang.String");
+		reopened.put(ITEM, "//@members.2", LIST);
+		reopened.flush();
+		assertEquals(Set.of("jamopp.cache.1.bin", "jamopp.cache.1.log"), listFiles());
+
+		BinaryReferenceCacheFile replayed = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertNull(replayed.get(CART, "//@members.0"));
+		assertFalse(replayed.containsResource(CART));
+		assertTrue(replayed.isResourceRemoved(CART));
+		assertNull(replayed.get(ITEM, "//@members.0"));
+		assertEquals(LIST, replayed.get(ITEM, "//@members.2"));
+		replayed.compact();
+
+		assertEquals(Set.of("jamopp.cache.2.bin"), listFiles());
+		BinaryReferenceCacheFile compacted = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertNull(compacted.get(CART, "//@members.0"));
+		assertFalse(compacted.containsResource(CART));
+		assertFalse(compacted.isResourceRemoved(CART));
+		assertNull(compacted.get(ITEM, "//@members.0"));
+		assertEquals("pathmap:/javaclass/java.lang.Object.java", compacted.get(ITEM, "//@members.1"));
+		assertEquals(LIST, compacted.get(ITEM, "//@members.2"));
+	}
+
+	@Test
+	public void testSnapshotLookupOfManyReferences() throws IOException {
+		Map<String, Map<String, String>> references = new LinkedHashMap<>();
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		for (int resource = 0; resource < 300; resource++) {
+			// The names contain characters which are encoded with several bytes.
+			String resourceUri = "file:/project/src/org/example/" + (resource % 2 == 0 ? "Gr\u00f6\u00dfe" : "Size")
+					+ resource + ".java";
+			for (int member = 0; member < 7; member++) {
+				String target = member % 3 == 0 ? "pathmap:/javaclass/java.lang.Object.java"
+						: "file:/project/src/org/example/\u00c4nderung" + (resource + member) + ".java#//@classifiers."
+								+ member;
+				references.computeIfAbsent(resourceUri, r -> new LinkedHashMap<>()).put("//@members." + member,
+						target);
+				file.put(resourceUri, "//@members." + member, target);
+			}
+		}
+		file.flush();
+		file.compact();
+
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+		for (var resourceEntry : references.entrySet()) {
+			assertTrue(reopened.containsResource(resourceEntry.getKey()));
+			for (var entry : resourceEntry.getValue().entrySet()) {
+				assertEquals(entry.getValue(), reopened.get(resourceEntry.getKey(), entry.getKey()));
+			}
+			assertNull(reopened.get(resourceEntry.getKey(), "//@members.7"));
+		}
+		assertFalse(reopened.containsResource("file:/project/src/org/example/Size0.java"));
+	}
+
+	@Test
+	public void testIncompleteRecordIsTruncated() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		file.put(ITEM, "//@members.0", STRING);
+		file.flush();
+		Path journal = tempDir.resolve("jamopp.cache.0.log");
+		long validLength = Files.size(journal);
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journal.toFile(), true))) {
+			// A record of a put whose last string id is missing.
+			out.writeByte(1);
+			out.writeInt(0);
+			out.writeInt(1);
+		}
+
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertEquals(validLength, Files.size(journal));
+		assertEquals(STRING, reopened.get(ITEM, "//@members.0"));
+		reopened.put(CART, "//@members.0", LIST);
+		reopened.flush();
+
+		BinaryReferenceCacheFile replayed = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertEquals(STRING, replayed.get(ITEM, "//@members.0"));
+		assertEquals(LIST, replayed.get(CART, "//@members.0"));
+	}
+
+	@Test
+	public void testMalformedRecordsAreTruncated() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		file.put(ITEM, "//@members.0", STRING);
+		file.flush();
+		Path journal = tempDir.resolve("jamopp.cache.0.log");
+		long validLength = Files.size(journal);
+
+		// A put referring to an unknown string followed by a valid removal.
+		appendToJournal(journal, 1, 0, 1, 42);
+		appendToJournal(journal, 2, 0);
+		assertEquals(STRING, new BinaryReferenceCacheFile(tempDir.toFile()).get(ITEM, "//@members.0"));
+		assertEquals(validLength, Files.size(journal));
+
+		// An unknown record type.
+		appendToJournal(journal, 9, 0);
+		assertEquals(STRING, new BinaryReferenceCacheFile(tempDir.toFile()).get(ITEM, "//@members.0"));
+		assertEquals(validLength, Files.size(journal));
+
+		// A string definition with a length exceeding the journal.
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journal.toFile(), true))) {
+			out.writeByte(0);
+			out.writeInt(Integer.MAX_VALUE);
+			out.write("Checkout".getBytes(StandardCharsets.UTF_8));
+		}
+		assertEquals(STRING, new BinaryReferenceCacheFile(tempDir.toFile()).get(ITEM, "//@members.0"));
+		assertEquals(validLength, Files.size(journal));
+	}
+
+	@Test
+	public void testJournalWithUnknownFormatIsIgnored() throws IOException {
+		Files.write(tempDir.resolve("jamopp.cache.0.log"), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+
+		assertFalse(file.exists());
+		assertNull(file.get(ITEM, "//@members.0"));
+	}
+
+	@Test
+	public void testInvalidSnapshotIsIgnored() throws IOException {
+		Files.write(tempDir.resolve("jamopp.cache.3.bin"), new byte[] { 0x4A, 0x43, 0x52, 0x53, 0, 0, 0, 1, 0x7F,
+				0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 });
+
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+
+		assertFalse(file.exists());
+		assertNull(file.get(ITEM, "//@members.0"));
+		file.put(ITEM, "//@members.0", STRING);
+		file.flush();
+		file.compact();
+		assertEquals(Set.of("jamopp.cache.4.bin"), listFiles());
+		assertEquals(STRING, new BinaryReferenceCacheFile(tempDir.toFile()).get(ITEM, "//@members.0"));
+	}
+
+	@Test
+	public void testOlderGenerationsAreDeleted() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		file.put(ITEM, "//@members.0", STRING);
+		file.flush();
+		file.compact();
+		Files.writeString(tempDir.resolve("jamopp.cache.0.log"), "stale");
+		Files.writeString(tempDir.resolve("jamopp.cache.0.bin"), "stale");
+		Files.writeString(tempDir.resolve("jamopp.cache.0.bin.tmp"), "stale");
+		Files.writeString(tempDir.resolve("jamopp.cache.old.bin"), "unrelated");
+		Files.writeString(tempDir.resolve("other.txt"), "unrelated");
+
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+
+		assertEquals(STRING, reopened.get(ITEM, "//@members.0"));
+		assertEquals(Set.of("jamopp.cache.1.bin", "jamopp.cache.old.bin", "other.txt"), listFiles());
+	}
+
+	@Test
+	public void testImportAppliesJournal() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		file.removeResource(CART);
+		file.removeTargets("pathmap:/javaclass/java.util.");
+		file.put(ITEM, "//@members.2", STRING);
+		file.flush();
+
+		Map<String, Map<String, String>> references = new LinkedHashMap<>();
+		references.put(ITEM, new LinkedHashMap<>(Map.of("//@members.0", STRING, "//@members.1", LIST)));
+		references.put(CART, new LinkedHashMap<>(Map.of("//@members.0", STRING)));
+		new BinaryReferenceCacheFile(tempDir.toFile()).importReferences(references);
+
+		assertEquals(Set.of("jamopp.cache.1.bin"), listFiles());
+		BinaryReferenceCacheFile reopened = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertEquals(STRING, reopened.get(ITEM, "//@members.0"));
+		assertNull(reopened.get(ITEM, "//@members.1"));
+		assertEquals(STRING, reopened.get(ITEM, "//@members.2"));
+		assertFalse(reopened.containsResource(CART));
+	}
+
+	@Test
+	public void testNeedsCompaction() throws IOException {
+		BinaryReferenceCacheFile file = new BinaryReferenceCacheFile(tempDir.toFile());
+		assertFalse(file.needsCompaction());
+		for (int member = 0; member < 10000; member++) {
+			file.put(ITEM, "//@members." + member, STRING);
+		}
+		assertTrue(file.needsCompaction());
+
+		file.compact();
+
+		assertFalse(file.needsCompaction());
+		assertEquals(STRING, file.get(ITEM, "//@members.9999"));
+	}
+
+	private Set<String> listFiles() throws IOException {
+		try (Stream<Path> files = Files.list(tempDir)) {
+			return files.map(file -> file.getFileName().toString()).collect(Collectors.toCollection(TreeSet::new));
+		}
+	}
+
+	/**
+	 * Appends a raw record to a journal.
+	 *
+	 * @param type the type of the record, which is written as a byte.
+	 * @param ids  the string ids of the record, which are written as integers.
+	 */
+	private static void appendToJournal(Path journal, int type, int... ids) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journal.toFile(), true))) {
+			out.writeByte(type);
+			for (int id : ids) {
+				out.writeInt(id);
+			}
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.emftext.language.java.containers.Origin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cipm.consistency.commitintegration.GitRepositoryWrapper;
+import cipm.consistency.commitintegration.JavaParserAndPropagatorUtils;
+import cipm.consistency.commitintegration.detection.BuildFileBasedComponentDetectionStrategy;
+import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
+import cipm.consistency.commitintegration.settings.SettingKeys;
+
+/**
+ * Tests that the incremental parsing of the Java files changed by a commit
+ * results in the same models as the parsing of the complete code.
+ */
+public class IncrementalJavaParsingTest {
+	private static final String SOURCE_DIR = "src/main/java/org/example/shop/";
+	@TempDir
+	Path tempDir;
+	private Path project;
+	private Git git;
+	private RevCommit oldCommit;
+	private Resource previousModel;
+
+	@BeforeEach
+	public void setUp() throws IOException, GitAPIException {
+		project = tempDir.resolve("project");
+		writeFile("Catalog.java",
+				"public class Catalog {\n\tpublic String getTitle() {\n\t\treturn \"Catalog\";\n\t}\n}\n");
+		writeFile("Cart.java", "import java.util.ArrayList;\nimport java.util.List;\n\n"
+				+ "public class Cart {\n\tprivate final List<Item> items = new ArrayList<>();\n\n"
+				+ "\tpublic void add(Item item) {\n\t\titems.add(item);\n\t}\n\n"
+				+ "\tpublic int getTotal() {\n\t\tint total = 0;\n\t\tfor (Item item : items) {\n"
+				+ "\t\t\ttotal += item.getPrice();\n\t\t}\n\t\treturn total;\n\t}\n}\n");
+		writeFile("Item.java", "public class Item {\n\tprivate final int price;\n\n"
+				+ "\tpublic Item(int price) {\n\t\tthis.price = price;\n\t}\n\n"
+				+ "\tpublic int getPrice() {\n\t\treturn price;\n\t}\n}\n");
+		writeFile("Checkout.java",
+				"public class Checkout {\n\tpublic int checkout(Cart cart) {\n\t\treturn cart.getTotal();\n\t}\n}\n");
+		writeFile("Shipping.java", "public class Shipping {\n\tpublic int getCosts(Cart cart) {\n"
+				+ "\t\treturn cart.getTotal() > 50 ? 0 : 5;\n\t}\n}\n");
+		writeFile("Order.java", "public class Order {\n\tprivate final Cart cart = new Cart();\n\n"
+				+ "\tpublic Cart getCart() {\n\t\treturn cart;\n\t}\n}\n");
+		git = Git.init().setDirectory(project.toFile()).call();
+		oldCommit = commit("Old version");
+
+		Path settings = tempDir.resolve("settings.properties");
+		Files.writeString(settings, SettingKeys.JAVA_PARSER_THREADS + "=1\n"
+				+ SettingKeys.JAVA_PARSER_EXCLUSION_PATTERNS + "=\n");
+		CommitIntegrationSettingsContainer.initialize(settings);
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(false));
+		previousModel = parse("previous");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		git.close();
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(true,
+				new BuildFileBasedComponentDetectionStrategy()));
+	}
+
+	@Test
+	public void testIncrementalParsingEqualsCompleteParsing() throws Exception {
+		Map<String, CompilationUnit> previousUnits = getUnits(previousModel);
+		writeFile("Item.java", "public class Item {\n\tprivate final int price;\n"
+				+ "\tprivate final boolean reduced;\n\n"
+				+ "\tpublic Item(int price, boolean reduced) {\n\t\tthis.price = price;\n"
+				+ "\t\tthis.reduced = reduced;\n\t}\n\n"
+				+ "\tpublic int getPrice() {\n\t\treturn price;\n\t}\n\n"
+				+ "\tpublic boolean isReduced() {\n\t\treturn reduced;\n\t}\n}\n");
+		writeFile("Coupon.java", "public class Coupon {\n\tprivate final int value;\n\n"
+				+ "\tpublic Coupon(int value) {\n\t\tthis.value = value;\n\t}\n\n"
+				+ "\tpublic int apply(int total) {\n\t\treturn Math.max(0, total - value);\n\t}\n}\n");
+		Files.delete(project.resolve(SOURCE_DIR + "Order.java"));
+		List<DiffEntry> diffs = computeDiffs(commit("New version"));
+
+		Resource incremental = JavaParserAndPropagatorUtils.parseJavaCodeIncrementallyIntoOneModel(project,
+				tempDir.resolve("incremental.javaxmi"), tempDir.resolve("incremental.properties"), previousModel,
+				diffs);
+		assertNotNull(incremental, "The code must be parsed incrementally.");
+		Map<String, CompilationUnit> incrementalUnits = getUnits(incremental);
+		Map<String, CompilationUnit> completeUnits = getUnits(parse("complete"));
+
+		assertEquals(Set.of("Cart", "Catalog", "Checkout", "Coupon", "Item", "Shipping"), completeUnits.keySet());
+		assertEquals(completeUnits.keySet(), incrementalUnits.keySet());
+		for (var entry : completeUnits.entrySet()) {
+			assertTrue(EcoreUtil.equals(entry.getValue(), incrementalUnits.get(entry.getKey())),
+					"The models of " + entry.getKey() + " differ.");
+		}
+		// The unchanged models are taken over, and their references are redirected to
+		// the newly parsed models.
+		assertSame(previousUnits.get("Cart"), incrementalUnits.get("Cart"));
+		assertNotSame(previousUnits.get("Item"), incrementalUnits.get("Item"));
+		for (CompilationUnit unit : incrementalUnits.values()) {
+			for (EObject target : getReferencedRoots(unit)) {
+				assertTrue(target != previousUnits.get("Item") && target != previousUnits.get("Order"),
+						unit.getName() + " references a replaced model.");
+			}
+		}
+		assertTrue(getReferencedRoots(incrementalUnits.get("Cart")).contains(incrementalUnits.get("Item")));
+	}
+
+	@Test
+	public void testReferencesOfEarlierRoundsAreRedirected() throws Exception {
+		Map<String, CompilationUnit> previousUnits = getUnits(previousModel);
+		// Cart calls the removed method so that it is re-parsed in a second round
+		// after Checkout, which references Cart.
+		writeFile("Item.java", "public class Item {\n\tprivate final int price;\n\n"
+				+ "\tpublic Item(int price) {\n\t\tthis.price = price;\n\t}\n\n"
+				+ "\tpublic int getAmount() {\n\t\treturn price;\n\t}\n}\n");
+		writeFile("Checkout.java", "public class Checkout {\n\tpublic int checkout(Cart cart) {\n"
+				+ "\t\tint total = cart.getTotal();\n\t\treturn total;\n\t}\n}\n");
+		List<DiffEntry> diffs = computeDiffs(commit("New version"));
+
+		Resource incremental = JavaParserAndPropagatorUtils.parseJavaCodeIncrementallyIntoOneModel(project,
+				tempDir.resolve("incremental.javaxmi"), tempDir.resolve("incremental.properties"), previousModel,
+				diffs);
+		assertNotNull(incremental, "The code must be parsed incrementally.");
+		Map<String, CompilationUnit> incrementalUnits = getUnits(incremental);
+		Map<String, CompilationUnit> completeUnits = getUnits(parse("complete"));
+
+		assertEquals(completeUnits.keySet(), incrementalUnits.keySet());
+		for (var entry : completeUnits.entrySet()) {
+			assertTrue(EcoreUtil.equals(entry.getValue(), incrementalUnits.get(entry.getKey())),
+					"The models of " + entry.getKey() + " differ.");
+		}
+		assertNotSame(previousUnits.get("Cart"), incrementalUnits.get("Cart"));
+		for (CompilationUnit unit : incrementalUnits.values()) {
+			for (EObject target : getReferencedRoots(unit)) {
+				for (String name : List.of("Cart", "Checkout", "Item")) {
+					assertTrue(target != previousUnits.get(name),
+							unit.getName() + " references the replaced model of " + name + ".");
+				}
+			}
+		}
+		assertTrue(getReferencedRoots(incrementalUnits.get("Checkout")).contains(incrementalUnits.get("Cart")));
+	}
+
+	@Test
+	public void testReferencesToRenamedFileAreRedirected() throws Exception {
+		Map<String, CompilationUnit> previousUnits = getUnits(previousModel);
+		Files.delete(project.resolve(SOURCE_DIR + "Item.java"));
+		writeFile("Items.java", "class Item {\n\tprivate final int price;\n\n"
+				+ "\tpublic Item(int price) {\n\t\tthis.price = price;\n\t}\n\n"
+				+ "\tpublic int getPrice() {\n\t\treturn price;\n\t}\n}\n");
+		List<DiffEntry> diffs = computeDiffs(commit("New version"));
+		assertTrue(diffs.stream().anyMatch(d -> d.getChangeType() == DiffEntry.ChangeType.RENAME));
+
+		Resource incremental = JavaParserAndPropagatorUtils.parseJavaCodeIncrementallyIntoOneModel(project,
+				tempDir.resolve("incremental.javaxmi"), tempDir.resolve("incremental.properties"), previousModel,
+				diffs);
+		assertNotNull(incremental, "The code must be parsed incrementally.");
+		Map<String, CompilationUnit> incrementalUnits = getUnits(incremental);
+		Map<String, CompilationUnit> completeUnits = getUnits(parse("complete"));
+
+		assertEquals(completeUnits.keySet(), incrementalUnits.keySet());
+		for (var entry : completeUnits.entrySet()) {
+			assertTrue(EcoreUtil.equals(entry.getValue(), incrementalUnits.get(entry.getKey())),
+					"The models of " + entry.getKey() + " differ.");
+		}
+		// Cart is not re-parsed because its references are redirected to the model of
+		// the renamed file.
+		assertSame(previousUnits.get("Cart"), incrementalUnits.get("Cart"));
+		assertTrue(getReferencedRoots(incrementalUnits.get("Cart")).contains(incrementalUnits.get("Item")));
+		assertFalse(getReferencedRoots(incrementalUnits.get("Cart")).contains(previousUnits.get("Item")));
+	}
+
+	@Test
+	public void testReferencesToOverloadedMethodsAreRedirected() throws Exception {
+		writeFile("Item.java", "public class Item {\n"
+				+ "\tpublic int getPrice(int quantity) {\n\t\treturn quantity;\n\t}\n\n"
+				+ "\tpublic int getPrice(String currency) {\n\t\treturn currency.length();\n\t}\n}\n");
+		writeFile("Shipping.java", "public class Shipping {\n\tpublic int getCosts(Item item) {\n"
+				+ "\t\treturn item.getPrice(2) + item.getPrice(\"EUR\");\n\t}\n}\n");
+		oldCommit = commit("Overloaded version");
+		previousModel = parse("overloaded");
+		Map<String, CompilationUnit> previousUnits = getUnits(previousModel);
+		// The overloads swap their positions and the names of their parameters.
+		writeFile("Item.java", "public class Item {\n"
+				+ "\tpublic int getPrice(String code) {\n\t\treturn code.length();\n\t}\n\n"
+				+ "\tpublic int getPrice(int amount) {\n\t\treturn amount;\n\t}\n}\n");
+		List<DiffEntry> diffs = computeDiffs(commit("New version"));
+
+		Resource incremental = JavaParserAndPropagatorUtils.parseJavaCodeIncrementallyIntoOneModel(project,
+				tempDir.resolve("incremental.javaxmi"), tempDir.resolve("incremental.properties"), previousModel,
+				diffs);
+		assertNotNull(incremental, "The code must be parsed incrementally.");
+		Map<String, CompilationUnit> incrementalUnits = getUnits(incremental);
+		Map<String, CompilationUnit> completeUnits = getUnits(parse("complete"));
+
+		assertSame(previousUnits.get("Shipping"), incrementalUnits.get("Shipping"));
+		assertTrue(EcoreUtil.equals(completeUnits.get("Shipping"), incrementalUnits.get("Shipping")));
+		assertTrue(getReferencedRoots(incrementalUnits.get("Shipping")).contains(incrementalUnits.get("Item")));
+	}
+
+	@Test
+	public void testTooManyChangedFilesAreParsedCompletely() throws Exception {
+		for (String name : List.of("Catalog", "Cart", "Item", "Checkout")) {
+			Path file = project.resolve(SOURCE_DIR + name + ".java");
+			Files.writeString(file, Files.readString(file) + "\n// Changed\n");
+		}
+		List<DiffEntry> diffs = computeDiffs(commit("New version"));
+
+		assertNull(JavaParserAndPropagatorUtils.parseJavaCodeIncrementallyIntoOneModel(project,
+				tempDir.resolve("incremental.javaxmi"), tempDir.resolve("incremental.properties"), previousModel,
+				diffs));
+	}
+
+	private Resource parse(String name) {
+		Resource model = JavaParserAndPropagatorUtils.parseJavaCodeIntoOneModel(project,
+				tempDir.resolve(name + ".javaxmi"), tempDir.resolve(name + ".properties"));
+		assertNotNull(model);
+		return model;
+	}
+
+	private RevCommit commit(String message) throws GitAPIException {
+		git.add().addFilepattern(".").call();
+		git.add().setUpdate(true).addFilepattern(".").call();
+		return git.commit().setMessage(message).setAuthor("Test", "test@example.org")
+				.setCommitter("Test", "test@example.org").call();
+	}
+
+	private List<DiffEntry> computeDiffs(RevCommit newCommit) throws Exception {
+		GitRepositoryWrapper wrapper = new GitRepositoryWrapper(project.toFile());
+		wrapper.initFromRootDirectory();
+		try {
+			return wrapper.computeDiffsBetweenTwoCommits(oldCommit, newCommit, true, true);
+		} finally {
+			wrapper.closeRepository();
+		}
+	}
+
+	/**
+	 * Returns the compilation units of a model which were parsed from files by the
+	 * names of their classifiers.
+	 */
+	private static Map<String, CompilationUnit> getUnits(Resource model) {
+		Map<String, CompilationUnit> units = new TreeMap<>();
+		for (EObject root : model.getContents()) {
+			if (root instanceof CompilationUnit) {
+				CompilationUnit unit = (CompilationUnit) root;
+				if (unit.getOrigin() == Origin.FILE && !unit.getClassifiers().isEmpty()) {
+					units.put(unit.getClassifiers().get(0).getName(), unit);
+				}
+			}
+		}
+		return units;
+	}
+
+	private static Set<EObject> getReferencedRoots(CompilationUnit unit) {
+		Set<EObject> roots = new HashSet<>();
+		unit.eAllContents().forEachRemaining(obj -> obj.eCrossReferences().stream().filter(t -> !t.eIsProxy())
+				.forEach(t -> roots.add(EcoreUtil.getRootContainer(t))));
+		return roots;
+	}
+
+	private void writeFile(String name, String content) throws IOException {
+		Path file = project.resolve(SOURCE_DIR + name);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, "package org.example.shop;\n\n" + content);
+	}
+}
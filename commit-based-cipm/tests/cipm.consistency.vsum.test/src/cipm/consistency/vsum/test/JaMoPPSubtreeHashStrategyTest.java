@@ -0,0 +1,107 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.splevo.jamopp.diffing.match.JaMoPPSubtreeHashStrategy;
+
+import cipm.consistency.commitintegration.JavaParserAndPropagatorUtils;
+import cipm.consistency.commitintegration.detection.BuildFileBasedComponentDetectionStrategy;
+import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
+import cipm.consistency.commitintegration.settings.SettingKeys;
+
+/**
+ * Tests that the subtree hashes of JaMoPP models change if a reference is
+ * retargeted to another element at the same position.
+ */
+public class JaMoPPSubtreeHashStrategyTest {
+	private static final String SOURCE_DIR = "src/main/java/org/example/shop/";
+	private static final String SHIPPING = "public class Shipping {\n\tpublic int getCosts(Item item) {\n"
+			+ "\t\treturn item.getPrice(2);\n\t}\n}\n";
+	private static final String CATALOG = "public class Catalog {\n\tpublic String getTitle() {\n"
+			+ "\t\treturn \"Catalog\";\n\t}\n}\n";
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		Path settings = tempDir.resolve("settings.properties");
+		Files.writeString(settings, SettingKeys.JAVA_PARSER_THREADS + "=1\n"
+				+ SettingKeys.JAVA_PARSER_EXCLUSION_PATTERNS + "=\n");
+		CommitIntegrationSettingsContainer.initialize(settings);
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(false));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(true,
+				new BuildFileBasedComponentDetectionStrategy()));
+	}
+
+	@Test
+	public void testRetargetedReferenceChangesHash() throws IOException {
+		// The call resolves to the first method in both versions, but the first method
+		// is another overload in the second version.
+		Map<String, CompilationUnit> oldUnits = parse("old",
+				"public class Item {\n\tpublic int getPrice(int quantity) {\n\t\treturn quantity;\n\t}\n\n"
+						+ "\tpublic int getPrice(long quantity) {\n\t\treturn (int) quantity;\n\t}\n}\n");
+		Map<String, CompilationUnit> newUnits = parse("new",
+				"public class Item {\n\tpublic int getPrice(long quantity) {\n\t\treturn (int) quantity;\n\t}\n\n"
+						+ "\tpublic int getPrice(String currency) {\n\t\treturn currency.length();\n\t}\n}\n");
+
+		assertEquals(hash(oldUnits.get("Catalog")), hash(newUnits.get("Catalog")));
+		assertNotEquals(hash(oldUnits.get("Shipping")), hash(newUnits.get("Shipping")));
+	}
+
+	@Test
+	public void testUnchangedReferenceKeepsHash() throws IOException {
+		Map<String, CompilationUnit> oldUnits = parse("old",
+				"public class Item {\n\tpublic int getPrice(int quantity) {\n\t\treturn quantity;\n\t}\n}\n");
+		Map<String, CompilationUnit> newUnits = parse("new",
+				"public class Item {\n\tpublic int getPrice(int amount) {\n\t\treturn amount * 2;\n\t}\n}\n");
+
+		assertEquals(hash(oldUnits.get("Shipping")), hash(newUnits.get("Shipping")));
+	}
+
+	private Map<String, CompilationUnit> parse(String name, String item) throws IOException {
+		Path project = tempDir.resolve(name);
+		writeFile(project, "Item.java", item);
+		writeFile(project, "Shipping.java", SHIPPING);
+		writeFile(project, "Catalog.java", CATALOG);
+		Resource all = JavaParserAndPropagatorUtils.parseJavaCodeIntoOneModel(project,
+				tempDir.resolve(name + ".javaxmi"), tempDir.resolve(name + ".properties"));
+		assertNotNull(all);
+		Map<String, CompilationUnit> units = new TreeMap<>();
+		for (EObject root : all.getContents()) {
+			if (root instanceof CompilationUnit && !((CompilationUnit) root).getClassifiers().isEmpty()) {
+				units.put(((CompilationUnit) root).getClassifiers().get(0).getName(), (CompilationUnit) root);
+			}
+		}
+		return units;
+	}
+
+	private static Object hash(CompilationUnit unit) {
+		assertNotNull(unit);
+		return new JaMoPPSubtreeHashStrategy().getSubtreeHash(unit.getClassifiers().get(0));
+	}
+
+	private static void writeFile(Path project, String name, String content) throws IOException {
+		Path file = project.resolve(SOURCE_DIR + name);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, "package org.example.shop;\n\n" + content);
+	}
+}
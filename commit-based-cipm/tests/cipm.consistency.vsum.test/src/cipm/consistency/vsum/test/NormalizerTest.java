@@ -0,0 +1,96 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.splevo.diffing.util.NormalizationUtil;
+import org.splevo.diffing.util.Normalizer;
+
+/**
+ * Tests that the normalizer, which applies the wildcard rules with string
+ * operations, produces the same results as the regular expressions.
+ */
+public class NormalizerTest {
+	private static final List<String> NAMES = List.of("", "Item", "ItemImpl", "ImplItemImpl", "ItemImplImpl",
+			"TestItem", "TesttttItem", "ItemTest", "MyTestItemTest", "Tes", "Impl", "DefaultItemImplTest",
+			"Item\nImpl", "Test\rItem", "TestItem\u2028Impl", "Item\u0085ImplTest", "\u00c4_Test\u00d6Impl", "impl",
+			"test");
+
+	@Test
+	public void testRemoveRulesEqualRegularExpressions() {
+		assertSameResults(NormalizationUtil.loadRemoveNormalizations(join("*Impl", "Test*", "Default*"), null));
+	}
+
+	@Test
+	public void testRulesWithSuffixEqualRegularExpressions() {
+		Map<Pattern, String> normalizations = NormalizationUtil.loadRemoveNormalizations(join("*Impl", "Test*"),
+				".java");
+		assertSameResults(normalizations, "ItemImpl.java", "TestItem.java", "TestItemImpl.java", "Item.java");
+	}
+
+	@Test
+	public void testRulesWithoutFastPathEqualRegularExpressions() {
+		Map<Pattern, String> normalizations = NormalizationUtil.loadRemoveNormalizations(join("I*", "*Im.pl", "T*"),
+				null);
+		normalizations.put(Pattern.compile("(.*)impl", Pattern.CASE_INSENSITIVE), "$1");
+		normalizations.put(Pattern.compile("Item"), "Element");
+		assertSameResults(normalizations);
+	}
+
+	@Test
+	public void testRandomNamesEqualRegularExpressions() {
+		Map<Pattern, String> normalizations = NormalizationUtil.loadRemoveNormalizations(
+				join("*Impl", "Test*", "*Mock", "Ab*"), null);
+		String alphabet = "ImplTestMockAb_x\n";
+		Random random = new Random(42);
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder name = new StringBuilder();
+			int length = random.nextInt(16);
+			for (int j = 0; j < length; j++) {
+				name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			names.add(name.toString());
+		}
+		assertSameResults(normalizations, names.toArray(new String[0]));
+	}
+
+	@Test
+	public void testResultsAreStableWithSmallCache() {
+		Map<Pattern, String> normalizations = NormalizationUtil.loadRemoveNormalizations(join("*Impl", "Test*"),
+				null);
+		Normalizer normalizer = new Normalizer(normalizations, 2);
+		for (int round = 0; round < 3; round++) {
+			for (String name : NAMES) {
+				assertEquals(NormalizationUtil.normalize(name, normalizations), normalizer.normalize(name), name);
+			}
+		}
+	}
+
+	@Test
+	public void testNullAndNoRules() {
+		assertEquals("", new Normalizer(new LinkedHashMap<>()).normalize(null));
+		assertEquals("ItemImpl", new Normalizer(new LinkedHashMap<>()).normalize("ItemImpl"));
+		assertEquals("", new Normalizer(NormalizationUtil.loadRemoveNormalizations("*Impl", null)).normalize(null));
+	}
+
+	private static void assertSameResults(Map<Pattern, String> normalizations, String... additionalNames) {
+		Normalizer normalizer = new Normalizer(normalizations);
+		List<String> names = new ArrayList<>(NAMES);
+		names.addAll(List.of(additionalNames));
+		for (String name : names) {
+			assertEquals(NormalizationUtil.normalize(name, normalizations), normalizer.normalize(name), name);
+		}
+	}
+
+	private static String join(String... entries) {
+		return String.join(System.lineSeparator(), entries);
+	}
+}
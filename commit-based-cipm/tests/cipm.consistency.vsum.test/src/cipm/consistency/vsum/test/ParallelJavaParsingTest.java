@@ -0,0 +1,132 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.emftext.language.java.containers.CompilationUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cipm.consistency.commitintegration.JavaParserAndPropagatorUtils;
+import cipm.consistency.commitintegration.detection.BuildFileBasedComponentDetectionStrategy;
+import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
+import cipm.consistency.commitintegration.settings.SettingKeys;
+
+/**
+ * Tests that the parallel parsing of Java code results in the same models as
+ * the sequential parsing.
+ */
+public class ParallelJavaParsingTest {
+	@TempDir
+	Path tempDir;
+	private Path project;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		project = tempDir.resolve("project");
+		writeFile("src/main/java/org/example/shop/Item.java", "package org.example.shop;\n\n"
+				+ "public class Item {\n\tprivate final String name;\n\tprivate final int price;\n\n"
+				+ "\tpublic Item(String name, int price) {\n\t\tthis.name = name;\n\t\tthis.price = price;\n\t}\n\n"
+				+ "\tpublic String getName() {\n\t\treturn name;\n\t}\n\n"
+				+ "\tpublic int getPrice() {\n\t\treturn price;\n\t}\n}\n");
+		writeFile("src/main/java/org/example/shop/Cart.java", "package org.example.shop;\n\n"
+				+ "import java.util.ArrayList;\nimport java.util.List;\n\n"
+				+ "public class Cart {\n\tprivate final List<Item> items = new ArrayList<>();\n\n"
+				+ "\tpublic void add(Item item) {\n\t\titems.add(item);\n\t}\n\n"
+				+ "\tpublic int getTotal() {\n\t\tint total = 0;\n\t\tfor (Item item : items) {\n"
+				+ "\t\t\ttotal += item.getPrice();\n\t\t}\n\t\treturn total;\n\t}\n}\n");
+		writeFile("src/main/java/org/example/shop/service/CheckoutService.java",
+				"package org.example.shop.service;\n\n"
+				+ "import org.example.shop.Cart;\nimport org.example.shop.Item;\n\n"
+				+ "public class CheckoutService {\n\tprivate final Cart cart = new Cart();\n\n"
+				+ "\tpublic int checkout(Item... items) {\n\t\tfor (Item item : items) {\n"
+				+ "\t\t\tcart.add(item);\n\t\t}\n\t\treturn cart.getTotal();\n\t}\n}\n");
+		writeFile("src/main/java/org/example/shop/service/Discount.java",
+				"package org.example.shop.service;\n\n"
+				+ "public interface Discount {\n\tint apply(int total);\n\n"
+				+ "\tstatic Discount none() {\n\t\treturn total -> total;\n\t}\n}\n");
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(false));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(true,
+				new BuildFileBasedComponentDetectionStrategy()));
+	}
+
+	@Test
+	public void testParallelParsingEqualsSequentialParsing() throws IOException {
+		Map<String, CompilationUnit> sequential = parse(1);
+		Map<String, CompilationUnit> parallel = parse(3);
+
+		assertEquals(4, sequential.size());
+		assertEquals(sequential.keySet(), parallel.keySet());
+		for (var entry : sequential.entrySet()) {
+			assertTrue(EcoreUtil.equals(entry.getValue(), parallel.get(entry.getKey())),
+					"The models of " + entry.getKey() + " differ.");
+		}
+	}
+
+	@Test
+	public void testParallelParserParsesAllFiles() throws IOException {
+		initializeSettings(3);
+
+		ResourceSet parsed = JavaParserAndPropagatorUtils.parseJavaCodeInBackground(project);
+
+		// The complete parsing falls back to the sequential parsing if the parallel
+		// parsing fails. Without the fallback, all files must be parsed.
+		assertNotNull(parsed, "The Java code must be parsed in parallel.");
+		assertEquals(4, parsed.getResources().size());
+		parsed.getResources().forEach(Resource::unload);
+	}
+
+	@Test
+	public void testParallelParsingRequiresUnresolvedReferences() throws IOException {
+		initializeSettings(3);
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(true,
+				new BuildFileBasedComponentDetectionStrategy()));
+
+		assertNull(JavaParserAndPropagatorUtils.parseJavaCodeInBackground(project));
+	}
+
+	private void initializeSettings(int threads) throws IOException {
+		Path settings = tempDir.resolve("settings-" + threads + ".properties");
+		Files.writeString(settings, SettingKeys.JAVA_PARSER_THREADS + "=" + threads + "\n"
+				+ SettingKeys.JAVA_PARSER_EXCLUSION_PATTERNS + "=\n");
+		CommitIntegrationSettingsContainer.initialize(settings);
+	}
+
+	private Map<String, CompilationUnit> parse(int threads) throws IOException {
+		initializeSettings(threads);
+		Resource all = JavaParserAndPropagatorUtils.parseJavaCodeIntoOneModel(project,
+				tempDir.resolve("Java-" + threads + ".javaxmi"), tempDir.resolve("modules-" + threads + ".properties"));
+		assertNotNull(all);
+		Map<String, CompilationUnit> units = new TreeMap<>();
+		for (EObject root : all.getContents()) {
+			if (root instanceof CompilationUnit) {
+				units.put(((CompilationUnit) root).getName(), (CompilationUnit) root);
+			}
+		}
+		return units;
+	}
+
+	private void writeFile(String path, String content) throws IOException {
+		Path file = project.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+}
@@ -0,0 +1,141 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.splevo.diffing.match.ResourcePathIndex;
+
+/**
+ * Tests the index of resources by their file names and directory paths.
+ */
+public class ResourcePathIndexTest {
+	private static final String ITEM = "Item.java";
+	private static final String CART = "Cart.java";
+	private static final String[] SHOP = { "shop", "example", "org" };
+	private ResourcePathIndex index;
+	private Resource shopItem;
+	private Resource comShopItem;
+	private Resource modelItem;
+	private Resource shopCart;
+
+	@BeforeEach
+	public void setUp() {
+		index = new ResourcePathIndex();
+		shopItem = createResource("org/example/shop/Item.java");
+		comShopItem = createResource("com/example/shop/Item.java");
+		modelItem = createResource("org/example/model/Item.java");
+		shopCart = createResource("org/example/shop/Cart.java");
+		index.add(shopItem, SHOP, List.of(ITEM));
+		index.add(comShopItem, new String[] { "shop", "example", "com" }, List.of(ITEM));
+		index.add(modelItem, new String[] { "model", "example", "org" }, List.of(ITEM));
+		index.add(shopCart, SHOP, List.of(CART));
+	}
+
+	@Test
+	public void testAdd() {
+		assertEquals(List.of(ITEM, CART), index.getKeys());
+		assertEquals(List.of(shopItem, comShopItem, modelItem), index.get(ITEM));
+		assertEquals(List.of(shopCart), index.get(CART));
+		assertEquals(List.of(), index.get("Checkout.java"));
+		assertEquals(List.of(shopItem, comShopItem, modelItem, shopCart), List.copyOf(index.getAll()));
+		assertArrayEquals(SHOP, index.getReversedPath(shopItem));
+	}
+
+	@Test
+	public void testAddTwiceIsIgnored() {
+		index.add(shopItem, new String[] { "other" }, List.of(ITEM, CART));
+
+		assertEquals(List.of(shopItem, comShopItem, modelItem), index.get(ITEM));
+		assertEquals(List.of(shopCart), index.get(CART));
+		assertArrayEquals(SHOP, index.getReversedPath(shopItem));
+	}
+
+	@Test
+	public void testLongestSuffixMatches() {
+		assertMatches(List.of(shopItem), 3, ITEM, "shop", "example", "org", "java", "main", "src");
+		assertMatches(List.of(shopItem, comShopItem), 2, ITEM, "shop", "example", "net");
+		assertMatches(List.of(modelItem), 1, ITEM, "model");
+		assertMatches(List.of(shopItem, comShopItem, modelItem), 0, ITEM, "util");
+		assertMatches(List.of(shopItem, comShopItem, modelItem), 0, ITEM);
+		assertMatches(List.of(), 0, "Checkout.java", "shop", "example", "org");
+	}
+
+	@Test
+	public void testRemove() {
+		index.remove(shopItem);
+
+		assertNull(index.getReversedPath(shopItem));
+		assertEquals(List.of(comShopItem, modelItem), index.get(ITEM));
+		assertMatches(List.of(comShopItem), 2, ITEM, SHOP);
+		assertMatches(List.of(shopCart), 3, CART, SHOP);
+
+		index.remove(shopCart);
+		assertEquals(List.of(ITEM), index.getKeys());
+		assertMatches(List.of(), 0, CART, SHOP);
+
+		index.remove(comShopItem);
+		index.remove(modelItem);
+		assertTrue(index.getKeys().isEmpty());
+		assertTrue(index.getAll().isEmpty());
+	}
+
+	@Test
+	public void testRemoveUnknownResource() {
+		index.remove(createResource("org/example/shop/Checkout.java"));
+
+		assertEquals(List.of(ITEM, CART), index.getKeys());
+		assertEquals(4, index.getAll().size());
+	}
+
+	@Test
+	public void testRemoveResourceWithSeveralKeys() {
+		Resource resource = createResource("org/example/shop/Order.java");
+		index.add(resource, SHOP, List.of("Order.java", ITEM, ITEM));
+		assertEquals(List.of(shopItem, comShopItem, modelItem, resource), index.get(ITEM));
+		assertMatches(List.of(shopItem, resource), 3, ITEM, SHOP);
+
+		index.remove(resource);
+
+		assertEquals(List.of(ITEM, CART), index.getKeys());
+		assertMatches(List.of(shopItem), 3, ITEM, SHOP);
+		assertEquals(Set.of(shopItem, comShopItem, modelItem, shopCart), index.getAll());
+	}
+
+	@Test
+	public void testOrderIsKeptAfterRemovalAndAddition() {
+		index.remove(shopItem);
+		index.add(shopItem, SHOP, List.of(ITEM));
+
+		assertEquals(List.of(comShopItem, modelItem, shopItem), index.get(ITEM));
+		assertMatches(List.of(comShopItem, shopItem), 2, ITEM, "shop", "example");
+	}
+
+	@Test
+	public void testClear() {
+		index.clear();
+
+		assertTrue(index.getKeys().isEmpty());
+		assertTrue(index.getAll().isEmpty());
+		assertNull(index.getReversedPath(shopItem));
+		assertMatches(List.of(), 0, ITEM, SHOP);
+	}
+
+	private void assertMatches(List<Resource> expected, int expectedLength, String key, String... reversedPath) {
+		assertEquals(expected, index.getLongestSuffixMatches(key, reversedPath));
+		assertEquals(expectedLength, index.getLongestSuffixLength(key, reversedPath));
+	}
+
+	private static Resource createResource(String path) {
+		return new ResourceImpl(URI.createURI("platform:/resource/project/" + path));
+	}
+}
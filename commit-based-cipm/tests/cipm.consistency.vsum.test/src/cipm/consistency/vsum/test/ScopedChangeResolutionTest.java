@@ -0,0 +1,148 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cipm.consistency.commitintegration.JavaParserAndPropagatorUtils;
+import cipm.consistency.commitintegration.detection.BuildFileBasedComponentDetectionStrategy;
+import cipm.consistency.commitintegration.settings.CommitIntegrationSettingsContainer;
+import cipm.consistency.commitintegration.settings.SettingKeys;
+import cipm.consistency.domains.java.propagation.JavaChangeResolutionContext;
+import cipm.consistency.domains.java.propagation.JavaStateBasedChangeResolutionStrategy;
+
+/**
+ * Tests that the scoped change resolution results in the same changes as the
+ * resolution of the complete states for a commit which changes multiple files.
+ */
+public class ScopedChangeResolutionTest {
+	private static final String SOURCE_DIR = "src/main/java/org/example/shop/";
+	@TempDir
+	Path tempDir;
+	private Path oldProject;
+	private Path newProject;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		oldProject = tempDir.resolve("old");
+		newProject = tempDir.resolve("new");
+		for (Path project : List.of(oldProject, newProject)) {
+			writeFile(project, "Catalog.java", "package org.example.shop;\n\n"
+					+ "public class Catalog {\n\tpublic String getTitle() {\n\t\treturn \"Catalog\";\n\t}\n}\n");
+			writeFile(project, "Cart.java", "package org.example.shop;\n\n"
+					+ "import java.util.ArrayList;\nimport java.util.List;\n\n"
+					+ "public class Cart {\n\tprivate final List<Item> items = new ArrayList<>();\n\n"
+					+ "\tpublic void add(Item item) {\n\t\titems.add(item);\n\t}\n\n"
+					+ "\tpublic int getTotal() {\n\t\tint total = 0;\n\t\tfor (Item item : items) {\n"
+					+ "\t\t\ttotal += item.getPrice();\n\t\t}\n\t\treturn total;\n\t}\n}\n");
+		}
+		writeFile(oldProject, "Item.java", "package org.example.shop;\n\n"
+				+ "public class Item {\n\tprivate final int price;\n\n"
+				+ "\tpublic Item(int price) {\n\t\tthis.price = price;\n\t}\n\n"
+				+ "\tpublic int getPrice() {\n\t\treturn price;\n\t}\n}\n");
+		writeFile(oldProject, "Checkout.java", "package org.example.shop;\n\n"
+				+ "public class Checkout {\n\tpublic int checkout(Cart cart) {\n\t\treturn cart.getTotal();\n\t}\n}\n");
+		writeFile(newProject, "Item.java", "package org.example.shop;\n\n"
+				+ "public class Item {\n\tprivate final int price;\n\tprivate final boolean reduced;\n\n"
+				+ "\tpublic Item(int price, boolean reduced) {\n\t\tthis.price = price;\n"
+				+ "\t\tthis.reduced = reduced;\n\t}\n\n"
+				+ "\tpublic int getPrice() {\n\t\treturn price;\n\t}\n\n"
+				+ "\tpublic boolean isReduced() {\n\t\treturn reduced;\n\t}\n}\n");
+		writeFile(newProject, "Checkout.java", "package org.example.shop;\n\n"
+				+ "public class Checkout {\n\tprivate final Coupon coupon = new Coupon(5);\n\n"
+				+ "\tpublic int checkout(Cart cart) {\n\t\treturn coupon.apply(cart.getTotal());\n\t}\n}\n");
+		writeFile(newProject, "Coupon.java", "package org.example.shop;\n\n"
+				+ "public class Coupon {\n\tprivate final int value;\n\n"
+				+ "\tpublic Coupon(int value) {\n\t\tthis.value = value;\n\t}\n\n"
+				+ "\tpublic int apply(int total) {\n\t\treturn Math.max(0, total - value);\n\t}\n}\n");
+
+		Path settings = tempDir.resolve("settings.properties");
+		Files.writeString(settings, SettingKeys.JAVA_PARSER_THREADS + "=1\n"
+				+ SettingKeys.JAVA_PARSER_EXCLUSION_PATTERNS + "=\n");
+		CommitIntegrationSettingsContainer.initialize(settings);
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(false));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		JavaParserAndPropagatorUtils.setConfiguration(new JavaParserAndPropagatorUtils.Configuration(true,
+				new BuildFileBasedComponentDetectionStrategy()));
+	}
+
+	@Test
+	public void testScopedResolutionEqualsCompleteResolution() throws IOException {
+		List<String> complete = resolveChanges(null);
+		JavaChangeResolutionContext context = new JavaChangeResolutionContext();
+		context.setChangedFiles(List.of(SOURCE_DIR + "Item.java", SOURCE_DIR + "Checkout.java",
+				SOURCE_DIR + "Coupon.java"));
+		List<String> scoped = resolveChanges(context);
+
+		assertFalse(complete.isEmpty());
+		assertEquals(count(complete), count(scoped));
+	}
+
+	/**
+	 * Parses both states and resolves the changes between them. Both states are
+	 * parsed for each resolution so that no resolution sees a state modified by
+	 * another one.
+	 */
+	private List<String> resolveChanges(JavaChangeResolutionContext context) throws IOException {
+		String suffix = context == null ? "complete" : "scoped";
+		Resource oldState = parse(oldProject, "old-" + suffix);
+		Resource newState = parse(newProject, "new-" + suffix);
+		List<String> changes = new ArrayList<>();
+		var strategy = new JavaStateBasedChangeResolutionStrategy();
+		strategy.runWithContext(context, () -> strategy.getChangeSequenceBetween(newState, oldState).getEChanges()
+				.forEach(change -> changes.add(describe(change))));
+		return changes;
+	}
+
+	private Resource parse(Path project, String name) throws IOException {
+		Resource state = JavaParserAndPropagatorUtils.parseJavaCodeIntoOneModel(project,
+				tempDir.resolve(name + ".javaxmi"), tempDir.resolve(name + ".properties"));
+		assertNotNull(state);
+		return state;
+	}
+
+	/**
+	 * Describes a change by its type and affected feature, which do not depend on
+	 * the copies of the old state created during the resolution.
+	 */
+	private static String describe(EObject change) {
+		StringBuilder description = new StringBuilder(change.eClass().getName());
+		EStructuralFeature affectedFeature = change.eClass().getEStructuralFeature("affectedFeature");
+		if (affectedFeature != null && change.eGet(affectedFeature) instanceof ENamedElement) {
+			description.append(':').append(((ENamedElement) change.eGet(affectedFeature)).getName());
+		}
+		return description.toString();
+	}
+
+	private static Map<String, Integer> count(List<String> changes) {
+		Map<String, Integer> counts = new TreeMap<>();
+		changes.forEach(change -> counts.merge(change, 1, Integer::sum));
+		return counts;
+	}
+
+	private static void writeFile(Path project, String name, String content) throws IOException {
+		Path file = project.resolve(SOURCE_DIR + name);
+		Files.createDirectories(file.getParent());
+		Files.writeString(file, content);
+	}
+}
@@ -0,0 +1,170 @@
+package cipm.consistency.vsum.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import cipm.consistency.commitintegration.ScriptResult;
+import cipm.consistency.commitintegration.ScriptRunner;
+
+/**
+ * Tests the execution of scripts with timeouts, the limitation of their output,
+ * and the caching of their results.
+ */
+@DisabledOnOs(OS.WINDOWS)
+public class ScriptRunnerTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testSuccessfulScript() throws IOException {
+		String script = writeScript("echo hello\n");
+
+		ScriptResult result = new ScriptRunner(Duration.ofSeconds(30), ScriptRunner.DEFAULT_OUTPUT_LIMIT)
+				.run(tempDir.toFile(), script);
+
+		assertEquals(ScriptResult.Status.SUCCESS, result.getStatus());
+		assertEquals(0, result.getExitCode());
+		assertEquals("hello\n", result.getOutput());
+		assertFalse(result.isOutputTruncated());
+		assertFalse(result.isCached());
+	}
+
+	@Test
+	public void testFailingScript() throws IOException {
+		String script = writeScript("echo failed >&2\nexit 3\n");
+
+		ScriptResult result = new ScriptRunner(null, ScriptRunner.DEFAULT_OUTPUT_LIMIT).run(tempDir.toFile(), script);
+
+		assertEquals(ScriptResult.Status.FAILURE, result.getStatus());
+		assertEquals(3, result.getExitCode());
+		assertEquals("failed\n", result.getOutput());
+	}
+
+	@Test
+	public void testMissingScript() {
+		ScriptResult result = new ScriptRunner(null, ScriptRunner.DEFAULT_OUTPUT_LIMIT).run(tempDir.toFile(),
+				tempDir.resolve("missing.sh").toString());
+
+		assertEquals(ScriptResult.Status.NOT_STARTED, result.getStatus());
+		assertFalse(result.isSuccessful());
+	}
+
+	@Test
+	public void testTimeoutDestroysScriptAndChildProcesses() throws Exception {
+		String script = writeScript("sleep 60 &\necho $! > child.pid\necho started\nwait\n");
+
+		long start = System.currentTimeMillis();
+		ScriptResult result = new ScriptRunner(Duration.ofMillis(1000), ScriptRunner.DEFAULT_OUTPUT_LIMIT)
+				.run(tempDir.toFile(), script);
+
+		assertEquals(ScriptResult.Status.TIMEOUT, result.getStatus());
+		assertEquals(-1, result.getExitCode());
+		assertEquals("started\n", result.getOutput());
+		assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(30));
+		long childPid = Long.parseLong(Files.readString(tempDir.resolve("child.pid")).trim());
+		Optional<ProcessHandle> child = ProcessHandle.of(childPid);
+		if (child.isPresent()) {
+			child.get().onExit().get(10, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void testOutputKeepsEnd() throws IOException {
+		String script = writeScript("i=0\nwhile [ $i -lt 5000 ]; do\n\ti=$((i + 1))\n\techo \"line $i\"\ndone\n");
+
+		ScriptResult result = new ScriptRunner(null, 100).run(tempDir.toFile(), script);
+
+		assertEquals(ScriptResult.Status.SUCCESS, result.getStatus());
+		assertTrue(result.isOutputTruncated());
+		assertEquals(100, result.getOutput().length());
+		assertTrue(result.getOutput().endsWith("line 4999\nline 5000\n"));
+	}
+
+	@Test
+	public void testCachedResultRestoresOutputs() throws IOException {
+		Path cache = tempDir.resolve("cache");
+		Path work = Files.createDirectories(tempDir.resolve("work"));
+		Files.writeString(work.resolve("input.txt"), "first");
+		String script = writeScript("echo run >> runs.txt\nmkdir -p out\ncat input.txt > out/result.txt\necho done\n");
+		ScriptRunner runner = new ScriptRunner(null, ScriptRunner.DEFAULT_OUTPUT_LIMIT);
+		runner.setResultCache(cache, List.of("input.txt"), List.of("out"));
+
+		ScriptResult first = runner.run(work.toFile(), script);
+		assertEquals(ScriptResult.Status.SUCCESS, first.getStatus());
+		assertFalse(first.isCached());
+		assertEquals(1, countRuns(work));
+
+		FileUtils.deleteDirectory(work.resolve("out").toFile());
+		ScriptResult second = runner.run(work.toFile(), script);
+		assertEquals(ScriptResult.Status.SUCCESS, second.getStatus());
+		assertTrue(second.isCached());
+		assertEquals("done\n", second.getOutput());
+		assertEquals("first", Files.readString(work.resolve("out/result.txt")));
+		assertEquals(1, countRuns(work));
+
+		Files.writeString(work.resolve("input.txt"), "second");
+		ScriptResult third = runner.run(work.toFile(), script);
+		assertFalse(third.isCached());
+		assertEquals("second", Files.readString(work.resolve("out/result.txt")));
+		assertEquals(2, countRuns(work));
+	}
+
+	@Test
+	public void testChangedScriptIsNotCached() throws IOException {
+		Path work = Files.createDirectories(tempDir.resolve("work"));
+		Files.writeString(work.resolve("input.txt"), "input");
+		ScriptRunner runner = new ScriptRunner(null, ScriptRunner.DEFAULT_OUTPUT_LIMIT);
+		runner.setResultCache(tempDir.resolve("cache"), List.of("input.txt"), List.of());
+
+		String script = writeScript("echo run >> runs.txt\necho first\n");
+		assertFalse(runner.run(work.toFile(), script).isCached());
+		writeScript("echo run >> runs.txt\necho second\n");
+		ScriptResult result = runner.run(work.toFile(), script);
+
+		assertFalse(result.isCached());
+		assertEquals("second\n", result.getOutput());
+		assertEquals(2, countRuns(work));
+	}
+
+	@Test
+	public void testFailedResultIsNotCached() throws IOException {
+		Path work = Files.createDirectories(tempDir.resolve("work"));
+		Files.writeString(work.resolve("input.txt"), "input");
+		String script = writeScript("echo run >> runs.txt\nexit 1\n");
+		ScriptRunner runner = new ScriptRunner(null, ScriptRunner.DEFAULT_OUTPUT_LIMIT);
+		runner.setResultCache(tempDir.resolve("cache"), List.of("input.txt"), List.of());
+
+		assertEquals(ScriptResult.Status.FAILURE, runner.run(work.toFile(), script).getStatus());
+		ScriptResult result = runner.run(work.toFile(), script);
+
+		assertEquals(ScriptResult.Status.FAILURE, result.getStatus());
+		assertFalse(result.isCached());
+		assertEquals(2, countRuns(work));
+	}
+
+	private String writeScript(String content) throws IOException {
+		Path script = tempDir.resolve("script.sh");
+		Files.writeString(script, "#!/bin/sh\n" + content);
+		script.toFile().setExecutable(true);
+		return script.toString();
+	}
+
+	private static int countRuns(Path work) throws IOException {
+		return Files.readAllLines(work.resolve("runs.txt")).size();
+	}
+}